@@ -0,0 +1,204 @@
+package game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds the room adjacency graph of a mansion by sweeping over shared room edges.
+ *
+ * <p>Two rooms are neighbors when one starts on the row (or column) right after the other one
+ * ends and their column (or row) ranges overlap, exactly as {@link Room#isNeighbor} defines it.
+ * Rooms are grouped by the row or column they touch and each group is swept in order of range
+ * start, so the whole build runs in O(n log n + e) for n rooms and e neighbor pairs instead of
+ * comparing every pair of rooms.
+ */
+public final class AdjacencyBuilder {
+  private static final long SIDE_BIT = 1L << 31;
+  private static final int INDEX_MASK = 0x7FFFFFFF;
+
+  private final int count;
+  private final int[] rowStart;
+  private final int[] colStart;
+  private final int[] rowEnd;
+  private final int[] colEnd;
+  private int[] edges;
+  private int edgeCount;
+
+  private AdjacencyBuilder(List<Iroom> rooms) {
+    this.count = rooms.size();
+    this.rowStart = new int[count];
+    this.colStart = new int[count];
+    this.rowEnd = new int[count];
+    this.colEnd = new int[count];
+    for (int i = 0; i < count; i++) {
+      Iroom room = rooms.get(i);
+      rowStart[i] = room.getCoordinates().getFirst();
+      colStart[i] = room.getCoordinates().getSecond();
+      rowEnd[i] = room.getEndingCoordinates().getFirst();
+      colEnd[i] = room.getEndingCoordinates().getSecond();
+    }
+    this.edges = new int[Math.max(16, count * 8)];
+    this.edgeCount = 0;
+  }
+
+  /**
+   * Builds the adjacency graph of the specified rooms.
+   *
+   * @param rooms the rooms of the mansion, in index order
+   * @return the adjacency graph of the rooms
+   */
+  public static RoomGraph build(List<Iroom> rooms) {
+    AdjacencyBuilder builder = new AdjacencyBuilder(rooms);
+    // Rooms touching along a row boundary, then along a column boundary
+    builder.sweep(builder.rowStart, builder.rowEnd, builder.colStart, builder.colEnd);
+    builder.sweep(builder.colStart, builder.colEnd, builder.rowStart, builder.rowEnd);
+    return builder.toGraph(rooms);
+  }
+
+  /**
+   * Finds every pair of rooms where one starts right after the other ends along the first axis
+   * and their ranges overlap along the second axis.
+   */
+  private void sweep(int[] start, int[] end, int[] spanStart, int[] spanEnd) {
+    long[] byStart = new long[count];
+    long[] byNext = new long[count];
+    for (int i = 0; i < count; i++) {
+      byStart[i] = pack(start[i], i);
+      byNext[i] = pack(end[i] + 1, i);
+    }
+    Arrays.sort(byStart);
+    Arrays.sort(byNext);
+
+    int a = 0;
+    int b = 0;
+    while (a < count && b < count) {
+      int keyA = (int) (byStart[a] >> 32);
+      int keyB = (int) (byNext[b] >> 32);
+      if (keyA < keyB) {
+        a++;
+      } else if (keyB < keyA) {
+        b++;
+      } else {
+        int groupA = a;
+        while (groupA < count && (int) (byStart[groupA] >> 32) == keyA) {
+          groupA++;
+        }
+        int groupB = b;
+        while (groupB < count && (int) (byNext[groupB] >> 32) == keyB) {
+          groupB++;
+        }
+        sweepGroup(byStart, a, groupA, byNext, b, groupB, spanStart, spanEnd);
+        a = groupA;
+        b = groupB;
+      }
+    }
+  }
+
+  /**
+   * Pairs the rooms starting on one boundary with the rooms ending just before it whose ranges
+   * overlap, sweeping both groups in order of range start.
+   */
+  private void sweepGroup(long[] first, int firstFrom, int firstTo,
+      long[] second, int secondFrom, int secondTo, int[] spanStart, int[] spanEnd) {
+    int size = (firstTo - firstFrom) + (secondTo - secondFrom);
+    long[] events = new long[size];
+    int eventCount = 0;
+    for (int k = firstFrom; k < firstTo; k++) {
+      eventCount = addEvent(events, eventCount, (int) first[k], 0,
+          second, secondFrom, secondTo, spanStart, spanEnd);
+    }
+    for (int k = secondFrom; k < secondTo; k++) {
+      eventCount = addEvent(events, eventCount, (int) second[k], 1,
+          first, firstFrom, firstTo, spanStart, spanEnd);
+    }
+    Arrays.sort(events, 0, eventCount);
+
+    int[][] active = {new int[eventCount], new int[eventCount]};
+    int[] activeCount = new int[2];
+    for (int k = 0; k < eventCount; k++) {
+      int room = (int) events[k] & INDEX_MASK;
+      int side = (events[k] & SIDE_BIT) != 0 ? 1 : 0;
+      int other = 1 - side;
+      int[] candidates = active[other];
+      int kept = 0;
+      for (int m = 0; m < activeCount[other]; m++) {
+        int candidate = candidates[m];
+        if (spanEnd[candidate] >= spanStart[room]) {
+          candidates[kept++] = candidate;
+          addPair(room, candidate);
+        }
+      }
+      activeCount[other] = kept;
+      active[side][activeCount[side]++] = room;
+    }
+  }
+
+  /**
+   * Queues a well-formed range for the sweep, or compares a reversed range directly against
+   * every room on the other side since the sweep relies on ranges with start before end.
+   */
+  private int addEvent(long[] events, int eventCount, int room, int side,
+      long[] others, int othersFrom, int othersTo, int[] spanStart, int[] spanEnd) {
+    if (spanStart[room] <= spanEnd[room]) {
+      events[eventCount] = ((long) spanStart[room] << 32) | (side == 1 ? SIDE_BIT : 0) | room;
+      return eventCount + 1;
+    }
+    for (int k = othersFrom; k < othersTo; k++) {
+      int other = (int) others[k];
+      boolean otherReversed = spanStart[other] > spanEnd[other];
+      // A pair of reversed ranges is only compared from the first side
+      if ((!otherReversed || side == 0)
+          && spanStart[room] <= spanEnd[other] && spanEnd[room] >= spanStart[other]) {
+        addPair(room, other);
+      }
+    }
+    return eventCount;
+  }
+
+  private void addPair(int room, int other) {
+    if (room == other) {
+      return;
+    }
+    if (edgeCount + 2 > edges.length) {
+      edges = Arrays.copyOf(edges, edges.length * 2);
+    }
+    edges[edgeCount++] = room;
+    edges[edgeCount++] = other;
+  }
+
+  private RoomGraph toGraph(List<Iroom> rooms) {
+    int[] offsets = new int[count + 1];
+    for (int k = 0; k < edgeCount; k += 2) {
+      offsets[edges[k] + 1]++;
+      offsets[edges[k + 1] + 1]++;
+    }
+    for (int i = 0; i < count; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    int[] targets = new int[offsets[count]];
+    int[] fill = Arrays.copyOf(offsets, count);
+    for (int k = 0; k < edgeCount; k += 2) {
+      targets[fill[edges[k]]++] = edges[k + 1];
+      targets[fill[edges[k + 1]]++] = edges[k];
+    }
+
+    // Sort each row and drop pairs that were found along both axes
+    int[] compact = new int[count + 1];
+    int size = 0;
+    for (int i = 0; i < count; i++) {
+      Arrays.sort(targets, offsets[i], offsets[i + 1]);
+      compact[i] = size;
+      for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+        if (k == offsets[i] || targets[k] != targets[k - 1]) {
+          targets[size++] = targets[k];
+        }
+      }
+    }
+    compact[count] = size;
+    return new RoomGraph(rooms, compact, Arrays.copyOf(targets, size));
+  }
+
+  private static long pack(int key, int index) {
+    return ((long) key << 32) | index;
+  }
+}
@@ -0,0 +1,62 @@
+package game;
+
+import java.io.PrintStream;
+
+/**
+ * Collects the game's output in memory, to be read or written out later in one piece.
+ *
+ * <p>Lines end with a single {@code '\n'} on every platform. The sink is not thread-safe; give
+ * each game its own sink.
+ */
+public final class BufferedSink implements Ioutputsink {
+  private final StringBuilder buffer;
+
+  /**
+   * Constructs an empty sink.
+   */
+  public BufferedSink() {
+    this.buffer = new StringBuilder();
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public void print(String text) {
+    buffer.append(text);
+  }
+
+  @Override
+  public void println(String line) {
+    buffer.append(line).append('\n');
+  }
+
+  /**
+   * Gets everything written to the sink since it was created or last cleared.
+   *
+   * @return the collected output
+   */
+  public String getText() {
+    return buffer.toString();
+  }
+
+  /**
+   * Writes the collected output to a stream and clears the sink.
+   *
+   * @param out the stream to write to
+   */
+  public void flushTo(PrintStream out) {
+    out.print(buffer);
+    out.flush();
+    clear();
+  }
+
+  /**
+   * Discards the collected output.
+   */
+  public void clear() {
+    buffer.setLength(0);
+  }
+}
@@ -0,0 +1,198 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Records what changed in a game world, so that caches, renderers and loggers can catch up on
+ * the changes instead of scanning the whole world again.
+ *
+ * <p>Every change is an event with a kind, the room it happened in and, for moves, the room it
+ * came from. Events are numbered from 0 in the order they were recorded and kept in a ring
+ * buffer of primitive arrays, so recording one allocates nothing. A reader remembers the
+ * number of the next event it has not seen and reads on from there; if it falls so far behind
+ * that the events it needs were overwritten, {@link #getOldestSequence()} tells it so and it
+ * has to rescan the world.
+ *
+ * <p>The log also keeps version counters. The version of the log is the number of events
+ * recorded so far, and the version of a room is one more than the number of the last event
+ * that touched it, or 0 if none did. A cache that remembers these numbers can tell in O(1)
+ * whether anything it depends on has changed.
+ */
+public final class ChangeLog {
+
+  /**
+   * A room was added; the room is the new room.
+   */
+  public static final int ROOM_ADDED = 0;
+
+  /**
+   * A player joined the world; the room is the one the player starts in.
+   */
+  public static final int PLAYER_ADDED = 1;
+
+  /**
+   * A player moved from one room to another.
+   */
+  public static final int PLAYER_MOVED = 2;
+
+  /**
+   * The pet moved from one room to another, or was put into the world.
+   */
+  public static final int PET_MOVED = 3;
+
+  /**
+   * The target moved from one room to another, or was put into the world.
+   */
+  public static final int TARGET_MOVED = 4;
+
+  /**
+   * The target's health changed; the room is the one the target is in.
+   */
+  public static final int TARGET_DAMAGED = 5;
+
+  /**
+   * Items were taken from, put into or replaced in a room.
+   */
+  public static final int ITEMS_CHANGED = 6;
+
+  /**
+   * The number of events kept by a log created without a capacity.
+   */
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private final int mask;
+  private final byte[] kinds;
+  private final int[] rooms;
+  private final int[] fromRooms;
+  private long[] roomVersions;
+  private long sequence;
+
+  /**
+   * Constructs an empty log that keeps the last {@link #DEFAULT_CAPACITY} events.
+   */
+  public ChangeLog() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty log.
+   *
+   * @param capacity the number of most recent events to keep, rounded up to a power of two
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public ChangeLog(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Invalid capacity: " + capacity);
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.mask = size - 1;
+    this.kinds = new byte[size];
+    this.rooms = new int[size];
+    this.fromRooms = new int[size];
+    this.roomVersions = new long[16];
+  }
+
+  /**
+   * Records a change.
+   *
+   * @param kind     the kind of change, one of the constants of this class
+   * @param room     the index of the room the change happened in, or -1 for none
+   * @param fromRoom the index of the room a move came from, -1 for none, or the room itself for
+   *                 changes that are not moves
+   * @return the number of the event
+   */
+  public long record(int kind, int room, int fromRoom) {
+    long event = sequence++;
+    int slot = (int) event & mask;
+    kinds[slot] = (byte) kind;
+    rooms[slot] = room;
+    fromRooms[slot] = fromRoom;
+    touch(room, event);
+    touch(fromRoom, event);
+    return event;
+  }
+
+  private void touch(int room, long event) {
+    if (room < 0) {
+      return;
+    }
+    if (room >= roomVersions.length) {
+      roomVersions = Arrays.copyOf(roomVersions, Math.max(room + 1, roomVersions.length * 2));
+    }
+    roomVersions[room] = event + 1;
+  }
+
+  /**
+   * Gets the version of the log, which is the number of events recorded so far and so also the
+   * number the next event will get.
+   *
+   * @return the number of events recorded
+   */
+  public long getVersion() {
+    return sequence;
+  }
+
+  /**
+   * Gets the version of a room.
+   *
+   * @param room the index of the room
+   * @return one more than the number of the last event in or out of the room, or 0 if there
+   *         was none
+   */
+  public long getRoomVersion(int room) {
+    return room >= 0 && room < roomVersions.length ? roomVersions[room] : 0;
+  }
+
+  /**
+   * Gets the number of the oldest event that can still be read.
+   *
+   * @return the oldest available event, equal to {@link #getVersion()} if there are none
+   */
+  public long getOldestSequence() {
+    return Math.max(0, sequence - kinds.length);
+  }
+
+  /**
+   * Gets the kind of an event.
+   *
+   * @param event the number of the event
+   * @return the kind of change
+   * @throws IndexOutOfBoundsException if the event was not recorded or is no longer kept
+   */
+  public int getKind(long event) {
+    return kinds[slot(event)];
+  }
+
+  /**
+   * Gets the room an event happened in.
+   *
+   * @param event the number of the event
+   * @return the index of the room, or -1 for none
+   * @throws IndexOutOfBoundsException if the event was not recorded or is no longer kept
+   */
+  public int getRoom(long event) {
+    return rooms[slot(event)];
+  }
+
+  /**
+   * Gets the room a move came from.
+   *
+   * @param event the number of the event
+   * @return the index of the room moved out of, -1 for none, or the room of the event if it is
+   *         not a move
+   * @throws IndexOutOfBoundsException if the event was not recorded or is no longer kept
+   */
+  public int getFromRoom(long event) {
+    return fromRooms[slot(event)];
+  }
+
+  private int slot(long event) {
+    if (event < getOldestSequence() || event >= sequence) {
+      throw new IndexOutOfBoundsException("Event " + event + " is not available");
+    }
+    return (int) event & mask;
+  }
+}
@@ -1,8 +1,6 @@
 package game;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Represents a computer-controlled player in the game.
@@ -10,21 +8,42 @@ import java.util.Random;
 public class ComputerPlayer implements Iplayer {
   private String name;
   private Tuple<Integer, Integer> coordinates;
+  private long packedCoordinates;
   private int maxItems;
-  private List<Iitem> items;
+  private ItemList items;
+  private Imovelistener moveListener;
+  private final SplittableRandom random;
 
   /**
    * Constructs a new ComputerPlayer with the specified name, coordinates, and maximum items.
+   * The player's choices come from an unseeded generator.
    *
    * @param name        the name of the computer player
    * @param coordinates the initial coordinates of the computer player
    * @param maxItems    the maximum number of items the computer player can carry
    */
   public ComputerPlayer(String name, Tuple<Integer, Integer> coordinates, int maxItems) {
+    this(name, coordinates, maxItems, new SplittableRandom());
+  }
+
+  /**
+   * Constructs a new ComputerPlayer whose choices come from the specified generator, so that
+   * a game can be replayed from the generator's seed.
+   *
+   * @param name        the name of the computer player
+   * @param coordinates the initial coordinates of the computer player
+   * @param maxItems    the maximum number of items the computer player can carry
+   * @param random      the generator the player draws its actions from; not shared with
+   *                    other threads
+   */
+  public ComputerPlayer(String name, Tuple<Integer, Integer> coordinates, int maxItems,
+      SplittableRandom random) {
     this.name = name;
     this.coordinates = coordinates;
+    this.packedCoordinates = Coordinates.pack(coordinates);
     this.maxItems = maxItems;
-    this.items = new ArrayList<>();
+    this.items = new ItemList();
+    this.random = random;
   }
 
   @Override
@@ -37,9 +56,24 @@ public class ComputerPlayer implements Iplayer {
     return coordinates;
   }
 
+  @Override
+  public long getPackedCoordinates() {
+    return packedCoordinates;
+  }
+
   @Override
   public void move(Tuple<Integer, Integer> newCoordinates) {
+    long oldCoordinates = packedCoordinates;
     this.coordinates = newCoordinates;
+    this.packedCoordinates = Coordinates.pack(newCoordinates);
+    if (moveListener != null) {
+      moveListener.playerMoved(this, oldCoordinates, packedCoordinates);
+    }
+  }
+
+  @Override
+  public void setMoveListener(Imovelistener listener) {
+    this.moveListener = listener;
   }
 
   @Override
@@ -50,7 +84,7 @@ public class ComputerPlayer implements Iplayer {
   }
 
   @Override
-  public List<Iitem> getItems() {
+  public ItemList getItems() {
     return items;
   }
 
@@ -61,148 +95,105 @@ public class ComputerPlayer implements Iplayer {
 
   @Override
   public String lookAround(Igameworld world) {
-    Iroom currentRoom = world.getRoomByCoordinates(coordinates);
-    StringBuilder output = new StringBuilder();
-    output.append("Player ").append(name).append(
-        " is in: ").append(currentRoom.getName()).append(".\n");
-
-    output.append("Items in the room:\n");
-    if (currentRoom.getItems().isEmpty()) {
-      output.append(" - No items\n");
-    } else {
-      for (Iitem item : currentRoom.getItems()) {
-        output.append(" - ").append(item.getName()).append(
-            " (Damage: ").append(item.getDamage()).append(")\n");
-      }
-    }
-
-    output.append("Players in the room:\n");
-    boolean playersFound = false;
-    for (Iplayer player : world.getPlayers()) {
-      if (!player.equals(this) && player.getCoordinates().equals(coordinates)) {
-        output.append(" - ").append(player.getName()).append("\n");
-        playersFound = true;
-      }
-    }
-    if (!playersFound) {
-      output.append(" - No other players\n");
-    }
-
-    Ipet pet = world.getPet();
-    if (pet != null && pet.getCoordinates().equals(coordinates)) {
-      output.append("Pet: ").append(pet.getName()).append(" is here.\n");
-    }
-
-    Itarget target = world.getTarget();
-    if (target != null && target.getCoordinates().equals(coordinates)) {
-      output.append("Target: ").append(target.getName()).append(" is here.\n");
-    }
-
-    output.append("Visible rooms:\n");
-    List<Iroom> neighbors = world.getNeighbors(currentRoom);
-    if (neighbors.isEmpty()) {
-      output.append(" - No visible rooms\n");
-    } else {
-      for (Iroom neighbor : neighbors) {
-        output.append(" - ").append(neighbor.getName()).append("\n");
-
-        if (pet != null && pet.getCoordinates().equals(neighbor.getCoordinates())) {
-          continue; 
-        }
-
-        output.append("Items in ").append(neighbor.getName()).append(":\n");
-        if (neighbor.getItems().isEmpty()) {
-          output.append("  - No items\n");
-        } else {
-          for (Iitem item : neighbor.getItems()) {
-            output.append("  - ").append(item.getName()).append(
-                " (Damage: ").append(item.getDamage()).append(")\n");
-          }
-        }
-
-        output.append("Players in ").append(neighbor.getName()).append(":\n");
-        boolean neighborPlayersFound = false;
-        for (Iplayer player : world.getPlayers()) {
-          if (!player.equals(this) && player.getCoordinates().equals(neighbor.getCoordinates())) {
-            output.append("  - ").append(player.getName()).append("\n");
-            neighborPlayersFound = true;
-          }
-        }
-        if (!neighborPlayersFound) {
-          output.append("  - No other players\n");
-        }
-
-        if (target != null && target.getCoordinates().equals(neighbor.getCoordinates())) {
-          output.append("Target: ").append(target.getName()).append(" is here.\n");
-        }
-      }
-    }
+    return lookAt(world).toString();
+  }
 
-    return output.toString();
+  @Override
+  public Surroundings lookAt(Igameworld world) {
+    return Surroundings.of(this, world);
   }
 
   @Override
   public String attack(Itarget target, Igameworld world) {
+    return attack(this, target, world, true);
+  }
+
+  /**
+   * Attacks the target the way a computer player does, wherever the target is, describing the
+   * result only when asked to, so that silent turns build no messages.
+   *
+   * @param attacker the player attacking, whose strongest item is used up
+   * @param target   the target to attack
+   * @param world    the game world the player is in
+   * @param report   true to describe the result, false to skip the description
+   * @return the result of the attack, or null if it was not to be described
+   */
+  static String attack(Iplayer attacker, Itarget target, Igameworld world, boolean report) {
     if (target == null) {
-      return "There is no target to attack.";
+      return report ? "There is no target to attack." : null;
     }
 
-    for (Iplayer player : world.getPlayers()) {
-      if (!player.equals(this) && player.canSee(this, world)) {
-        return "Attack seen by " + player.getName() + ". Attack stopped.";
-      }
+    Iplayer observer = world.findObserver(attacker);
+    if (observer != null) {
+      return report ? "Attack seen by " + observer.getName() + ". Attack stopped." : null;
     }
 
-    Iitem maxDamageItem = items.stream()
-        .max((item1, item2) -> Integer.compare(item1.getDamage(), item2.getDamage()))
-        .orElse(null);
+    Iitem maxDamageItem = attacker.getItems().removeStrongest(); // Use up the strongest item
 
     int totalDamage = (maxDamageItem != null)
         ? maxDamageItem.getDamage() : 1; // Poking in the eye does 1 damage
 
     target.takeDamage(totalDamage);
 
-    if (maxDamageItem != null) {
-      items.remove(maxDamageItem); // Remove the used item
+    if (!report) {
+      return null;
     }
-
-    return "Computer Player " + name + " attacked "
+    return "Computer Player " + attacker.getName() + " attacked "
         + target.getName() + " with " + totalDamage + " damage.";
   }
 
   @Override
   public boolean canSee(Iplayer other, Igameworld world) {
-    // Check if the players are in the same coordinates
-    if (this.coordinates.equals(other.getCoordinates())) {
-      return true;
-    }
+    return world.isVisible(packedCoordinates, other.getPackedCoordinates());
+  }
 
-    // Get the current room and neighboring rooms
-    Iroom currentRoom = world.getRoomByCoordinates(this.coordinates);
-    List<Iroom> neighbors = world.getNeighbors(currentRoom);
-
-    // Check if the other player is in one of the neighboring rooms
-    for (Iroom neighbor : neighbors) {
-      if (neighbor.getCoordinates().equals(other.getCoordinates())) {
-        // If pet is in the same neighboring room as the other player, the player cannot see
-        Ipet pet = world.getPet();
-        if (pet != null && pet.getCoordinates().equals(other.getCoordinates())) {
-          return false;
-        }
-        return true;
-      }
+  @Override
+  public void takeTurn(Igameworld world) {
+    Ioutputsink output = world.getOutput();
+    String report = playTurn(world, output.isEnabled());
+    if (report != null) {
+      output.println(report);
     }
+  }
 
-    return false;
+  /**
+   * Plays one turn without printing anything, as {@link #playTurn(Iplayer, Igameworld,
+   * SplittableRandom, boolean)} plays it for this player with the player's own generator.
+   *
+   * @param world  the game world the player is in
+   * @param report true to describe an attack or the surroundings when looking around, false
+   *               to skip the descriptions
+   * @return the result of an attack or the description of the surroundings, or null if the
+   *         turn has nothing to report
+   */
+  public String playTurn(Igameworld world, boolean report) {
+    return playTurn(this, world, random, report);
   }
 
-  @Override
-  public void takeTurn(Igameworld world) {
-    Random random = new Random();
+  /**
+   * Plays one turn without printing anything: attacks the target if it is in the same room,
+   * otherwise moves to a random neighboring room, picks up the first item in the room or looks
+   * around.
+   *
+   * <p>The turn is decided the way this player decides, but for {@code self}: from its position
+   * and items, acting through it. A world that keeps its own copies of its players, such as a
+   * {@link PersistentWorld}, plays its copy of a computer player this way. Subclasses that
+   * decide differently override this method.
+   *
+   * @param self   the player whose turn it is, this player or a copy of it
+   * @param world  the game world the player is in
+   * @param random the generator the turn's choices are drawn from
+   * @param report true to describe an attack or the surroundings when looking around, false
+   *               to skip the descriptions
+   * @return the result of an attack or the description of the surroundings, or null if the
+   *         turn has nothing to report
+   */
+  public String playTurn(Iplayer self, Igameworld world, SplittableRandom random,
+      boolean report) {
     Itarget target = world.getTarget();
-    if (target != null && target.getCoordinates().equals(coordinates)) {
-      System.out.println(attack(target, world));
-      return; // End the turn immediately after attacking
+    long position = self.getPackedCoordinates();
+    if (target != null && target.getPackedCoordinates() == position) {
+      return attack(self, target, world, report); // End the turn immediately after attacking
     }
 
     int action = random.nextInt(3);
@@ -210,32 +201,29 @@ public class ComputerPlayer implements Iplayer {
     switch (action) {
       case 0:
         // move
-        List<Iroom> neighbors = world.getNeighbors(world.getRoomByCoordinates(coordinates));
-        if (!neighbors.isEmpty()) {
-          Iroom newRoom = neighbors.get(random.nextInt(neighbors.size()));
-          move(newRoom.getCoordinates());
+        int room = world.getRoomIndexByCoordinates(position);
+        RoomGraph graph = world.getRoomGraph();
+        if (room >= 0 && graph.degree(room) > 0) {
+          int choice = graph.neighborStart(room) + random.nextInt(graph.degree(room));
+          self.move(graph.roomAt(graph.neighborAt(choice)).getCoordinates());
         }
-        break;
+        return null;
 
       case 1:
         // pick item
-        Iroom currentRoom = world.getRoomByCoordinates(coordinates);
+        Iroom currentRoom = world.getRoomByCoordinates(self.getCoordinates());
         if (currentRoom != null && !currentRoom.getItems().isEmpty()) {
-          Iitem item = currentRoom.getItems().get(0);
-          addItem(item);
-          currentRoom.getItems().remove(item);
+          self.addItem(currentRoom.getItems().remove(0));
         }
-        break;
+        return null;
 
       case 2:
         // look around
-        System.out.println(lookAround(world));
-        break;
+        return report ? self.lookAround(world) : null;
 
       default:
         // Default case to handle unexpected values
-        System.out.println("Unexpected action value: " + action);
-        break;
+        return "Unexpected action value: " + action;
     }
   }
 }
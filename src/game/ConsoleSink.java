@@ -0,0 +1,26 @@
+package game;
+
+/**
+ * Writes the game's output to the console.
+ *
+ * <p>The sink writes to whatever {@code System.out} is at the time of each call, so output
+ * redirected with {@link System#setOut} after the sink was created still reaches the new
+ * stream.
+ */
+public final class ConsoleSink implements Ioutputsink {
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public void print(String text) {
+    System.out.print(text);
+  }
+
+  @Override
+  public void println(String line) {
+    System.out.println(line);
+  }
+}
@@ -0,0 +1,63 @@
+package game;
+
+/**
+ * Utility methods for grid coordinates packed into a single {@code long}.
+ *
+ * <p>The row is stored in the upper 32 bits and the column in the lower 32 bits, so two packed
+ * coordinates are equal exactly when their rows and columns are equal. This lets positions be
+ * stored and compared without boxing, unlike {@code Tuple<Integer, Integer>}.
+ */
+public final class Coordinates {
+
+  /**
+   * The packed value used for missing coordinates.
+   */
+  public static final long NONE = Long.MIN_VALUE;
+
+  private Coordinates() {
+  }
+
+  /**
+   * Packs a row and a column into a single value.
+   *
+   * @param row    the row
+   * @param column the column
+   * @return the packed coordinates
+   */
+  public static long pack(int row, int column) {
+    return ((long) row << 32) | (column & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Packs a coordinate tuple into a single value.
+   *
+   * @param coordinates the coordinates to pack, may be null
+   * @return the packed coordinates, or {@link #NONE} if the coordinates are null
+   */
+  public static long pack(Tuple<Integer, Integer> coordinates) {
+    if (coordinates == null) {
+      return NONE;
+    }
+    return pack(coordinates.getFirst(), coordinates.getSecond());
+  }
+
+  /**
+   * Gets the row of packed coordinates.
+   *
+   * @param packed the packed coordinates
+   * @return the row
+   */
+  public static int row(long packed) {
+    return (int) (packed >> 32);
+  }
+
+  /**
+   * Gets the column of packed coordinates.
+   *
+   * @param packed the packed coordinates
+   * @return the column
+   */
+  public static int column(long packed) {
+    return (int) packed;
+  }
+}
@@ -0,0 +1,240 @@
+package game;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounds how long computer players take over their turns and keeps track of how long they took.
+ *
+ * <p>Every computer turn played through the budget is timed into a {@link LatencyHistogram} kept
+ * per player, so the percentiles of each player's decision latency can be asked at any time. A
+ * player that can stop searching early, an {@link Ianytimeplayer}, is also given a deadline a
+ * little short of the limit, at which it plays the best action it has found so far; that bounds
+ * every turn, not only most of them. The budget keeps such players clear of their deadlines by
+ * tuning their effort after every search, so that the deadline only catches the odd turn slowed
+ * down by something else. It keeps the time a unit of effort took in each of the player's recent
+ * searches, and moves the effort toward what fits in a target share of the limit at the 90th
+ * percentile of those costs, or at the cost of the last search if it was cut short. The effort
+ * falls by half at most and grows by an eighth at most per search, and never above the effort
+ * the player started with, so that turns that slow down, because the machine is busy or the game
+ * is harder, lower the effort within a few turns without one slow turn undoing many fast ones.
+ * The deadline is also held at the 99th percentile of the player's recent turn latencies: while
+ * more than one in a hundred of them ran into the deadline, the effort does not grow at all.
+ *
+ * <p>Turns are timed on an {@link Iclock}, the machine's own unless another is given. Players are
+ * given their deadlines together with that clock, and check them against it.
+ *
+ * <p>A budget is meant to be used by one game loop and is not safe for use by several threads.
+ */
+public final class DecisionBudget {
+
+  /**
+   * The number of recent turns of a player the effort is tuned on.
+   */
+  public static final int WINDOW = 128;
+
+  private static final double DEADLINE_SHARE = 0.9;
+  private static final double TARGET_SHARE = 0.6;
+  private static final int GROWTH_DIVISOR = 8;
+  private static final double TUNING_PERCENTILE = 90;
+  private static final double GUARD_PERCENTILE = 99;
+
+  private final long limitNanos;
+  private final Iclock clock;
+  private final Map<Iplayer, Tracker> trackers = new LinkedHashMap<>();
+
+  /**
+   * Constructs a budget that keeps the turns of computer players under a limit, timed on the
+   * machine's clock.
+   *
+   * @param limitMillis the longest a computer turn may take, in milliseconds
+   * @throws IllegalArgumentException if the limit is not positive
+   */
+  public DecisionBudget(long limitMillis) {
+    this(limitMillis, Iclock.SYSTEM);
+  }
+
+  /**
+   * Constructs a budget that keeps the turns of computer players under a limit, timed on a
+   * clock.
+   *
+   * @param limitMillis the longest a computer turn may take, in milliseconds
+   * @param clock       the clock turns are timed on and deadlines are read from
+   * @throws IllegalArgumentException if the limit is not positive
+   */
+  public DecisionBudget(long limitMillis, Iclock clock) {
+    if (limitMillis <= 0) {
+      throw new IllegalArgumentException("Invalid time limit: " + limitMillis);
+    }
+    this.limitNanos = limitMillis * 1000000L;
+    this.clock = clock;
+  }
+
+  /**
+   * Gets the longest a computer turn may take.
+   *
+   * @return the limit in nanoseconds
+   */
+  public long getLimitNanos() {
+    return limitNanos;
+  }
+
+  /**
+   * Lets a player take its turn like {@link Iplayer#takeTurn}, within the budget if it is a
+   * computer player. Other players take their turns untimed.
+   *
+   * @param player the player whose turn it is
+   * @param world  the game world the player is in
+   */
+  public void takeTurn(Iplayer player, Igameworld world) {
+    if (!(player instanceof ComputerPlayer)) {
+      player.takeTurn(world);
+      return;
+    }
+    Ioutputsink output = world.getOutput();
+    String report = playTurn((ComputerPlayer) player, world, output.isEnabled());
+    if (report != null) {
+      output.println(report);
+    }
+  }
+
+  /**
+   * Plays a computer player's turn within the budget and records how long it took.
+   *
+   * @param player the player whose turn it is
+   * @param world  the game world the player is in
+   * @param report true to describe an attack or the surroundings when looking around, false
+   *               to skip the descriptions
+   * @return the result of the turn, as {@link ComputerPlayer#playTurn} returns it
+   */
+  public String playTurn(ComputerPlayer player, Igameworld world, boolean report) {
+    Tracker tracker = trackers.get(player);
+    if (tracker == null) {
+      tracker = new Tracker(player);
+      trackers.put(player, tracker);
+    }
+    Ianytimeplayer anytime = player instanceof Ianytimeplayer ? (Ianytimeplayer) player : null;
+    long start = clock.nanoTime();
+    if (anytime != null) {
+      anytime.setDeadline(start + (long) (limitNanos * DEADLINE_SHARE), clock);
+    }
+    String result = player.playTurn(world, report);
+    long elapsed = clock.nanoTime() - start;
+    tracker.record(elapsed);
+    if (anytime != null && tracker.maxEffort > 0) {
+      tracker.tune(anytime, elapsed);
+    }
+    return result;
+  }
+
+  /**
+   * Gets the latencies of the turns a player has taken within the budget.
+   *
+   * @param player the player
+   * @return the latencies, or null if the player has not taken a turn within the budget
+   */
+  public LatencyHistogram getLatencies(Iplayer player) {
+    Tracker tracker = trackers.get(player);
+    return tracker == null ? null : tracker.latencies;
+  }
+
+  /**
+   * Gets a percentile of the latencies of a player's turns.
+   *
+   * @param player  the player
+   * @param percent the percentile, from 0 to 100
+   * @return the percentile in nanoseconds, or 0 if the player has not taken a turn within the
+   *         budget
+   */
+  public long getPercentile(Iplayer player, double percent) {
+    LatencyHistogram latencies = getLatencies(player);
+    return latencies == null ? 0 : latencies.getPercentile(percent);
+  }
+
+  /**
+   * Describes the latencies of every player that has taken a turn within the budget, in the
+   * order the players took their first turns.
+   *
+   * @return one line per player with its turn count and its median, 99th percentile and longest
+   *         turn in milliseconds
+   */
+  public String summarize() {
+    StringBuilder summary = new StringBuilder();
+    for (Map.Entry<Iplayer, Tracker> entry : trackers.entrySet()) {
+      LatencyHistogram latencies = entry.getValue().latencies;
+      summary.append(String.format("%s: %d turns, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+          entry.getKey().getName(), latencies.getCount(), latencies.getPercentile(50) / 1e6,
+          latencies.getPercentile(99) / 1e6, latencies.getMax() / 1e6));
+    }
+    return summary.toString();
+  }
+
+  /**
+   * The latencies of one player, its recent latencies and the recent cost of a unit of its
+   * effort.
+   */
+  private final class Tracker {
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final long[] recent = new long[WINDOW];
+    private final long[] sortedRecent = new long[WINDOW];
+    private final double[] costs = new double[WINDOW];
+    private final double[] sorted = new double[WINDOW];
+    private final int maxEffort;
+    private int turns;
+    private int searches;
+
+    Tracker(ComputerPlayer player) {
+      this.maxEffort = player instanceof Ianytimeplayer
+          ? ((Ianytimeplayer) player).getEffort() : 0;
+    }
+
+    void record(long elapsed) {
+      latencies.record(elapsed);
+      recent[turns % WINDOW] = elapsed;
+      turns++;
+    }
+
+    /**
+     * Records the cost of a unit of the effort a search spent and sets the effort of the next
+     * search.
+     */
+    void tune(Ianytimeplayer player, long elapsed) {
+      int spent = player.getLastEffort();
+      if (spent <= 0) {
+        return;
+      }
+      costs[searches % WINDOW] = (double) elapsed / spent;
+      searches++;
+      double target = limitNanos * TARGET_SHARE;
+      int effort = player.getEffort();
+      long fitting;
+      if (spent < effort) {
+        // Out of time: what would have fit at the speed this search ran
+        fitting = (long) (spent * target / elapsed);
+      } else {
+        fitting = (long) (target / Math.max(recentCost(), 1.0));
+      }
+      long next = Math.max(effort / 2, Math.min(fitting, effort + effort / GROWTH_DIVISOR + 1L));
+      if (next > effort && recentLatency() >= limitNanos * DEADLINE_SHARE) {
+        // Too many recent turns ran into the deadline to search any longer
+        next = effort;
+      }
+      player.setEffort((int) Math.max(1, Math.min(maxEffort, next)));
+    }
+
+    private double recentCost() {
+      int size = Math.min(searches, WINDOW);
+      System.arraycopy(costs, 0, sorted, 0, size);
+      Arrays.sort(sorted, 0, size);
+      return sorted[(int) Math.ceil(size * TUNING_PERCENTILE / 100) - 1];
+    }
+
+    private long recentLatency() {
+      int size = Math.min(turns, WINDOW);
+      System.arraycopy(recent, 0, sortedRecent, 0, size);
+      Arrays.sort(sortedRecent, 0, size);
+      return sortedRecent[(int) Math.ceil(size * GUARD_PERCENTILE / 100) - 1];
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package game;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Shortest-path distances and next steps between the rooms of the game world.
+ *
+ * <p>Each row is computed by a breadth-first search from one room over the adjacency graph and
+ * stores, for every destination room, the number of moves needed to reach it and the first room
+ * to move to on the way. Rows are interleaved in a single {@code int[]} per source room. Small
+ * maps compute every row up front; large maps compute rows lazily the first time a source room
+ * is queried and keep as many of them as fit in a bounded number of ints, so the memory a
+ * table holds does not grow with the square of the number of rooms. Rows are immutable once
+ * computed, so a table can be shared between threads.
+ */
+public final class DistanceTable {
+
+  /**
+   * The largest number of rooms for which every row is computed up front.
+   */
+  public static final int EAGER_LIMIT = 1024;
+
+  /**
+   * The number of ints the rows kept by a lazy table may take up unless specified otherwise,
+   * 64 MiB.
+   */
+  public static final long DEFAULT_CACHED_INTS = 1L << 24;
+
+  private final RoomGraph graph;
+  private final AtomicReferenceArray<int[]> rows;
+  private final boolean eager;
+  private final int[] cachedSources;
+  private int cachedCount;
+  private int nextEviction;
+
+  /**
+   * Builds a table for an adjacency graph, computing every row up front for small maps and
+   * lazily for large ones.
+   *
+   * @param graph the adjacency graph of the rooms
+   */
+  public DistanceTable(RoomGraph graph) {
+    this(graph, graph.size() <= EAGER_LIMIT, rowsWithin(graph.size(), DEFAULT_CACHED_INTS));
+  }
+
+  /**
+   * Gets the number of rows of a map that fit in a number of ints, at least one.
+   *
+   * @param rooms the number of rooms of the map
+   * @param ints  the number of ints the rows may take up
+   * @return the number of rows, at most the number of rooms
+   */
+  public static int rowsWithin(int rooms, long ints) {
+    long perRow = Math.max(1, 2L * rooms);
+    return (int) Math.max(1, Math.min(Math.max(rooms, 1), ints / perRow));
+  }
+
+  /**
+   * Builds a table for an adjacency graph.
+   *
+   * @param graph      the adjacency graph of the rooms
+   * @param eager      true to compute every row up front, false to compute rows on demand
+   * @param cachedRows the maximum number of rows a lazy table keeps
+   */
+  public DistanceTable(RoomGraph graph, boolean eager, int cachedRows) {
+    if (cachedRows < 1) {
+      throw new IllegalArgumentException("Invalid number of cached rows: " + cachedRows);
+    }
+    this.graph = graph;
+    this.rows = new AtomicReferenceArray<>(graph.size());
+    this.eager = eager;
+    this.cachedSources = eager ? new int[0] : new int[Math.min(cachedRows, graph.size())];
+    if (eager) {
+      int[] queue = new int[graph.size()];
+      for (int source = 0; source < graph.size(); source++) {
+        rows.set(source, search(source, queue));
+      }
+    }
+  }
+
+  /**
+   * Gets the adjacency graph the table was built from.
+   *
+   * @return the adjacency graph
+   */
+  public RoomGraph getGraph() {
+    return graph;
+  }
+
+  /**
+   * Gets the largest number of rows the table keeps at once.
+   *
+   * @return the number of rows
+   */
+  public int getCachedRowLimit() {
+    return eager ? graph.size() : cachedSources.length;
+  }
+
+  /**
+   * Determines whether every row was computed up front.
+   *
+   * @return true if the table is eager, false if rows are computed on demand
+   */
+  public boolean isEager() {
+    return eager;
+  }
+
+  /**
+   * Gets the number of moves needed to go from one room to another.
+   *
+   * @param from the index of the starting room
+   * @param to   the index of the destination room
+   * @return the number of moves, or -1 if the destination cannot be reached
+   */
+  public int distance(int from, int to) {
+    return row(from)[to * 2];
+  }
+
+  /**
+   * Gets the first room to move to on a shortest path from one room to another.
+   *
+   * @param from the index of the starting room
+   * @param to   the index of the destination room
+   * @return the index of the next room, {@code from} itself if the rooms are the same, or -1 if
+   *         the destination cannot be reached
+   */
+  public int nextStep(int from, int to) {
+    return row(from)[to * 2 + 1];
+  }
+
+  private int[] row(int source) {
+    int[] row = rows.get(source);
+    if (row == null) {
+      row = search(source, new int[graph.size()]);
+      if (!rows.compareAndSet(source, null, row)) {
+        return rows.get(source);
+      }
+      remember(source);
+    }
+    return row;
+  }
+
+  /**
+   * Records a lazily computed row, evicting the oldest one when the table is full.
+   */
+  private synchronized void remember(int source) {
+    if (cachedCount < cachedSources.length) {
+      cachedSources[cachedCount++] = source;
+      return;
+    }
+    rows.set(cachedSources[nextEviction], null);
+    cachedSources[nextEviction] = source;
+    nextEviction = (nextEviction + 1) % cachedSources.length;
+  }
+
+  /**
+   * Runs a breadth-first search from a room, recording distances and first steps.
+   */
+  private int[] search(int source, int[] queue) {
+    int n = graph.size();
+    int[] row = new int[n * 2];
+    for (int i = 0; i < row.length; i++) {
+      row[i] = -1;
+    }
+    row[source * 2] = 0;
+    row[source * 2 + 1] = source;
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = source;
+    while (head < tail) {
+      int room = queue[head++];
+      int distance = row[room * 2] + 1;
+      for (int k = graph.neighborStart(room); k < graph.neighborEnd(room); k++) {
+        int neighbor = graph.neighborAt(k);
+        if (row[neighbor * 2] < 0) {
+          row[neighbor * 2] = distance;
+          row[neighbor * 2 + 1] = room == source ? neighbor : row[room * 2 + 1];
+          queue[tail++] = neighbor;
+        }
+      }
+    }
+    return row;
+  }
+}
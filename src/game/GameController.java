@@ -6,13 +6,22 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Random;
+import java.util.Queue;
 import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Controls the game logic and flow.
  */
 public class GameController {
+  private static final int PLAYER_PHASE = 0;
+  private static final int TARGET_PHASE = 1;
+  private static final int OTHERS_PHASE = 2;
+  private static final int PET_PHASE = 3;
+  private static final int PHASES = 4;
+  private static final int LOG_BATCH_SIZE = 1 << 16;
+
   private Igameworld world;
   private GameView view;
   private int maxTurns;
@@ -22,6 +31,16 @@ public class GameController {
   private int currentPlayerIndex;
   private boolean gameRunning;
   private Scanner scanner; 
+  private final SplittableRandom random;
+  private Ioutputsink output;
+  private boolean fastForward = true;
+  private final Queue<Iplayer> joiningPlayers = new ConcurrentLinkedQueue<>();
+  private TurnScheduler scheduler;
+  private int targetActor;
+  private int firstOtherActor;
+  private int petActor;
+  private List<Iplayer> others;
+  private DecisionBudget budget;
 
   /**
    * Constructs a new GameController with the specified parameters.
@@ -32,7 +51,29 @@ public class GameController {
    * @param logFilePath the path to the log file
    */
   public GameController(Igameworld world, GameView view, int maxTurns, String logFilePath) {
+    this(world, view, maxTurns, logFilePath, new SplittableRandom());
+  }
+
+  /**
+   * Constructs a new GameController whose random choices, including those of its computer
+   * players, all come from one seeded generator, so that a game can be replayed.
+   *
+   * @param world       the game world
+   * @param view        the game view
+   * @param maxTurns    the maximum number of turns
+   * @param logFilePath the path to the log file
+   * @param seed        the seed of the game's random choices
+   */
+  public GameController(Igameworld world, GameView view, int maxTurns, String logFilePath,
+      long seed) {
+    this(world, view, maxTurns, logFilePath, new SplittableRandom(seed));
+  }
+
+  private GameController(Igameworld world, GameView view, int maxTurns, String logFilePath,
+      SplittableRandom random) {
+    this.random = random;
     this.world = world;
+    this.output = world.getOutput();
     this.view = view;
     this.maxTurns = maxTurns;
     this.currentTurn = 0;
@@ -59,6 +100,17 @@ public class GameController {
     scanner.close(); // Close the Scanner instance when the game ends
   }
 
+  /**
+   * Sets where the game's prompts and messages are written, for the controller as well as the
+   * world and its computer players. Prompts for input are still read from the console.
+   *
+   * @param output the sink to write to
+   */
+  public void setOutput(Ioutputsink output) {
+    this.output = output;
+    world.setOutput(output);
+  }
+
   /**
    * Sets up the game by clearing previous state and adding players.
    */
@@ -68,38 +120,39 @@ public class GameController {
     currentPlayerIndex = 0;
 
     while (true) {
-      System.out.println("Do you want to add a player? (yes/no)");
+      output.println("Do you want to add a player? (yes/no)");
       String response = scanner.nextLine().trim().toLowerCase();
       if (!"yes".equals(response)) {
         break;
       }
-      System.out.println("Enter player type (human/computer):");
+      output.println("Enter player type (human/computer):");
       String playerType;
       while (true) {
         playerType = scanner.nextLine().trim().toLowerCase();
         if ("human".equals(playerType) || "computer".equals(playerType)) {
           break;
         } else {
-          System.out.println("Invalid player type. Please enter 'human' or 'computer':");
+          output.println("Invalid player type. Please enter 'human' or 'computer':");
         }
       }
-      System.out.println("Enter player name:");
+      output.println("Enter player name:");
       final String playerName = scanner.nextLine().trim();
 
-      System.out.println("Choose a room number for the player ("
+      output.println("Choose a room number for the player ("
           + "0 to " + (world.getRooms().size() - 1) + "):");
       int roomIndex = scanner.nextInt();
       scanner.nextLine(); // consume the newline
 
       if (roomIndex < 0 || roomIndex >= world.getRooms().size()) {
-        System.out.println("Invalid room index. Assigning to a random room.");
-        roomIndex = new Random().nextInt(world.getRooms().size());
+        output.println("Invalid room index. Assigning to a random room.");
+        roomIndex = random.nextInt(world.getRooms().size());
       }
 
       Iroom initialRoom = world.getRoomByIndex(roomIndex);
       Iplayer player;
       if ("computer".equals(playerType)) {
-        player = new ComputerPlayer(playerName, initialRoom.getCoordinates(), 5);
+        // Each computer player gets its own stream, independent of the controller's draws
+        player = new ComputerPlayer(playerName, initialRoom.getCoordinates(), 5, random.split());
       } else {
         player = new Player(playerName, initialRoom.getCoordinates(), 5);
       }
@@ -108,14 +161,14 @@ public class GameController {
       log("Player " + playerName + " added at room " + roomIndex + ".\n");
     }
 
-    System.out.println("Choose a room number to place the pet ("
+    output.println("Choose a room number to place the pet ("
         + "0 to " + (world.getRooms().size() - 1) + "):");
     int petRoomIndex = scanner.nextInt();
     scanner.nextLine(); // consume the newline
 
     if (petRoomIndex < 0 || petRoomIndex >= world.getRooms().size()) {
-      System.out.println("Invalid room index. Assigning to a random room.");
-      petRoomIndex = new Random().nextInt(world.getRooms().size());
+      output.println("Invalid room index. Assigning to a random room.");
+      petRoomIndex = random.nextInt(world.getRooms().size());
     }
 
     Iroom petRoom = world.getRoomByIndex(petRoomIndex);
@@ -123,125 +176,362 @@ public class GameController {
     log("Pet placed in room " + petRoomIndex + ".\n");
   }
 
+  /**
+   * Sets whether the game skips ahead while only computer players are playing. When it does,
+   * their turns are played without status messages and the log is written in batches; the log
+   * is the same either way. It is on by default.
+   *
+   * @param enabled true to fast-forward through computer-only play
+   */
+  public void setFastForward(boolean enabled) {
+    this.fastForward = enabled;
+  }
+
+  /**
+   * Sets the budget computer players take their turns within, which bounds how long each of
+   * their decisions takes and records their latencies. Without one, computer turns are not timed.
+   *
+   * @param budget the budget, or null for none
+   */
+  public void setDecisionBudget(DecisionBudget budget) {
+    this.budget = budget;
+  }
+
+  /**
+   * Adds a player to the running game at the start of the next turn, at the end of the turn
+   * order. The player can be added from any thread; a human player joining a game that is
+   * fast-forwarding brings it back to normal play.
+   *
+   * @param player the player joining the game
+   */
+  public void joinGame(Iplayer player) {
+    joiningPlayers.add(player);
+  }
+
   /**
    * Runs the game loop, executing player turns and updating the game state.
+   *
+   * <p>Every game turn has four phases: the player whose turn it is acts, the target moves,
+   * the other players who act on their own take their turns and the pet moves. Each of these
+   * is an actor of a {@link TurnScheduler}, so every step of the game costs O(log n) and
+   * players that never act between their own turns are not visited at all.
    */
   public void runGame() {
-    while (currentTurn < maxTurns && gameRunning) {
-      Iplayer currentPlayer = players.get(currentPlayerIndex);
-      System.out.println("It's " + currentPlayer.getName() + "'s turn.");
-      log("Turn " + currentTurn + ": " + currentPlayer.getName() + "'s turn.\n");
-
-      // Display limited information about the player's position in the world
-      Tuple<Integer, Integer> playerCoordinates = currentPlayer.getCoordinates();
-      System.out.println("You are at coordinates: " + playerCoordinates.getFirst() + ""
-          + ", " + playerCoordinates.getSecond());
-      log("Player " + currentPlayer.getName() + ""
-          + " is at coordinates: " + playerCoordinates.getFirst() + ""
-          + ", " + playerCoordinates.getSecond() + "\n");
-
-      if (currentPlayer instanceof ComputerPlayer) {
-        System.out.println("Computer player is taking its turn...");
-        ((ComputerPlayer) currentPlayer).takeTurn(world);
-        log("Computer player took its turn.\n\n");
-        System.out.println("Action completed\n");
-      } else {
-        System.out.println("Choose an action: move, pick item, look around, "
-            + "attack, display map, display player, display room, move pet, exit");
-        String action = scanner.nextLine().trim().toLowerCase();
-        log("Action: " + action + "\n");
-
-        switch (action) {
-          case "move":
-            movePlayer(currentPlayer, scanner);
-            System.out.println("Action completed\n");
-            log("Action completed\n\n");
-            break;
-          case "pick item":
-            pickItem(currentPlayer);
-            System.out.println("Action completed\n");
-            log("Action completed\n\n");
-            break;
-          case "look around":
-            System.out.println(currentPlayer.lookAround(world));
-            log("Player looked around\n");
-            break;
-          case "attack":
-            attackTarget(currentPlayer);
-            System.out.println("Action completed\n");
-            log("Action completed\n\n");
-            break;
-          case "display map":
-            displayMap();
-            System.out.println("Action completed\n");
-            log("Action completed\n\n");
-            break;
-          case "display player":
-            displayPlayer(currentPlayer);
-            System.out.println("Action completed\n");
-            log("Action completed\n\n");
-            break;
-          case "display room":
-            displayRoom(scanner);
-            System.out.println("Action completed\n");
-            log("Action completed\n\n");
-            break;
-          case "move pet":
-            movePet(scanner);
-            System.out.println("Action completed\n");
-            log("Action completed\n\n");
-            break;
-          case "exit":
-            gameRunning = false;
+    schedule();
+    long turnStarted = -1;
+    while (gameRunning) {
+      long turn = scheduler.peekTime() / PHASES;
+      if (turn >= maxTurns) {
+        currentTurn = maxTurns;
+        break;
+      }
+      if (turn != turnStarted) {
+        turnStarted = turn;
+        currentTurn = (int) turn;
+        if (admitJoiningPlayers()) {
+          continue;
+        }
+        if (fastForward && !hasHumanPlayer()) {
+          if (!fastForward()) {
             return;
-          default:
-            System.out.println("Invalid action.");
-            log("Invalid action.\n\n");
-            break;
+          }
+          continue;
+        }
+      }
+      int actor = scheduler.next();
+      currentTurn = (int) (scheduler.getTime() / PHASES);
+      if (actor < players.size()) {
+        currentPlayerIndex = actor;
+        if (!playTurn(players.get(actor))) {
+          return;
         }
+      } else if (actor == targetActor) {
+        if (!moveTarget(null)) {
+          return;
+        }
+      } else if (actor == petActor) {
+        world.getPet().moveDfs(world);
+      } else {
+        takeTurn(others.get(actor - firstOtherActor));
       }
+    }
 
-      world.moveTarget();
-      log("Target moved.\n\n");
+    if (currentTurn >= maxTurns) {
+      output.println("Game over! Maximum number of turns reached.");
+      log("Game over. Maximum turns reached.\n");
+      gameRunning = false;
+    }
+  }
 
-      if (world.getTarget().getHealth() <= 0) {
-        System.out.println("Target " + world.getTarget().getName() + " has been defeated!");
-        log("Target " + world.getTarget().getName() + " has been defeated!\n");
-        gameRunning = false;
-        return;
+  /**
+   * Schedules the phases of the game from the current turn on, starting with the current
+   * player.
+   */
+  private void schedule() {
+    scheduler = new TurnScheduler();
+    long start = (long) currentTurn * PHASES;
+    // Actors 0 to n - 1 are the players' own turns, in turn order
+    for (int i = 0; i < players.size(); i++) {
+      int wait = (i - currentPlayerIndex + players.size()) % players.size();
+      scheduler.add(start + (long) wait * PHASES + PLAYER_PHASE, (long) players.size() * PHASES);
+    }
+    targetActor = scheduler.add(start + TARGET_PHASE, PHASES);
+    firstOtherActor = scheduler.getActorCount();
+    others = new ArrayList<>();
+    for (Iplayer player : world.getPlayers()) {
+      // Human players do nothing outside their own turns
+      if (!isHuman(player)) {
+        others.add(player);
+        scheduler.add(start + OTHERS_PHASE, PHASES);
       }
+    }
+    petActor = world.getPet() == null ? -1 : scheduler.add(start + PET_PHASE, PHASES);
+  }
 
-      currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
-      world.nextTurn();
-      currentTurn++;
+  /**
+   * Adds the players waiting to join to the game and schedules the current turn again.
+   *
+   * @return true if any player joined
+   */
+  private boolean admitJoiningPlayers() {
+    boolean joined = false;
+    for (Iplayer player = joiningPlayers.poll(); player != null; player = joiningPlayers.poll()) {
+      world.addPlayer(player);
+      players.add(player);
+      output.println("Player " + player.getName() + " joined the game.");
+      log("Player " + player.getName() + " joined the game.\n");
+      joined = true;
     }
+    if (joined) {
+      schedule();
+    }
+    return joined;
+  }
 
-    if (currentTurn >= maxTurns) {
-      System.out.println("Game over! Maximum number of turns reached.");
-      log("Game over. Maximum turns reached.\n");
+  private boolean hasHumanPlayer() {
+    for (int i = 0; i < players.size(); i++) {
+      if (isHuman(players.get(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Determines whether a player is played by a person, who is asked for an action on the
+   * player's turn. Every other player acts on its own.
+   */
+  private static boolean isHuman(Iplayer player) {
+    return player instanceof Player;
+  }
+
+  /**
+   * Moves the target and ends the game if it is dead.
+   *
+   * @param batch the log batch to write to, or null to write to the log directly
+   * @return false if the target is dead, true otherwise
+   */
+  private boolean moveTarget(StringBuilder batch) {
+    world.moveTarget();
+    log(batch, "Target moved.\n\n");
+
+    if (world.getTarget().getHealth() <= 0) {
+      flush(batch);
+      output.println("Target " + world.getTarget().getName() + " has been defeated!");
+      log("Target " + world.getTarget().getName() + " has been defeated!\n");
       gameRunning = false;
+      return false;
+    }
+    if (!players.isEmpty()) {
+      currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+    }
+    return true;
+  }
+
+  /**
+   * Plays whole turns while no human players are in the game: computer players' turns are
+   * played silently and the log is collected in batches. Stops at the turn limit, when the target
+   * dies or at the start of a turn in which players are waiting to join.
+   *
+   * @return false if the target died, true otherwise
+   */
+  private boolean fastForward() {
+    output.println("Only computer players are playing. Fast-forwarding...");
+    StringBuilder batch = new StringBuilder();
+    long turnStarted = currentTurn;
+    while (true) {
+      long time = scheduler.peekTime();
+      if (time / PHASES >= maxTurns) {
+        break;
+      }
+      if (time / PHASES != turnStarted) {
+        turnStarted = time / PHASES;
+        if (!joiningPlayers.isEmpty()) {
+          break;
+        }
+      }
+      int actor = scheduler.next();
+      currentTurn = (int) (time / PHASES);
+      if (actor < players.size()) {
+        currentPlayerIndex = actor;
+        Iplayer player = players.get(actor);
+        Tuple<Integer, Integer> coordinates = player.getCoordinates();
+        batch.append("Turn ").append(currentTurn).append(": ").append(player.getName())
+            .append("'s turn.\n");
+        batch.append("Player ").append(player.getName()).append(" is at coordinates: ")
+            .append(coordinates.getFirst()).append(", ").append(coordinates.getSecond())
+            .append("\n");
+        playSilently(player);
+        batch.append("Computer player took its turn.\n\n");
+      } else if (actor == targetActor) {
+        if (!moveTarget(batch)) {
+          return false;
+        }
+      } else if (actor == petActor) {
+        world.getPet().moveDfs(world);
+      } else {
+        playSilently(others.get(actor - firstOtherActor));
+      }
+      if (batch.length() >= LOG_BATCH_SIZE) {
+        flush(batch);
+      }
+    }
+    flush(batch);
+    return true;
+  }
+
+  /**
+   * Lets a player take a turn on its own, within the decision budget if there is one.
+   */
+  private void takeTurn(Iplayer player) {
+    if (budget != null) {
+      budget.takeTurn(player, world);
+    } else {
+      player.takeTurn(world);
+    }
+  }
+
+  /**
+   * Plays the turn of a player that acts on its own, within the decision budget if there is
+   * one. Computer players play without printing anything; other players take their turns as
+   * they always do.
+   */
+  private void playSilently(Iplayer player) {
+    if (!(player instanceof ComputerPlayer)) {
+      takeTurn(player);
+    } else if (budget != null) {
+      budget.playTurn((ComputerPlayer) player, world, false);
+    } else {
+      ((ComputerPlayer) player).playTurn(world, false);
+    }
+  }
+
+  /**
+   * Lets a player take its own turn, asking a human player for an action.
+   *
+   * @param currentPlayer the player whose turn it is
+   * @return false if the player chose to exit the game, true otherwise
+   */
+  private boolean playTurn(Iplayer currentPlayer) {
+    if (output.isEnabled()) {
+      output.println("It's " + currentPlayer.getName() + "'s turn.");
     }
+    log("Turn " + currentTurn + ": " + currentPlayer.getName() + "'s turn.\n");
+
+    // Display limited information about the player's position in the world
+    Tuple<Integer, Integer> playerCoordinates = currentPlayer.getCoordinates();
+    if (output.isEnabled()) {
+      output.println("You are at coordinates: " + playerCoordinates.getFirst() + ""
+          + ", " + playerCoordinates.getSecond());
+    }
+    log("Player " + currentPlayer.getName() + ""
+        + " is at coordinates: " + playerCoordinates.getFirst() + ""
+        + ", " + playerCoordinates.getSecond() + "\n");
+
+    if (!isHuman(currentPlayer)) {
+      output.println("Computer player is taking its turn...");
+      takeTurn(currentPlayer);
+      log("Computer player took its turn.\n\n");
+      output.println("Action completed\n");
+    } else {
+      output.println("Choose an action: move, pick item, look around, "
+          + "attack, display map, display player, display room, move pet, exit");
+      String action = scanner.nextLine().trim().toLowerCase();
+      log("Action: " + action + "\n");
+
+      switch (action) {
+        case "move":
+          movePlayer(currentPlayer, scanner);
+          output.println("Action completed\n");
+          log("Action completed\n\n");
+          break;
+        case "pick item":
+          pickItem(currentPlayer);
+          output.println("Action completed\n");
+          log("Action completed\n\n");
+          break;
+        case "look around":
+          if (output.isEnabled()) {
+            output.println(currentPlayer.lookAround(world));
+          }
+          log("Player looked around\n");
+          break;
+        case "attack":
+          attackTarget(currentPlayer);
+          output.println("Action completed\n");
+          log("Action completed\n\n");
+          break;
+        case "display map":
+          displayMap();
+          output.println("Action completed\n");
+          log("Action completed\n\n");
+          break;
+        case "display player":
+          displayPlayer(currentPlayer);
+          output.println("Action completed\n");
+          log("Action completed\n\n");
+          break;
+        case "display room":
+          displayRoom(scanner);
+          output.println("Action completed\n");
+          log("Action completed\n\n");
+          break;
+        case "move pet":
+          movePet(scanner);
+          output.println("Action completed\n");
+          log("Action completed\n\n");
+          break;
+        case "exit":
+          gameRunning = false;
+          return false;
+        default:
+          output.println("Invalid action.");
+          log("Invalid action.\n\n");
+          break;
+      }
+    }
+    return true;
   }
 
   /**
    * Ends the game, providing an option to save the game log.
    */
   private void endGame() {
-    System.out.println("Do you want to save the game log? (yes/no)");
+    output.println("Do you want to save the game log? (yes/no)");
     if (scanner.hasNextLine()) {
       String response = scanner.nextLine().trim().toLowerCase();
       if ("yes".equals(response)) {
         try {
           logWriter.close();
-          System.out.println("Game log saved successfully.");
+          output.println("Game log saved successfully.");
         } catch (IOException e) {
           e.printStackTrace();
         }
       } else {
-        System.out.println("Game log not saved.");
+        output.println("Game log not saved.");
       }
     } else {
-      System.out.println("No input available to save the game log.");
+      output.println("No input available to save the game log.");
     }
   }
 
@@ -258,6 +548,32 @@ public class GameController {
     }
   }
 
+  /**
+   * Logs a message, to a batch if there is one.
+   *
+   * @param batch   the batch of log messages, or null to log directly
+   * @param message the message to log
+   */
+  private void log(StringBuilder batch, String message) {
+    if (batch == null) {
+      log(message);
+    } else {
+      batch.append(message);
+    }
+  }
+
+  /**
+   * Writes a batch of log messages to the log file and empties it.
+   *
+   * @param batch the batch of log messages, or null
+   */
+  private void flush(StringBuilder batch) {
+    if (batch != null && batch.length() > 0) {
+      log(batch.toString());
+      batch.setLength(0);
+    }
+  }
+
   /**
    * Closes the resources used by the game controller.
    */
@@ -279,9 +595,9 @@ public class GameController {
   public void movePlayer(Iplayer player, Scanner scanner) {
     Iroom currentRoom = findRoomByCoordinates(player.getCoordinates());
     List<Iroom> neighbors = world.getNeighbors(currentRoom);
-    System.out.println("Enter the room number to move to:");
+    output.println("Enter the room number to move to:");
     for (int i = 0; i < neighbors.size(); i++) {
-      System.out.println(i + ": " + neighbors.get(i).getName());
+      output.println(i + ": " + neighbors.get(i).getName());
     }
     int roomIndex = scanner.nextInt();
     scanner.nextLine(); // consume the newline
@@ -290,7 +606,7 @@ public class GameController {
       world.movePlayer(player, newRoom.getCoordinates());
       log("Player " + player.getName() + " moved to room " + newRoom.getName() + ".\n");
     } else {
-      System.out.println("Invalid room index.");
+      output.println("Invalid room index.");
       log("Invalid room index for player " + player.getName() + ".\n");
     }
   }
@@ -303,15 +619,14 @@ public class GameController {
   public void pickItem(Iplayer player) {
     Iroom room = findRoomByCoordinates(player.getCoordinates());
     if (room != null && !room.getItems().isEmpty()) {
-      Iitem item = room.getItems().get(0);
+      Iitem item = room.getItems().remove(0);
       player.addItem(item);
-      room.getItems().remove(item);
       log("Player " + player.getName() + " picked up item " + item.getName() + ".\n");
-      System.out.println("Player " + player.getName()
+      output.println("Player " + player.getName()
           + " picked up item " + item.getName() + ".\n");
     } else {
       log("No items in the room for player " + player.getName() + " to pick up.\n");
-      System.out.println("No items in the room for player " + player.getName() + " to pick up.\n");
+      output.println("No items in the room for player " + player.getName() + " to pick up.\n");
     }
   }
 
@@ -322,17 +637,17 @@ public class GameController {
    */
   private void attackTarget(Iplayer player) {
     Itarget target = world.getTarget();
-    if (target != null && target.getCoordinates().equals(player.getCoordinates())) {
+    if (target != null && target.getPackedCoordinates() == player.getPackedCoordinates()) {
       String result = player.attack(target, world);
       log(result + "\n");
-      System.out.println(result + "\n");
+      output.println(result + "\n");
       if (target.getHealth() <= 0) {
-        System.out.println("Target " + target.getName() + " has been defeated!");
+        output.println("Target " + target.getName() + " has been defeated!");
         log("Target " + target.getName() + " has been defeated!\n");
         gameRunning = false;
       }
     } else {
-      System.out.println("There is no target to attack in this room.");
+      output.println("There is no target to attack in this room.");
       log("No target to attack in this room.\n");
     }
   }
@@ -345,21 +660,21 @@ public class GameController {
   public void movePet(Scanner scanner) {
     Ipet pet = world.getPet();
     if (pet == null) {
-      System.out.println("No pet in the game world.");
+      output.println("No pet in the game world.");
       log("No pet in the game world.\n");
       return;
     }
 
-    System.out.println("Enter the room number to move the pet to:");
+    output.println("Enter the room number to move the pet to:");
     int roomIndex = scanner.nextInt();
     scanner.nextLine(); // consume the newline
     Iroom room = world.getRoomByIndex(roomIndex);
     if (room != null) {
       world.movePet(room.getCoordinates());
       log("Pet moved to room " + room.getName() + ".\n");
-      System.out.println("Pet moved to room " + room.getName() + ".\n");
+      output.println("Pet moved to room " + room.getName() + ".\n");
     } else {
-      System.out.println("Invalid room index.");
+      output.println("Invalid room index.");
       log("Invalid room index for moving pet.\n");
     }
   }
@@ -373,10 +688,10 @@ public class GameController {
     try {
       view.displayMap(world, path);
       log("Map displayed and saved to " + path + ".\n");
-      System.out.println("Map displayed and saved to " + path + ".\n");
+      output.println("Map displayed and saved to " + path + ".\n");
     } catch (IOException e) {
       log("Failed to display map: " + e.getMessage() + "\n");
-      System.out.println("Failed to display map: " + e.getMessage() + "\n");
+      output.println("Failed to display map: " + e.getMessage() + "\n");
     }
   }
 
@@ -395,7 +710,7 @@ public class GameController {
       output.append(" - " + item.getName() + " (Damage: " + item.getDamage() + ")\n");
     }
     String outputStr = output.toString();
-    System.out.print(outputStr);
+    this.output.print(outputStr);
     log(outputStr);
   }
 
@@ -405,7 +720,7 @@ public class GameController {
    * @param scanner the scanner for user input
    */
   public void displayRoom(Scanner scanner) {
-    System.out.println("Enter the room index:");
+    output.println("Enter the room index:");
     int roomIndex = scanner.nextInt();
     scanner.nextLine(); // consume the newline
     world.displayRoomInfo(roomIndex);
@@ -418,11 +733,6 @@ public class GameController {
    * @return the room at the specified coordinates, or null if not found
    */
   private Iroom findRoomByCoordinates(Tuple<Integer, Integer> coordinates) {
-    for (Iroom room : world.getRooms()) {
-      if (room.getCoordinates().equals(coordinates)) {
-        return room;
-      }
-    }
-    return null;
+    return world.getRoomByCoordinates(coordinates);
   }
 }
@@ -0,0 +1,98 @@
+package game;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of one simulated game.
+ */
+public final class GameResult {
+  private final boolean targetKilled;
+  private final int turns;
+  private final int winner;
+  private final String winnerName;
+  private final int targetHealth;
+  private final List<Iitem> usedItems;
+
+  /**
+   * Constructs the outcome of a game.
+   *
+   * @param targetKilled true if the target was killed, false if the game ran out of turns
+   * @param turns        the number of turns played
+   * @param winner       the roster index of the player who killed the target, or -1
+   * @param winnerName   the name of the player who killed the target, or null
+   * @param targetHealth the health the target was left with
+   * @param usedItems    the items used in attacks, in the order they were used
+   */
+  public GameResult(boolean targetKilled, int turns, int winner, String winnerName,
+      int targetHealth, List<Iitem> usedItems) {
+    this.targetKilled = targetKilled;
+    this.turns = turns;
+    this.winner = winner;
+    this.winnerName = winnerName;
+    this.targetHealth = targetHealth;
+    this.usedItems = Collections.unmodifiableList(usedItems);
+  }
+
+  /**
+   * Determines whether the target was killed.
+   *
+   * @return true if the target was killed, false if the game ran out of turns
+   */
+  public boolean isTargetKilled() {
+    return targetKilled;
+  }
+
+  /**
+   * Gets the number of turns played.
+   *
+   * @return the number of turns
+   */
+  public int getTurns() {
+    return turns;
+  }
+
+  /**
+   * Gets the roster index of the player who killed the target.
+   *
+   * @return the index of the winner, or -1 if nobody killed the target
+   */
+  public int getWinner() {
+    return winner;
+  }
+
+  /**
+   * Gets the name of the player who killed the target.
+   *
+   * @return the name of the winner, or null if nobody killed the target
+   */
+  public String getWinnerName() {
+    return winnerName;
+  }
+
+  /**
+   * Gets the health the target was left with.
+   *
+   * @return the remaining health of the target
+   */
+  public int getTargetHealth() {
+    return targetHealth;
+  }
+
+  /**
+   * Gets the items used in attacks during the game.
+   *
+   * @return the used items, in the order they were used
+   */
+  public List<Iitem> getUsedItems() {
+    return usedItems;
+  }
+
+  @Override
+  public String toString() {
+    if (targetKilled) {
+      return "Target killed by " + winnerName + " after " + turns + " turns.";
+    }
+    return "Target survived " + turns + " turns with " + targetHealth + " health.";
+  }
+}
@@ -0,0 +1,361 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * The mutable state of one game on a {@link MansionTopology}, stored as primitive arrays.
+ *
+ * <p>Players, the target, the pet and the items are identified by index and their positions
+ * are room indices, so a state holds no objects besides its arrays. Copying a state, for example
+ * to restart a game or to branch a simulation, is a handful of array copies. Each item is either
+ * in a room (a location of zero or more), held by a player (a location of {@code -2 - player})
+ * or {@link #USED_UP}.
+ */
+public final class GameState {
+
+  /**
+   * The location of an item that is out of the game, because it was used in an attack or picked
+   * up by a player who could not carry it.
+   */
+  public static final int USED_UP = -1;
+
+  private static final int NO_ROOM = -1;
+
+  private final MansionTopology topology;
+  private final int[] itemLocation;
+  private int[] playerRoom;
+  private int[] playerMaxItems;
+  private int[] playerItemCount;
+  private int playerCount;
+  private int targetRoom;
+  private int targetStep;
+  private int targetHealth;
+  private int petRoom;
+  private int turn;
+
+  /**
+   * Constructs the starting state of a game on a mansion, with every item in its room, the
+   * target at the start of its route and the pet in the first room.
+   *
+   * @param topology the mansion the game is played on
+   */
+  public GameState(MansionTopology topology) {
+    this.topology = topology;
+    this.itemLocation = new int[topology.getItemCount()];
+    for (int i = 0; i < itemLocation.length; i++) {
+      itemLocation[i] = topology.getItem(i).getRoomIndex();
+    }
+    this.playerRoom = new int[4];
+    this.playerMaxItems = new int[4];
+    this.playerItemCount = new int[4];
+    this.targetRoom = topology.getTargetStartRoom();
+    this.targetHealth = topology.getTargetHealth();
+    this.petRoom = topology.getRoomCount() > 0 ? 0 : NO_ROOM;
+  }
+
+  private GameState(GameState other) {
+    this.topology = other.topology;
+    this.itemLocation = new int[other.itemLocation.length];
+    this.playerRoom = new int[other.playerRoom.length];
+    this.playerMaxItems = new int[other.playerMaxItems.length];
+    this.playerItemCount = new int[other.playerItemCount.length];
+    copyFrom(other);
+  }
+
+  /**
+   * Gets the mansion the game is played on.
+   *
+   * @return the topology of the mansion
+   */
+  public MansionTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Creates an independent copy of this state.
+   *
+   * @return a copy of the state
+   */
+  public GameState copy() {
+    return new GameState(this);
+  }
+
+  /**
+   * Overwrites this state with another state of a game on the same mansion.
+   *
+   * @param other the state to copy
+   * @throws IllegalArgumentException if the other state belongs to another mansion
+   */
+  public void copyFrom(GameState other) {
+    if (other.topology != topology) {
+      throw new IllegalArgumentException("Cannot copy the state of another mansion");
+    }
+    System.arraycopy(other.itemLocation, 0, itemLocation, 0, itemLocation.length);
+    if (playerRoom.length < other.playerCount) {
+      playerRoom = new int[other.playerRoom.length];
+      playerMaxItems = new int[other.playerRoom.length];
+      playerItemCount = new int[other.playerRoom.length];
+    }
+    System.arraycopy(other.playerRoom, 0, playerRoom, 0, other.playerCount);
+    System.arraycopy(other.playerMaxItems, 0, playerMaxItems, 0, other.playerCount);
+    System.arraycopy(other.playerItemCount, 0, playerItemCount, 0, other.playerCount);
+    playerCount = other.playerCount;
+    targetRoom = other.targetRoom;
+    targetStep = other.targetStep;
+    targetHealth = other.targetHealth;
+    petRoom = other.petRoom;
+    turn = other.turn;
+  }
+
+  /**
+   * Restores the starting state of the game, removing every player.
+   */
+  public void reset() {
+    copyFrom(topology.startingState());
+  }
+
+  /**
+   * Adds a player to the game.
+   *
+   * @param room     the index of the player's starting room
+   * @param maxItems the maximum number of items the player can carry
+   * @return the index of the new player
+   */
+  public int addPlayer(int room, int maxItems) {
+    if (playerCount == playerRoom.length) {
+      playerRoom = Arrays.copyOf(playerRoom, playerCount * 2);
+      playerMaxItems = Arrays.copyOf(playerMaxItems, playerCount * 2);
+      playerItemCount = Arrays.copyOf(playerItemCount, playerCount * 2);
+    }
+    playerRoom[playerCount] = room;
+    playerMaxItems[playerCount] = maxItems;
+    playerItemCount[playerCount] = 0;
+    return playerCount++;
+  }
+
+  /**
+   * Gets the number of players in the game.
+   *
+   * @return the number of players
+   */
+  public int getPlayerCount() {
+    return playerCount;
+  }
+
+  /**
+   * Gets the room a player is in.
+   *
+   * @param player the index of the player
+   * @return the index of the player's room
+   */
+  public int getPlayerRoom(int player) {
+    return playerRoom[player];
+  }
+
+  /**
+   * Moves a player to a room.
+   *
+   * @param player the index of the player
+   * @param room   the index of the new room
+   */
+  public void setPlayerRoom(int player, int room) {
+    playerRoom[player] = room;
+  }
+
+  /**
+   * Gets the maximum number of items a player can carry.
+   *
+   * @param player the index of the player
+   * @return the maximum number of items
+   */
+  public int getPlayerMaxItems(int player) {
+    return playerMaxItems[player];
+  }
+
+  /**
+   * Gets the number of items a player is carrying.
+   *
+   * @param player the index of the player
+   * @return the number of items held by the player
+   */
+  public int getPlayerItemCount(int player) {
+    return playerItemCount[player];
+  }
+
+  /**
+   * Gets the location of an item.
+   *
+   * @param item the index of the item
+   * @return the index of the item's room, {@code -2 - player} if a player holds it, or
+   *         {@link #USED_UP}
+   */
+  public int getItemLocation(int item) {
+    return itemLocation[item];
+  }
+
+  /**
+   * Gets the first item, in the order the items were added, still lying in a room.
+   *
+   * @param room the index of the room
+   * @return the index of the item, or -1 if the room has no items left
+   */
+  public int firstItemInRoom(int room) {
+    for (int k = topology.roomItemStart(room); k < topology.roomItemEnd(room); k++) {
+      int item = topology.roomItemAt(k);
+      if (itemLocation[item] == room) {
+        return item;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the item with the highest damage held by a player.
+   *
+   * @param player the index of the player
+   * @return the index of the strongest item, the lowest index on ties, or -1 if the player
+   *         holds no items
+   */
+  public int strongestItemOf(int player) {
+    if (playerItemCount[player] == 0) {
+      return -1;
+    }
+    int holder = -2 - player;
+    int best = -1;
+    for (int i = 0; i < itemLocation.length; i++) {
+      if (itemLocation[i] == holder
+          && (best < 0 || topology.getItem(i).getDamage() > topology.getItem(best).getDamage())) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Moves an item from its room to a player. As in the game, the item leaves the room even when
+   * the player cannot carry any more items.
+   *
+   * @param player the index of the player
+   * @param item   the index of the item
+   */
+  public void pickItem(int player, int item) {
+    if (playerItemCount[player] < playerMaxItems[player]) {
+      itemLocation[item] = -2 - player;
+      playerItemCount[player]++;
+    } else {
+      itemLocation[item] = USED_UP;
+    }
+  }
+
+  /**
+   * Marks an item held by a player as used up.
+   *
+   * @param item the index of the item
+   */
+  public void useItem(int item) {
+    int location = itemLocation[item];
+    if (location <= -2) {
+      playerItemCount[-2 - location]--;
+    }
+    itemLocation[item] = USED_UP;
+  }
+
+  /**
+   * Gets the room the target is in.
+   *
+   * @return the index of the target's room, or -1 if the mansion has no rooms
+   */
+  public int getTargetRoom() {
+    return targetRoom;
+  }
+
+  /**
+   * Moves the target to a room. The target goes on along its route from its first visit to the
+   * room, or from the start of the route if the room is not on it.
+   *
+   * @param room the index of the new room
+   */
+  public void setTargetRoom(int room) {
+    targetRoom = room;
+    TargetRoute route = topology.getTargetRoute();
+    targetStep = route == null ? 0 : route.getStep(room);
+  }
+
+  /**
+   * Moves the target one step along its route.
+   */
+  public void moveTarget() {
+    TargetRoute route = topology.getTargetRoute();
+    if (route == null) {
+      return;
+    }
+    targetStep = targetStep < 0 ? 0 : route.next(targetStep);
+    targetRoom = route.getRoom(targetStep);
+  }
+
+  /**
+   * Gets the room the target will be in after a number of moves along its route.
+   *
+   * @param moves the number of moves, zero or more
+   * @return the index of the room, or -1 if the mansion has no rooms
+   */
+  public int getTargetRoomAfter(int moves) {
+    TargetRoute route = topology.getTargetRoute();
+    if (route == null || moves == 0) {
+      return targetRoom;
+    }
+    return targetStep < 0 ? route.roomAfter(0, moves - 1L) : route.roomAfter(targetStep, moves);
+  }
+
+  /**
+   * Gets the remaining health of the target.
+   *
+   * @return the health of the target
+   */
+  public int getTargetHealth() {
+    return targetHealth;
+  }
+
+  /**
+   * Reduces the health of the target, stopping at zero.
+   *
+   * @param damage the damage dealt to the target
+   */
+  public void damageTarget(int damage) {
+    targetHealth = Math.max(0, targetHealth - damage);
+  }
+
+  /**
+   * Gets the room the pet is in.
+   *
+   * @return the index of the pet's room, or -1 if the mansion has no rooms
+   */
+  public int getPetRoom() {
+    return petRoom;
+  }
+
+  /**
+   * Moves the pet to a room.
+   *
+   * @param room the index of the new room
+   */
+  public void setPetRoom(int room) {
+    petRoom = room;
+  }
+
+  /**
+   * Gets the number of turns played so far.
+   *
+   * @return the turn number
+   */
+  public int getTurn() {
+    return turn;
+  }
+
+  /**
+   * Advances the turn counter.
+   */
+  public void nextTurn() {
+    turn++;
+  }
+}
@@ -14,6 +14,20 @@ public class GameWorld implements Igameworld {
   private List<Iroom> rooms;
   private List<Iplayer> players;
   private boolean targetShouldMove = true;
+  private RoomGraph graph;
+  private GridIndex grid;
+  private OccupancyIndex occupancy;
+  private VisibilityIndex visibility;
+  private DistanceTable distances;
+  private Ioutputsink output = new ConsoleSink();
+  private PerceptionCache perception;
+  private final ChangeLog changes = new ChangeLog();
+  private final PetAndTargetListener petAndTargetListener = new PetAndTargetListener();
+  private TargetRoute route;
+  private TargetRoute roomOrder;
+  private int targetStep;
+  private InterceptPlanner interceptPlanner;
+  private ObserverIndex observers;
 
   /**
    * Constructs a GameWorld object with specified dimensions, target, pet, and rooms.
@@ -33,11 +47,70 @@ public class GameWorld implements Igameworld {
     this.pet = pet;
     this.rooms = rooms;
     this.players = new ArrayList<>();
+    this.graph = AdjacencyBuilder.build(rooms);
+    this.grid = new GridIndex(rows, columns, rooms);
+    this.occupancy = new OccupancyIndex(grid);
+    startRecording();
+  }
+
+  /**
+   * Constructs a GameWorld for a new game on a mansion topology. The world reuses the
+   * topology's adjacency, grid index and distance table instead of computing them again.
+   *
+   * @param topology the mansion the game is played on
+   * @param target   the target in the game world
+   * @param pet      the pet in the game world
+   * @param rooms    the rooms of this game, in the topology's room order
+   */
+  GameWorld(MansionTopology topology, Itarget target, Ipet pet, List<Iroom> rooms) {
+    this.rows = topology.getRows();
+    this.columns = topology.getColumns();
+    this.target = target;
+    this.pet = pet;
+    this.rooms = rooms;
+    this.players = new ArrayList<>();
+    this.graph = topology.getRoomGraph().withRooms(rooms);
+    this.grid = topology.getGridIndex();
+    this.occupancy = new OccupancyIndex(grid);
+    this.distances = topology.getDistances();
+    startRecording();
+  }
+
+  /**
+   * Starts recording changes as they happen: player moves through the occupancy index, item
+   * changes through the rooms' item lists, and moves of the pet and the target and damage to
+   * the target through their listeners.
+   */
+  private void startRecording() {
+    occupancy.setChangeLog(changes);
+    for (int i = 0; i < rooms.size(); i++) {
+      rooms.get(i).getItems().setListener(new RoomItemsListener(i));
+    }
+    if (pet != null) {
+      pet.setListener(petAndTargetListener);
+    }
+    if (target != null) {
+      target.setListener(petAndTargetListener);
+    }
+  }
+
+  /**
+   * Gets the log of changes to the world.
+   *
+   * @return the change log of the world
+   */
+  public ChangeLog getChangeLog() {
+    return changes;
   }
 
   @Override
   public void addRoom(Iroom room) {
     rooms.add(room);
+    graph = null;
+    grid = null;
+    int index = rooms.size() - 1;
+    room.getItems().setListener(new RoomItemsListener(index));
+    changes.record(ChangeLog.ROOM_ADDED, index, index);
   }
 
   @Override
@@ -65,6 +138,12 @@ public class GameWorld implements Igameworld {
 
   @Override
   public List<Iroom> getNeighbors(Iroom room) {
+    RoomGraph roomGraph = getRoomGraph();
+    int index = roomGraph.indexOf(room);
+    if (index >= 0) {
+      return roomGraph.neighbors(index);
+    }
+    // Rooms outside the world are still compared against every room of the world
     List<Iroom> neighbors = new ArrayList<>();
     for (Iroom r : rooms) {
       if (r != room && ((Room) room).isNeighbor((Room) r)) {
@@ -74,58 +153,177 @@ public class GameWorld implements Igameworld {
     return neighbors;
   }
 
+  @Override
+  public int getRoomIndex(Iroom room) {
+    return getRoomGraph().indexOf(room);
+  }
+
+  @Override
+  public RoomGraph getRoomGraph() {
+    if (graph == null || graph.size() != rooms.size()) {
+      graph = AdjacencyBuilder.build(rooms);
+    }
+    return graph;
+  }
+
+  @Override
+  public GridIndex getGridIndex() {
+    if (grid == null || grid.size() != rooms.size()) {
+      grid = new GridIndex(rows, columns, rooms);
+    }
+    return grid;
+  }
+
+  @Override
+  public int getRoomIndexByCoordinates(long coordinates) {
+    if (coordinates == Coordinates.NONE) {
+      return -1;
+    }
+    return getGridIndex().roomWithCorner(Coordinates.row(coordinates),
+        Coordinates.column(coordinates));
+  }
+
+  @Override
+  public Iroom getRoomContaining(int row, int column) {
+    int index = getGridIndex().roomAt(row, column);
+    return index < 0 ? null : rooms.get(index);
+  }
+
   @Override
   public void displayRoomInfo(int index) {
+    if (!output.isEnabled()) {
+      return;
+    }
     if (index < 0 || index >= rooms.size()) {
-      System.out.println("Invalid room index.");
+      output.println("Invalid room index.");
       return;
     }
     Iroom room = rooms.get(index);
-    System.out.println("Room Name: " + room.getName());
-    System.out.println("Items in the Room:");
+    long roomCoordinates = room.getPackedCoordinates();
+    output.println("Room Name: " + room.getName());
+    output.println("Items in the Room:");
     for (Iitem item : room.getItems()) {
-      System.out.println(" - " + item.getName() + " (Damage: " + item.getDamage() + ")");
+      output.println(" - " + item.getName() + " (Damage: " + item.getDamage() + ")");
     }
-    List<Iroom> neighbors = getNeighbors(room);
-    System.out.println("Visible Rooms:");
-    for (Iroom neighbor : neighbors) {
-      System.out.println(" - " + neighbor.getName());
+    RoomGraph roomGraph = getRoomGraph();
+    output.println("Visible Rooms:");
+    for (int k = roomGraph.neighborStart(index); k < roomGraph.neighborEnd(index); k++) {
+      output.println(" - " + roomGraph.roomAt(roomGraph.neighborAt(k)).getName());
     }
-    System.out.println("Players in the Room:");
-    for (Iplayer player : players) {
-      if (player.getCoordinates().equals(room.getCoordinates())) {
-        System.out.println(" - " + player.getName());
-      }
+    output.println("Players in the Room:");
+    OccupancyIndex occupants = getOccupancy();
+    for (int id = occupants.first(index); id >= 0; id = occupants.next(id)) {
+      output.println(" - " + occupants.player(id).getName());
     }
-    if (pet != null && pet.getCoordinates().equals(room.getCoordinates())) {
-      System.out.println("Pet: " + pet.getName() + " is here.");
+    if (pet != null && pet.getPackedCoordinates() == roomCoordinates) {
+      output.println("Pet: " + pet.getName() + " is here.");
     }
-    if (target != null && target.getCoordinates().equals(room.getCoordinates())) {
-      System.out.println("Target: " + target.getName() + " is here.");
+    if (target != null && target.getPackedCoordinates() == roomCoordinates) {
+      output.println("Target: " + target.getName() + " is here.");
     }
   }
 
+  @Override
+  public void setOutput(Ioutputsink output) {
+    this.output = output;
+  }
+
+  @Override
+  public Ioutputsink getOutput() {
+    return output;
+  }
+
   @Override
   public void moveTarget() {
-    if (!targetShouldMove) {
+    if (!targetShouldMove || rooms.isEmpty()) {
       return;
     }
-    int currentRoomIndex = 0;
-    if (target.getCoordinates() != null) {
-      for (int i = 0; i < rooms.size(); i++) {
-        if (rooms.get(i).getCoordinates().equals(target.getCoordinates())) {
-          currentRoomIndex = i;
-          break;
-        }
-      }
+    TargetRoute route = getTargetRoute();
+    int step = findTargetStep(route);
+    targetStep = step < 0 ? 0 : route.next(step);
+    target.moveTarget(rooms.get(route.getRoom(targetStep)).getCoordinates());
+  }
+
+  /**
+   * Finds the target on its route. The step the target was last moved to is checked first, so
+   * only a target that was moved by other means is looked up by its room.
+   *
+   * @param route the route of the target
+   * @return the step of the target, or -1 if it is off the route
+   */
+  private int findTargetStep(TargetRoute route) {
+    long coordinates = target.getPackedCoordinates();
+    if (targetStep < route.getLength()
+        && rooms.get(route.getRoom(targetStep)).getPackedCoordinates() == coordinates) {
+      return targetStep;
     }
-    int nextRoomIndex = (currentRoomIndex + 1) % rooms.size();
-    target.moveTarget(rooms.get(nextRoomIndex).getCoordinates());
+    return route.getStep(getRoomIndexByCoordinates(coordinates));
+  }
+
+  @Override
+  public TargetRoute getTargetRoute() {
+    if (route != null) {
+      return route;
+    }
+    if (roomOrder == null || roomOrder.getRoomCount() != rooms.size()) {
+      roomOrder = rooms.isEmpty() ? null : TargetRoute.inIndexOrder(rooms.size());
+    }
+    return roomOrder;
+  }
+
+  /**
+   * Sets the route the target walks from its current room on.
+   *
+   * @param route the new route, or null to visit every room in index order
+   * @throws IllegalArgumentException if the route visits rooms that do not exist
+   */
+  public void setTargetRoute(TargetRoute route) {
+    if (route != null && route.getRoomCount() > rooms.size()) {
+      throw new IllegalArgumentException("The route visits rooms that do not exist");
+    }
+    this.route = route;
+    this.targetStep = 0;
+  }
+
+  @Override
+  public int getTargetStep() {
+    TargetRoute route = getTargetRoute();
+    return target == null || route == null ? -1 : findTargetStep(route);
+  }
+
+  @Override
+  public InterceptPlanner getInterceptPlanner() {
+    TargetRoute route = getTargetRoute();
+    if (route == null) {
+      return null;
+    }
+    DistanceTable table = getDistances();
+    if (interceptPlanner == null || interceptPlanner.getRoute() != route
+        || interceptPlanner.getDistances() != table) {
+      interceptPlanner = new InterceptPlanner(route, table);
+    }
+    return interceptPlanner;
+  }
+
+  @Override
+  public int getTargetRoomAfter(int moves) {
+    int room = getTargetRoomIndex();
+    if (room < 0 || moves == 0 || !targetShouldMove) {
+      return room;
+    }
+    TargetRoute route = getTargetRoute();
+    int step = findTargetStep(route);
+    return step < 0 ? route.roomAfter(0, moves - 1L) : route.roomAfter(step, moves);
   }
 
   @Override
   public void addPlayer(Iplayer player) {
     players.add(player);
+    if (occupancy.size() == players.size() - 1) {
+      occupancy.add(player);
+    }
+    int room = getRoomIndexByCoordinates(player.getPackedCoordinates());
+    changes.record(ChangeLog.PLAYER_ADDED, room, room);
   }
 
   @Override
@@ -133,13 +331,146 @@ public class GameWorld implements Igameworld {
     return players;
   }
 
+  @Override
+  public OccupancyIndex getOccupancy() {
+    GridIndex current = getGridIndex();
+    if (occupancy.getGrid() != current || occupancy.size() != players.size()) {
+      occupancy.rebuild(current, players);
+    }
+    return occupancy;
+  }
+
+  @Override
+  public ObserverIndex getObservers() {
+    OccupancyIndex index = getOccupancy();
+    RoomGraph roomGraph = getRoomGraph();
+    if (observers == null || observers.getGraph() != roomGraph) {
+      observers = new ObserverIndex(roomGraph);
+      index.setObservers(observers);
+    }
+    return observers;
+  }
+
+  @Override
+  public long getVersion() {
+    return changes.getVersion();
+  }
+
+  @Override
+  public long getRoomVersion(int room) {
+    return changes.getRoomVersion(room);
+  }
+
+  @Override
+  public PerceptionCache getPerception() {
+    if (perception == null) {
+      perception = new PerceptionCache(this);
+    }
+    return perception;
+  }
+
+  @Override
+  public Iplayer findObserver(Iplayer subject) {
+    int room = getRoomIndexByCoordinates(subject.getPackedCoordinates());
+    if (room < 0) {
+      // Players outside every room can only be seen by players at the same coordinates
+      for (int p = 0; p < players.size(); p++) {
+        Iplayer player = players.get(p);
+        if (player != subject && player.canSee(subject, this)) {
+          return player;
+        }
+      }
+      return null;
+    }
+
+    // Only players in the subject's room or a neighboring room can see the subject
+    OccupancyIndex index = getOccupancy();
+    int observer = firstObserver(index, index.first(room), subject, -1);
+    RoomGraph roomGraph = getRoomGraph();
+    for (int k = roomGraph.neighborStart(room); k < roomGraph.neighborEnd(room); k++) {
+      observer = firstObserver(index, index.first(roomGraph.neighborAt(k)), subject, observer);
+    }
+    return observer < 0 ? null : index.player(observer);
+  }
+
+  /**
+   * Finds the lowest numbered occupant, starting from an occupant of a room, who can see the
+   * subject and comes before the best observer found so far.
+   */
+  private int firstObserver(OccupancyIndex index, int id, Iplayer subject, int best) {
+    for (; id >= 0 && (best < 0 || id < best); id = index.next(id)) {
+      Iplayer player = index.player(id);
+      if (player != subject && player.canSee(subject, this)) {
+        return id;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public boolean isVisible(long observer, long subject) {
+    if (observer == subject) {
+      return true;
+    }
+    int observerRoom = getRoomIndexByCoordinates(observer);
+    int subjectRoom = getRoomIndexByCoordinates(subject);
+    if (observerRoom < 0 || subjectRoom < 0) {
+      return false;
+    }
+    return getVisibility().canSee(observerRoom, subjectRoom);
+  }
+
+  @Override
+  public VisibilityIndex getVisibility() {
+    RoomGraph roomGraph = getRoomGraph();
+    if (visibility == null || visibility.getGraph() != roomGraph) {
+      visibility = new VisibilityIndex(roomGraph);
+    }
+    visibility.setPetRoom(getPetRoomIndex());
+    return visibility;
+  }
+
+  @Override
+  public DistanceTable getDistances() {
+    RoomGraph roomGraph = getRoomGraph();
+    if (distances == null || !distances.getGraph().sharesStructure(roomGraph)) {
+      distances = new DistanceTable(roomGraph);
+    }
+    return distances;
+  }
+
+  @Override
+  public int getDistance(int fromRoom, int toRoom) {
+    return getDistances().distance(fromRoom, toRoom);
+  }
+
+  @Override
+  public int getNextStep(int fromRoom, int toRoom) {
+    return getDistances().nextStep(fromRoom, toRoom);
+  }
+
+  @Override
+  public int getPetRoomIndex() {
+    return pet == null ? -1 : getRoomIndexByCoordinates(pet.getPackedCoordinates());
+  }
+
+  @Override
+  public int getTargetRoomIndex() {
+    return target == null ? -1 : getRoomIndexByCoordinates(target.getPackedCoordinates());
+  }
+
   @Override
   public void movePlayer(Iplayer player, Tuple<Integer, Integer> newCoordinates) {
     Iroom currentRoom = getRoomByCoordinates(player.getCoordinates());
     Iroom targetRoom = getRoomByCoordinates(newCoordinates);
 
-    if (currentRoom != null && targetRoom != null 
-        && getNeighbors(currentRoom).contains(targetRoom)) {
+    if (currentRoom == null || targetRoom == null) {
+      return;
+    }
+    RoomGraph roomGraph = getRoomGraph();
+    int from = roomGraph.indexOf(currentRoom);
+    int to = roomGraph.indexOf(targetRoom);
+    if (from >= 0 && to >= 0 && roomGraph.isNeighbor(from, to)) {
       player.move(newCoordinates);
     }
   }
@@ -156,12 +487,11 @@ public class GameWorld implements Igameworld {
 
   @Override
   public Iroom getRoomByCoordinates(Tuple<Integer, Integer> coordinates) {
-    for (Iroom room : rooms) {
-      if (room.getCoordinates().equals(coordinates)) {
-        return room;
-      }
+    if (coordinates == null) {
+      return null;
     }
-    return null;
+    int index = getGridIndex().roomWithCorner(coordinates.getFirst(), coordinates.getSecond());
+    return index < 0 ? null : rooms.get(index);
   }
 
   @Override
@@ -171,7 +501,15 @@ public class GameWorld implements Igameworld {
 
   @Override
   public void addPet(Ipet pet) {
+    if (this.pet != null) {
+      this.pet.setListener(null);
+    }
     this.pet = pet;
+    if (pet != null) {
+      pet.setListener(petAndTargetListener);
+      int room = getRoomIndexByCoordinates(pet.getPackedCoordinates());
+      changes.record(ChangeLog.PET_MOVED, room, -1);
+    }
   }
 
   /**
@@ -180,7 +518,15 @@ public class GameWorld implements Igameworld {
    * @param target the target to set
    */
   public void setTarget(Itarget target) {
+    if (this.target != null) {
+      this.target.setListener(null);
+    }
     this.target = target;
+    if (target != null) {
+      target.setListener(petAndTargetListener);
+      int room = getRoomIndexByCoordinates(target.getPackedCoordinates());
+      changes.record(ChangeLog.TARGET_MOVED, room, -1);
+    }
   }
 
   /**
@@ -201,4 +547,44 @@ public class GameWorld implements Igameworld {
       pet.moveDfs(this);
     }
   }
+
+  /**
+   * Records the moves of the pet and the target and the damage to the target.
+   */
+  private final class PetAndTargetListener implements Ipetlistener, Itargetlistener {
+
+    @Override
+    public void petMoved(Ipet movedPet, long from, long to) {
+      changes.record(ChangeLog.PET_MOVED, getRoomIndexByCoordinates(to),
+          getRoomIndexByCoordinates(from));
+    }
+
+    @Override
+    public void targetMoved(Itarget movedTarget, long from, long to) {
+      changes.record(ChangeLog.TARGET_MOVED, getRoomIndexByCoordinates(to),
+          getRoomIndexByCoordinates(from));
+    }
+
+    @Override
+    public void targetDamaged(Itarget damaged, int health) {
+      int room = getRoomIndexByCoordinates(damaged.getPackedCoordinates());
+      changes.record(ChangeLog.TARGET_DAMAGED, room, room);
+    }
+  }
+
+  /**
+   * Records changes to the items of one room.
+   */
+  private final class RoomItemsListener implements Iitemlistener {
+    private final int room;
+
+    RoomItemsListener(int room) {
+      this.room = room;
+    }
+
+    @Override
+    public void itemsChanged(ItemList items) {
+      changes.record(ChangeLog.ITEMS_CHANGED, room, room);
+    }
+  }
 }
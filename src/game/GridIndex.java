@@ -0,0 +1,140 @@
+package game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable spatial index mapping the cells of the mansion grid to room indices.
+ *
+ * <p>Every cell of the {@code rows x columns} grid stores the index of the room that contains it
+ * and the index of the room whose top-left corner it is. When rooms overlap, the room that comes
+ * first in the room list wins, matching a linear scan of the list. Rooms that reach outside the
+ * grid are kept in a small overflow list and checked linearly for cells outside the grid.
+ */
+public final class GridIndex {
+  private static final int NO_ROOM = -1;
+
+  private final int rows;
+  private final int columns;
+  private final int[] cellRoom;
+  private final int[] cornerRoom;
+  private final int[] overflow;
+  private final int[] bounds;
+
+  /**
+   * Builds the index for the specified grid dimensions and rooms.
+   *
+   * @param rows    the number of rows in the grid
+   * @param columns the number of columns in the grid
+   * @param rooms   the rooms of the mansion, in index order
+   */
+  public GridIndex(int rows, int columns, List<Iroom> rooms) {
+    this.rows = Math.max(rows, 0);
+    this.columns = Math.max(columns, 0);
+    this.cellRoom = new int[this.rows * this.columns];
+    this.cornerRoom = new int[this.rows * this.columns];
+    Arrays.fill(cellRoom, NO_ROOM);
+    Arrays.fill(cornerRoom, NO_ROOM);
+
+    int n = rooms.size();
+    this.bounds = new int[n * 4];
+    int[] outside = new int[n];
+    int outsideCount = 0;
+    for (int i = 0; i < n; i++) {
+      Iroom room = rooms.get(i);
+      bounds[i * 4] = room.getCoordinates().getFirst();
+      bounds[i * 4 + 1] = room.getCoordinates().getSecond();
+      bounds[i * 4 + 2] = room.getEndingCoordinates().getFirst();
+      bounds[i * 4 + 3] = room.getEndingCoordinates().getSecond();
+      if (!insideGrid(bounds[i * 4], bounds[i * 4 + 1])
+          || !insideGrid(bounds[i * 4 + 2], bounds[i * 4 + 3])) {
+        outside[outsideCount++] = i;
+      }
+    }
+    this.overflow = Arrays.copyOf(outside, outsideCount);
+
+    // Fill in reverse so that the first room in the list ends up owning shared cells
+    for (int i = n - 1; i >= 0; i--) {
+      int rowStart = Math.max(bounds[i * 4], 0);
+      int colStart = Math.max(bounds[i * 4 + 1], 0);
+      int rowEnd = Math.min(bounds[i * 4 + 2], this.rows - 1);
+      int colEnd = Math.min(bounds[i * 4 + 3], this.columns - 1);
+      for (int r = rowStart; r <= rowEnd; r++) {
+        Arrays.fill(cellRoom, r * this.columns + colStart, r * this.columns + colEnd + 1, i);
+      }
+      if (insideGrid(bounds[i * 4], bounds[i * 4 + 1])) {
+        cornerRoom[bounds[i * 4] * this.columns + bounds[i * 4 + 1]] = i;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of rooms in the index.
+   *
+   * @return the number of rooms
+   */
+  public int size() {
+    return bounds.length / 4;
+  }
+
+  /**
+   * Gets the number of rows covered by the index.
+   *
+   * @return the number of rows
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Gets the number of columns covered by the index.
+   *
+   * @return the number of columns
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Finds the room that contains a cell.
+   *
+   * @param row    the row of the cell
+   * @param column the column of the cell
+   * @return the index of the room containing the cell, or -1 if no room contains it
+   */
+  public int roomAt(int row, int column) {
+    if (insideGrid(row, column)) {
+      return cellRoom[row * columns + column];
+    }
+    for (int i : overflow) {
+      if (bounds[i * 4] <= row && row <= bounds[i * 4 + 2]
+          && bounds[i * 4 + 1] <= column && column <= bounds[i * 4 + 3]) {
+        return i;
+      }
+    }
+    return NO_ROOM;
+  }
+
+  /**
+   * Finds the room whose top-left corner is a cell.
+   *
+   * @param row    the row of the cell
+   * @param column the column of the cell
+   * @return the index of the room starting at the cell, or -1 if no room starts there
+   */
+  public int roomWithCorner(int row, int column) {
+    if (insideGrid(row, column)) {
+      return cornerRoom[row * columns + column];
+    }
+    for (int i : overflow) {
+      if (bounds[i * 4] == row && bounds[i * 4 + 1] == column) {
+        return i;
+      }
+    }
+    return NO_ROOM;
+  }
+
+  private boolean insideGrid(int row, int column) {
+    return row >= 0 && row < rows && column >= 0 && column < columns;
+  }
+}
@@ -0,0 +1,44 @@
+package game;
+
+/**
+ * A computer player that can cut its search short and play the best action found so far.
+ *
+ * <p>The player's effort is the amount of searching it means to do for an action, such as a
+ * number of play-outs. A {@link DecisionBudget} gives each decision a deadline and lowers or
+ * raises the effort to keep the player's turns within a time limit.
+ */
+public interface Ianytimeplayer {
+
+  /**
+   * Sets the time by which the player's next decision must be made. When the deadline passes on
+   * the clock, the player stops searching and plays the best action found so far. The deadline
+   * applies to the next decision only.
+   *
+   * @param deadline the deadline, as a reading of the clock
+   * @param clock    the clock the deadline is read on, the budget's {@link Iclock}
+   */
+  void setDeadline(long deadline, Iclock clock);
+
+  /**
+   * Gets the amount of searching the player means to do for each decision.
+   *
+   * @return the effort, or 0 if the player searches until its deadline or time limit
+   */
+  int getEffort();
+
+  /**
+   * Gets the amount of searching the player did for its last decision, which is less than its
+   * effort if the decision was cut short.
+   *
+   * @return the effort spent, or 0 if the last decision was made without searching
+   */
+  int getLastEffort();
+
+  /**
+   * Sets the amount of searching the player means to do for each decision.
+   *
+   * @param effort the effort, at least 1
+   * @throws IllegalArgumentException if the effort is less than 1
+   */
+  void setEffort(int effort);
+}
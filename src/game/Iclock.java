@@ -0,0 +1,26 @@
+package game;
+
+/**
+ * A source of the current time for code that measures how long things take, so that it can be
+ * run on a clock other than the machine's.
+ */
+public interface Iclock {
+
+  /**
+   * The clock of the running Java virtual machine, {@link System#nanoTime()}.
+   */
+  Iclock SYSTEM = new Iclock() {
+    @Override
+    public long nanoTime() {
+      return System.nanoTime();
+    }
+  };
+
+  /**
+   * Gets the current time of the clock. Only differences between two readings of the same clock
+   * are meaningful.
+   *
+   * @return the current time in nanoseconds
+   */
+  long nanoTime();
+}
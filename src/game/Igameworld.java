@@ -51,6 +51,21 @@ public interface Igameworld {
    */
   List<Iroom> getNeighbors(Iroom room);
 
+  /**
+   * Gets the index of a room in the game world.
+   *
+   * @param room the room to look up
+   * @return the index of the room, or -1 if the room is not part of the game world
+   */
+  int getRoomIndex(Iroom room);
+
+  /**
+   * Gets the adjacency graph of the rooms in the game world.
+   *
+   * @return the room adjacency graph, indexed by room number
+   */
+  RoomGraph getRoomGraph();
+
   /**
    * Displays information about a room.
    *
@@ -59,7 +74,21 @@ public interface Igameworld {
   void displayRoomInfo(int index);
 
   /**
-   * Moves the target to a new location.
+   * Sets where the game world and the computer players in it write what they display.
+   *
+   * @param output the sink to write to
+   */
+  void setOutput(Ioutputsink output);
+
+  /**
+   * Gets where the game world and the computer players in it write what they display.
+   *
+   * @return the output sink of the world
+   */
+  Ioutputsink getOutput();
+
+  /**
+   * Moves the target to the next room of its route.
    */
   void moveTarget();
 
@@ -77,6 +106,144 @@ public interface Igameworld {
    */
   List<Iplayer> getPlayers();
 
+  /**
+   * Gets the index of which players occupy each room.
+   *
+   * @return the occupancy index of the game world
+   */
+  OccupancyIndex getOccupancy();
+
+  /**
+   * Gets the counts of the players who could see an attack in each room, kept up to date as
+   * players move.
+   *
+   * @return the observer index of the world
+   */
+  ObserverIndex getObservers();
+
+  /**
+   * Gets a counter that changes whenever anything in the world changes: a room or player is
+   * added, a player, the pet or the target moves, the target is hurt or the items of a room
+   * change.
+   *
+   * @return the version of the world
+   */
+  long getVersion();
+
+  /**
+   * Gets a counter that changes whenever something in a room changes: a player, the pet or the
+   * target enters or leaves it, or its items change. A world may also change it for changes
+   * elsewhere, but never leaves it unchanged after a change in the room.
+   *
+   * @param room the index of the room
+   * @return the version of the room
+   */
+  long getRoomVersion(int room);
+
+  /**
+   * Gets the cache of room listings shared by all players looking around in this world.
+   *
+   * @return the perception cache of the world
+   */
+  PerceptionCache getPerception();
+
+  /**
+   * Finds the first player, in turn order, who can see the specified player.
+   *
+   * @param subject the player who might be seen
+   * @return the first other player who can see the subject, or null if nobody can
+   */
+  Iplayer findObserver(Iplayer subject);
+
+  /**
+   * Determines whether a player at one set of coordinates can see a player at another. Players
+   * see everyone in their own room and in neighboring rooms, unless the pet is in the observed
+   * neighboring room.
+   *
+   * @param observer the packed coordinates of the observer, see {@link Coordinates}
+   * @param subject  the packed coordinates of the observed player
+   * @return true if the observer can see the subject, false otherwise
+   */
+  boolean isVisible(long observer, long subject);
+
+  /**
+   * Gets the precomputed visibility sets of the rooms, with the pet's sight block up to date.
+   *
+   * @return the visibility index of the game world
+   */
+  VisibilityIndex getVisibility();
+
+  /**
+   * Gets the shortest-path distances and next steps between the rooms.
+   *
+   * @return the distance table of the game world
+   */
+  DistanceTable getDistances();
+
+  /**
+   * Gets the number of moves needed to go from one room to another.
+   *
+   * @param fromRoom the index of the starting room
+   * @param toRoom   the index of the destination room
+   * @return the number of moves, or -1 if the destination cannot be reached
+   */
+  int getDistance(int fromRoom, int toRoom);
+
+  /**
+   * Gets the first room to move to on a shortest path from one room to another.
+   *
+   * @param fromRoom the index of the starting room
+   * @param toRoom   the index of the destination room
+   * @return the index of the next room, {@code fromRoom} if the rooms are the same, or -1 if the
+   *         destination cannot be reached
+   */
+  int getNextStep(int fromRoom, int toRoom);
+
+  /**
+   * Gets the index of the room the pet is in.
+   *
+   * @return the index of the pet's room, or -1 if there is no pet or it is not in a room
+   */
+  int getPetRoomIndex();
+
+  /**
+   * Gets the index of the room the target is in.
+   *
+   * @return the index of the target's room, or -1 if there is no target or it is not in a room
+   */
+  int getTargetRoomIndex();
+
+  /**
+   * Gets the route the target walks when {@link #moveTarget()} is called.
+   *
+   * @return the route of the target, or null if the world has no rooms
+   */
+  TargetRoute getTargetRoute();
+
+  /**
+   * Gets the room the target will be in after it has moved a number of times, without moving
+   * it. A target that does not move stays where it is.
+   *
+   * @param moves the number of moves, zero or more
+   * @return the index of the room, or -1 if there is no target or it is not in a room
+   */
+  int getTargetRoomAfter(int moves);
+
+  /**
+   * Gets the step of its route the target is at.
+   *
+   * @return the step of the target, or -1 if there is no target or it is off its route
+   */
+  int getTargetStep();
+
+  /**
+   * Gets the planner for meeting the target on its current route. The world keeps the planner
+   * until the route or the rooms change, so its answers are shared by every player and turn.
+   *
+   * @return the intercept planner, or null if the world has no rooms
+   */
+  InterceptPlanner getInterceptPlanner();
+
   /**
    * Moves a player to a new set of coordinates.
    *
@@ -107,6 +274,30 @@ public interface Igameworld {
    */
   Iroom getRoomByCoordinates(Tuple<Integer, Integer> coordinates);
 
+  /**
+   * Gets the room that contains a cell of the game world grid.
+   *
+   * @param row    the row of the cell
+   * @param column the column of the cell
+   * @return the room containing the cell, or null if no room contains it
+   */
+  Iroom getRoomContaining(int row, int column);
+
+  /**
+   * Gets the index of the room whose starting coordinates match packed coordinates.
+   *
+   * @param coordinates the packed coordinates, see {@link Coordinates}
+   * @return the index of the room, or -1 if no room starts at the coordinates
+   */
+  int getRoomIndexByCoordinates(long coordinates);
+
+  /**
+   * Gets the spatial index mapping grid cells to room indices.
+   *
+   * @return the grid index of the game world
+   */
+  GridIndex getGridIndex();
+
   /**
    * Moves the pet to a new set of coordinates.
    *
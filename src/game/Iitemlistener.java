@@ -0,0 +1,14 @@
+package game;
+
+/**
+ * Receives notifications when the contents of an item list change.
+ */
+public interface Iitemlistener {
+
+  /**
+   * Called after items were added to, removed from or replaced in a list.
+   *
+   * @param items the list that changed
+   */
+  void itemsChanged(ItemList items);
+}
@@ -0,0 +1,16 @@
+package game;
+
+/**
+ * Receives notifications when a player changes position.
+ */
+public interface Imovelistener {
+
+  /**
+   * Called after a player has moved.
+   *
+   * @param player the player that moved
+   * @param from   the packed coordinates the player moved from, see {@link Coordinates}
+   * @param to     the packed coordinates the player moved to
+   */
+  void playerMoved(Iplayer player, long from, long to);
+}
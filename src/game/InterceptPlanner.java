@@ -0,0 +1,170 @@
+package game;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Finds where and when a player can meet the target, using the fact that the target's route is
+ * fixed.
+ *
+ * <p>For a player in a room and a target at a step of its route, the meeting time is the
+ * smallest number of moves {@code k} such that the room the target reaches after {@code k} moves
+ * is at most {@code k} moves away from the player, assuming the player moves once for every move
+ * of the target and may wait. In the game computer players act at least that often, so a player
+ * that walks toward the meeting room is there no later than the target. The meeting times of a
+ * room are computed for every step of the route in one pass the first time the room is asked
+ * about; after that every question is answered in O(1).
+ *
+ * <p>A planner never changes after its rows are computed and can be shared between threads.
+ * Worlds keep one for their current route; see {@link Igameworld#getInterceptPlanner()}.
+ */
+public final class InterceptPlanner {
+  private final TargetRoute route;
+  private final DistanceTable distances;
+  private final AtomicReferenceArray<int[]> rows;
+
+  /**
+   * Constructs a planner for a route through a mansion.
+   *
+   * @param route     the route of the target
+   * @param distances the distances between the rooms of the mansion
+   * @throws IllegalArgumentException if the route visits rooms the distance table does not have
+   */
+  public InterceptPlanner(TargetRoute route, DistanceTable distances) {
+    if (route.getRoomCount() > distances.getGraph().size()) {
+      throw new IllegalArgumentException("The route visits rooms that do not exist");
+    }
+    this.route = route;
+    this.distances = distances;
+    this.rows = new AtomicReferenceArray<>(distances.getGraph().size());
+  }
+
+  /**
+   * Gets the route the planner was built for.
+   *
+   * @return the route of the target
+   */
+  public TargetRoute getRoute() {
+    return route;
+  }
+
+  /**
+   * Gets the distance table the planner was built from.
+   *
+   * @return the distance table
+   */
+  public DistanceTable getDistances() {
+    return distances;
+  }
+
+  /**
+   * Gets the number of moves until a player can meet the target.
+   *
+   * @param room the index of the player's room
+   * @param step the step of the target on its route, or -1 if it is off the route and will go to
+   *             the start of the route next
+   * @return the number of target moves before the meeting, or -1 if the player can never reach
+   *         the target's route
+   */
+  public int getMeetingTime(int room, int step) {
+    if (step < 0) {
+      // Off the route, the target is one move away from step 0
+      int time = row(room)[0];
+      return time < 0 ? -1 : time + 1;
+    }
+    return row(room)[step];
+  }
+
+  /**
+   * Gets the room in which a player can first meet the target.
+   *
+   * @param room the index of the player's room
+   * @param step the step of the target on its route, or -1 if it is off the route
+   * @return the index of the meeting room, or -1 if the player can never reach the target
+   */
+  public int getMeetingRoom(int room, int step) {
+    int time = row(room)[Math.max(step, 0)];
+    return time < 0 ? -1 : route.roomAfter(Math.max(step, 0), time);
+  }
+
+  /**
+   * Gets the room a player should move to next to meet the target as early as possible.
+   *
+   * @param room the index of the player's room
+   * @param step the step of the target on its route, or -1 if it is off the route
+   * @return the index of the next room, {@code room} itself if the player should wait there, or
+   *         -1 if the player can never reach the target
+   */
+  public int getNextRoom(int room, int step) {
+    int meeting = getMeetingRoom(room, step);
+    return meeting < 0 ? -1 : distances.nextStep(room, meeting);
+  }
+
+  /**
+   * Gets the number of moves a player can spare on the way to the meeting, for example to pick
+   * up an item, and still be there in time.
+   *
+   * @param room the index of the player's room
+   * @param step the step of the target on its route, or -1 if it is off the route
+   * @return the number of spare moves, or -1 if the player can never reach the target
+   */
+  public int getSlack(int room, int step) {
+    int meeting = getMeetingRoom(room, step);
+    return meeting < 0 ? -1 : getMeetingTime(room, step) - distances.distance(room, meeting);
+  }
+
+  private int[] row(int room) {
+    int[] row = rows.get(room);
+    if (row == null) {
+      row = computeRow(room);
+      if (!rows.compareAndSet(room, null, row)) {
+        return rows.get(room);
+      }
+    }
+    return row;
+  }
+
+  /**
+   * Computes the meeting times of a room for every step of the route.
+   *
+   * <p>The player meets a target that starts at step {@code s} at position {@code j >= s} of the
+   * unrolled route when {@code distance(route[j]) <= j - s}, that is when
+   * {@code s <= reach(j) = j - distance(route[j])}. A position usable from {@code s + 1} is also
+   * usable from {@code s}, and a position that is not usable from {@code s + 1} but is from
+   * {@code s} has a reach of exactly {@code s}. So the earliest position for {@code s} is the
+   * earlier of the one for {@code s + 1} and the first position whose reach is {@code s}, and a
+   * forward pass to find those positions and a backward pass to combine them settle every step.
+   * The target reaches every room of its route within one round, so when the player can reach
+   * every room of the route, looking as far ahead as one round plus the distance to the farthest
+   * of them is enough. Otherwise the position that far ahead may be a room the player cannot
+   * reach, and the next reachable one can be up to another round further on.
+   */
+  private int[] computeRow(int room) {
+    int length = route.getLength();
+    int farthest = 0;
+    boolean reachesAll = true;
+    for (int s = 0; s < length; s++) {
+      int distance = distances.distance(room, route.getRoom(s));
+      farthest = Math.max(farthest, distance);
+      reachesAll &= distance >= 0;
+    }
+    int span = (reachesAll ? length : 2 * length) + farthest;
+    int[] firstWithReach = new int[span];
+    Arrays.fill(firstWithReach, Integer.MAX_VALUE);
+    for (int j = span - 1; j >= 0; j--) {
+      int distance = distances.distance(room, route.getRoom(j));
+      if (distance >= 0 && j >= distance) {
+        firstWithReach[j - distance] = j;
+      }
+    }
+    int[] row = new int[length];
+    int earliest = Integer.MAX_VALUE;
+    for (int s = span - 1; s >= 0; s--) {
+      earliest = Math.min(earliest, firstWithReach[s]);
+      if (s < length) {
+        row[s] = earliest == Integer.MAX_VALUE ? -1 : earliest - s;
+      }
+    }
+    return row;
+  }
+}
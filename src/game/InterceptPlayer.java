@@ -0,0 +1,103 @@
+package game;
+
+import java.util.SplittableRandom;
+
+/**
+ * A computer player that walks to where it can first meet the target instead of wandering.
+ *
+ * <p>Every turn the player asks a {@link StealthPlanner} for the earliest room on the target's
+ * route where it could attack without being seen, and steps toward it; an attack that would be
+ * seen only wastes the turn. When no such room is in sight it heads for the room where it can
+ * meet the target soonest, which the world's {@link InterceptPlanner} answers in O(1), and waits
+ * there for the watchers to leave. It picks up items on the way when it can spare the move. A
+ * target that does not move is approached directly. If the target cannot be reached at all, the
+ * player plays like a {@link ComputerPlayer}.
+ */
+public class InterceptPlayer extends ComputerPlayer {
+
+  /**
+   * Constructs a player whose fallback choices come from an unseeded generator.
+   *
+   * @param name        the name of the player
+   * @param coordinates the initial coordinates of the player
+   * @param maxItems    the maximum number of items the player can carry
+   */
+  public InterceptPlayer(String name, Tuple<Integer, Integer> coordinates, int maxItems) {
+    super(name, coordinates, maxItems);
+  }
+
+  /**
+   * Constructs a player whose fallback choices come from the specified generator.
+   *
+   * @param name        the name of the player
+   * @param coordinates the initial coordinates of the player
+   * @param maxItems    the maximum number of items the player can carry
+   * @param random      the generator for the player's fallback choices; not shared with other
+   *                    threads
+   */
+  public InterceptPlayer(String name, Tuple<Integer, Integer> coordinates, int maxItems,
+      SplittableRandom random) {
+    super(name, coordinates, maxItems, random);
+  }
+
+  /**
+   * Plays one turn without printing anything: attacks the target if it is in the same room and
+   * nobody would see it, otherwise heads for the earliest unobserved attack, or the earliest
+   * meeting if there is none in sight, picking up items when there is time to spare.
+   *
+   * @param self   the player whose turn it is, this player or a copy of it
+   * @param world  the game world the player is in
+   * @param random the generator the fallback choices are drawn from
+   * @param report true to describe an attack or the surroundings when waiting, false to skip
+   *               the descriptions
+   * @return the result of an attack or the description of the surroundings, or null if the
+   *         turn has nothing to report
+   */
+  @Override
+  public String playTurn(Iplayer self, Igameworld world, SplittableRandom random,
+      boolean report) {
+    Itarget target = world.getTarget();
+    int room = world.getRoomIndexByCoordinates(self.getPackedCoordinates());
+    int targetRoom = world.getTargetRoomIndex();
+    if (target == null || room < 0 || targetRoom < 0) {
+      return super.playTurn(self, world, random, report);
+    }
+    StealthPlanner stealth = new StealthPlanner(world);
+    if (targetRoom == room && stealth.canAttackUnseen(self)) {
+      return attack(self, target, world, report);
+    }
+
+    int next;
+    int slack;
+    int window = stealth.findWindow(self);
+    if (window >= 0) {
+      int goal = world.getTargetRoomAfter(window);
+      next = world.getNextStep(room, goal);
+      slack = window - world.getDistance(room, goal);
+    } else if (world.getTargetRoomAfter(1) == targetRoom) {
+      next = world.getNextStep(room, targetRoom);
+      slack = 0;
+    } else {
+      InterceptPlanner planner = world.getInterceptPlanner();
+      int step = world.getTargetStep();
+      next = planner.getNextRoom(room, step);
+      slack = planner.getSlack(room, step);
+    }
+    if (next < 0) {
+      return super.playTurn(self, world, random, report);
+    }
+
+    // Waiting is also time to spare
+    Iroom current = world.getRoomByIndex(room);
+    if ((slack > 0 || next == room) && !current.getItems().isEmpty()
+        && self.getItems().size() < self.getMaxItems()) {
+      self.addItem(current.getItems().remove(0));
+      return null;
+    }
+    if (next == room) {
+      return report ? self.lookAround(world) : null;
+    }
+    self.move(world.getRoomByIndex(next).getCoordinates());
+    return null;
+  }
+}
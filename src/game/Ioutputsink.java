@@ -0,0 +1,31 @@
+package game;
+
+/**
+ * Receives the text the game shows to its players.
+ *
+ * <p>Callers should check {@link #isEnabled()} before building a message that takes work to
+ * put together, so that nothing is built when the output is thrown away.
+ */
+public interface Ioutputsink {
+
+  /**
+   * Checks whether the sink keeps what it is given.
+   *
+   * @return false if everything written to the sink is discarded
+   */
+  boolean isEnabled();
+
+  /**
+   * Writes text without ending the line.
+   *
+   * @param text the text to write
+   */
+  void print(String text);
+
+  /**
+   * Writes a line of text.
+   *
+   * @param line the line to write, without the line separator
+   */
+  void println(String line);
+}
@@ -18,6 +18,13 @@ public interface Ipet {
    */
   Tuple<Integer, Integer> getCoordinates();
 
+  /**
+   * Gets the coordinates of the pet packed into a single value.
+   *
+   * @return the packed coordinates, see {@link Coordinates}
+   */
+  long getPackedCoordinates();
+
   /**
    * Moves the pet to new coordinates.
    *
@@ -31,4 +38,11 @@ public interface Ipet {
    * @param world the game world in which the pet moves
    */
   void moveDfs(Igameworld world);
+
+  /**
+   * Sets the listener notified after every move of the pet, replacing any previous listener.
+   *
+   * @param listener the listener, or null to stop notifying
+   */
+  void setListener(Ipetlistener listener);
 }
@@ -0,0 +1,16 @@
+package game;
+
+/**
+ * Receives notifications when the pet changes position.
+ */
+public interface Ipetlistener {
+
+  /**
+   * Called after the pet has moved, whether it was moved or walked on its own.
+   *
+   * @param pet  the pet that moved
+   * @param from the packed coordinates the pet moved from, see {@link Coordinates}
+   * @param to   the packed coordinates the pet moved to
+   */
+  void petMoved(Ipet pet, long from, long to);
+}
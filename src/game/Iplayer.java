@@ -1,7 +1,5 @@
 package game;
 
-import java.util.List;
-
 /**
  * Represents a player in the game.
  */
@@ -21,6 +19,13 @@ public interface Iplayer {
    */
   Tuple<Integer, Integer> getCoordinates();
 
+  /**
+   * Gets the coordinates of the player packed into a single value.
+   *
+   * @return the packed coordinates, see {@link Coordinates}
+   */
+  long getPackedCoordinates();
+
   /**
    * Moves the player to new coordinates.
    *
@@ -28,12 +33,20 @@ public interface Iplayer {
    */
   void move(Tuple<Integer, Integer> newCoordinates);
 
+  /**
+   * Sets the listener notified after every move of the player. A player reports its moves to
+   * at most one listener, normally the game world it was added to.
+   *
+   * @param listener the listener to notify, or null to stop notifying
+   */
+  void setMoveListener(Imovelistener listener);
+
   /**
    * Gets the list of items the player currently has.
    *
    * @return the list of items
    */
-  List<Iitem> getItems();
+  ItemList getItems();
 
   /**
    * Adds an item to the player's inventory.
@@ -57,6 +70,15 @@ public interface Iplayer {
    */
   String lookAround(Igameworld world);
 
+  /**
+   * Gets what the player sees from their current room, without describing it in text.
+   *
+   * @param world the game world
+   * @return the surroundings of the player; its {@code toString()} is the text of
+   *         {@link #lookAround}
+   */
+  Surroundings lookAt(Igameworld world);
+
   /**
    * Attacks the target character.
    *
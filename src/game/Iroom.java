@@ -1,7 +1,5 @@
 package game;
 
-import java.util.List;
-
 /**
  * Represents a room in the game world.
  */
@@ -21,6 +19,13 @@ public interface Iroom {
    */
   Tuple<Integer, Integer> getCoordinates();
 
+  /**
+   * Retrieves the starting coordinates of the room packed into a single value.
+   *
+   * @return the packed starting coordinates, see {@link Coordinates}
+   */
+  long getPackedCoordinates();
+
   /**
    * Retrieves the ending coordinates of the room.
    *
@@ -48,5 +53,5 @@ public interface Iroom {
    *
    * @return the list of items in the room
    */
-  List<Iitem> getItems();
+  ItemList getItems();
 }
@@ -26,6 +26,13 @@ public interface Itarget {
    */
   Tuple<Integer, Integer> getCoordinates();
 
+  /**
+   * Gets the coordinates of the target packed into a single value.
+   *
+   * @return the packed coordinates, see {@link Coordinates}
+   */
+  long getPackedCoordinates();
+
   /**
    * Moves the target to new coordinates.
    *
@@ -39,4 +46,12 @@ public interface Itarget {
    * @param damage the amount of damage to take
    */
   void takeDamage(int damage);
+
+  /**
+   * Sets the listener notified after the target moves or loses health, replacing any previous
+   * listener.
+   *
+   * @param listener the listener, or null to stop notifying
+   */
+  void setListener(Itargetlistener listener);
 }
@@ -0,0 +1,24 @@
+package game;
+
+/**
+ * Receives notifications when the target changes position or loses health.
+ */
+public interface Itargetlistener {
+
+  /**
+   * Called after the target has moved.
+   *
+   * @param target the target that moved
+   * @param from   the packed coordinates the target moved from, see {@link Coordinates}
+   * @param to     the packed coordinates the target moved to
+   */
+  void targetMoved(Itarget target, long from, long to);
+
+  /**
+   * Called after the target's health has changed.
+   *
+   * @param target the target that was damaged
+   * @param health the target's health before the damage
+   */
+  void targetDamaged(Itarget target, int health);
+}
@@ -0,0 +1,341 @@
+package game;
+
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A list of items that also keeps them ordered by damage.
+ *
+ * <p>Items are listed in the order they were added, as rooms and inventories always have been,
+ * and a max-heap on damage finds the strongest item, the earliest added one on ties. Removed
+ * items leave an empty slot behind and a Fenwick tree over the occupied slots turns list
+ * positions into slots, so adding an item, removing the strongest one and removing by position
+ * all take O(log n). Empty slots are squeezed out once they outnumber the items.
+ */
+public final class ItemList extends AbstractList<Iitem> {
+  private static final int MIN_CAPACITY = 8;
+
+  private Iitem[] slots;
+  private int[] damage;
+  private int[] tree;
+  private int[] heap;
+  private int[] heapPos;
+  private int slotCount;
+  private int heapSize;
+  private Iitemlistener listener;
+
+  /**
+   * Constructs an empty item list.
+   */
+  public ItemList() {
+    allocate(MIN_CAPACITY);
+  }
+
+  @Override
+  public int size() {
+    return heapSize;
+  }
+
+  @Override
+  public Iitem get(int index) {
+    return slots[slotOf(index)];
+  }
+
+  @Override
+  public Iitem set(int index, Iitem item) {
+    int slot = slotOf(index);
+    Iitem old = slots[slot];
+    slots[slot] = item;
+    damage[slot] = item.getDamage();
+    siftUp(heapPos[slot]);
+    siftDown(heapPos[slot]);
+    changed();
+    return old;
+  }
+
+  @Override
+  public boolean add(Iitem item) {
+    if (slotCount == slots.length) {
+      compact(slots.length * 2);
+    }
+    int slot = slotCount++;
+    slots[slot] = item;
+    damage[slot] = item.getDamage();
+    for (int k = slot + 1; k <= slots.length; k += k & -k) {
+      tree[k]++;
+    }
+    heap[heapSize] = slot;
+    heapPos[slot] = heapSize;
+    siftUp(heapSize++);
+    modCount++;
+    changed();
+    return true;
+  }
+
+  @Override
+  public void add(int index, Iitem item) {
+    if (index == heapSize) {
+      add(item);
+      return;
+    }
+    if (index < 0 || index > heapSize) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + heapSize);
+    }
+    // Inserting in the middle shifts every later position, so the slots are laid out again
+    Iitem[] items = toArray(new Iitem[heapSize + 1]);
+    System.arraycopy(items, index, items, index + 1, heapSize - index);
+    items[index] = item;
+    clear();
+    for (Iitem each : items) {
+      add(each);
+    }
+  }
+
+  @Override
+  public Iitem remove(int index) {
+    int slot = slotOf(index);
+    Iitem item = slots[slot];
+    removeSlot(slot);
+    return item;
+  }
+
+  @Override
+  public void clear() {
+    allocate(MIN_CAPACITY);
+    modCount++;
+    changed();
+  }
+
+  @Override
+  public Iterator<Iitem> iterator() {
+    return new Iterator<Iitem>() {
+      private int cursor = nextOccupied(0);
+      private int last = -1;
+      private int expectedModCount = modCount;
+
+      @Override
+      public boolean hasNext() {
+        return cursor < slotCount;
+      }
+
+      @Override
+      public Iitem next() {
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        if (cursor >= slotCount) {
+          throw new NoSuchElementException();
+        }
+        last = cursor;
+        cursor = nextOccupied(cursor + 1);
+        return slots[last];
+      }
+
+      @Override
+      public void remove() {
+        if (last < 0) {
+          throw new IllegalStateException();
+        }
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        // Compaction may relabel the slots, so the cursor is found again by position
+        int position = rank(last);
+        removeSlot(last);
+        last = -1;
+        cursor = position < heapSize ? slotOf(position) : slotCount;
+        expectedModCount = modCount;
+      }
+    };
+  }
+
+  /**
+   * Sets the listener notified after every change to the contents of the list, replacing any
+   * previous one.
+   *
+   * @param listener the listener, or null to stop notifying
+   */
+  public void setListener(Iitemlistener listener) {
+    this.listener = listener;
+  }
+
+  private void changed() {
+    if (listener != null) {
+      listener.itemsChanged(this);
+    }
+  }
+
+  /**
+   * Gets the item with the highest damage without removing it.
+   *
+   * @return the strongest item, the earliest added one on ties, or null if the list is empty
+   */
+  public Iitem peekStrongest() {
+    return heapSize == 0 ? null : slots[heap[0]];
+  }
+
+  /**
+   * Removes and returns the item with the highest damage.
+   *
+   * @return the strongest item, the earliest added one on ties, or null if the list is empty
+   */
+  public Iitem removeStrongest() {
+    if (heapSize == 0) {
+      return null;
+    }
+    int slot = heap[0];
+    Iitem item = slots[slot];
+    removeSlot(slot);
+    return item;
+  }
+
+  private void removeSlot(int slot) {
+    slots[slot] = null;
+    for (int k = slot + 1; k <= slots.length; k += k & -k) {
+      tree[k]--;
+    }
+    int position = heapPos[slot];
+    heapPos[slot] = -1;
+    heapSize--;
+    if (position < heapSize) {
+      int moved = heap[heapSize];
+      heap[position] = moved;
+      heapPos[moved] = position;
+      siftUp(position);
+      siftDown(heapPos[moved]);
+    }
+    modCount++;
+    changed();
+    if (slotCount > MIN_CAPACITY && heapSize * 2 < slotCount) {
+      compact(Math.max(MIN_CAPACITY, Integer.highestOneBit(heapSize) * 2));
+    }
+  }
+
+  /**
+   * Finds the slot holding the item at a list position by descending the Fenwick tree.
+   */
+  private int slotOf(int index) {
+    if (index < 0 || index >= heapSize) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + heapSize);
+    }
+    int slot = 0;
+    int remaining = index + 1;
+    for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+      int next = slot + step;
+      if (next <= slots.length && tree[next] < remaining) {
+        slot = next;
+        remaining -= tree[next];
+      }
+    }
+    return slot;
+  }
+
+  /**
+   * Counts the items in the slots before a slot.
+   */
+  private int rank(int slot) {
+    int count = 0;
+    for (int k = slot; k > 0; k -= k & -k) {
+      count += tree[k];
+    }
+    return count;
+  }
+
+  private int nextOccupied(int slot) {
+    while (slot < slotCount && slots[slot] == null) {
+      slot++;
+    }
+    return slot;
+  }
+
+  /**
+   * Determines whether the item in one slot ranks above the item in another.
+   */
+  private boolean stronger(int slot, int other) {
+    return damage[slot] > damage[other] || (damage[slot] == damage[other] && slot < other);
+  }
+
+  private void siftUp(int position) {
+    int slot = heap[position];
+    while (position > 0) {
+      int parent = (position - 1) >> 1;
+      if (!stronger(slot, heap[parent])) {
+        break;
+      }
+      heap[position] = heap[parent];
+      heapPos[heap[position]] = position;
+      position = parent;
+    }
+    heap[position] = slot;
+    heapPos[slot] = position;
+  }
+
+  private void siftDown(int position) {
+    int slot = heap[position];
+    while (true) {
+      int child = position * 2 + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && stronger(heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!stronger(heap[child], slot)) {
+        break;
+      }
+      heap[position] = heap[child];
+      heapPos[heap[position]] = position;
+      position = child;
+    }
+    heap[position] = slot;
+    heapPos[slot] = position;
+  }
+
+  private void allocate(int capacity) {
+    slots = new Iitem[capacity];
+    damage = new int[capacity];
+    tree = new int[capacity + 1];
+    heap = new int[capacity];
+    heapPos = new int[capacity];
+    slotCount = 0;
+    heapSize = 0;
+  }
+
+  /**
+   * Moves the items to the front of arrays of the specified capacity, keeping their order, and
+   * rebuilds the Fenwick tree and the heap around the new slots.
+   */
+  private void compact(int capacity) {
+    Iitem[] oldSlots = slots;
+    int[] oldDamage = damage;
+    int[] oldHeap = heap;
+    int[] moved = new int[slotCount];
+    int count = heapSize;
+    int oldCount = slotCount;
+    allocate(capacity);
+    int next = 0;
+    for (int slot = 0; slot < oldCount; slot++) {
+      if (oldSlots[slot] != null) {
+        slots[next] = oldSlots[slot];
+        damage[next] = oldDamage[slot];
+        moved[slot] = next++;
+      }
+    }
+    slotCount = next;
+    for (int k = 1; k <= capacity; k++) {
+      tree[k] += k <= slotCount ? 1 : 0;
+      int parent = k + (k & -k);
+      if (parent <= capacity) {
+        tree[parent] += tree[k];
+      }
+    }
+    // Relabelling keeps the relative order of slots, so the heap stays valid
+    for (int k = 0; k < count; k++) {
+      heap[k] = moved[oldHeap[k]];
+      heapPos[heap[k]] = k;
+    }
+    heapSize = count;
+  }
+}
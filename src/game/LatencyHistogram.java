@@ -0,0 +1,127 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Counts durations in buckets that grow with the duration, to answer percentile queries in
+ * constant memory.
+ *
+ * <p>Every power of two from 1 ns up is split into {@value #SUB_BUCKETS} buckets of equal width,
+ * so a percentile is reported to within about 6% of the true duration however many durations
+ * have been recorded. Recording costs O(1) and a percentile query costs O(number of buckets),
+ * about a thousand, whatever the count.
+ */
+public final class LatencyHistogram {
+
+  /**
+   * The number of buckets each power of two is split into.
+   */
+  public static final int SUB_BUCKETS = 16;
+
+  private static final int SUB_BITS = 4;
+
+  private final long[] counts = new long[(Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS];
+  private long count;
+  private long total;
+  private long max;
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos the duration in nanoseconds; negative durations count as 0
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts[bucket(value)]++;
+    count++;
+    total += value;
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Forgets every recorded duration.
+   */
+  public void clear() {
+    Arrays.fill(counts, 0);
+    count = 0;
+    total = 0;
+    max = 0;
+  }
+
+  /**
+   * Gets the number of durations recorded.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the longest duration recorded.
+   *
+   * @return the longest duration in nanoseconds, or 0 if none was recorded
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Gets the mean of the durations recorded.
+   *
+   * @return the mean in nanoseconds, or 0 if none was recorded
+   */
+  public double getMean() {
+    return count == 0 ? 0.0 : (double) total / count;
+  }
+
+  /**
+   * Gets a percentile of the durations recorded: a duration that at least that share of the
+   * durations do not exceed, rounded up to the end of its bucket but never above the longest.
+   *
+   * @param percent the percentile, from 0 to 100
+   * @return the percentile in nanoseconds, or 0 if none was recorded
+   * @throws IllegalArgumentException if the percentile is out of range
+   */
+  public long getPercentile(double percent) {
+    if (!(percent >= 0 && percent <= 100)) {
+      throw new IllegalArgumentException("Invalid percentile: " + percent);
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(count * percent / 100));
+    long seen = 0;
+    for (int b = 0; b < counts.length; b++) {
+      seen += counts[b];
+      if (seen >= rank) {
+        return Math.min(upperBound(b), max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Finds the bucket of a duration: values below {@link #SUB_BUCKETS} get a bucket each, larger
+   * ones share a bucket with those of the same top {@code SUB_BITS + 1} bits.
+   */
+  private static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = Long.SIZE - SUB_BITS - 1 - Long.numberOfLeadingZeros(value);
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+  }
+
+  /**
+   * Gets the largest duration that falls in a bucket.
+   */
+  private static long upperBound(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long low = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    return low + (1L << shift) - 1;
+  }
+}
@@ -1,6 +1,7 @@
 package game;
 
 import java.io.IOException;
+import java.util.SplittableRandom;
 
 /**
  * The entry point of the game application.
@@ -10,13 +11,15 @@ public class Main {
   /**
    * The main method to start the game.
    *
-   * @param args command-line arguments
+   * @param args command-line arguments; an optional first argument is the seed of the game's
+   *             random choices, to replay an earlier game
    */
   public static void main(String[] args) {
     final String filePath = "res/mansion.txt";
     final String imageOutputPath = "res/world.png";
     final String logFilePath = "res/run_log.txt";
     final int maxTurns = 10;
+    final long seed = args.length > 0 ? Long.parseLong(args[0]) : new SplittableRandom().nextLong();
 
     try {
       Igameworld world = MansionParser.parseMansion(filePath);
@@ -30,7 +33,8 @@ public class Main {
       ((GameWorld) world).setTargetShouldMove(false);
 
       GameView view = new GameView();
-      GameController controller = new GameController(world, view, maxTurns, logFilePath);
+      GameController controller = new GameController(world, view, maxTurns, logFilePath, seed);
+      System.out.println("Game seed: " + seed);
 
       controller.startGame();
 
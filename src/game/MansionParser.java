@@ -11,6 +11,11 @@ import java.util.List;
  */
 public class MansionParser {
 
+  /**
+   * The longest patrol a mansion description may give the target.
+   */
+  public static final int MAX_PATROL_LENGTH = 1 << 16;
+
   /**
    * Parses the mansion description file and creates a game world.
    *
@@ -19,6 +24,18 @@ public class MansionParser {
    * @throws IOException if an error occurs while reading or parsing the file
    */
   public static Igameworld parseMansion(String filePath) throws IOException {
+    return parseTopology(filePath).createWorld();
+  }
+
+  /**
+   * Parses the mansion description file into an immutable topology that can start any number
+   * of games without reading the file again.
+   *
+   * @param filePath the path to the mansion description file
+   * @return the topology of the mansion
+   * @throws IOException if an error occurs while reading or parsing the file
+   */
+  public static MansionTopology parseTopology(String filePath) throws IOException {
     try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
 
       // Read the first line: number of rows, number of columns, and the name
@@ -49,7 +66,6 @@ public class MansionParser {
         targetNameBuilder.append(targetInfo[i]).append(" ");
       }
       final String targetName = targetNameBuilder.toString().trim();
-      final Target target = new Target(targetHealth, targetName, new Tuple<>(0, 0));
 
       // Read the third line: pet's name
       String line3 = reader.readLine();
@@ -57,7 +73,6 @@ public class MansionParser {
         throw new IOException("File is missing pet information");
       }
       final String petName = line3.trim();
-      final Pet pet = new Pet(petName, new Tuple<>(0, 0));
 
       // Read the fourth line: number of rooms
       String line4 = reader.readLine();
@@ -97,6 +112,7 @@ public class MansionParser {
       }
       final int numItems = parseInteger(line5.trim(), "Invalid item count value");
 
+      final List<Iitem> items = new ArrayList<>();
       for (int i = 0; i < numItems; i++) {
         final String itemLine = reader.readLine();
         if (itemLine == null || itemLine.trim().isEmpty()) {
@@ -113,20 +129,34 @@ public class MansionParser {
           itemNameBuilder.append(itemInfo[j]).append(" ");
         }
         final String itemName = itemNameBuilder.toString().trim();
-        final Item item = new Item(itemName, damage, roomIndex);
-        rooms.get(roomIndex).addItem(item);
+        items.add(new Item(itemName, damage, roomIndex));
       }
 
-      // Set target and pet initial coordinates to the first room's coordinates
-      if (!rooms.isEmpty()) {
-        Tuple<Integer, Integer> initialCoordinates = rooms.get(0).getCoordinates();
-        target.moveTarget(initialCoordinates);
-        pet.move(initialCoordinates);
+      // Read the optional patrol of the target: the number of rooms, then a room index per line
+      int[] patrol = null;
+      String line6 = reader.readLine();
+      while (line6 != null && line6.trim().isEmpty()) {
+        line6 = reader.readLine();
+      }
+      if (line6 != null) {
+        final int patrolLength = parseInteger(line6.trim(), "Invalid patrol length value");
+        if (patrolLength < 1 || patrolLength > MAX_PATROL_LENGTH) {
+          throw new IOException("Invalid patrol length value");
+        }
+        patrol = new int[patrolLength];
+        for (int i = 0; i < patrol.length; i++) {
+          final String patrolLine = reader.readLine();
+          if (patrolLine == null || patrolLine.trim().isEmpty()) {
+            throw new IOException("File is missing patrol information at index " + i);
+          }
+          patrol[i] = parseInteger(patrolLine.trim(), "Invalid patrol room index value");
+        }
       }
 
-      GameWorld gameWorld = new GameWorld(rows, columns, name, target, pet, rooms);
-      return gameWorld;
-    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+      return new MansionTopology(rows, columns, name, targetName, targetHealth, petName,
+          rooms, items, patrol);
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+      // Also covers NumberFormatException and rooms or patrols the topology rejects
       throw new IOException("Failed to parse file", e);
     }
   }
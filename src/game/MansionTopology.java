@@ -0,0 +1,409 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fixed structure of a mansion as loaded from its description file.
+ *
+ * <p>A topology holds the dimensions, the rooms and the items as they were placed at the start
+ * of a game, together with the room graph, grid index and distance table computed from them.
+ * It never changes after construction, so any number of games, running one after another or at
+ * the same time, can share it. Each game keeps its own state, either as a {@link GameWorld}
+ * from {@link #createWorld()} or as a compact {@link GameState} from {@link #initialState()}.
+ */
+public final class MansionTopology {
+  private final int rows;
+  private final int columns;
+  private final String name;
+  private final String targetName;
+  private final int targetHealth;
+  private final String petName;
+  private final String[] roomNames;
+  private final Tuple<Integer, Integer>[] roomStarts;
+  private final Tuple<Integer, Integer>[] roomEnds;
+  private final Iitem[] items;
+  private final Map<Iitem, Integer> indexByItem;
+  private final int[] roomItemOffsets;
+  private final int[] roomItems;
+  private final RoomGraph graph;
+  private final GridIndex grid;
+  private final DistanceTable distances;
+  private final TargetRoute patrol;
+  private final TargetRoute targetRoute;
+  private final GameState initialState;
+
+  /**
+   * Constructs a topology from the rooms and items of a mansion. The items already held by the
+   * rooms are ignored; each item is placed in the room given by {@link Iitem#getRoomIndex()}.
+   *
+   * @param rows         the number of rows in the mansion grid
+   * @param columns      the number of columns in the mansion grid
+   * @param name         the name of the mansion
+   * @param targetName   the name of the target
+   * @param targetHealth the starting health of the target
+   * @param petName      the name of the pet
+   * @param rooms        the rooms of the mansion, in index order
+   * @param items        the items of the mansion, in the order they are added to rooms
+   * @throws IndexOutOfBoundsException if an item refers to a room that does not exist
+   */
+  public MansionTopology(int rows, int columns, String name, String targetName,
+      int targetHealth, String petName, List<Iroom> rooms, List<Iitem> items) {
+    this(rows, columns, name, targetName, targetHealth, petName, rooms, items, null);
+  }
+
+  /**
+   * Constructs a topology from the rooms and items of a mansion whose target patrols a list of
+   * rooms. The items already held by the rooms are ignored; each item is placed in the room
+   * given by {@link Iitem#getRoomIndex()}.
+   *
+   * @param rows         the number of rows in the mansion grid
+   * @param columns      the number of columns in the mansion grid
+   * @param name         the name of the mansion
+   * @param targetName   the name of the target
+   * @param targetHealth the starting health of the target
+   * @param petName      the name of the pet
+   * @param rooms        the rooms of the mansion, in index order
+   * @param items        the items of the mansion, in the order they are added to rooms
+   * @param patrol       the rooms the target patrols in order, or null to visit every room in
+   *                     index order
+   * @throws IndexOutOfBoundsException if an item refers to a room that does not exist
+   * @throws IllegalArgumentException  if the patrol is empty or refers to a room that does not
+   *                                   exist
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public MansionTopology(int rows, int columns, String name, String targetName,
+      int targetHealth, String petName, List<Iroom> rooms, List<Iitem> items, int[] patrol) {
+    this.rows = rows;
+    this.columns = columns;
+    this.name = name;
+    this.targetName = targetName;
+    this.targetHealth = targetHealth;
+    this.petName = petName;
+
+    int n = rooms.size();
+    this.roomNames = new String[n];
+    this.roomStarts = new Tuple[n];
+    this.roomEnds = new Tuple[n];
+    List<Iroom> emptyRooms = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      Iroom room = rooms.get(i);
+      roomNames[i] = room.getName();
+      roomStarts[i] = room.getCoordinates();
+      roomEnds[i] = room.getEndingCoordinates();
+      emptyRooms.add(new Room(roomNames[i], roomStarts[i], roomEnds[i]));
+    }
+
+    this.items = items.toArray(new Iitem[0]);
+    this.indexByItem = new IdentityHashMap<>(this.items.length * 2);
+    for (int k = this.items.length - 1; k >= 0; k--) {
+      indexByItem.put(this.items[k], k);
+    }
+    this.roomItemOffsets = new int[n + 1];
+    for (Iitem item : this.items) {
+      int room = item.getRoomIndex();
+      if (room < 0 || room >= n) {
+        throw new IndexOutOfBoundsException("Invalid item room index: " + room);
+      }
+      roomItemOffsets[room + 1]++;
+    }
+    for (int i = 0; i < n; i++) {
+      roomItemOffsets[i + 1] += roomItemOffsets[i];
+    }
+    this.roomItems = new int[this.items.length];
+    int[] fill = new int[n];
+    for (int k = 0; k < this.items.length; k++) {
+      int room = this.items[k].getRoomIndex();
+      roomItems[roomItemOffsets[room] + fill[room]++] = k;
+    }
+
+    this.graph = AdjacencyBuilder.build(emptyRooms);
+    this.grid = new GridIndex(rows, columns, emptyRooms);
+    this.distances = new DistanceTable(graph);
+    this.patrol = patrol == null ? null : TargetRoute.patrol(patrol, n);
+    this.targetRoute = this.patrol != null || n == 0 ? this.patrol : TargetRoute.inIndexOrder(n);
+    this.initialState = new GameState(this);
+  }
+
+  /**
+   * Gets the number of rows in the mansion grid.
+   *
+   * @return the number of rows
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Gets the number of columns in the mansion grid.
+   *
+   * @return the number of columns
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Gets the name of the mansion.
+   *
+   * @return the name of the mansion
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the name of the target.
+   *
+   * @return the name of the target
+   */
+  public String getTargetName() {
+    return targetName;
+  }
+
+  /**
+   * Gets the health the target starts a game with.
+   *
+   * @return the starting health of the target
+   */
+  public int getTargetHealth() {
+    return targetHealth;
+  }
+
+  /**
+   * Gets the name of the pet.
+   *
+   * @return the name of the pet
+   */
+  public String getPetName() {
+    return petName;
+  }
+
+  /**
+   * Gets the number of rooms in the mansion.
+   *
+   * @return the number of rooms
+   */
+  public int getRoomCount() {
+    return roomNames.length;
+  }
+
+  /**
+   * Gets the name of a room.
+   *
+   * @param room the index of the room
+   * @return the name of the room
+   */
+  public String getRoomName(int room) {
+    return roomNames[room];
+  }
+
+  /**
+   * Gets the starting coordinates of a room.
+   *
+   * @param room the index of the room
+   * @return the top-left coordinates of the room
+   */
+  public Tuple<Integer, Integer> getRoomCoordinates(int room) {
+    return roomStarts[room];
+  }
+
+  /**
+   * Gets the ending coordinates of a room.
+   *
+   * @param room the index of the room
+   * @return the bottom-right coordinates of the room
+   */
+  public Tuple<Integer, Integer> getRoomEndingCoordinates(int room) {
+    return roomEnds[room];
+  }
+
+  /**
+   * Gets the number of items in the mansion.
+   *
+   * @return the number of items
+   */
+  public int getItemCount() {
+    return items.length;
+  }
+
+  /**
+   * Gets an item of the mansion. Items are immutable and shared by every game.
+   *
+   * @param item the index of the item
+   * @return the item at the specified index
+   */
+  public Iitem getItem(int item) {
+    return items[item];
+  }
+
+  /**
+   * Gets the index of an item of the mansion.
+   *
+   * @param item the item to look up
+   * @return the index of the item, or -1 if the item does not belong to the mansion
+   */
+  public int getItemIndex(Iitem item) {
+    Integer index = indexByItem.get(item);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Gets the position of the first item of a room in {@link #roomItemAt}.
+   *
+   * @param room the index of the room
+   * @return the first item position of the room
+   */
+  public int roomItemStart(int room) {
+    return roomItemOffsets[room];
+  }
+
+  /**
+   * Gets the position just past the last item of a room in {@link #roomItemAt}.
+   *
+   * @param room the index of the room
+   * @return the end item position of the room
+   */
+  public int roomItemEnd(int room) {
+    return roomItemOffsets[room + 1];
+  }
+
+  /**
+   * Gets the item index stored at an item position. The items of a room are listed in the
+   * order they were added to it.
+   *
+   * @param position a position between {@link #roomItemStart} and {@link #roomItemEnd}
+   * @return the index of the item
+   */
+  public int roomItemAt(int position) {
+    return roomItems[position];
+  }
+
+  /**
+   * Gets the adjacency graph of the rooms. The rooms of this graph carry no items; use
+   * {@link RoomGraph#withRooms} to attach the rooms of a game.
+   *
+   * @return the adjacency graph
+   */
+  public RoomGraph getRoomGraph() {
+    return graph;
+  }
+
+  /**
+   * Gets the spatial index mapping grid cells to room indices.
+   *
+   * @return the grid index
+   */
+  public GridIndex getGridIndex() {
+    return grid;
+  }
+
+  /**
+   * Gets the shortest-path distances and next steps between the rooms.
+   *
+   * @return the distance table
+   */
+  public DistanceTable getDistances() {
+    return distances;
+  }
+
+  /**
+   * Gets the route the target walks: the patrol given in the mansion description, or every room
+   * in index order if there was none.
+   *
+   * @return the route of the target, or null if the mansion has no rooms
+   */
+  public TargetRoute getTargetRoute() {
+    return targetRoute;
+  }
+
+  /**
+   * Gets the patrol given in the mansion description.
+   *
+   * @return the patrol route, or null if the target visits every room in index order
+   */
+  TargetRoute getPatrol() {
+    return patrol;
+  }
+
+  /**
+   * Gets the room the target starts in, the first room of its route.
+   *
+   * @return the index of the starting room, or -1 if the mansion has no rooms
+   */
+  public int getTargetStartRoom() {
+    return targetRoute == null ? -1 : targetRoute.getRoom(0);
+  }
+
+  /**
+   * Creates the state of a new game, with every item in its starting room, the target at the
+   * start of its route and the pet in the first room.
+   *
+   * @return a new game state
+   */
+  public GameState initialState() {
+    return initialState.copy();
+  }
+
+  /**
+   * Gets the shared starting state, which callers copy from but never modify.
+   */
+  GameState startingState() {
+    return initialState;
+  }
+
+  /**
+   * Creates a new game world on this mansion, without reading the description file again. The
+   * world gets its own rooms, target and pet, and shares the immutable items and indexes.
+   *
+   * @return a new game world
+   */
+  public GameWorld createWorld() {
+    List<Iroom> rooms = new ArrayList<>(roomNames.length);
+    for (int i = 0; i < roomNames.length; i++) {
+      Room room = new Room(roomNames[i], roomStarts[i], roomEnds[i]);
+      for (int k = roomItemOffsets[i]; k < roomItemOffsets[i + 1]; k++) {
+        room.addItem(items[roomItems[k]]);
+      }
+      rooms.add(room);
+    }
+    Tuple<Integer, Integer> start = rooms.isEmpty() ? new Tuple<>(0, 0) : roomStarts[0];
+    Tuple<Integer, Integer> targetStart = rooms.isEmpty() ? start
+        : roomStarts[getTargetStartRoom()];
+    Target target = new Target(targetHealth, targetName, targetStart);
+    Pet pet = new Pet(petName, start);
+    GameWorld world = new GameWorld(this, target, pet, rooms);
+    if (patrol != null) {
+      world.setTargetRoute(patrol);
+    }
+    return world;
+  }
+
+  /**
+   * Creates a topology of this mansion with one more room. The items stay where they are, the
+   * items already held by the new room are ignored, and the target keeps its patrol, if it has
+   * one.
+   *
+   * @param room the room to add, which gets the next room index
+   * @return the larger topology
+   */
+  public MansionTopology withRoom(Iroom room) {
+    List<Iroom> rooms = new ArrayList<>(roomNames.length + 1);
+    for (int i = 0; i < roomNames.length; i++) {
+      rooms.add(new Room(roomNames[i], roomStarts[i], roomEnds[i]));
+    }
+    rooms.add(room);
+    int[] route = null;
+    if (patrol != null) {
+      route = new int[patrol.getLength()];
+      for (int step = 0; step < route.length; step++) {
+        route[step] = patrol.getRoom(step);
+      }
+    }
+    return new MansionTopology(rows, columns, name, targetName, targetHealth, petName, rooms,
+        Arrays.asList(items), route);
+  }
+}
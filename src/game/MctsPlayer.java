@@ -0,0 +1,669 @@
+package game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A computer player that chooses each action with Monte Carlo tree search.
+ *
+ * <p>Before every action the player copies the world into a compact {@link GameState} and plays
+ * out many short games from it. A game is a series of rounds in which this player acts, every
+ * other player acts as a {@link ComputerPlayer} would and the target moves along its route; the
+ * pet stays where it is. The player's own actions are chosen by UCT from a tree of action
+ * sequences, and past the tree by a quick policy that attacks when it can, picks up items and
+ * otherwise heads for the target. A play-out is worth the most when this player lands the
+ * killing blow early, less for any damage dealt and the items carried, and nothing when another
+ * player kills the target. The action tried most often from the start is played.
+ *
+ * <p>The search stops after a number of play-outs, after a time limit, or at whichever comes
+ * first; a {@link DecisionBudget} can also set a deadline for the next action, read on the
+ * budget's {@link Iclock}, and tunes the number of play-outs as the player's effort. The time
+ * limit is always kept on the machine's clock. With more than one thread, each thread grows its
+ * own tree from the same state with its own random stream, and the visits of the first actions
+ * are added up (root parallelization), so under a time limit the player gets stronger with every
+ * core it is given. The world must have been created from the player's {@link MansionTopology};
+ * in any other world, and in worlds it has not joined, the player plays like a
+ * {@link ComputerPlayer}.
+ */
+public class MctsPlayer extends ComputerPlayer implements Ianytimeplayer {
+
+  /**
+   * The number of play-outs per action of a player created without a budget.
+   */
+  public static final int DEFAULT_ITERATIONS = 2000;
+
+  /**
+   * The number of rounds a play-out looks ahead unless set otherwise.
+   */
+  public static final int DEFAULT_HORIZON = 40;
+
+  private static final int WAIT = 0;
+  private static final int PICK = 1;
+  private static final int ATTACK = 2;
+  private static final int MOVE = 3;
+  private static final double EXPLORATION = 0.7;
+  private static final int CLOCK_INTERVAL = 16;
+
+  private final MansionTopology topology;
+  private int iterations = DEFAULT_ITERATIONS;
+  private long timeLimitNanos;
+  private int threads = 1;
+  private int horizon = DEFAULT_HORIZON;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+  private int lastIterations;
+  private long nextDeadline = Long.MAX_VALUE;
+  private Iclock deadlineClock = Iclock.SYSTEM;
+
+  /**
+   * Constructs a player on a mansion whose searches draw from an unseeded generator.
+   *
+   * @param name        the name of the player
+   * @param coordinates the initial coordinates of the player
+   * @param maxItems    the maximum number of items the player can carry
+   * @param topology    the mansion of the worlds the player plays in
+   */
+  public MctsPlayer(String name, Tuple<Integer, Integer> coordinates, int maxItems,
+      MansionTopology topology) {
+    this(name, coordinates, maxItems, topology, new SplittableRandom());
+  }
+
+  /**
+   * Constructs a player on a mansion whose searches draw from the specified generator. With a
+   * single thread and no time limit, the same seed plays the same actions.
+   *
+   * @param name        the name of the player
+   * @param coordinates the initial coordinates of the player
+   * @param maxItems    the maximum number of items the player can carry
+   * @param topology    the mansion of the worlds the player plays in
+   * @param random      the generator the player's searches draw from; not shared with other
+   *                    threads
+   */
+  public MctsPlayer(String name, Tuple<Integer, Integer> coordinates, int maxItems,
+      MansionTopology topology, SplittableRandom random) {
+    super(name, coordinates, maxItems, random);
+    this.topology = topology;
+  }
+
+  /**
+   * Sets the number of play-outs per action, shared between the threads.
+   *
+   * @param iterations the number of play-outs, or 0 to search until the time limit
+   * @throws IllegalArgumentException if the number is negative, or 0 without a time limit
+   */
+  public void setIterations(int iterations) {
+    if (iterations < 0 || iterations == 0 && timeLimitNanos == 0) {
+      throw new IllegalArgumentException("Invalid number of iterations: " + iterations);
+    }
+    this.iterations = iterations;
+  }
+
+  /**
+   * Sets how long the player may search for each action.
+   *
+   * @param millis the time limit in milliseconds, or 0 for none
+   * @throws IllegalArgumentException if the limit is negative, or 0 without an iteration budget
+   */
+  public void setTimeLimit(long millis) {
+    if (millis < 0 || millis == 0 && iterations == 0) {
+      throw new IllegalArgumentException("Invalid time limit: " + millis);
+    }
+    this.timeLimitNanos = millis * 1000000L;
+  }
+
+  /**
+   * Sets the number of threads that search at the same time, each with its own tree.
+   *
+   * @param threads the number of threads
+   * @throws IllegalArgumentException if the number is less than 1
+   */
+  public void setThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Invalid number of threads: " + threads);
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Sets the pool the searches of more than one thread run on. The common pool is used unless
+   * set otherwise.
+   *
+   * @param pool the pool to search on
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Sets how many rounds a play-out looks ahead.
+   *
+   * @param horizon the number of rounds
+   * @throws IllegalArgumentException if the number is less than 1
+   */
+  public void setHorizon(int horizon) {
+    if (horizon < 1) {
+      throw new IllegalArgumentException("Invalid horizon: " + horizon);
+    }
+    this.horizon = horizon;
+  }
+
+  /**
+   * Sets the time by which the player's next decision must be made. With more than one thread,
+   * the clock is read by every thread that searches.
+   *
+   * @param deadline the deadline, as a reading of the clock
+   * @param clock    the clock the deadline is read on
+   */
+  @Override
+  public void setDeadline(long deadline, Iclock clock) {
+    this.nextDeadline = deadline;
+    this.deadlineClock = clock;
+  }
+
+  /**
+   * Gets the number of play-outs per action, shared between the threads.
+   *
+   * @return the number of play-outs, or 0 if the player searches until its time limit
+   */
+  @Override
+  public int getEffort() {
+    return iterations;
+  }
+
+  /**
+   * Sets the number of play-outs per action, shared between the threads.
+   *
+   * @param effort the number of play-outs, at least 1
+   * @throws IllegalArgumentException if the number is less than 1
+   */
+  @Override
+  public void setEffort(int effort) {
+    if (effort < 1) {
+      throw new IllegalArgumentException("Invalid effort: " + effort);
+    }
+    this.iterations = effort;
+  }
+
+  /**
+   * Gets the number of play-outs the last search made, over all threads.
+   *
+   * @return the number of play-outs, or 0 if the player has not searched yet or played its
+   *         last action without searching
+   */
+  public int getLastIterations() {
+    return lastIterations;
+  }
+
+  /**
+   * Gets the number of play-outs the last search made, over all threads.
+   *
+   * @return the number of play-outs, or 0 if the player has not searched yet or played its
+   *         last action without searching
+   */
+  @Override
+  public int getLastEffort() {
+    return lastIterations;
+  }
+
+  /**
+   * Plays one turn without printing anything: searches for the best action and plays it.
+   *
+   * @param self   the player whose turn it is, this player or a copy of it
+   * @param world  the game world the player is in
+   * @param random the generator the searches draw from
+   * @param report true to describe an attack or the surroundings when looking around, false
+   *               to skip the descriptions
+   * @return the result of an attack or the description of the surroundings, or null if the
+   *         turn has nothing to report
+   */
+  @Override
+  public String playTurn(Iplayer self, Igameworld world, SplittableRandom random,
+      boolean report) {
+    long deadline = nextDeadline;
+    Iclock clock = deadlineClock;
+    nextDeadline = Long.MAX_VALUE;
+    deadlineClock = Iclock.SYSTEM;
+    GameState root = snapshot(self, world);
+    if (root == null) {
+      lastIterations = 0;
+      return super.playTurn(self, world, random, report);
+    }
+    int action = search(root, world, random, clock, deadline);
+    switch (action) {
+      case ATTACK:
+        return attack(self, world.getTarget(), world, report);
+      case PICK:
+        Iroom room = world.getRoomByCoordinates(self.getCoordinates());
+        if (room != null && !room.getItems().isEmpty()) {
+          self.addItem(room.getItems().remove(0));
+        }
+        return null;
+      case WAIT:
+        return report ? self.lookAround(world) : null;
+      default:
+        RoomGraph graph = world.getRoomGraph();
+        self.move(graph.roomAt(action - MOVE).getCoordinates());
+        return null;
+    }
+  }
+
+  /**
+   * Copies the world into a game state whose last player is the one whose turn it is.
+   *
+   * @return the state, or null if the world was not created from the player's mansion, has no
+   *         target or does not contain the player
+   */
+  private GameState snapshot(Iplayer self, Igameworld world) {
+    Itarget target = world.getTarget();
+    if (target == null || !world.getRoomGraph().sharesStructure(topology.getRoomGraph())
+        || world.getRoomIndexByCoordinates(self.getPackedCoordinates()) < 0) {
+      return null;
+    }
+    GameState state = topology.initialState();
+    boolean[] found = new boolean[topology.getItemCount()];
+    for (int r = 0; r < topology.getRoomCount(); r++) {
+      for (Iitem item : world.getRoomByIndex(r).getItems()) {
+        int k = topology.getItemIndex(item);
+        if (k >= 0) {
+          found[k] = true;
+        }
+      }
+    }
+    boolean joined = false;
+    for (Iplayer player : world.getPlayers()) {
+      if (player == self) {
+        joined = true;
+        continue;
+      }
+      addPlayer(state, world, player, found);
+    }
+    if (!joined) {
+      return null;
+    }
+    addPlayer(state, world, self, found);
+    for (int k = 0; k < found.length; k++) {
+      if (!found[k]) {
+        state.useItem(k);
+      }
+    }
+    state.setTargetRoom(world.getTargetRoomIndex());
+    state.damageTarget(state.getTargetHealth() - target.getHealth());
+    state.setPetRoom(world.getPetRoomIndex());
+    return state;
+  }
+
+  private void addPlayer(GameState state, Igameworld world, Iplayer player, boolean[] found) {
+    int index = state.addPlayer(world.getRoomIndexByCoordinates(player.getPackedCoordinates()),
+        player.getMaxItems());
+    for (Iitem item : player.getItems()) {
+      int k = topology.getItemIndex(item);
+      if (k >= 0 && !found[k]) {
+        found[k] = true;
+        state.pickItem(index, k);
+      }
+    }
+  }
+
+  /**
+   * Searches from a state until a deadline on a clock or the time limit at the latest and
+   * returns the action played most often from it.
+   */
+  private int search(GameState root, Igameworld world, SplittableRandom random, Iclock clock,
+      long deadline) {
+    int[] targetRooms = new int[horizon + 1];
+    for (int t = 0; t <= horizon; t++) {
+      targetRooms[t] = world.getTargetRoomAfter(t);
+    }
+    long limit = timeLimitNanos > 0 ? System.nanoTime() + timeLimitNanos : Long.MAX_VALUE;
+    int budget = iterations == 0 ? Integer.MAX_VALUE : (iterations + threads - 1) / threads;
+    Search[] searches = new Search[threads];
+    for (int i = 0; i < threads; i++) {
+      searches[i] = new Search(root, targetRooms, random.split(), budget, clock, deadline,
+          limit);
+    }
+    if (threads == 1) {
+      searches[0].run();
+    } else {
+      pool.invoke(new SearchTask(searches, 0, threads));
+    }
+
+    int[] actions = searches[0].tree.actions;
+    long[] visits = new long[actions.length];
+    double[] rewards = new double[actions.length];
+    lastIterations = 0;
+    for (Search search : searches) {
+      lastIterations += search.tree.visits;
+      for (int c = 0; c < actions.length; c++) {
+        Node child = search.tree.children[c];
+        if (child != null) {
+          visits[c] += child.visits;
+          rewards[c] += child.reward;
+        }
+      }
+    }
+    int best = 0;
+    for (int c = 1; c < actions.length; c++) {
+      if (visits[c] > visits[best]
+          || visits[c] == visits[best] && rewards[c] > rewards[best]) {
+        best = c;
+      }
+    }
+    return actions[best];
+  }
+
+  /**
+   * A node of a search tree: the actions this player can take after the sequence of actions
+   * that leads to it, and the play-outs made through each.
+   */
+  private static final class Node {
+    private int[] actions;
+    private Node[] children;
+    private int expanded;
+    private long visits;
+    private double reward;
+  }
+
+  /**
+   * One thread's search: its tree, its random stream and the state its play-outs run on.
+   */
+  private final class Search {
+    private final GameState root;
+    private final GameState state;
+    private final int[] targetRooms;
+    private final SplittableRandom random;
+    private final int budget;
+    private final Iclock clock;
+    private final long deadline;
+    private final long limit;
+    private final Node tree = new Node();
+    private final Node[] path;
+    private final RoomGraph graph = topology.getRoomGraph();
+    private final DistanceTable distances = topology.getDistances();
+    private final int self;
+    private final int startHealth;
+    private int damage;
+    private boolean killed;
+
+    Search(GameState root, int[] targetRooms, SplittableRandom random, int budget, Iclock clock,
+        long deadline, long limit) {
+      this.root = root;
+      this.state = root.copy();
+      this.targetRooms = targetRooms;
+      this.random = random;
+      this.budget = budget;
+      this.clock = clock;
+      this.deadline = deadline;
+      this.limit = limit;
+      this.path = new Node[horizon + 2];
+      this.self = root.getPlayerCount() - 1;
+      this.startHealth = Math.max(root.getTargetHealth(), 1);
+      tree.actions = actions();
+      tree.children = new Node[tree.actions.length];
+    }
+
+    void run() {
+      for (int i = 0; i < budget; i++) {
+        if (i % CLOCK_INTERVAL == 0 && isOutOfTime()) {
+          break;
+        }
+        iterate();
+      }
+      // A search out of time before its first play-out still needs its first actions tried
+      if (tree.visits == 0) {
+        iterate();
+      }
+    }
+
+    /**
+     * Determines whether the deadline, on its clock, or the time limit, on the machine's clock,
+     * has passed. A clock is only read when there is a time to check against it.
+     */
+    private boolean isOutOfTime() {
+      return deadline != Long.MAX_VALUE && clock.nanoTime() >= deadline
+          || limit != Long.MAX_VALUE && System.nanoTime() >= limit;
+    }
+
+    /**
+     * Plays out one game: down the tree by UCT, one new node, then the quick policy to the
+     * horizon, and adds the reward to every node on the way.
+     */
+    private void iterate() {
+      state.copyFrom(root);
+      damage = 0;
+      killed = false;
+      Node node = tree;
+      int depth = 0;
+      int round = 0;
+      path[depth++] = node;
+      while (round < horizon && state.getTargetHealth() > 0) {
+        if (node.actions == null) {
+          node.actions = actions();
+          node.children = new Node[node.actions.length];
+        }
+        int c = select(node);
+        int action = node.actions[c];
+        boolean added = node.children[c] == null;
+        if (added) {
+          node.children[c] = new Node();
+          node.expanded++;
+        }
+        node = node.children[c];
+        path[depth++] = node;
+        playRound(action, round++);
+        if (added) {
+          break;
+        }
+      }
+      while (round < horizon && state.getTargetHealth() > 0) {
+        playRound(policy(), round++);
+      }
+      double reward = reward(round);
+      for (int d = 0; d < depth; d++) {
+        path[d].visits++;
+        path[d].reward += reward;
+      }
+    }
+
+    private int select(Node node) {
+      int unexplored = node.actions.length - node.expanded;
+      if (unexplored > 0) {
+        int pick = random.nextInt(unexplored);
+        for (int c = 0; c < node.children.length; c++) {
+          if (node.children[c] == null && pick-- == 0) {
+            return c;
+          }
+        }
+      }
+      double logVisits = Math.log(node.visits);
+      int best = 0;
+      double bestScore = Double.NEGATIVE_INFINITY;
+      for (int c = 0; c < node.children.length; c++) {
+        Node child = node.children[c];
+        double score = child.reward / child.visits
+            + EXPLORATION * Math.sqrt(logVisits / child.visits);
+        if (score > bestScore) {
+          bestScore = score;
+          best = c;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Gets the actions this player can take in the current state: attack when the target is in
+     * the room, pick up an item when there is one, wait, or move to a neighboring room.
+     */
+    private int[] actions() {
+      int room = state.getPlayerRoom(self);
+      int[] actions = new int[3 + graph.degree(room)];
+      int count = 0;
+      if (state.getTargetRoom() == room) {
+        actions[count++] = ATTACK;
+      }
+      if (state.firstItemInRoom(room) >= 0
+          && state.getPlayerItemCount(self) < state.getPlayerMaxItems(self)) {
+        actions[count++] = PICK;
+      }
+      actions[count++] = WAIT;
+      for (int k = graph.neighborStart(room); k < graph.neighborEnd(room); k++) {
+        actions[count++] = MOVE + graph.neighborAt(k);
+      }
+      return Arrays.copyOf(actions, count);
+    }
+
+    /**
+     * Chooses this player's action past the tree: attack if possible, otherwise pick up an item
+     * or step toward where the target will be, with some random moves mixed in.
+     */
+    private int policy() {
+      int room = state.getPlayerRoom(self);
+      if (state.getTargetRoom() == room) {
+        return ATTACK;
+      }
+      if (state.firstItemInRoom(room) >= 0
+          && state.getPlayerItemCount(self) < state.getPlayerMaxItems(self)
+          && random.nextInt(2) == 0) {
+        return PICK;
+      }
+      int degree = graph.degree(room);
+      if (degree == 0) {
+        return WAIT;
+      }
+      if (random.nextInt(4) == 0) {
+        return MOVE + graph.neighborAt(graph.neighborStart(room) + random.nextInt(degree));
+      }
+      int next = distances.nextStep(room, state.getTargetRoom());
+      return next < 0 || next == room ? WAIT : MOVE + next;
+    }
+
+    /**
+     * Plays a round: this player's action, every other player's turn and the target's move.
+     */
+    private void playRound(int action, int round) {
+      act(self, action);
+      for (int p = 0; p < self && state.getTargetHealth() > 0; p++) {
+        playOpponent(p);
+      }
+      if (state.getTargetHealth() > 0) {
+        state.setTargetRoom(targetRooms[round + 1]);
+      }
+    }
+
+    /**
+     * Plays a turn of another player the way a {@link ComputerPlayer} plays it.
+     */
+    private void playOpponent(int player) {
+      int room = state.getPlayerRoom(player);
+      if (state.getTargetRoom() == room) {
+        act(player, ATTACK);
+        return;
+      }
+      switch (random.nextInt(3)) {
+        case 0:
+          int degree = graph.degree(room);
+          if (degree > 0) {
+            act(player, MOVE + graph.neighborAt(graph.neighborStart(room)
+                + random.nextInt(degree)));
+          }
+          break;
+        case 1:
+          act(player, PICK);
+          break;
+        default:
+          break;
+      }
+    }
+
+    private void act(int player, int action) {
+      int room = state.getPlayerRoom(player);
+      switch (action) {
+        case WAIT:
+          break;
+        case PICK:
+          int item = state.firstItemInRoom(room);
+          if (item >= 0) {
+            state.pickItem(player, item);
+          }
+          break;
+        case ATTACK:
+          if (state.getTargetRoom() != room || isSeen(player, room)) {
+            break;
+          }
+          int weapon = state.strongestItemOf(player);
+          int hit = 1;
+          if (weapon >= 0) {
+            hit = topology.getItem(weapon).getDamage();
+            state.useItem(weapon);
+          }
+          int health = state.getTargetHealth();
+          state.damageTarget(hit);
+          if (player == self) {
+            damage += health - state.getTargetHealth();
+            killed = state.getTargetHealth() == 0;
+          }
+          break;
+        default:
+          state.setPlayerRoom(player, action - MOVE);
+          break;
+      }
+    }
+
+    /**
+     * Determines whether another player sees an attacker: from the same room, or from a
+     * neighboring room unless the pet is in the attacker's room.
+     */
+    private boolean isSeen(int player, int room) {
+      boolean blocked = state.getPetRoom() == room;
+      for (int p = 0; p < state.getPlayerCount(); p++) {
+        int other = state.getPlayerRoom(p);
+        if (p != player && (other == room || !blocked && graph.isNeighbor(other, room))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private double reward(int rounds) {
+      if (killed) {
+        return 0.5 + 0.5 * (horizon - rounds + 1) / (horizon + 1);
+      }
+      if (state.getTargetHealth() == 0) {
+        return 0;
+      }
+      int weapon = state.strongestItemOf(self);
+      double armed = weapon < 0 ? 0 : topology.getItem(weapon).getDamage() * 0.5;
+      return Math.min(0.45, 0.45 * (damage + armed) / startHealth);
+    }
+  }
+
+  /**
+   * Runs a range of searches, splitting it in halves until one search is left.
+   */
+  private static final class SearchTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Search[] searches;
+    private final int from;
+    private final int to;
+
+    SearchTask(Search[] searches, int from, int to) {
+      this.searches = searches;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        searches[from].run();
+        return;
+      }
+      int middle = from + (to - from) / 2;
+      SearchTask left = new SearchTask(searches, from, middle);
+      left.fork();
+      new SearchTask(searches, middle, to).compute();
+      left.join();
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package game;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays large numbers of independent computer-only games in parallel and gathers statistics.
+ *
+ * <p>The games are split into ranges with fork/join. Each leaf task plays its games one after
+ * another, each on a fresh world created from the shared, immutable {@link MansionTopology},
+ * and records them into its own {@link SimulationStats}; the statistics are merged as tasks
+ * join. Workers share nothing mutable, so throughput grows with the number of cores. Game
+ * {@code g} draws its starting rooms, its pet room and the streams of its players from a
+ * generator seeded by the run seed and {@code g}, so every game is the same however the work is
+ * split, and any single game can be played again with {@link #replay}.
+ */
+public final class MonteCarloRunner {
+  private static final int GAMES_PER_TASK = 256;
+
+  private final MansionTopology topology;
+  private final int playersPerGame;
+  private final int maxTurns;
+  private final SimulationEngine engine;
+
+  /**
+   * Constructs a runner for games on a mansion.
+   *
+   * @param topology       the mansion to play on
+   * @param playersPerGame the number of computer players in each game
+   * @param maxTurns       the maximum number of turns per game
+   * @throws IllegalArgumentException if there are no players or no rooms
+   */
+  public MonteCarloRunner(MansionTopology topology, int playersPerGame, int maxTurns) {
+    if (playersPerGame < 1 || topology.getRoomCount() == 0) {
+      throw new IllegalArgumentException("Games need at least one player and one room");
+    }
+    this.topology = topology;
+    this.playersPerGame = playersPerGame;
+    this.maxTurns = maxTurns;
+    this.engine = new SimulationEngine();
+  }
+
+  /**
+   * Plays a number of games on the common fork/join pool.
+   *
+   * @param games the number of games to play
+   * @param seed  the seed the setup of every game is derived from
+   * @return the statistics of all games
+   */
+  public SimulationStats run(long games, long seed) {
+    return run(games, seed, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Plays a number of games on a fork/join pool.
+   *
+   * @param games the number of games to play
+   * @param seed  the seed the setup of every game is derived from
+   * @param pool  the pool to run the games on
+   * @return the statistics of all games
+   */
+  public SimulationStats run(long games, long seed, ForkJoinPool pool) {
+    return pool.invoke(new GamesTask(0, games, seed));
+  }
+
+  /**
+   * Plays one game of a run again, exactly as it was played in the run.
+   *
+   * @param seed the seed of the run
+   * @param game the number of the game in the run, from 0
+   * @return the outcome of the game
+   */
+  public GameResult replay(long seed, long game) {
+    return playGame(new SplittableRandom(gameSeed(seed, game)), null);
+  }
+
+  /**
+   * Plays one game with randomly chosen starting rooms and pet room.
+   *
+   * @param random the generator for the game's setup and players
+   * @param stats  the statistics to record the game into, or null
+   * @return the outcome of the game
+   */
+  private GameResult playGame(SplittableRandom random, SimulationStats stats) {
+    int rooms = topology.getRoomCount();
+    int[] startRooms = new int[playersPerGame];
+    for (int i = 0; i < startRooms.length; i++) {
+      startRooms[i] = random.nextInt(rooms);
+    }
+    int petRoom = random.nextInt(rooms);
+    List<ComputerPlayer> roster = SimulationEngine.createRoster(topology, startRooms, random);
+    GameResult result = engine.play(topology.createWorld(), roster, petRoom, maxTurns);
+    if (stats != null) {
+      stats.record(startRooms, result);
+    }
+    return result;
+  }
+
+  /**
+   * Mixes the run seed with a game number into the seed of that game.
+   */
+  static long gameSeed(long seed, long game) {
+    long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Plays the games in a range, splitting it in halves until it is small enough.
+   */
+  private final class GamesTask extends RecursiveTask<SimulationStats> {
+    private static final long serialVersionUID = 1L;
+
+    private final long from;
+    private final long to;
+    private final long seed;
+
+    GamesTask(long from, long to, long seed) {
+      this.from = from;
+      this.to = to;
+      this.seed = seed;
+    }
+
+    @Override
+    protected SimulationStats compute() {
+      if (to - from <= GAMES_PER_TASK) {
+        SimulationStats stats = new SimulationStats(topology, maxTurns);
+        for (long game = from; game < to; game++) {
+          playGame(new SplittableRandom(gameSeed(seed, game)), stats);
+        }
+        return stats;
+      }
+      long middle = from + (to - from) / 2;
+      GamesTask left = new GamesTask(from, middle, seed);
+      left.fork();
+      SimulationStats right = new GamesTask(middle, to, seed).compute();
+      return left.join().merge(right);
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package game;
+
+/**
+ * Discards the game's output, for games nobody watches.
+ */
+public final class NullSink implements Ioutputsink {
+
+  /**
+   * The shared instance; the sink has no state.
+   */
+  public static final NullSink INSTANCE = new NullSink();
+
+  private NullSink() {
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return false;
+  }
+
+  @Override
+  public void print(String text) {
+    // Discarded
+  }
+
+  @Override
+  public void println(String line) {
+    // Discarded
+  }
+}
@@ -0,0 +1,120 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Counts, for every room, the players who could see an attack made in it.
+ *
+ * <p>An attack is seen by the other players in the attacker's room and, unless the pet is in
+ * that room, by the players in its neighboring rooms. The index keeps two counters per room: the
+ * players in the room and the players in its neighbors. An {@link OccupancyIndex} the index is
+ * attached to reports every player entering or leaving a room, which updates the counters of the
+ * room and its neighbors in O(degree), so asking how many players watch a room takes O(1) however
+ * many players there are.
+ */
+public final class ObserverIndex {
+  private final RoomGraph graph;
+  private final int[] occupants;
+  private final int[] watchers;
+
+  /**
+   * Constructs an index with no players for the rooms of a graph.
+   *
+   * @param graph the adjacency graph of the rooms
+   */
+  public ObserverIndex(RoomGraph graph) {
+    this.graph = graph;
+    this.occupants = new int[graph.size()];
+    this.watchers = new int[graph.size()];
+  }
+
+  /**
+   * Gets the adjacency graph the index counts over.
+   *
+   * @return the adjacency graph
+   */
+  public RoomGraph getGraph() {
+    return graph;
+  }
+
+  /**
+   * Removes every player from the index.
+   */
+  public void clear() {
+    Arrays.fill(occupants, 0);
+    Arrays.fill(watchers, 0);
+  }
+
+  /**
+   * Records a player entering a room.
+   *
+   * @param room the index of the room
+   */
+  public void enter(int room) {
+    if (room < 0 || room >= occupants.length) {
+      return;
+    }
+    occupants[room]++;
+    for (int k = graph.neighborStart(room); k < graph.neighborEnd(room); k++) {
+      watchers[graph.neighborAt(k)]++;
+    }
+  }
+
+  /**
+   * Records a player leaving a room.
+   *
+   * @param room the index of the room
+   */
+  public void leave(int room) {
+    if (room < 0 || room >= occupants.length) {
+      return;
+    }
+    occupants[room]--;
+    for (int k = graph.neighborStart(room); k < graph.neighborEnd(room); k++) {
+      watchers[graph.neighborAt(k)]--;
+    }
+  }
+
+  /**
+   * Gets the number of players in a room.
+   *
+   * @param room the index of the room
+   * @return the number of occupants
+   */
+  public int occupants(int room) {
+    return occupants[room];
+  }
+
+  /**
+   * Gets the number of players in the neighbors of a room.
+   *
+   * @param room the index of the room
+   * @return the number of players who could look into the room from next door
+   */
+  public int watchers(int room) {
+    return watchers[room];
+  }
+
+  /**
+   * Counts the players who would see an attack in a room.
+   *
+   * @param room         the index of the room the attack is made in
+   * @param petRoom      the index of the pet's room, or -1 if the pet is not in a room
+   * @param attackerRoom the index of the room the attacker is in now, so that the attacker is not
+   *                     counted as its own observer, or -1 if it is not counted anywhere
+   * @return the number of observers
+   */
+  public int countObservers(int room, int petRoom, int attackerRoom) {
+    int observers = occupants[room];
+    if (attackerRoom == room) {
+      observers--;
+    }
+    if (room != petRoom) {
+      observers += watchers[room];
+      if (attackerRoom >= 0 && attackerRoom != room && graph.isNeighbor(attackerRoom, room)) {
+        observers--;
+      }
+    }
+    return observers;
+  }
+}
@@ -0,0 +1,265 @@
+package game;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of which players occupy each room of the game world.
+ *
+ * <p>Players are numbered in the order they joined the world and every room keeps a doubly
+ * linked list of its occupants sorted by that number, so occupants are always reported in turn
+ * order. The index listens to player moves and updates itself in O(occupants) per move; a
+ * player whose coordinates are not the starting coordinates of a room is not listed anywhere.
+ */
+public final class OccupancyIndex implements Imovelistener {
+  private static final int NONE = -1;
+
+  private final Map<Iplayer, Integer> ids;
+  private GridIndex grid;
+  private Iplayer[] players;
+  private int[] roomOf;
+  private int[] next;
+  private int[] prev;
+  private int[] head;
+  private int[] count;
+  private int size;
+  private ChangeLog changes;
+  private ObserverIndex observers;
+
+  /**
+   * Constructs an empty index over the rooms of a grid index.
+   *
+   * @param grid the grid index used to resolve player coordinates to rooms
+   */
+  public OccupancyIndex(GridIndex grid) {
+    this.ids = new IdentityHashMap<>();
+    this.players = new Iplayer[8];
+    this.roomOf = new int[8];
+    this.next = new int[8];
+    this.prev = new int[8];
+    reset(grid);
+  }
+
+  /**
+   * Clears the index and prepares it for the rooms of a new grid index.
+   *
+   * @param grid the grid index used to resolve player coordinates to rooms
+   */
+  public void reset(GridIndex grid) {
+    this.grid = grid;
+    this.head = new int[grid.size()];
+    this.count = new int[grid.size()];
+    Arrays.fill(head, NONE);
+    Arrays.fill(players, 0, size, null);
+    ids.clear();
+    size = 0;
+    if (observers != null) {
+      observers.clear();
+    }
+  }
+
+  /**
+   * Clears the index and adds the specified players in order.
+   *
+   * @param grid    the grid index used to resolve player coordinates to rooms
+   * @param players the players of the game world, in turn order
+   */
+  public void rebuild(GridIndex grid, List<Iplayer> players) {
+    reset(grid);
+    for (int i = 0; i < players.size(); i++) {
+      add(players.get(i));
+    }
+  }
+
+  /**
+   * Adds a player to the index and starts listening to its moves.
+   *
+   * @param player the player to add
+   * @return the number assigned to the player
+   */
+  public int add(Iplayer player) {
+    if (size == players.length) {
+      int capacity = size * 2;
+      players = Arrays.copyOf(players, capacity);
+      roomOf = Arrays.copyOf(roomOf, capacity);
+      next = Arrays.copyOf(next, capacity);
+      prev = Arrays.copyOf(prev, capacity);
+    }
+    int id = size++;
+    players[id] = player;
+    roomOf[id] = NONE;
+    // A player added twice is only listed under its first number
+    if (!ids.containsKey(player)) {
+      ids.put(player, id);
+      link(id, roomIndex(player.getPackedCoordinates()));
+    }
+    player.setMoveListener(this);
+    return id;
+  }
+
+  @Override
+  public void playerMoved(Iplayer player, long from, long to) {
+    Integer id = ids.get(player);
+    if (id == null) {
+      return;
+    }
+    int room = roomIndex(to);
+    if (room != roomOf[id]) {
+      int fromRoom = roomOf[id];
+      unlink(id);
+      link(id, room);
+      if (changes != null) {
+        changes.record(ChangeLog.PLAYER_MOVED, room, fromRoom);
+      }
+    }
+  }
+
+  /**
+   * Sets the log that moves between rooms are recorded in.
+   *
+   * @param changes the change log, or null to record nothing
+   */
+  public void setChangeLog(ChangeLog changes) {
+    this.changes = changes;
+  }
+
+  /**
+   * Attaches an index of observers that is told about every player entering and leaving a room,
+   * starting with the players already in the index.
+   *
+   * @param observers the observer index over the same rooms, or null to stop telling one
+   */
+  public void setObservers(ObserverIndex observers) {
+    this.observers = observers;
+    if (observers != null) {
+      observers.clear();
+      for (int id = 0; id < size; id++) {
+        observers.enter(roomOf[id]);
+      }
+    }
+  }
+
+  /**
+   * Gets the grid index the index resolves rooms with.
+   *
+   * @return the grid index
+   */
+  public GridIndex getGrid() {
+    return grid;
+  }
+
+  /**
+   * Gets the number of players in the index.
+   *
+   * @return the number of players
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets a player by its number.
+   *
+   * @param id the number of the player
+   * @return the player
+   */
+  public Iplayer player(int id) {
+    return players[id];
+  }
+
+  /**
+   * Gets the room a player is in.
+   *
+   * @param id the number of the player
+   * @return the index of the room, or -1 if the player is not in a room
+   */
+  public int roomOf(int id) {
+    return roomOf[id];
+  }
+
+  /**
+   * Gets the number of players in a room.
+   *
+   * @param room the index of the room
+   * @return the number of occupants
+   */
+  public int count(int room) {
+    return count[room];
+  }
+
+  /**
+   * Gets the first occupant of a room in turn order.
+   *
+   * @param room the index of the room
+   * @return the number of the first occupant, or -1 if the room is empty
+   */
+  public int first(int room) {
+    return head[room];
+  }
+
+  /**
+   * Gets the next occupant of the same room in turn order.
+   *
+   * @param id the number of the current occupant
+   * @return the number of the next occupant, or -1 if there are no more occupants
+   */
+  public int next(int id) {
+    return next[id];
+  }
+
+  private int roomIndex(long coordinates) {
+    if (coordinates == Coordinates.NONE) {
+      return NONE;
+    }
+    return grid.roomWithCorner(Coordinates.row(coordinates), Coordinates.column(coordinates));
+  }
+
+  private void link(int id, int room) {
+    roomOf[id] = room;
+    if (room == NONE) {
+      return;
+    }
+    int before = NONE;
+    int after = head[room];
+    while (after != NONE && after < id) {
+      before = after;
+      after = next[after];
+    }
+    prev[id] = before;
+    next[id] = after;
+    if (before == NONE) {
+      head[room] = id;
+    } else {
+      next[before] = id;
+    }
+    if (after != NONE) {
+      prev[after] = id;
+    }
+    count[room]++;
+    if (observers != null) {
+      observers.enter(room);
+    }
+  }
+
+  private void unlink(int id) {
+    int room = roomOf[id];
+    if (room == NONE) {
+      return;
+    }
+    if (prev[id] == NONE) {
+      head[room] = next[id];
+    } else {
+      next[prev[id]] = next[id];
+    }
+    if (next[id] != NONE) {
+      prev[next[id]] = prev[id];
+    }
+    count[room]--;
+    roomOf[id] = NONE;
+    if (observers != null) {
+      observers.leave(room);
+    }
+  }
+}
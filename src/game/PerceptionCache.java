@@ -0,0 +1,171 @@
+package game;
+
+/**
+ * Shares the text of room listings between all players who look around while the world is
+ * unchanged.
+ *
+ * <p>When many players look around in the same turn they list the same rooms over and over.
+ * The cache keeps, for every room, the listing of its items, the listing of its occupants and
+ * the block a player in a neighboring room sees, stamped with the room's
+ * {@link Igameworld#getRoomVersion(int) version}. An entry is only built again once something in
+ * its room has changed, so a turn in which nothing moves builds each listing at most once, and
+ * a move only rebuilds the listings of the two rooms involved.
+ */
+public final class PerceptionCache {
+  private final Igameworld world;
+  private RoomGraph graph;
+  private Entry[] entries;
+
+  /**
+   * Constructs an empty cache for a world.
+   *
+   * @param world the world whose rooms are listed
+   */
+  public PerceptionCache(Igameworld world) {
+    this.world = world;
+  }
+
+  /**
+   * Gets the listing of the items in a room as shown for the player's own room, one
+   * {@code " - "} line per item.
+   *
+   * @param room the index of the room
+   * @return the item lines of the room
+   */
+  public String itemLines(int room) {
+    Entry entry = entry(room);
+    if (entry.itemLines == null) {
+      entry.itemLines = buildItemLines(graph.roomAt(room).getItems(), " - ");
+    }
+    return entry.itemLines;
+  }
+
+  /**
+   * Gets the lines listing the occupants of a room, one {@code " - "} line per player in turn
+   * order, without the line that says no players are there.
+   *
+   * @param room the index of the room
+   * @return the occupant lines of the room
+   */
+  public String occupantLines(int room) {
+    return occupants(room).occupantLines;
+  }
+
+  /**
+   * Gets the listing of the occupants of a room other than one player.
+   *
+   * @param room the index of the room
+   * @param self the player to leave out
+   * @return the occupant lines of the room without the player, or a line saying that no other
+   *         players are there
+   */
+  public String otherOccupantLines(int room, Iplayer self) {
+    Entry entry = occupants(room);
+    OccupancyIndex occupancy = world.getOccupancy();
+    int position = 0;
+    for (int id = occupancy.first(room); id >= 0; id = occupancy.next(id), position++) {
+      if (occupancy.player(id) == self) {
+        String lines = entry.occupantLines;
+        if (entry.offsets.length == 2) {
+          return " - No other players\n";
+        }
+        return lines.substring(0, entry.offsets[position])
+            + lines.substring(entry.offsets[position + 1]);
+      }
+    }
+    return entry.offsets.length == 1 ? " - No other players\n" : entry.occupantLines;
+  }
+
+  /**
+   * Gets what a player in a neighboring room sees of a room: its items and its players.
+   *
+   * @param room the index of the room
+   * @return the block describing the room's items and players
+   */
+  public String neighborBlock(int room) {
+    Entry entry = entry(room);
+    if (entry.neighborBlock == null) {
+      entry.neighborBlock = buildNeighborBlock(room);
+    }
+    return entry.neighborBlock;
+  }
+
+  private Entry occupants(int room) {
+    Entry entry = entry(room);
+    if (entry.occupantLines == null) {
+      buildOccupantLines(entry, world.getOccupancy(), room);
+    }
+    return entry;
+  }
+
+  private Entry entry(int room) {
+    RoomGraph current = world.getRoomGraph();
+    if (graph != current) {
+      graph = current;
+      entries = new Entry[current.size()];
+    }
+    long version = world.getRoomVersion(room);
+    Entry entry = entries[room];
+    if (entry == null || entry.version != version) {
+      entry = new Entry(version);
+      entries[room] = entry;
+    }
+    return entry;
+  }
+
+  private static String buildItemLines(ItemList items, String bullet) {
+    if (items.isEmpty()) {
+      return bullet + "No items\n";
+    }
+    StringBuilder lines = new StringBuilder();
+    for (Iitem item : items) {
+      lines.append(bullet).append(item.getName()).append(
+          " (Damage: ").append(item.getDamage()).append(")\n");
+    }
+    return lines.toString();
+  }
+
+  private static void buildOccupantLines(Entry entry, OccupancyIndex occupancy, int room) {
+    StringBuilder lines = new StringBuilder();
+    int[] offsets = new int[occupancy.count(room) + 1];
+    int position = 0;
+    for (int id = occupancy.first(room); id >= 0; id = occupancy.next(id)) {
+      offsets[position++] = lines.length();
+      lines.append(" - ").append(occupancy.player(id).getName()).append("\n");
+    }
+    offsets[position] = lines.length();
+    entry.occupantLines = lines.toString();
+    entry.offsets = offsets;
+  }
+
+  private String buildNeighborBlock(int room) {
+    Iroom neighbor = graph.roomAt(room);
+    OccupancyIndex occupancy = world.getOccupancy();
+    StringBuilder block = new StringBuilder();
+    block.append("Items in ").append(neighbor.getName()).append(":\n");
+    block.append(buildItemLines(neighbor.getItems(), "  - "));
+    block.append("Players in ").append(neighbor.getName()).append(":\n");
+    if (occupancy.first(room) < 0) {
+      block.append("  - No other players\n");
+    }
+    for (int id = occupancy.first(room); id >= 0; id = occupancy.next(id)) {
+      block.append("  - ").append(occupancy.player(id).getName()).append("\n");
+    }
+    return block.toString();
+  }
+
+  /**
+   * The cached listings of one room, each built when it is first asked for.
+   */
+  private static final class Entry {
+    private final long version;
+    private String itemLines;
+    private String occupantLines;
+    private int[] offsets;
+    private String neighborBlock;
+
+    Entry(long version) {
+      this.version = version;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package game;
+
+/**
+ * An immutable, fixed-length vector of ints that is updated by path copying.
+ *
+ * <p>The values are stored in a 32-way trie. Setting a value copies only the nodes on the path
+ * to that value and shares every other node with the original vector, so an update costs
+ * O(log32 n) time and memory and old versions stay valid and unchanged.
+ */
+public final class PersistentIntVector {
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  private final int size;
+  private final int shift;
+  private final Object root;
+
+  private PersistentIntVector(int size, int shift, Object root) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+  }
+
+  /**
+   * Creates a vector holding a copy of the specified values.
+   *
+   * @param values the values of the vector
+   * @return a new vector
+   */
+  public static PersistentIntVector of(int[] values) {
+    int shift = 0;
+    while ((long) WIDTH << shift < values.length) {
+      shift += BITS;
+    }
+    return new PersistentIntVector(values.length, shift, build(values, 0, shift));
+  }
+
+  private static Object build(int[] values, int offset, int shift) {
+    if (shift == 0) {
+      int[] leaf = new int[WIDTH];
+      System.arraycopy(values, offset, leaf, 0, Math.max(0, Math.min(WIDTH,
+          values.length - offset)));
+      return leaf;
+    }
+    Object[] node = new Object[WIDTH];
+    int span = 1 << shift;
+    for (int k = 0; k < WIDTH && offset + k * span < values.length; k++) {
+      node[k] = build(values, offset + k * span, shift - BITS);
+    }
+    return node;
+  }
+
+  /**
+   * Gets the number of values in the vector.
+   *
+   * @return the length of the vector
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets a value of the vector.
+   *
+   * @param index the index of the value
+   * @return the value at the specified index
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public int get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    Object node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = ((Object[]) node)[(index >>> level) & MASK];
+    }
+    return ((int[]) node)[index & MASK];
+  }
+
+  /**
+   * Creates a vector that differs from this one in a single value.
+   *
+   * @param index the index of the value to change
+   * @param value the new value
+   * @return a vector with the value changed, or this vector if the value is already set
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public PersistentIntVector set(int index, int value) {
+    if (get(index) == value) {
+      return this;
+    }
+    return new PersistentIntVector(size, shift, set(root, shift, index, value));
+  }
+
+  private static Object set(Object node, int level, int index, int value) {
+    if (level == 0) {
+      int[] leaf = ((int[]) node).clone();
+      leaf[index & MASK] = value;
+      return leaf;
+    }
+    Object[] copy = ((Object[]) node).clone();
+    int slot = (index >>> level) & MASK;
+    copy[slot] = set(copy[slot], level - BITS, index, value);
+    return copy;
+  }
+}
@@ -0,0 +1,1132 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A game world whose state is persistent, so that a running game can be forked cheaply.
+ *
+ * <p>The state of the game (which items lie in which rooms, the players, the target and the pet)
+ * is an immutable value. Every mutation, whether made through this world or through the rooms,
+ * players, target and pet it hands out, replaces the state with a new value that shares
+ * everything it did not change with the old one. {@link #fork()} therefore takes O(1) time and
+ * memory, and a fork only grows with the changes made to it afterwards. The rooms, players,
+ * target and pet of a world are views of its state; they belong to that world and never see the
+ * changes made to its forks.
+ *
+ * <p>The rooms and items start out as the {@link MansionTopology} the world was created from
+ * places them. The item lists handed out by rooms and players write their changes through to
+ * the state, so an item taken with {@code getItems().remove(0)} leaves the room of this world
+ * only. A room or player hands out the same list until the items it describes change. Adding a
+ * room replaces the world's topology with a larger one; forks made before keep the smaller
+ * mansion.
+ *
+ * <p>A player added to the world is copied into its state, and {@link #getPlayers()} returns a
+ * view of the copy in its place. The world's methods that take a player, such as
+ * {@link #movePlayer} and {@link #pickItem}, also accept the player that was added and act on
+ * its copy, but the player added is never changed by the world and changing it does not change
+ * the world. The rules are the players' own: a computer player's copy takes its turns with
+ * {@link ComputerPlayer#playTurn(Iplayer, Igameworld, SplittableRandom, boolean)} of the player
+ * added, so search and policy players keep their strategies, and a human player's copy attacks
+ * like a {@link Player}. Turns are taken silently and draw from a generator the world keeps
+ * beside its state and passes on to its forks, so two forks replay the same turns until one of
+ * them is changed or reseeded; a player added to several forks is shared by them and must not
+ * take turns in two of them at the same time. The pet walks like a {@link Pet}.
+ */
+public final class PersistentWorld implements Igameworld {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private MansionTopology topology;
+  private State state;
+  private long seed;
+  private final TargetView target;
+  private final PetView pet;
+  private final List<PlayerView> playerViews;
+  private final List<Iplayer> players;
+  private final List<Iroom> roomList;
+  private final List<Iroom> rooms;
+  private RoomGraph graph;
+  private OccupancyIndex occupancy;
+  private VisibilityIndex visibility;
+  private Ioutputsink output = new ConsoleSink();
+  private PerceptionCache perception;
+  private InterceptPlanner interceptPlanner;
+  private ObserverIndex observers;
+
+  /**
+   * Constructs a world at the start of a game on a mansion, with no players.
+   *
+   * @param topology the mansion the game is played on
+   * @param seed     the seed of the computer players' random number generator
+   */
+  public PersistentWorld(MansionTopology topology, long seed) {
+    this(topology, State.initial(topology), seed);
+  }
+
+  private PersistentWorld(MansionTopology topology, State state, long seed) {
+    this.topology = topology;
+    this.state = state;
+    this.seed = seed;
+    this.target = new TargetView();
+    this.pet = new PetView();
+    this.playerViews = new ArrayList<>();
+    this.players = Collections.<Iplayer>unmodifiableList(playerViews);
+    this.roomList = new ArrayList<>();
+    this.rooms = Collections.unmodifiableList(roomList);
+  }
+
+  /**
+   * Creates an independent world that starts from the current state of this world. Later
+   * changes to either world are not visible in the other.
+   *
+   * @return the forked world
+   */
+  public PersistentWorld fork() {
+    PersistentWorld fork = new PersistentWorld(topology, state, seed);
+    fork.output = output;
+    fork.interceptPlanner = interceptPlanner;
+    return fork;
+  }
+
+  /**
+   * Gets the mansion the game is played on.
+   *
+   * @return the topology of the mansion
+   */
+  public MansionTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Replaces the seed of the computer players' random number generator, so that forks of the
+   * same state can play out differently.
+   *
+   * @param seed the new seed
+   */
+  public void reseed(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * Sets whether the target moves when {@link #moveTarget()} is called.
+   *
+   * @param shouldMove true if the target should move, false otherwise
+   */
+  public void setTargetShouldMove(boolean shouldMove) {
+    State next = state.copy();
+    next.targetShouldMove = shouldMove;
+    state = next;
+  }
+
+  /**
+   * Moves the first item of a player's room to the player. As in the game, the item leaves the
+   * room even when the player cannot carry any more items.
+   *
+   * @param player the player picking up the item, or the player added to the world for it
+   * @return the item that left the room, or null if the room has no items left
+   */
+  public Iitem pickItem(Iplayer player) {
+    Iplayer view = viewOf(player);
+    if (view != null) {
+      player = view;
+    }
+    int room = getRoomIndexByCoordinates(player.getPackedCoordinates());
+    if (room < 0) {
+      return null;
+    }
+    int item = firstItem(room);
+    Iitem picked;
+    if (item >= 0) {
+      State next = state.copy();
+      next.itemsInRooms = state.itemsInRooms.set(item, 0);
+      state = next;
+      picked = topology.getItem(item);
+    } else {
+      // Only items put into the room later are left, listed after the room's own items
+      ItemList items = roomViews().get(room).getItems();
+      if (items.isEmpty()) {
+        return null;
+      }
+      picked = items.remove(0);
+    }
+    player.addItem(picked);
+    return picked;
+  }
+
+  private int firstItem(int room) {
+    for (int k = topology.roomItemStart(room); k < topology.roomItemEnd(room); k++) {
+      int item = topology.roomItemAt(k);
+      if (state.itemsInRooms.get(item) != 0) {
+        return item;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Makes the generator of one turn from the next seed of the world's sequence.
+   */
+  private SplittableRandom nextRandom() {
+    seed += GOLDEN_GAMMA;
+    long z = seed;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return new SplittableRandom(z ^ (z >>> 31));
+  }
+
+  /**
+   * Finds the view of a player in this world: the player itself if it is one of the world's
+   * views, otherwise the view of the first player added as the same object, or as the object a
+   * view of another world was added as.
+   *
+   * @return the view, or null if the player is not in the world
+   */
+  private Iplayer viewOf(Iplayer player) {
+    List<Iplayer> views = getPlayers();
+    if (player instanceof PlayerView) {
+      PlayerView view = (PlayerView) player;
+      if (view.index < views.size() && views.get(view.index) == view) {
+        return view;
+      }
+      player = view.record().player;
+    }
+    for (int p = 0; p < state.players.length; p++) {
+      if (state.players[p].player == player) {
+        return views.get(p);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Converts packed coordinates back to a tuple, reusing the room's tuple for room corners.
+   */
+  private Tuple<Integer, Integer> toTuple(long packed) {
+    if (packed == Coordinates.NONE) {
+      return null;
+    }
+    int room = getRoomIndexByCoordinates(packed);
+    if (room >= 0) {
+      return topology.getRoomCoordinates(room);
+    }
+    return new Tuple<>(Coordinates.row(packed), Coordinates.column(packed));
+  }
+
+  private List<Iroom> roomViews() {
+    while (roomList.size() < topology.getRoomCount()) {
+      roomList.add(new RoomView(roomList.size()));
+    }
+    return rooms;
+  }
+
+  /**
+   * Adds a room to the game world by replacing the world's topology with one that has the room
+   * as well. The items the room holds are put into it, and a target walking the route of the old
+   * mansion walks the route of the new one from then on. Costs O(rooms + items) time, like
+   * building the topology does.
+   *
+   * @param room the room to be added
+   */
+  @Override
+  public void addRoom(Iroom room) {
+    MansionTopology larger = topology.withRoom(room);
+    State next = state.copy();
+    if (state.targetRoute == topology.getTargetRoute()) {
+      next.targetRoute = larger.getTargetRoute();
+      next.targetStep = 0;
+    }
+    for (Iitem item : room.getItems()) {
+      next.placed = new Placement(topology.getRoomCount(), item, next.placed);
+    }
+    topology = larger;
+    state = next;
+    graph = null;
+    occupancy = null;
+    visibility = null;
+    perception = null;
+    interceptPlanner = null;
+    observers = null;
+  }
+
+  @Override
+  public Iroom getRoomByIndex(int index) {
+    if (index < 0 || index >= topology.getRoomCount()) {
+      throw new IndexOutOfBoundsException("Invalid room index: " + index);
+    }
+    return roomViews().get(index);
+  }
+
+  @Override
+  public List<Iroom> getRooms() {
+    return roomViews();
+  }
+
+  @Override
+  public Itarget getTarget() {
+    return target;
+  }
+
+  @Override
+  public Ipet getPet() {
+    return pet;
+  }
+
+  @Override
+  public List<Iroom> getNeighbors(Iroom room) {
+    int index = getRoomIndex(room);
+    return index < 0 ? Collections.<Iroom>emptyList() : getRoomGraph().neighbors(index);
+  }
+
+  @Override
+  public int getRoomIndex(Iroom room) {
+    return getRoomGraph().indexOf(room);
+  }
+
+  @Override
+  public RoomGraph getRoomGraph() {
+    if (graph == null) {
+      graph = topology.getRoomGraph().withRooms(roomViews());
+    }
+    return graph;
+  }
+
+  @Override
+  public void displayRoomInfo(int index) {
+    if (!output.isEnabled()) {
+      return;
+    }
+    if (index < 0 || index >= topology.getRoomCount()) {
+      output.println("Invalid room index.");
+      return;
+    }
+    Iroom room = getRoomByIndex(index);
+    output.println("Room Name: " + room.getName());
+    output.println("Items in the Room:");
+    for (Iitem item : room.getItems()) {
+      output.println(" - " + item.getName() + " (Damage: " + item.getDamage() + ")");
+    }
+    RoomGraph roomGraph = getRoomGraph();
+    output.println("Visible Rooms:");
+    for (int k = roomGraph.neighborStart(index); k < roomGraph.neighborEnd(index); k++) {
+      output.println(" - " + roomGraph.roomAt(roomGraph.neighborAt(k)).getName());
+    }
+    output.println("Players in the Room:");
+    OccupancyIndex occupants = getOccupancy();
+    for (int id = occupants.first(index); id >= 0; id = occupants.next(id)) {
+      output.println(" - " + occupants.player(id).getName());
+    }
+    if (getPetRoomIndex() == index) {
+      output.println("Pet: " + pet.getName() + " is here.");
+    }
+    if (getTargetRoomIndex() == index) {
+      output.println("Target: " + target.getName() + " is here.");
+    }
+  }
+
+  @Override
+  public void setOutput(Ioutputsink output) {
+    this.output = output;
+  }
+
+  @Override
+  public Ioutputsink getOutput() {
+    return output;
+  }
+
+  @Override
+  public void moveTarget() {
+    if (!state.targetShouldMove || topology.getRoomCount() == 0) {
+      return;
+    }
+    TargetRoute route = state.targetRoute;
+    int step = findTargetStep();
+    State next = state.copy();
+    next.targetStep = step < 0 ? 0 : route.next(step);
+    next.targetCoordinates = Coordinates.pack(
+        topology.getRoomCoordinates(route.getRoom(next.targetStep)));
+    target.moved(next);
+  }
+
+  /**
+   * Finds the target on its route, checking the step it was last moved to first.
+   *
+   * @return the step of the target, or -1 if it is off the route
+   */
+  private int findTargetStep() {
+    TargetRoute route = state.targetRoute;
+    int room = route.getRoom(state.targetStep);
+    if (Coordinates.pack(topology.getRoomCoordinates(room)) == state.targetCoordinates) {
+      return state.targetStep;
+    }
+    return route.getStep(getTargetRoomIndex());
+  }
+
+  @Override
+  public TargetRoute getTargetRoute() {
+    return state.targetRoute;
+  }
+
+  /**
+   * Sets the route the target walks from its current room on.
+   *
+   * @param route the new route, or null for the route of the mansion
+   * @throws IllegalArgumentException if the route visits rooms that do not exist
+   */
+  public void setTargetRoute(TargetRoute route) {
+    if (route != null && route.getRoomCount() > topology.getRoomCount()) {
+      throw new IllegalArgumentException("The route visits rooms that do not exist");
+    }
+    State next = state.copy();
+    next.targetRoute = route == null ? topology.getTargetRoute() : route;
+    next.targetStep = 0;
+    state = next;
+  }
+
+  @Override
+  public int getTargetStep() {
+    return topology.getRoomCount() == 0 ? -1 : findTargetStep();
+  }
+
+  @Override
+  public InterceptPlanner getInterceptPlanner() {
+    if (topology.getRoomCount() == 0) {
+      return null;
+    }
+    if (interceptPlanner == null || interceptPlanner.getRoute() != state.targetRoute) {
+      interceptPlanner = new InterceptPlanner(state.targetRoute, topology.getDistances());
+    }
+    return interceptPlanner;
+  }
+
+  @Override
+  public int getTargetRoomAfter(int moves) {
+    int room = getTargetRoomIndex();
+    if (room < 0 || moves == 0 || !state.targetShouldMove) {
+      return room;
+    }
+    int step = findTargetStep();
+    return step < 0 ? state.targetRoute.roomAfter(0, moves - 1L)
+        : state.targetRoute.roomAfter(step, moves);
+  }
+
+  /**
+   * Adds a player to the game world. The world copies the player's name, position, capacity and
+   * items into its state and from then on plays a view of the player, which
+   * {@link #getPlayers()} returns in its place. The view takes its turns the way the player
+   * added does; a view of another persistent world takes them the way the player added to that
+   * world does.
+   *
+   * @param player the player to be added
+   * @throws IllegalArgumentException if the player is neither a {@link ComputerPlayer} nor a
+   *                                  plain {@link Player}, whose rules the world cannot follow
+   */
+  @Override
+  public void addPlayer(Iplayer player) {
+    Iplayer rules = player instanceof PlayerView ? ((PlayerView) player).record().player : player;
+    if (!(rules instanceof ComputerPlayer) && rules.getClass() != Player.class) {
+      throw new IllegalArgumentException("Cannot play the turns of " + player.getName()
+          + " in a persistent world");
+    }
+    State next = state.copy();
+    PlayerRecord[] records = new PlayerRecord[state.players.length + 1];
+    System.arraycopy(state.players, 0, records, 0, state.players.length);
+    records[state.players.length] = new PlayerRecord(rules, player.getName(),
+        player.getPackedCoordinates(), player.getMaxItems(),
+        player.getItems().toArray(new Iitem[0]));
+    next.players = records;
+    state = next;
+    List<Iplayer> views = getPlayers();
+    if (occupancy != null && occupancy.size() == views.size() - 1) {
+      occupancy.add(views.get(views.size() - 1));
+    }
+  }
+
+  @Override
+  public List<Iplayer> getPlayers() {
+    while (playerViews.size() < state.players.length) {
+      playerViews.add(new PlayerView(playerViews.size()));
+    }
+    return players;
+  }
+
+  @Override
+  public OccupancyIndex getOccupancy() {
+    List<Iplayer> players = getPlayers();
+    if (occupancy == null) {
+      occupancy = new OccupancyIndex(topology.getGridIndex());
+    }
+    if (occupancy.size() != players.size()) {
+      occupancy.rebuild(topology.getGridIndex(), players);
+    }
+    return occupancy;
+  }
+
+  @Override
+  public ObserverIndex getObservers() {
+    OccupancyIndex index = getOccupancy();
+    RoomGraph roomGraph = getRoomGraph();
+    if (observers == null || observers.getGraph() != roomGraph) {
+      observers = new ObserverIndex(roomGraph);
+      index.setObservers(observers);
+    }
+    return observers;
+  }
+
+  @Override
+  public long getVersion() {
+    // Every change replaces the state with a copy one version further on
+    return state.version;
+  }
+
+  @Override
+  public long getRoomVersion(int room) {
+    // Changes are not tracked per room, so every room changes with the world
+    return state.version;
+  }
+
+  @Override
+  public PerceptionCache getPerception() {
+    if (perception == null) {
+      perception = new PerceptionCache(this);
+    }
+    return perception;
+  }
+
+  @Override
+  public Iplayer findObserver(Iplayer subject) {
+    Iplayer view = viewOf(subject);
+    for (Iplayer player : getPlayers()) {
+      if (player != subject && player != view && player.canSee(subject, this)) {
+        return player;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isVisible(long observer, long subject) {
+    if (observer == subject) {
+      return true;
+    }
+    int observerRoom = getRoomIndexByCoordinates(observer);
+    int subjectRoom = getRoomIndexByCoordinates(subject);
+    if (observerRoom < 0 || subjectRoom < 0) {
+      return false;
+    }
+    return getVisibility().canSee(observerRoom, subjectRoom);
+  }
+
+  @Override
+  public VisibilityIndex getVisibility() {
+    if (visibility == null) {
+      visibility = new VisibilityIndex(topology.getRoomGraph());
+    }
+    visibility.setPetRoom(getPetRoomIndex());
+    return visibility;
+  }
+
+  @Override
+  public DistanceTable getDistances() {
+    return topology.getDistances();
+  }
+
+  @Override
+  public int getDistance(int fromRoom, int toRoom) {
+    return topology.getDistances().distance(fromRoom, toRoom);
+  }
+
+  @Override
+  public int getNextStep(int fromRoom, int toRoom) {
+    return topology.getDistances().nextStep(fromRoom, toRoom);
+  }
+
+  @Override
+  public int getPetRoomIndex() {
+    return getRoomIndexByCoordinates(state.petCoordinates);
+  }
+
+  @Override
+  public int getTargetRoomIndex() {
+    return getRoomIndexByCoordinates(state.targetCoordinates);
+  }
+
+  /**
+   * Moves a player to a neighboring room. A player added to the world stands for its view, which
+   * is moved in its place.
+   *
+   * @param player         the player to be moved
+   * @param newCoordinates the coordinates of the room to move to
+   */
+  @Override
+  public void movePlayer(Iplayer player, Tuple<Integer, Integer> newCoordinates) {
+    Iplayer view = viewOf(player);
+    if (view != null) {
+      player = view;
+    }
+    int from = getRoomIndexByCoordinates(player.getPackedCoordinates());
+    int to = getRoomIndexByCoordinates(Coordinates.pack(newCoordinates));
+    if (from >= 0 && to >= 0 && topology.getRoomGraph().isNeighbor(from, to)) {
+      player.move(newCoordinates);
+    }
+  }
+
+  @Override
+  public int getColumns() {
+    return topology.getColumns();
+  }
+
+  @Override
+  public int getRows() {
+    return topology.getRows();
+  }
+
+  @Override
+  public Iroom getRoomByCoordinates(Tuple<Integer, Integer> coordinates) {
+    int index = getRoomIndexByCoordinates(Coordinates.pack(coordinates));
+    return index < 0 ? null : roomViews().get(index);
+  }
+
+  @Override
+  public Iroom getRoomContaining(int row, int column) {
+    int index = topology.getGridIndex().roomAt(row, column);
+    return index < 0 ? null : roomViews().get(index);
+  }
+
+  @Override
+  public int getRoomIndexByCoordinates(long coordinates) {
+    if (coordinates == Coordinates.NONE) {
+      return -1;
+    }
+    return topology.getGridIndex().roomWithCorner(Coordinates.row(coordinates),
+        Coordinates.column(coordinates));
+  }
+
+  @Override
+  public GridIndex getGridIndex() {
+    return topology.getGridIndex();
+  }
+
+  @Override
+  public void movePet(Tuple<Integer, Integer> newCoordinates) {
+    pet.move(newCoordinates);
+  }
+
+  /**
+   * Replaces the pet of the game world by copying the name and position of another pet.
+   *
+   * @param newPet the pet to be added
+   */
+  @Override
+  public void addPet(Ipet newPet) {
+    State next = state.copy();
+    next.petName = newPet.getName();
+    next.petCoordinates = newPet.getPackedCoordinates();
+    state = next;
+  }
+
+  @Override
+  public void nextTurn() {
+    for (Iplayer player : getPlayers()) {
+      player.takeTurn(this);
+    }
+    pet.moveDfs(this);
+  }
+
+  /**
+   * One immutable version of the game state. A version is copied, changed and published in one
+   * step and never changed afterwards.
+   */
+  private static final class State {
+    private PersistentIntVector itemsInRooms;
+    private Placement placed;
+    private PlayerRecord[] players;
+    private long targetCoordinates;
+    private TargetRoute targetRoute;
+    private int targetStep;
+    private int targetHealth;
+    private boolean targetShouldMove;
+    private String petName;
+    private long petCoordinates;
+    private long version;
+
+    static State initial(MansionTopology topology) {
+      State state = new State();
+      int[] inRooms = new int[topology.getItemCount()];
+      Arrays.fill(inRooms, 1);
+      state.itemsInRooms = PersistentIntVector.of(inRooms);
+      state.players = new PlayerRecord[0];
+      long start = topology.getRoomCount() == 0 ? Coordinates.pack(0, 0)
+          : Coordinates.pack(topology.getRoomCoordinates(0));
+      state.targetCoordinates = topology.getRoomCount() == 0 ? start
+          : Coordinates.pack(topology.getRoomCoordinates(topology.getTargetStartRoom()));
+      state.targetRoute = topology.getTargetRoute();
+      state.targetHealth = topology.getTargetHealth();
+      state.targetShouldMove = true;
+      state.petName = topology.getPetName();
+      state.petCoordinates = start;
+      return state;
+    }
+
+    State copy() {
+      State copy = new State();
+      copy.itemsInRooms = itemsInRooms;
+      copy.placed = placed;
+      copy.players = players;
+      copy.targetCoordinates = targetCoordinates;
+      copy.targetRoute = targetRoute;
+      copy.targetStep = targetStep;
+      copy.targetHealth = targetHealth;
+      copy.targetShouldMove = targetShouldMove;
+      copy.petName = petName;
+      copy.petCoordinates = petCoordinates;
+      copy.version = version + 1;
+      return copy;
+    }
+  }
+
+  /**
+   * An item put into a room after the start of the game, in an immutable list of all such items
+   * that is newest first.
+   */
+  private static final class Placement {
+    private final int room;
+    private final Iitem item;
+    private final Placement next;
+
+    Placement(int room, Iitem item, Placement next) {
+      this.room = room;
+      this.item = item;
+      this.next = next;
+    }
+
+    /**
+     * Removes the items of a room from a list, sharing the part of the list after the last one.
+     */
+    static Placement without(Placement placed, int room) {
+      if (placed == null) {
+        return null;
+      }
+      Placement rest = without(placed.next, room);
+      if (placed.room == room) {
+        return rest;
+      }
+      return rest == placed.next ? placed : new Placement(placed.room, placed.item, rest);
+    }
+  }
+
+  /**
+   * The immutable state of one player, with the player added to the world, whose rules it
+   * follows.
+   */
+  private static final class PlayerRecord {
+    private final Iplayer player;
+    private final String name;
+    private final long coordinates;
+    private final int maxItems;
+    private final Iitem[] items;
+
+    PlayerRecord(Iplayer player, String name, long coordinates, int maxItems, Iitem[] items) {
+      this.player = player;
+      this.name = name;
+      this.coordinates = coordinates;
+      this.maxItems = maxItems;
+      this.items = items;
+    }
+
+    PlayerRecord withCoordinates(long newCoordinates) {
+      return new PlayerRecord(player, name, newCoordinates, maxItems, items);
+    }
+
+    PlayerRecord withItems(Iitem[] newItems) {
+      return new PlayerRecord(player, name, coordinates, maxItems, newItems);
+    }
+  }
+
+  /**
+   * A room of the world, backed by the topology and the world's current state.
+   */
+  private final class RoomView implements Iroom {
+    private final int index;
+    private ItemList items;
+    private PersistentIntVector listedInRooms;
+    private Placement listedPlaced;
+
+    RoomView(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public String getName() {
+      return topology.getRoomName(index);
+    }
+
+    @Override
+    public Tuple<Integer, Integer> getCoordinates() {
+      return topology.getRoomCoordinates(index);
+    }
+
+    @Override
+    public long getPackedCoordinates() {
+      return Coordinates.pack(topology.getRoomCoordinates(index));
+    }
+
+    @Override
+    public Tuple<Integer, Integer> getEndingCoordinates() {
+      return topology.getRoomEndingCoordinates(index);
+    }
+
+    @Override
+    public void addItem(Iitem item) {
+      getItems().add(item);
+    }
+
+    @Override
+    public boolean isNeighbor(Room other) {
+      int room = getRoomIndexByCoordinates(other.getPackedCoordinates());
+      if (room >= 0 && topology.getRoomEndingCoordinates(room)
+          .equals(other.getEndingCoordinates())) {
+        return topology.getRoomGraph().isNeighbor(index, room);
+      }
+      // Not a room of the mansion; the topology's graph is built from plain rooms
+      return other.isNeighbor((Room) topology.getRoomGraph().roomAt(index));
+    }
+
+    /**
+     * Gets the items lying in the room: the room's own items that are still there, followed by
+     * the items put into it later in the order they were put. Changes to the list are written
+     * through to the world, which keeps the contents of the list but lists them in that order.
+     * The same list is handed out until the items of a room of the world change.
+     *
+     * @return the items in the room
+     */
+    @Override
+    public ItemList getItems() {
+      if (items != null && listedInRooms == state.itemsInRooms
+          && listedPlaced == state.placed) {
+        return items;
+      }
+      listedInRooms = state.itemsInRooms;
+      listedPlaced = state.placed;
+      items = new ItemList();
+      for (int k = topology.roomItemStart(index); k < topology.roomItemEnd(index); k++) {
+        int item = topology.roomItemAt(k);
+        if (state.itemsInRooms.get(item) != 0) {
+          items.add(topology.getItem(item));
+        }
+      }
+      if (state.placed != null) {
+        List<Iitem> placedItems = new ArrayList<>();
+        for (Placement placed = state.placed; placed != null; placed = placed.next) {
+          if (placed.room == index) {
+            placedItems.add(placed.item);
+          }
+        }
+        for (int k = placedItems.size() - 1; k >= 0; k--) {
+          items.add(placedItems.get(k));
+        }
+      }
+      items.setListener(new RoomItemsListener(index));
+      return items;
+    }
+  }
+
+  /**
+   * Writes the changes to an item list handed out by a room to the state.
+   */
+  private final class RoomItemsListener implements Iitemlistener {
+    private final int room;
+
+    RoomItemsListener(int room) {
+      this.room = room;
+    }
+
+    @Override
+    public void itemsChanged(ItemList items) {
+      PersistentIntVector inRooms = state.itemsInRooms;
+      for (int k = topology.roomItemStart(room); k < topology.roomItemEnd(room); k++) {
+        inRooms = inRooms.set(topology.roomItemAt(k), 0);
+      }
+      Placement placed = Placement.without(state.placed, room);
+      for (Iitem item : items) {
+        int own = item.getRoomIndex() == room ? topology.getItemIndex(item) : -1;
+        if (own >= 0 && inRooms.get(own) == 0) {
+          inRooms = inRooms.set(own, 1);
+        } else {
+          placed = new Placement(room, item, placed);
+        }
+      }
+      State next = state.copy();
+      next.itemsInRooms = inRooms;
+      next.placed = placed;
+      state = next;
+    }
+  }
+
+  /**
+   * A player of the world, backed by the world's current state.
+   */
+  private final class PlayerView implements Iplayer {
+    private final int index;
+    private Imovelistener moveListener;
+    private ItemList items;
+    private Iitem[] listed;
+
+    PlayerView(int index) {
+      this.index = index;
+    }
+
+    private PlayerRecord record() {
+      return state.players[index];
+    }
+
+    private void update(PlayerRecord record) {
+      State next = state.copy();
+      next.players = state.players.clone();
+      next.players[index] = record;
+      state = next;
+    }
+
+    @Override
+    public String getName() {
+      return record().name;
+    }
+
+    @Override
+    public Tuple<Integer, Integer> getCoordinates() {
+      return toTuple(record().coordinates);
+    }
+
+    @Override
+    public long getPackedCoordinates() {
+      return record().coordinates;
+    }
+
+    @Override
+    public void move(Tuple<Integer, Integer> newCoordinates) {
+      long oldCoordinates = record().coordinates;
+      long packed = Coordinates.pack(newCoordinates);
+      update(record().withCoordinates(packed));
+      if (moveListener != null) {
+        moveListener.playerMoved(this, oldCoordinates, packed);
+      }
+    }
+
+    @Override
+    public void setMoveListener(Imovelistener listener) {
+      this.moveListener = listener;
+    }
+
+    /**
+     * Gets the items the player carries. Changes to the list are written through to the world.
+     * The same list is handed out until the player's items change other than through it.
+     *
+     * @return the player's items
+     */
+    @Override
+    public ItemList getItems() {
+      if (items != null && listed == record().items) {
+        return items;
+      }
+      listed = record().items;
+      items = new ItemList();
+      for (Iitem item : listed) {
+        items.add(item);
+      }
+      items.setListener(new Iitemlistener() {
+        @Override
+        public void itemsChanged(ItemList changed) {
+          Iitem[] written = changed.toArray(new Iitem[0]);
+          update(record().withItems(written));
+          if (changed == items) {
+            listed = written;
+          }
+        }
+      });
+      return items;
+    }
+
+    @Override
+    public void addItem(Iitem item) {
+      ItemList carried = getItems();
+      if (carried.size() < getMaxItems()) {
+        carried.add(item);
+      }
+    }
+
+    @Override
+    public int getMaxItems() {
+      return record().maxItems;
+    }
+
+    @Override
+    public String lookAround(Igameworld world) {
+      return lookAt(world).toString();
+    }
+
+    @Override
+    public Surroundings lookAt(Igameworld world) {
+      return Surroundings.of(this, world);
+    }
+
+    /**
+     * Attacks the target the way the player added to the world attacks.
+     *
+     * @param attacked the target to attack
+     * @param world    the game world the player is in
+     * @return the result of the attack
+     */
+    @Override
+    public String attack(Itarget attacked, Igameworld world) {
+      if (record().player instanceof ComputerPlayer) {
+        return ComputerPlayer.attack(this, attacked, world, true);
+      }
+      return Player.attack(this, attacked, world);
+    }
+
+    @Override
+    public boolean canSee(Iplayer other, Igameworld world) {
+      return world.isVisible(record().coordinates, other.getPackedCoordinates());
+    }
+
+    /**
+     * Plays a computer player's turn the way the computer player added to the world plays it,
+     * without printing anything and drawing from the world's generator. Other players do
+     * nothing, as a {@link Player} does.
+     *
+     * @param world the game world the player is in
+     */
+    @Override
+    public void takeTurn(Igameworld world) {
+      Iplayer rules = record().player;
+      if (rules instanceof ComputerPlayer) {
+        ((ComputerPlayer) rules).playTurn(this, world, nextRandom(), false);
+      }
+    }
+  }
+
+  /**
+   * The target of the world, backed by the world's current state.
+   */
+  private final class TargetView implements Itarget {
+    private Itargetlistener listener;
+
+    @Override
+    public int getHealth() {
+      return state.targetHealth;
+    }
+
+    @Override
+    public String getName() {
+      return topology.getTargetName();
+    }
+
+    @Override
+    public Tuple<Integer, Integer> getCoordinates() {
+      return toTuple(state.targetCoordinates);
+    }
+
+    @Override
+    public long getPackedCoordinates() {
+      return state.targetCoordinates;
+    }
+
+    @Override
+    public void moveTarget(Tuple<Integer, Integer> newCoordinates) {
+      State next = state.copy();
+      next.targetCoordinates = Coordinates.pack(newCoordinates);
+      moved(next);
+    }
+
+    /**
+     * Publishes a state in which the target has moved and notifies the listener.
+     */
+    void moved(State next) {
+      long oldCoordinates = state.targetCoordinates;
+      state = next;
+      if (listener != null) {
+        listener.targetMoved(this, oldCoordinates, next.targetCoordinates);
+      }
+    }
+
+    @Override
+    public void takeDamage(int damage) {
+      int oldHealth = state.targetHealth;
+      State next = state.copy();
+      next.targetHealth = Math.max(0, oldHealth - damage);
+      state = next;
+      if (listener != null && next.targetHealth != oldHealth) {
+        listener.targetDamaged(this, oldHealth);
+      }
+    }
+
+    @Override
+    public void setListener(Itargetlistener listener) {
+      this.listener = listener;
+    }
+  }
+
+  /**
+   * The pet of the world, backed by the world's current state.
+   */
+  private final class PetView implements Ipet {
+    private Ipetlistener listener;
+    private Pet walker;
+
+    @Override
+    public String getName() {
+      return state.petName;
+    }
+
+    @Override
+    public Tuple<Integer, Integer> getCoordinates() {
+      return toTuple(state.petCoordinates);
+    }
+
+    @Override
+    public long getPackedCoordinates() {
+      return state.petCoordinates;
+    }
+
+    @Override
+    public void move(Tuple<Integer, Integer> newCoordinates) {
+      long oldCoordinates = state.petCoordinates;
+      State next = state.copy();
+      next.petCoordinates = Coordinates.pack(newCoordinates);
+      state = next;
+      if (listener != null) {
+        listener.petMoved(this, oldCoordinates, next.petCoordinates);
+      }
+    }
+
+    @Override
+    public void setListener(Ipetlistener listener) {
+      this.listener = listener;
+    }
+
+    /**
+     * Moves the pet with {@link Pet#moveDfs}, played by a pet the view keeps at the pet's
+     * position. The traversal starts over whenever the pet is found elsewhere, as it does
+     * when a {@link Pet} is moved.
+     *
+     * @param world the game world the pet is in
+     */
+    @Override
+    public void moveDfs(Igameworld world) {
+      if (getPetRoomIndex() < 0) {
+        return;
+      }
+      if (walker == null) {
+        walker = new Pet(state.petName, getCoordinates());
+      } else if (walker.getPackedCoordinates() != state.petCoordinates) {
+        walker.move(getCoordinates());
+      }
+      walker.moveDfs(world);
+      if (walker.getPackedCoordinates() != state.petCoordinates) {
+        move(walker.getCoordinates());
+      }
+    }
+  }
+}
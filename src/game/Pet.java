@@ -11,8 +11,10 @@ import java.util.Stack;
 public class Pet implements Ipet {
   private String name;
   private Tuple<Integer, Integer> coordinates;
+  private long packedCoordinates;
   private Stack<Iroom> dfsStack;
   private Set<Iroom> visitedRooms;
+  private Ipetlistener listener;
 
   /**
    * Constructs a Pet with the specified name and coordinates.
@@ -23,6 +25,7 @@ public class Pet implements Ipet {
   public Pet(String name, Tuple<Integer, Integer> coordinates) {
     this.name = name;
     this.coordinates = coordinates;
+    this.packedCoordinates = Coordinates.pack(coordinates);
     this.dfsStack = new Stack<>();
     this.visitedRooms = new HashSet<>();
   }
@@ -37,12 +40,27 @@ public class Pet implements Ipet {
     return coordinates;
   }
 
+  @Override
+  public long getPackedCoordinates() {
+    return packedCoordinates;
+  }
+
   @Override
   public void move(Tuple<Integer, Integer> newCoordinates) {
+    long oldCoordinates = packedCoordinates;
     this.coordinates = newCoordinates;
+    this.packedCoordinates = Coordinates.pack(newCoordinates);
     // Reset DFS traversal when manually moved
     dfsStack.clear();
     visitedRooms.clear();
+    if (listener != null) {
+      listener.petMoved(this, oldCoordinates, packedCoordinates);
+    }
+  }
+
+  @Override
+  public void setListener(Ipetlistener listener) {
+    this.listener = listener;
   }
 
   @Override
@@ -57,7 +75,8 @@ public class Pet implements Ipet {
     while (!dfsStack.isEmpty()) {
       Iroom room = dfsStack.pop();
       List<Iroom> neighbors = world.getNeighbors(room);
-      for (Iroom neighbor : neighbors) {
+      for (int i = 0; i < neighbors.size(); i++) {
+        Iroom neighbor = neighbors.get(i);
         if (!visitedRooms.contains(neighbor)) {
           dfsStack.push(neighbor);
           visitedRooms.add(neighbor);
@@ -0,0 +1,122 @@
+package game;
+
+import java.util.SplittableRandom;
+
+/**
+ * A computer player that plays the best action of a learned {@link TabularPolicy}.
+ *
+ * <p>Every turn the player describes its situation as a state of the policy and plays the
+ * possible action of highest value, which takes O(1) however many players or items the world has.
+ * Many players can share one policy, including one mapped from a file by
+ * {@link TabularPolicy#load}. In a world the policy was not made for, or while the player or the
+ * target is not in a room, the player plays like a {@link ComputerPlayer}.
+ */
+public class PolicyPlayer extends ComputerPlayer {
+  private final TabularPolicy policy;
+
+  /**
+   * Constructs a player whose random moves come from an unseeded generator.
+   *
+   * @param name        the name of the player
+   * @param coordinates the initial coordinates of the player
+   * @param maxItems    the maximum number of items the player can carry
+   * @param policy      the policy the player follows
+   */
+  public PolicyPlayer(String name, Tuple<Integer, Integer> coordinates, int maxItems,
+      TabularPolicy policy) {
+    this(name, coordinates, maxItems, policy, new SplittableRandom());
+  }
+
+  /**
+   * Constructs a player whose random moves come from the specified generator.
+   *
+   * @param name        the name of the player
+   * @param coordinates the initial coordinates of the player
+   * @param maxItems    the maximum number of items the player can carry
+   * @param policy      the policy the player follows
+   * @param random      the generator for the player's random moves; not shared with other
+   *                    threads
+   */
+  public PolicyPlayer(String name, Tuple<Integer, Integer> coordinates, int maxItems,
+      TabularPolicy policy, SplittableRandom random) {
+    super(name, coordinates, maxItems, random);
+    this.policy = policy;
+  }
+
+  /**
+   * Gets the policy the player follows.
+   *
+   * @return the policy
+   */
+  public TabularPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Plays one turn without printing anything: the possible action of highest value in the
+   * player's state.
+   *
+   * @param self   the player whose turn it is, this player or a copy of it
+   * @param world  the game world the player is in
+   * @param random the generator random moves are drawn from
+   * @param report true to describe an attack or the surroundings when waiting, false to skip
+   *               the descriptions
+   * @return the result of an attack or the description of the surroundings, or null if the
+   *         turn has nothing to report
+   */
+  @Override
+  public String playTurn(Iplayer self, Igameworld world, SplittableRandom random,
+      boolean report) {
+    int state = policy.fits(world) ? policy.encode(world, self) : -1;
+    if (state < 0) {
+      return super.playTurn(self, world, random, report);
+    }
+    int mask = TabularPolicy.validActions(world, self);
+    return play(self, world, random, chooseAction(state, mask), report);
+  }
+
+  /**
+   * Chooses the action to play in a state. The player plays the best action of its policy.
+   *
+   * @param state the state of the player
+   * @param mask  the possible actions
+   * @return the action to play
+   */
+  int chooseAction(int state, int mask) {
+    return policy.bestAction(state, mask);
+  }
+
+  /**
+   * Plays an action of the policy.
+   */
+  private String play(Iplayer self, Igameworld world, SplittableRandom random, int action,
+      boolean report) {
+    int room = world.getRoomIndexByCoordinates(self.getPackedCoordinates());
+    switch (action) {
+      case TabularPolicy.ATTACK:
+        return attack(self, world.getTarget(), world, report);
+      case TabularPolicy.PICK:
+        self.addItem(world.getRoomByIndex(room).getItems().remove(0));
+        return null;
+      case TabularPolicy.APPROACH:
+        int targetRoom = world.getTargetRoomIndex();
+        int next = world.getInterceptPlanner().getNextRoom(room, world.getTargetStep());
+        if (next < 0) {
+          next = world.getNextStep(room, targetRoom);
+        }
+        if (next >= 0 && next != room) {
+          self.move(world.getRoomByIndex(next).getCoordinates());
+          return null;
+        }
+        break;
+      case TabularPolicy.WANDER:
+        RoomGraph graph = world.getRoomGraph();
+        int choice = graph.neighborStart(room) + random.nextInt(graph.degree(room));
+        self.move(graph.roomAt(graph.neighborAt(choice)).getCoordinates());
+        return null;
+      default:
+        break;
+    }
+    return report ? self.lookAround(world) : null;
+  }
+}
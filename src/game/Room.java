@@ -1,17 +1,14 @@
 package game;
 
-import java.util.ArrayList;
-import java.util.List;
-
-
 /**
  * Represents a room in the game world.
  */
 public class Room implements Iroom {
   private String name;
   private Tuple<Integer, Integer> coordinates;
+  private long packedCoordinates;
   private Tuple<Integer, Integer> endingCoordinates;
-  private List<Iitem> items;
+  private ItemList items;
 
   /**
    * Constructs a Room with the specified name, starting coordinates, and ending coordinates.
@@ -24,8 +21,9 @@ public class Room implements Iroom {
       Tuple<Integer, Integer> endingCoordinates) {
     this.name = name;
     this.coordinates = coordinates;
+    this.packedCoordinates = Coordinates.pack(coordinates);
     this.endingCoordinates = endingCoordinates;
-    this.items = new ArrayList<>();
+    this.items = new ItemList();
   }
 
   @Override
@@ -38,6 +36,11 @@ public class Room implements Iroom {
     return coordinates;
   }
 
+  @Override
+  public long getPackedCoordinates() {
+    return packedCoordinates;
+  }
+
   @Override
   public Tuple<Integer, Integer> getEndingCoordinates() {
     return endingCoordinates;
@@ -49,7 +52,7 @@ public class Room implements Iroom {
   }
 
   @Override
-  public List<Iitem> getItems() {
+  public ItemList getItems() {
     return items;
   }
 
@@ -0,0 +1,190 @@
+package game;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable adjacency graph of the rooms in a mansion, stored in compressed sparse row form.
+ *
+ * <p>The neighbors of room {@code i} are {@code targets[offsets[i]]} up to (but excluding)
+ * {@code targets[offsets[i + 1]]}, listed in ascending room index order so that iteration
+ * matches the order of the world's room list.
+ */
+public final class RoomGraph {
+  private final int[] offsets;
+  private final int[] targets;
+  private final Iroom[] rooms;
+  private final Map<Iroom, Integer> indexByRoom;
+  private final List<Iroom>[] neighborLists;
+
+  /**
+   * Constructs a graph from prebuilt compressed sparse row arrays. Each row of {@code targets}
+   * must already be sorted in ascending order; use {@link AdjacencyBuilder#build} to compute
+   * them from the room rectangles.
+   *
+   * @param rooms   the rooms of the mansion, in index order
+   * @param offsets the row offsets, of length {@code rooms.size() + 1}
+   * @param targets the neighbor indices of every room, row by row
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  RoomGraph(List<Iroom> rooms, int[] offsets, int[] targets) {
+    this.rooms = rooms.toArray(new Iroom[0]);
+    this.offsets = offsets;
+    this.targets = targets;
+    this.indexByRoom = new IdentityHashMap<>(rooms.size() * 2);
+    for (int i = this.rooms.length - 1; i >= 0; i--) {
+      indexByRoom.put(this.rooms[i], i);
+    }
+    this.neighborLists = new List[rooms.size()];
+    for (int i = 0; i < rooms.size(); i++) {
+      neighborLists[i] = new NeighborList(offsets[i], offsets[i + 1]);
+    }
+  }
+
+  /**
+   * Gets the number of rooms in the graph.
+   *
+   * @return the number of rooms
+   */
+  public int size() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Gets the room stored at an index of the graph.
+   *
+   * @param index the index of the room
+   * @return the room at the specified index
+   */
+  public Iroom roomAt(int index) {
+    return rooms[index];
+  }
+
+  /**
+   * Gets the index of a room in the graph.
+   *
+   * @param room the room to look up
+   * @return the index of the room, or -1 if the room is not part of the graph
+   */
+  public int indexOf(Iroom room) {
+    Integer index = indexByRoom.get(room);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Gets the number of neighbors of a room.
+   *
+   * @param room the index of the room
+   * @return the number of neighboring rooms
+   */
+  public int degree(int room) {
+    return offsets[room + 1] - offsets[room];
+  }
+
+  /**
+   * Gets the position of the first neighbor of a room in {@link #neighborAt}.
+   *
+   * @param room the index of the room
+   * @return the first neighbor position of the room
+   */
+  public int neighborStart(int room) {
+    return offsets[room];
+  }
+
+  /**
+   * Gets the position just past the last neighbor of a room in {@link #neighborAt}.
+   *
+   * @param room the index of the room
+   * @return the end neighbor position of the room
+   */
+  public int neighborEnd(int room) {
+    return offsets[room + 1];
+  }
+
+  /**
+   * Gets the room index stored at a neighbor position.
+   *
+   * @param position a position between {@link #neighborStart} and {@link #neighborEnd}
+   * @return the index of the neighboring room
+   */
+  public int neighborAt(int position) {
+    return targets[position];
+  }
+
+  /**
+   * Determines whether two rooms are neighbors.
+   *
+   * @param room  the index of the first room
+   * @param other the index of the second room
+   * @return true if the rooms share an edge, false otherwise
+   */
+  public boolean isNeighbor(int room, int other) {
+    return Arrays.binarySearch(targets, offsets[room], offsets[room + 1], other) >= 0;
+  }
+
+  /**
+   * Creates a graph with the same adjacency for another set of rooms, such as the rooms of a
+   * new game on the same mansion. The adjacency arrays are shared, not copied.
+   *
+   * @param otherRooms the rooms to attach, in the same index order as this graph's rooms
+   * @return a graph over the specified rooms
+   * @throws IllegalArgumentException if the number of rooms differs
+   */
+  public RoomGraph withRooms(List<Iroom> otherRooms) {
+    if (otherRooms.size() != size()) {
+      throw new IllegalArgumentException("Expected " + size() + " rooms but got "
+          + otherRooms.size());
+    }
+    return new RoomGraph(otherRooms, offsets, targets);
+  }
+
+  /**
+   * Determines whether two graphs share the same adjacency arrays, so that anything computed
+   * from one graph's structure is valid for the other.
+   *
+   * @param other the graph to compare with
+   * @return true if both graphs share their adjacency, false otherwise
+   */
+  public boolean sharesStructure(RoomGraph other) {
+    return other != null && offsets == other.offsets && targets == other.targets;
+  }
+
+  /**
+   * Gets the neighboring rooms of a room as a shared, read-only list.
+   *
+   * @param room the index of the room
+   * @return the neighboring rooms in ascending index order
+   */
+  public List<Iroom> neighbors(int room) {
+    return neighborLists[room];
+  }
+
+  /**
+   * A read-only view over one row of the graph.
+   */
+  private final class NeighborList extends AbstractList<Iroom> {
+    private final int start;
+    private final int end;
+
+    private NeighborList(int start, int end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public Iroom get(int index) {
+      if (index < 0 || index >= end - start) {
+        throw new IndexOutOfBoundsException("Invalid neighbor index: " + index);
+      }
+      return rooms[targets[start + index]];
+    }
+
+    @Override
+    public int size() {
+      return end - start;
+    }
+  }
+}
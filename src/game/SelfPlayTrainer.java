@@ -0,0 +1,384 @@
+package game;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Learns a {@link TabularPolicy} for computer players by Q-learning over games they play against
+ * each other.
+ *
+ * <p>Training runs in epochs. In an epoch, large numbers of headless games are split into ranges
+ * with fork/join, as in the {@link MonteCarloRunner}. Each leaf task copies the policy of the
+ * epoch and plays its games one after another with every player learning from that copy: a
+ * player chooses a random possible action with a small probability and otherwise the best one,
+ * and moves the value of its previous action toward the reward it earned since plus the
+ * discounted value of its new state. Damage dealt earns its share of the target's health, the
+ * killing blow earns a bonus, losing the target to another player costs a penalty and every turn
+ * costs a little, so the players learn to kill quickly and alone. When the tasks join, the values
+ * they learned are averaged, weighted by how often each task updated them, into the policy of the
+ * next epoch, and the rate of random actions falls linearly toward a tenth of its start. Workers
+ * share nothing mutable, and game {@code g} of an epoch is set up from the seed of the epoch and
+ * {@code g}, so a seed trains the same policy however many cores do the work.
+ */
+public final class SelfPlayTrainer {
+
+  /**
+   * The rate at which values move toward their targets unless set otherwise.
+   */
+  public static final double DEFAULT_LEARNING_RATE = 0.1;
+
+  /**
+   * The discount of future rewards per turn unless set otherwise.
+   */
+  public static final double DEFAULT_DISCOUNT = 0.95;
+
+  /**
+   * The probability of a random action in the first epoch unless set otherwise.
+   */
+  public static final double DEFAULT_EXPLORATION = 0.3;
+
+  private static final int GAMES_PER_TASK = 64;
+  private static final float KILL_REWARD = 1f;
+  private static final float LOSS_REWARD = -0.5f;
+  private static final float TURN_COST = 0.01f;
+
+  private final MansionTopology topology;
+  private final int playersPerGame;
+  private final int maxTurns;
+  private final SimulationEngine engine;
+  private double learningRate = DEFAULT_LEARNING_RATE;
+  private double discount = DEFAULT_DISCOUNT;
+  private double exploration = DEFAULT_EXPLORATION;
+  private Ioutputsink output = NullSink.INSTANCE;
+
+  /**
+   * Constructs a trainer for games on a mansion.
+   *
+   * @param topology       the mansion to play on
+   * @param playersPerGame the number of learning players in each game
+   * @param maxTurns       the maximum number of turns per game
+   * @throws IllegalArgumentException if there are no players or no rooms
+   */
+  public SelfPlayTrainer(MansionTopology topology, int playersPerGame, int maxTurns) {
+    if (playersPerGame < 1 || topology.getRoomCount() == 0) {
+      throw new IllegalArgumentException("Games need at least one player and one room");
+    }
+    this.topology = topology;
+    this.playersPerGame = playersPerGame;
+    this.maxTurns = maxTurns;
+    this.engine = new SimulationEngine();
+  }
+
+  /**
+   * Sets the rate at which values move toward their targets.
+   *
+   * @param learningRate the rate, greater than 0 and at most 1
+   * @throws IllegalArgumentException if the rate is out of range
+   */
+  public void setLearningRate(double learningRate) {
+    if (!(learningRate > 0 && learningRate <= 1)) {
+      throw new IllegalArgumentException("Invalid learning rate: " + learningRate);
+    }
+    this.learningRate = learningRate;
+  }
+
+  /**
+   * Sets the discount of future rewards per turn.
+   *
+   * @param discount the discount, from 0 to 1
+   * @throws IllegalArgumentException if the discount is out of range
+   */
+  public void setDiscount(double discount) {
+    if (!(discount >= 0 && discount <= 1)) {
+      throw new IllegalArgumentException("Invalid discount: " + discount);
+    }
+    this.discount = discount;
+  }
+
+  /**
+   * Sets the probability of a random action in the first epoch.
+   *
+   * @param exploration the probability, from 0 to 1
+   * @throws IllegalArgumentException if the probability is out of range
+   */
+  public void setExploration(double exploration) {
+    if (!(exploration >= 0 && exploration <= 1)) {
+      throw new IllegalArgumentException("Invalid exploration rate: " + exploration);
+    }
+    this.exploration = exploration;
+  }
+
+  /**
+   * Sets where a line of progress is written after every epoch. Nothing is written unless set
+   * otherwise.
+   *
+   * @param output the sink to write to
+   */
+  public void setOutput(Ioutputsink output) {
+    this.output = output;
+  }
+
+  /**
+   * Trains a policy on the common fork/join pool.
+   *
+   * @param epochs        the number of epochs
+   * @param gamesPerEpoch the number of games per epoch
+   * @param seed          the seed the setup of every game is derived from
+   * @return the learned policy
+   */
+  public TabularPolicy train(int epochs, long gamesPerEpoch, long seed) {
+    return train(epochs, gamesPerEpoch, seed, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Trains a policy on a fork/join pool.
+   *
+   * @param epochs        the number of epochs
+   * @param gamesPerEpoch the number of games per epoch
+   * @param seed          the seed the setup of every game is derived from
+   * @param pool          the pool to play the games on
+   * @return the learned policy
+   * @throws IllegalArgumentException if the number of epochs or games is negative
+   */
+  public TabularPolicy train(int epochs, long gamesPerEpoch, long seed, ForkJoinPool pool) {
+    if (epochs < 0 || gamesPerEpoch < 0) {
+      throw new IllegalArgumentException("Invalid training length: " + epochs + " epochs of "
+          + gamesPerEpoch + " games");
+    }
+    float[] values = TabularPolicy.create(topology).toArray();
+    for (int epoch = 0; epoch < epochs; epoch++) {
+      double rate = exploration * (1 - 0.9 * epoch / Math.max(1, epochs - 1));
+      long epochSeed = MonteCarloRunner.gameSeed(seed, -2 - epoch);
+      Epoch result = pool.invoke(new EpochTask(values, rate, 0, gamesPerEpoch, epochSeed));
+      values = result.average(values);
+      if (output.isEnabled()) {
+        output.println(String.format("Epoch %d: exploration %.3f, target killed in %d of %d "
+            + "games, mean turns %.1f", epoch + 1, rate, result.kills, result.games,
+            result.games == 0 ? 0.0 : (double) result.turns / result.games));
+      }
+    }
+    return TabularPolicy.wrap(topology, values);
+  }
+
+  /**
+   * Plays one training game with every player learning into a policy.
+   */
+  private void playGame(SplittableRandom random, TabularPolicy policy, int[] updates,
+      double rate, Epoch epoch) {
+    int rooms = topology.getRoomCount();
+    float damageScale = 1f / Math.max(1, topology.getTargetHealth());
+    List<ComputerPlayer> roster = new ArrayList<>(playersPerGame);
+    for (int i = 0; i < playersPerGame; i++) {
+      roster.add(new Learner("Learner " + (i + 1),
+          topology.getRoomCoordinates(random.nextInt(rooms)), policy, updates, rate,
+          damageScale, random.split()));
+    }
+    int petRoom = random.nextInt(rooms);
+    GameResult result = engine.play(topology.createWorld(), roster, petRoom, maxTurns);
+    for (int i = 0; i < roster.size(); i++) {
+      float reward = !result.isTargetKilled() ? 0f
+          : result.getWinner() == i ? KILL_REWARD : LOSS_REWARD;
+      ((Learner) roster.get(i)).finish(reward);
+    }
+    epoch.games++;
+    epoch.kills += result.isTargetKilled() ? 1 : 0;
+    epoch.turns += result.getTurns();
+  }
+
+  /**
+   * A player that learns into a policy while following it.
+   */
+  private final class Learner extends PolicyPlayer {
+    private final TabularPolicy policy;
+    private final int[] updates;
+    private final double rate;
+    private final float damageScale;
+    private final SplittableRandom random;
+    private int lastState = -1;
+    private int lastAction;
+    private float reward;
+
+    Learner(String name, Tuple<Integer, Integer> coordinates, TabularPolicy policy,
+        int[] updates, double rate, float damageScale, SplittableRandom random) {
+      super(name, coordinates, SimulationEngine.MAX_ITEMS, policy, random.split());
+      this.policy = policy;
+      this.updates = updates;
+      this.rate = rate;
+      this.damageScale = damageScale;
+      this.random = random;
+    }
+
+    @Override
+    public String playTurn(Iplayer self, Igameworld world, SplittableRandom random,
+        boolean report) {
+      Itarget target = world.getTarget();
+      int health = target == null ? 0 : target.getHealth();
+      String result = super.playTurn(self, world, random, report);
+      if (target != null && health > target.getHealth()) {
+        reward += (health - Math.max(0, target.getHealth())) * damageScale;
+      }
+      return result;
+    }
+
+    @Override
+    int chooseAction(int state, int mask) {
+      update(policy.bestValue(state, mask) * (float) discount);
+      int action;
+      if (random.nextDouble() < rate) {
+        do {
+          action = random.nextInt(TabularPolicy.ACTIONS);
+        } while ((mask & 1 << action) == 0);
+      } else {
+        action = policy.bestAction(state, mask);
+      }
+      lastState = state;
+      lastAction = action;
+      reward = -TURN_COST;
+      return action;
+    }
+
+    /**
+     * Learns from the end of the game.
+     */
+    void finish(float finalReward) {
+      reward += finalReward;
+      update(0f);
+      lastState = -1;
+    }
+
+    /**
+     * Moves the value of the previous action toward the reward since then plus a future value.
+     */
+    private void update(float future) {
+      if (lastState < 0) {
+        return;
+      }
+      float value = policy.getValue(lastState, lastAction);
+      policy.setValue(lastState, lastAction,
+          value + (float) (learningRate * (reward + future - value)));
+      updates[lastState * TabularPolicy.ACTIONS + lastAction]++;
+    }
+  }
+
+  /**
+   * The values learned by the tasks of an epoch, weighted by their updates, and a tally of the
+   * games played.
+   */
+  private static final class Epoch {
+    private final double[] weightedValues;
+    private final long[] updates;
+    private long games;
+    private long kills;
+    private long turns;
+
+    Epoch(int size) {
+      this.weightedValues = new double[size];
+      this.updates = new long[size];
+    }
+
+    void add(float[] values, int[] counts) {
+      for (int i = 0; i < values.length; i++) {
+        weightedValues[i] += (double) values[i] * counts[i];
+        updates[i] += counts[i];
+      }
+    }
+
+    Epoch merge(Epoch other) {
+      for (int i = 0; i < updates.length; i++) {
+        weightedValues[i] += other.weightedValues[i];
+        updates[i] += other.updates[i];
+      }
+      games += other.games;
+      kills += other.kills;
+      turns += other.turns;
+      return this;
+    }
+
+    float[] average(float[] previous) {
+      float[] values = previous.clone();
+      for (int i = 0; i < values.length; i++) {
+        if (updates[i] > 0) {
+          values[i] = (float) (weightedValues[i] / updates[i]);
+        }
+      }
+      return values;
+    }
+  }
+
+  /**
+   * Plays the games of an epoch in a range, splitting it in halves until it is small enough.
+   */
+  private final class EpochTask extends RecursiveTask<Epoch> {
+    private static final long serialVersionUID = 1L;
+
+    private final float[] values;
+    private final double rate;
+    private final long from;
+    private final long to;
+    private final long seed;
+
+    EpochTask(float[] values, double rate, long from, long to, long seed) {
+      this.values = values;
+      this.rate = rate;
+      this.from = from;
+      this.to = to;
+      this.seed = seed;
+    }
+
+    @Override
+    protected Epoch compute() {
+      if (to - from <= GAMES_PER_TASK) {
+        float[] learned = values.clone();
+        int[] updates = new int[learned.length];
+        TabularPolicy policy = TabularPolicy.wrap(topology, learned);
+        Epoch epoch = new Epoch(learned.length);
+        for (long game = from; game < to; game++) {
+          playGame(new SplittableRandom(MonteCarloRunner.gameSeed(seed, game)), policy, updates,
+              rate, epoch);
+        }
+        epoch.add(learned, updates);
+        return epoch;
+      }
+      long middle = from + (to - from) / 2;
+      EpochTask left = new EpochTask(values, rate, from, middle, seed);
+      left.fork();
+      Epoch right = new EpochTask(values, rate, middle, to, seed).compute();
+      return left.join().merge(right);
+    }
+  }
+
+  /**
+   * Trains a policy on every core and writes it to a file.
+   *
+   * @param args optional arguments: the mansion file, the policy file, the number of epochs, the
+   *             number of games per epoch, the number of players and the maximum number of turns
+   *             per game
+   */
+  public static void main(String[] args) {
+    final String filePath = args.length > 0 ? args[0] : "res/mansion.txt";
+    final String policyPath = args.length > 1 ? args[1] : "res/policy.bin";
+    final int epochs = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+    final long games = args.length > 3 ? Long.parseLong(args[3]) : 20000;
+    final int playerCount = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+    final int maxTurns = args.length > 5 ? Integer.parseInt(args[5]) : 100;
+
+    try {
+      MansionTopology topology = MansionParser.parseTopology(filePath);
+      SelfPlayTrainer trainer = new SelfPlayTrainer(topology, playerCount, maxTurns);
+      trainer.setOutput(new ConsoleSink());
+      long start = System.nanoTime();
+      TabularPolicy policy = trainer.train(epochs, games, 1L);
+      long elapsed = System.nanoTime() - start;
+      policy.save(policyPath);
+      System.out.printf("Trained on %d games in %.1f s on %d cores; policy of %d states written "
+          + "to %s%n", epochs * games, elapsed / 1e9,
+          Runtime.getRuntime().availableProcessors(), policy.getStateCount(), policyPath);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package game;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Measures how many computer-only games the simulation engine plays per second, first on one
+ * thread and then on every core with the Monte Carlo runner.
+ */
+public class SimulationBenchmark {
+
+  /**
+   * Plays batches of games and prints the throughput of each batch.
+   *
+   * @param args optional arguments: the mansion file, the number of games per batch, the number
+   *             of players and the maximum number of turns per game
+   */
+  public static void main(String[] args) {
+    final String filePath = args.length > 0 ? args[0] : "res/mansion.txt";
+    final int games = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+    final int playerCount = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+    final int maxTurns = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+    try {
+      MansionTopology topology = MansionParser.parseTopology(filePath);
+      int[] startRooms = new int[playerCount];
+      for (int i = 0; i < playerCount; i++) {
+        startRooms[i] = i % topology.getRoomCount();
+      }
+      SimulationEngine engine = new SimulationEngine();
+      for (int batch = 1; batch <= 5; batch++) {
+        long start = System.nanoTime();
+        List<GameResult> results = engine.playGames(topology, startRooms, 0, maxTurns, games,
+            batch);
+        long elapsed = System.nanoTime() - start;
+        int kills = 0;
+        for (GameResult result : results) {
+          kills += result.isTargetKilled() ? 1 : 0;
+        }
+        System.out.printf("Batch %d: %.0f games/s, target killed in %d of %d games%n",
+            batch, games * 1e9 / elapsed, kills, games);
+      }
+
+      MonteCarloRunner runner = new MonteCarloRunner(topology, playerCount, maxTurns);
+      for (int batch = 1; batch <= 3; batch++) {
+        long start = System.nanoTime();
+        SimulationStats stats = runner.run(games * 10L, batch);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Parallel batch %d: %.0f games/s on %d cores, "
+            + "mean turns to kill %.1f%n", batch, stats.getGames() * 1e9 / elapsed,
+            Runtime.getRuntime().availableProcessors(), stats.getMeanTurnsToKill());
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+}
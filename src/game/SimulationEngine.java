@@ -0,0 +1,137 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays complete games between computer players without any console input or output.
+ *
+ * <p>A game follows the same rules as {@link GameController#runGame()}: on every turn the
+ * current player acts, the target moves and the game ends if the target is dead; then every
+ * player of the world takes a turn, the pet moves and play passes to the next player. Nothing
+ * is read from {@code System.in} and nothing is printed, so games can be played as fast as the
+ * world allows.
+ */
+public final class SimulationEngine {
+
+  /**
+   * The number of items a computer player can carry, as in interactive games.
+   */
+  public static final int MAX_ITEMS = 5;
+
+  /**
+   * Plays one game on a world that has no players yet.
+   *
+   * @param world    the game world, with its target and pet in their starting rooms
+   * @param roster   the computer players, in turn order, already placed in their starting rooms
+   * @param petRoom  the index of the room to place the pet in
+   * @param maxTurns the maximum number of turns to play
+   * @return the outcome of the game
+   * @throws IllegalArgumentException if the roster is empty or the pet room does not exist
+   */
+  public GameResult play(Igameworld world, List<ComputerPlayer> roster, int petRoom,
+      int maxTurns) {
+    if (roster.isEmpty()) {
+      throw new IllegalArgumentException("A game needs at least one player");
+    }
+    if (petRoom < 0 || petRoom >= world.getRooms().size()) {
+      throw new IllegalArgumentException("Invalid pet room index: " + petRoom);
+    }
+    for (ComputerPlayer player : roster) {
+      world.addPlayer(player);
+    }
+    world.movePet(world.getRoomByIndex(petRoom).getCoordinates());
+
+    Itarget target = world.getTarget();
+    List<Iitem> usedItems = new ArrayList<>();
+    Iplayer killer = null;
+    int current = 0;
+    for (int turn = 0; turn < maxTurns; turn++) {
+      killer = act(world, roster.get(current), target, killer, usedItems);
+      world.moveTarget();
+      if (target.getHealth() <= 0) {
+        return new GameResult(true, turn + 1, roster.indexOf(killer),
+            killer == null ? null : killer.getName(), target.getHealth(), usedItems);
+      }
+
+      current = (current + 1) % roster.size();
+      // The rest of the round, as in GameWorld.nextTurn but without printing
+      List<Iplayer> players = world.getPlayers();
+      for (int p = 0; p < players.size(); p++) {
+        killer = act(world, players.get(p), target, killer, usedItems);
+      }
+      if (world.getPet() != null) {
+        world.getPet().moveDfs(world);
+      }
+    }
+    return new GameResult(false, maxTurns, -1, null, target.getHealth(), usedItems);
+  }
+
+  /**
+   * Plays a number of games on a mansion, each on a fresh world from the topology, with one
+   * computer player per starting room.
+   *
+   * @param topology   the mansion to play on
+   * @param startRooms the starting room index of each player, in turn order
+   * @param petRoom    the index of the room to place the pet in
+   * @param maxTurns   the maximum number of turns per game
+   * @param games      the number of games to play
+   * @param seed       the seed all games are derived from; the same seed plays the same games
+   * @return the outcome of every game, in the order they were played
+   */
+  public List<GameResult> playGames(MansionTopology topology, int[] startRooms, int petRoom,
+      int maxTurns, int games, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    List<GameResult> results = new ArrayList<>(games);
+    for (int g = 0; g < games; g++) {
+      results.add(play(topology.createWorld(), createRoster(topology, startRooms, random.split()),
+          petRoom, maxTurns));
+    }
+    return results;
+  }
+
+  /**
+   * Creates computer players named "Computer 1", "Computer 2" and so on in their starting rooms.
+   * Each player draws from its own stream split off the specified generator, so the players'
+   * choices depend only on the generator's seed and not on how their turns interleave.
+   *
+   * @param topology   the mansion the players play on
+   * @param startRooms the starting room index of each player, in turn order
+   * @param random     the generator to split the players' generators from
+   * @return the new players
+   */
+  public static List<ComputerPlayer> createRoster(MansionTopology topology, int[] startRooms,
+      SplittableRandom random) {
+    List<ComputerPlayer> roster = new ArrayList<>(startRooms.length);
+    for (int i = 0; i < startRooms.length; i++) {
+      roster.add(new ComputerPlayer("Computer " + (i + 1),
+          topology.getRoomCoordinates(startRooms[i]), MAX_ITEMS, random.split()));
+    }
+    return roster;
+  }
+
+  /**
+   * Lets a player take a turn, recording the item used if the player attacked and returning
+   * the player who first brought the target down.
+   */
+  private static Iplayer act(Igameworld world, Iplayer player, Itarget target, Iplayer killer,
+      List<Iitem> usedItems) {
+    int health = target.getHealth();
+    int carried = player.getItems().size();
+    Iitem strongest = player.getItems().peekStrongest();
+    if (player instanceof ComputerPlayer) {
+      ((ComputerPlayer) player).playTurn(world, false);
+    } else {
+      player.takeTurn(world);
+    }
+    // A turn is a single action, so the only way to lose an item is to attack with it
+    if (player.getItems().size() < carried) {
+      usedItems.add(strongest);
+    }
+    if (killer == null && health > 0 && target.getHealth() <= 0) {
+      return player;
+    }
+    return killer;
+  }
+}
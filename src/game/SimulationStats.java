@@ -0,0 +1,161 @@
+package game;
+
+/**
+ * Statistics gathered over many simulated games on one mansion.
+ *
+ * <p>Counters are plain primitive arrays. Each worker of a parallel run fills its own instance
+ * and instances are combined with {@link #merge} once the workers are done, so recording a
+ * game needs no locks or atomic operations.
+ */
+public final class SimulationStats {
+  private final MansionTopology topology;
+  private final long[] starts;
+  private final long[] wins;
+  private final long[] turnsToKill;
+  private final long[] itemUses;
+  private long games;
+  private long kills;
+
+  /**
+   * Constructs empty statistics for games on a mansion.
+   *
+   * @param topology the mansion the games are played on
+   * @param maxTurns the maximum number of turns per game
+   */
+  public SimulationStats(MansionTopology topology, int maxTurns) {
+    this.topology = topology;
+    this.starts = new long[topology.getRoomCount()];
+    this.wins = new long[topology.getRoomCount()];
+    this.turnsToKill = new long[maxTurns + 1];
+    this.itemUses = new long[topology.getItemCount()];
+  }
+
+  /**
+   * Records the outcome of a game.
+   *
+   * @param startRooms the starting room index of each player, in roster order
+   * @param result     the outcome of the game
+   */
+  public void record(int[] startRooms, GameResult result) {
+    games++;
+    for (int room : startRooms) {
+      starts[room]++;
+    }
+    if (result.isTargetKilled()) {
+      kills++;
+      turnsToKill[Math.min(result.getTurns(), turnsToKill.length - 1)]++;
+      if (result.getWinner() >= 0) {
+        wins[startRooms[result.getWinner()]]++;
+      }
+    }
+    for (Iitem item : result.getUsedItems()) {
+      int index = topology.getItemIndex(item);
+      if (index >= 0) {
+        itemUses[index]++;
+      }
+    }
+  }
+
+  /**
+   * Adds the counts of other statistics on the same mansion to these statistics.
+   *
+   * @param other the statistics to add
+   * @return these statistics
+   */
+  public SimulationStats merge(SimulationStats other) {
+    games += other.games;
+    kills += other.kills;
+    add(starts, other.starts);
+    add(wins, other.wins);
+    add(turnsToKill, other.turnsToKill);
+    add(itemUses, other.itemUses);
+    return this;
+  }
+
+  private static void add(long[] into, long[] from) {
+    for (int i = 0; i < into.length; i++) {
+      into[i] += from[i];
+    }
+  }
+
+  /**
+   * Gets the number of games recorded.
+   *
+   * @return the number of games
+   */
+  public long getGames() {
+    return games;
+  }
+
+  /**
+   * Gets the number of games in which the target was killed.
+   *
+   * @return the number of kills
+   */
+  public long getKills() {
+    return kills;
+  }
+
+  /**
+   * Gets the number of players who started a game in a room.
+   *
+   * @param room the index of the room
+   * @return the number of players starting in the room
+   */
+  public long getStarts(int room) {
+    return starts[room];
+  }
+
+  /**
+   * Gets the number of games won by a player who started in a room.
+   *
+   * @param room the index of the room
+   * @return the number of wins from the room
+   */
+  public long getWins(int room) {
+    return wins[room];
+  }
+
+  /**
+   * Gets the share of players starting in a room who went on to kill the target.
+   *
+   * @param room the index of the room
+   * @return the win rate of the room, or 0 if nobody started there
+   */
+  public double getWinRate(int room) {
+    return starts[room] == 0 ? 0 : (double) wins[room] / starts[room];
+  }
+
+  /**
+   * Gets the number of games in which the target was killed after a number of turns.
+   *
+   * @param turns the number of turns
+   * @return the number of games with that many turns to the kill
+   */
+  public long getTurnsToKill(int turns) {
+    return turns < turnsToKill.length ? turnsToKill[turns] : 0;
+  }
+
+  /**
+   * Gets the average number of turns it took to kill the target, over games with a kill.
+   *
+   * @return the mean turns to kill, or 0 if the target was never killed
+   */
+  public double getMeanTurnsToKill() {
+    long total = 0;
+    for (int turns = 0; turns < turnsToKill.length; turns++) {
+      total += turns * turnsToKill[turns];
+    }
+    return kills == 0 ? 0 : (double) total / kills;
+  }
+
+  /**
+   * Gets the number of attacks made with an item.
+   *
+   * @param item the index of the item in the topology
+   * @return the number of times the item was used
+   */
+  public long getItemUses(int item) {
+    return itemUses[item];
+  }
+}
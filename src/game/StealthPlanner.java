@@ -0,0 +1,120 @@
+package game;
+
+/**
+ * Finds the turns and rooms in which a player can attack the target without being seen.
+ *
+ * <p>An attack fails when another player sees it, so a player should only spend a turn on one
+ * when nobody is watching. The planner scores every room the target will pass through in the
+ * coming moves by the number of players who would see an attack there, as the players stand now,
+ * and skips the rooms the attacker cannot reach in time. Observer counts come from the world's
+ * {@link ObserverIndex}, so a score costs O(1) and a search over the horizon costs O(horizon)
+ * however many players are in the game. The pet is assumed to stay where it is.
+ */
+public final class StealthPlanner {
+
+  /**
+   * The number of target moves the planner looks ahead unless specified otherwise.
+   */
+  public static final int DEFAULT_HORIZON = 32;
+
+  private final Igameworld world;
+  private final int horizon;
+
+  /**
+   * Constructs a planner for a world that looks {@link #DEFAULT_HORIZON} moves ahead.
+   *
+   * @param world the game world
+   */
+  public StealthPlanner(Igameworld world) {
+    this(world, DEFAULT_HORIZON);
+  }
+
+  /**
+   * Constructs a planner for a world.
+   *
+   * @param world   the game world
+   * @param horizon the number of target moves to look ahead
+   * @throws IllegalArgumentException if the horizon is negative
+   */
+  public StealthPlanner(Igameworld world, int horizon) {
+    if (horizon < 0) {
+      throw new IllegalArgumentException("Invalid horizon: " + horizon);
+    }
+    this.world = world;
+    this.horizon = horizon;
+  }
+
+  /**
+   * Counts the players other than the attacker who would see an attack in a room.
+   *
+   * @param attacker the player attacking
+   * @param room     the index of the room the attack is made in
+   * @return the number of observers
+   */
+  public int countObservers(Iplayer attacker, int room) {
+    return world.getObservers().countObservers(room, world.getPetRoomIndex(),
+        world.getRoomIndexByCoordinates(attacker.getPackedCoordinates()));
+  }
+
+  /**
+   * Determines whether the attacker shares a room with the target and nobody would see it
+   * attack.
+   *
+   * @param attacker the player attacking
+   * @return true if an attack now would not be stopped, false otherwise
+   */
+  public boolean canAttackUnseen(Iplayer attacker) {
+    int room = world.getRoomIndexByCoordinates(attacker.getPackedCoordinates());
+    return room >= 0 && room == world.getTargetRoomIndex() && countObservers(attacker, room) == 0;
+  }
+
+  /**
+   * Scores attacking the target after it has moved a number of times.
+   *
+   * @param attacker the player attacking
+   * @param moves    the number of target moves before the attack
+   * @return the number of players who would see the attack, or -1 if the attacker cannot reach
+   *         the target's room by then
+   */
+  public int score(Iplayer attacker, int moves) {
+    int from = world.getRoomIndexByCoordinates(attacker.getPackedCoordinates());
+    int room = world.getTargetRoomAfter(moves);
+    if (from < 0 || room < 0) {
+      return -1;
+    }
+    int distance = world.getDistance(from, room);
+    if (distance < 0 || distance > moves) {
+      return -1;
+    }
+    return world.getObservers().countObservers(room, world.getPetRoomIndex(), from);
+  }
+
+  /**
+   * Finds the earliest attack nobody would see.
+   *
+   * @param attacker the player attacking
+   * @return the number of target moves before the attack, so that the room is
+   *         {@link Igameworld#getTargetRoomAfter(int) getTargetRoomAfter} of it, or -1 if there
+   *         is no such attack within the horizon
+   */
+  public int findWindow(Iplayer attacker) {
+    int from = world.getRoomIndexByCoordinates(attacker.getPackedCoordinates());
+    if (from < 0 || world.getTarget() == null) {
+      return -1;
+    }
+    ObserverIndex observers = world.getObservers();
+    int petRoom = world.getPetRoomIndex();
+    for (int moves = 0; moves <= horizon; moves++) {
+      int room = world.getTargetRoomAfter(moves);
+      if (room < 0) {
+        continue;
+      }
+      int distance = world.getDistance(from, room);
+      if (distance >= 0 && distance <= moves
+          && observers.countObservers(room, petRoom, from) == 0) {
+        return moves;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,230 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What a player sees from their current room: the room's items, the other players, the pet and
+ * the target in it, and the neighboring rooms with the contents of those the pet does not
+ * block.
+ *
+ * <p>The rooms of the player, the pet and the target are fixed when the view is made; the
+ * items and players in the rooms are read from the world's indexes when they are asked for, so
+ * a computer player can act on them without building any text, and the description shown to
+ * human players is only put together by {@link #toString()}. A view made before someone moves
+ * mixes the old rooms with the new contents; look around again after the world changes.
+ */
+public final class Surroundings {
+  private final Iplayer self;
+  private final Igameworld world;
+  private final RoomGraph graph;
+  private final OccupancyIndex occupancy;
+  private final int roomIndex;
+  private final int petRoomIndex;
+  private final int targetRoomIndex;
+
+  private Surroundings(Iplayer self, Igameworld world) {
+    this.self = self;
+    this.world = world;
+    this.graph = world.getRoomGraph();
+    this.occupancy = world.getOccupancy();
+    this.roomIndex = world.getRoomIndexByCoordinates(self.getPackedCoordinates());
+    this.petRoomIndex = world.getPet() == null ? -1 : world.getPetRoomIndex();
+    this.targetRoomIndex = world.getTarget() == null ? -1 : world.getTargetRoomIndex();
+  }
+
+  /**
+   * Looks around for a player.
+   *
+   * @param self  the player looking around
+   * @param world the game world the player is in
+   * @return the player's surroundings
+   */
+  public static Surroundings of(Iplayer self, Igameworld world) {
+    return new Surroundings(self, world);
+  }
+
+  /**
+   * Gets the player looking around.
+   *
+   * @return the player
+   */
+  public Iplayer getPlayer() {
+    return self;
+  }
+
+  /**
+   * Gets the index of the room the player is in.
+   *
+   * @return the room index, or -1 if the player is not in a room
+   */
+  public int getRoomIndex() {
+    return roomIndex;
+  }
+
+  /**
+   * Gets the room the player is in.
+   *
+   * @return the current room
+   */
+  public Iroom getRoom() {
+    return graph.roomAt(roomIndex);
+  }
+
+  /**
+   * Gets the items lying in the player's room.
+   *
+   * @return the items of the current room, strongest available through
+   *         {@link ItemList#peekStrongest()}
+   */
+  public ItemList getItems() {
+    return getRoom().getItems();
+  }
+
+  /**
+   * Counts the players other than the one looking around in a room.
+   *
+   * @param room the index of the room
+   * @return the number of other players in the room
+   */
+  public int countOtherPlayers(int room) {
+    int count = 0;
+    for (int id = occupancy.first(room); id >= 0; id = occupancy.next(id)) {
+      if (occupancy.player(id) != self) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Gets the players other than the one looking around in a room, in the order they joined
+   * the game.
+   *
+   * @param room the index of the room
+   * @return the other players in the room
+   */
+  public List<Iplayer> getOtherPlayers(int room) {
+    List<Iplayer> players = new ArrayList<>();
+    for (int id = occupancy.first(room); id >= 0; id = occupancy.next(id)) {
+      if (occupancy.player(id) != self) {
+        players.add(occupancy.player(id));
+      }
+    }
+    return players;
+  }
+
+  /**
+   * Gets the number of rooms next to the player's room.
+   *
+   * @return the number of neighboring rooms
+   */
+  public int getNeighborCount() {
+    return graph.degree(roomIndex);
+  }
+
+  /**
+   * Gets a room next to the player's room.
+   *
+   * @param k the position of the neighbor, from 0 to {@link #getNeighborCount()} - 1, in
+   *          ascending room index
+   * @return the index of the neighboring room
+   */
+  public int getNeighbor(int k) {
+    return graph.neighborAt(graph.neighborStart(roomIndex) + k);
+  }
+
+  /**
+   * Checks whether the player can see into a room, which is the case for their own room and
+   * for neighboring rooms the pet is not in.
+   *
+   * @param room the index of the room
+   * @return true if the contents of the room are visible
+   */
+  public boolean canSeeInto(int room) {
+    return room == roomIndex || (room != petRoomIndex && graph.isNeighbor(roomIndex, room));
+  }
+
+  /**
+   * Checks whether the pet is in the player's room.
+   *
+   * @return true if the pet is here
+   */
+  public boolean isPetHere() {
+    return petRoomIndex >= 0 && petRoomIndex == roomIndex;
+  }
+
+  /**
+   * Checks whether the target is in the player's room.
+   *
+   * @return true if the target is here
+   */
+  public boolean isTargetHere() {
+    return targetRoomIndex >= 0 && targetRoomIndex == roomIndex;
+  }
+
+  /**
+   * Checks whether the player can see the target, in their own room or in a neighboring room
+   * the pet is not in.
+   *
+   * @return true if the target is visible
+   */
+  public boolean isTargetVisible() {
+    return targetRoomIndex >= 0 && canSeeInto(targetRoomIndex);
+  }
+
+  /**
+   * Gets the index of the room the target is in.
+   *
+   * @return the target's room index, or -1 if there is no target in a room
+   */
+  public int getTargetRoomIndex() {
+    return targetRoomIndex;
+  }
+
+  /**
+   * Describes the surroundings the way {@link Iplayer#lookAround} shows them.
+   *
+   * @return the description of the player's surroundings
+   */
+  @Override
+  public String toString() {
+    Iroom currentRoom = getRoom();
+    StringBuilder output = new StringBuilder();
+    output.append("Player ").append(self.getName()).append(
+        " is in: ").append(currentRoom.getName()).append(".\n");
+
+    PerceptionCache perception = world.getPerception();
+    output.append("Items in the room:\n");
+    output.append(perception.itemLines(roomIndex));
+
+    output.append("Players in the room:\n");
+    output.append(perception.otherOccupantLines(roomIndex, self));
+
+    if (isPetHere()) {
+      output.append("Pet: ").append(world.getPet().getName()).append(" is here.\n");
+    }
+    if (isTargetHere()) {
+      output.append("Target: ").append(world.getTarget().getName()).append(" is here.\n");
+    }
+
+    output.append("Visible rooms:\n");
+    if (getNeighborCount() == 0) {
+      output.append(" - No visible rooms\n");
+    } else {
+      for (int k = graph.neighborStart(roomIndex); k < graph.neighborEnd(roomIndex); k++) {
+        int neighborIndex = graph.neighborAt(k);
+        output.append(" - ").append(graph.roomAt(neighborIndex).getName()).append("\n");
+        if (neighborIndex == petRoomIndex) {
+          continue;
+        }
+        // The player is never in a neighboring room, so the shared block fits everyone
+        output.append(perception.neighborBlock(neighborIndex));
+        if (neighborIndex == targetRoomIndex) {
+          output.append("Target: ").append(world.getTarget().getName()).append(" is here.\n");
+        }
+      }
+    }
+    return output.toString();
+  }
+}
@@ -0,0 +1,383 @@
+package game;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A table of learned action values over a small, discrete description of a player's situation.
+ *
+ * <p>A situation is the player's room, its distance to the target, the damage of its strongest
+ * item and the number of players who would see it attack, each cut down to a few buckets, so a
+ * mansion of {@code n} rooms has {@code n * 8 * 5 * 3} states. Every state holds one value per
+ * action. Encoding the situation and choosing the best action both take O(1), whatever the number
+ * of players or items in the world.
+ *
+ * <p>A policy only fits the mansion it was made for: besides the number of rooms, it keeps a hash
+ * of the mansion's layout, the corners of every room and the neighbors of every room, and a world
+ * whose layout hashes differently does not use it.
+ *
+ * <p>A policy is written to a file as a header of three ints, the layout hash as a long and four
+ * more ints, followed by the values as floats, row by row, all big-endian. Loading maps the file
+ * into memory read-only, so a policy is shared by every player that uses it and costs no copying
+ * however large it grows. Policies are created and filled in by the {@link SelfPlayTrainer}.
+ */
+public final class TabularPolicy {
+
+  /**
+   * Looks around, or does nothing at all.
+   */
+  public static final int WAIT = 0;
+
+  /**
+   * Picks up the first item in the room.
+   */
+  public static final int PICK = 1;
+
+  /**
+   * Attacks the target in the room.
+   */
+  public static final int ATTACK = 2;
+
+  /**
+   * Takes a step toward the room where the target can be met soonest.
+   */
+  public static final int APPROACH = 3;
+
+  /**
+   * Moves to a random neighboring room.
+   */
+  public static final int WANDER = 4;
+
+  /**
+   * The number of actions.
+   */
+  public static final int ACTIONS = 5;
+
+  /**
+   * The number of target distance buckets; the last one also holds unreachable targets.
+   */
+  public static final int DISTANCES = 8;
+
+  /**
+   * The number of item damage buckets; the first one means no item.
+   */
+  public static final int DAMAGES = 5;
+
+  /**
+   * The number of observer count buckets.
+   */
+  public static final int OBSERVERS = 3;
+
+  private static final int MAGIC = 0x51544250;
+  private static final int VERSION = 2;
+  private static final int HEADER_BYTES = 7 * Integer.BYTES + Long.BYTES;
+  private static final long HASH_BASIS = 0xcbf29ce484222325L;
+  private static final long HASH_PRIME = 0x100000001b3L;
+
+  private final int rooms;
+  private final long layout;
+  private final FloatBuffer values;
+  private volatile RoomGraph fitted;
+
+  private TabularPolicy(int rooms, long layout, FloatBuffer values) {
+    this.rooms = rooms;
+    this.layout = layout;
+    this.values = values;
+  }
+
+  /**
+   * Creates a policy for a mansion with every value set to 0.
+   *
+   * @param topology the mansion
+   * @return the new policy
+   * @throws IllegalArgumentException if there are no rooms
+   */
+  public static TabularPolicy create(MansionTopology topology) {
+    int rooms = topology.getRoomCount();
+    if (rooms < 1) {
+      throw new IllegalArgumentException("Invalid number of rooms: " + rooms);
+    }
+    return new TabularPolicy(rooms, layoutHash(topology.getRoomGraph()),
+        FloatBuffer.wrap(new float[stateCount(rooms) * ACTIONS]));
+  }
+
+  /**
+   * Creates a policy for a mansion from values laid out row by row.
+   *
+   * @param topology the mansion
+   * @param values   the values, which the policy uses without copying
+   * @return the new policy
+   * @throws IllegalArgumentException if the number of values does not fit the rooms
+   */
+  static TabularPolicy wrap(MansionTopology topology, float[] values) {
+    int rooms = topology.getRoomCount();
+    if (rooms < 1 || values.length != stateCount(rooms) * ACTIONS) {
+      throw new IllegalArgumentException("Invalid policy size: " + values.length);
+    }
+    return new TabularPolicy(rooms, layoutHash(topology.getRoomGraph()), FloatBuffer.wrap(values));
+  }
+
+  /**
+   * Hashes the layout of a mansion: the number of rooms, the corners of every room and the
+   * neighbors of every room, in index order. Mansions parsed from the same file hash the same.
+   *
+   * @param graph the room graph of the mansion
+   * @return the hash of the layout
+   */
+  public static long layoutHash(RoomGraph graph) {
+    long hash = mix(HASH_BASIS, graph.size());
+    for (int room = 0; room < graph.size(); room++) {
+      Iroom shape = graph.roomAt(room);
+      hash = mix(hash, shape.getCoordinates().getFirst());
+      hash = mix(hash, shape.getCoordinates().getSecond());
+      hash = mix(hash, shape.getEndingCoordinates().getFirst());
+      hash = mix(hash, shape.getEndingCoordinates().getSecond());
+      hash = mix(hash, graph.degree(room));
+      for (int i = graph.neighborStart(room); i < graph.neighborEnd(room); i++) {
+        hash = mix(hash, graph.neighborAt(i));
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Loads a policy by mapping its file into memory. The policy reads straight from the mapping,
+   * which stays valid after the file is closed.
+   *
+   * @param path the path of the policy file
+   * @return the policy
+   * @throws IOException if the file cannot be read or is not a policy
+   */
+  public static TabularPolicy load(String path) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES) {
+        throw new IOException("Not a policy file: " + path);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        throw new IOException("Not a policy file: " + path);
+      }
+      int rooms = buffer.getInt();
+      long layout = buffer.getLong();
+      if (rooms < 1 || buffer.getInt() != DISTANCES || buffer.getInt() != DAMAGES
+          || buffer.getInt() != OBSERVERS || buffer.getInt() != ACTIONS) {
+        throw new IOException("Unsupported policy layout: " + path);
+      }
+      long size = (long) stateCount(rooms) * ACTIONS;
+      if (buffer.remaining() != size * Float.BYTES) {
+        throw new IOException("Truncated policy file: " + path);
+      }
+      return new TabularPolicy(rooms, layout, buffer.slice().asFloatBuffer());
+    }
+  }
+
+  /**
+   * Writes the policy to a file in the format {@link #load} reads.
+   *
+   * @param path the path of the policy file, which is replaced if it exists
+   * @throws IOException if the file cannot be written
+   */
+  public void save(String path) throws IOException {
+    try (OutputStream file = new FileOutputStream(path);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(rooms);
+      out.writeLong(layout);
+      out.writeInt(DISTANCES);
+      out.writeInt(DAMAGES);
+      out.writeInt(OBSERVERS);
+      out.writeInt(ACTIONS);
+      for (int i = 0; i < values.limit(); i++) {
+        out.writeFloat(values.get(i));
+      }
+    }
+  }
+
+  /**
+   * Gets the number of rooms of the mansion the policy was made for.
+   *
+   * @return the number of rooms
+   */
+  public int getRoomCount() {
+    return rooms;
+  }
+
+  /**
+   * Gets the hash of the layout of the mansion the policy was made for.
+   *
+   * @return the layout hash, from {@link #layoutHash}
+   */
+  public long getLayoutHash() {
+    return layout;
+  }
+
+  /**
+   * Gets the number of states of the policy.
+   *
+   * @return the number of states
+   */
+  public int getStateCount() {
+    return stateCount(rooms);
+  }
+
+  /**
+   * Determines whether the policy was made for the mansion of a world.
+   *
+   * @param world the game world
+   * @return true if the world has as many rooms as the policy and its layout hashes the same,
+   *         false otherwise
+   */
+  public boolean fits(Igameworld world) {
+    RoomGraph graph = world.getRoomGraph();
+    if (graph == fitted) {
+      return true;
+    }
+    if (graph.size() != rooms || layoutHash(graph) != layout) {
+      return false;
+    }
+    // A world keeps its graph until its rooms change, so each graph is hashed once
+    fitted = graph;
+    return true;
+  }
+
+  /**
+   * Gets the value of an action in a state.
+   *
+   * @param state  the state, from {@link #encode}
+   * @param action the action
+   * @return the value
+   */
+  public float getValue(int state, int action) {
+    return values.get(state * ACTIONS + action);
+  }
+
+  /**
+   * Sets the value of an action in a state.
+   *
+   * @param state  the state, from {@link #encode}
+   * @param action the action
+   * @param value  the new value
+   * @throws java.nio.ReadOnlyBufferException if the policy was loaded from a file
+   */
+  void setValue(int state, int action, float value) {
+    values.put(state * ACTIONS + action, value);
+  }
+
+  /**
+   * Copies the values of the policy, row by row.
+   *
+   * @return the values
+   */
+  float[] toArray() {
+    float[] copy = new float[values.limit()];
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = values.get(i);
+    }
+    return copy;
+  }
+
+  /**
+   * Describes the situation of a player as a state of the policy.
+   *
+   * @param world  the game world, made for the policy
+   * @param player the player
+   * @return the state, or -1 if the player or the target is not in a room
+   */
+  public int encode(Igameworld world, Iplayer player) {
+    int room = world.getRoomIndexByCoordinates(player.getPackedCoordinates());
+    int targetRoom = world.getTargetRoomIndex();
+    if (room < 0 || room >= rooms || targetRoom < 0) {
+      return -1;
+    }
+    int distance = world.getDistance(room, targetRoom);
+    if (distance < 0 || distance >= DISTANCES) {
+      distance = DISTANCES - 1;
+    }
+    Iitem strongest = player.getItems().peekStrongest();
+    int damage = strongest == null ? 0 : Math.max(1, Math.min(strongest.getDamage(), DAMAGES - 1));
+    // A player that has not joined the world is not in the counts to leave out
+    int observers = world.getObservers().countObservers(room, world.getPetRoomIndex(), room);
+    observers = Math.max(0, Math.min(observers, OBSERVERS - 1));
+    return ((room * DISTANCES + distance) * DAMAGES + damage) * OBSERVERS + observers;
+  }
+
+  /**
+   * Finds the actions a player can take, as a mask with bit {@code a} set for action {@code a}.
+   * Waiting is always possible; the other actions need a target in the room, an item to pick up
+   * and room to carry it, a way to the target, or a neighboring room.
+   *
+   * @param world  the game world
+   * @param player the player
+   * @return the mask of the possible actions
+   */
+  public static int validActions(Igameworld world, Iplayer player) {
+    int mask = 1 << WAIT;
+    int room = world.getRoomIndexByCoordinates(player.getPackedCoordinates());
+    if (room < 0) {
+      return mask;
+    }
+    int targetRoom = world.getTargetRoomIndex();
+    if (world.getTarget() != null && targetRoom == room) {
+      mask |= 1 << ATTACK;
+    }
+    if (!world.getRoomByIndex(room).getItems().isEmpty()
+        && player.getItems().size() < player.getMaxItems()) {
+      mask |= 1 << PICK;
+    }
+    if (targetRoom >= 0 && targetRoom != room && world.getDistance(room, targetRoom) > 0) {
+      mask |= 1 << APPROACH;
+    }
+    if (world.getRoomGraph().degree(room) > 0) {
+      mask |= 1 << WANDER;
+    }
+    return mask;
+  }
+
+  /**
+   * Chooses the possible action of highest value in a state; ties go to the lowest action.
+   *
+   * @param state the state, from {@link #encode}
+   * @param mask  the possible actions, from {@link #validActions}
+   * @return the best action, or {@link #WAIT} if no action in the mask is possible
+   */
+  public int bestAction(int state, int mask) {
+    int best = WAIT;
+    float bestValue = Float.NEGATIVE_INFINITY;
+    int row = state * ACTIONS;
+    for (int action = 0; action < ACTIONS; action++) {
+      if ((mask & 1 << action) != 0 && values.get(row + action) > bestValue) {
+        best = action;
+        bestValue = values.get(row + action);
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Gets the highest value of the possible actions in a state.
+   *
+   * @param state the state, from {@link #encode}
+   * @param mask  the possible actions, from {@link #validActions}
+   * @return the highest value, or 0 if no action in the mask is possible
+   */
+  public float bestValue(int state, int mask) {
+    return mask == 0 ? 0f : getValue(state, bestAction(state, mask));
+  }
+
+  private static long mix(long hash, int value) {
+    return (hash ^ value) * HASH_PRIME;
+  }
+
+  private static int stateCount(int rooms) {
+    return rooms * DISTANCES * DAMAGES * OBSERVERS;
+  }
+}
@@ -7,6 +7,8 @@ public class Target implements Itarget {
   private int health;
   private String name;
   private Tuple<Integer, Integer> coordinates;
+  private long packedCoordinates;
+  private Itargetlistener listener;
 
   /**
    * Constructs a new Target with the specified health, name, and coordinates.
@@ -19,6 +21,7 @@ public class Target implements Itarget {
     this.health = health;
     this.name = name;
     this.coordinates = coordinates;
+    this.packedCoordinates = Coordinates.pack(coordinates);
   }
 
   @Override
@@ -33,7 +36,12 @@ public class Target implements Itarget {
 
   @Override
   public void moveTarget(Tuple<Integer, Integer> newCoordinates) {
+    long oldCoordinates = packedCoordinates;
     this.coordinates = newCoordinates;
+    this.packedCoordinates = Coordinates.pack(newCoordinates);
+    if (listener != null) {
+      listener.targetMoved(this, oldCoordinates, packedCoordinates);
+    }
   }
 
   @Override
@@ -41,11 +49,25 @@ public class Target implements Itarget {
     return coordinates;
   }
 
+  @Override
+  public long getPackedCoordinates() {
+    return packedCoordinates;
+  }
+
   @Override
   public void takeDamage(int damage) {
+    int oldHealth = health;
     health -= damage;
     if (health < 0) {
       health = 0;
     }
+    if (listener != null && health != oldHealth) {
+      listener.targetDamaged(this, oldHealth);
+    }
+  }
+
+  @Override
+  public void setListener(Itargetlistener listener) {
+    this.listener = listener;
   }
 }
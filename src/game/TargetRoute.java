@@ -0,0 +1,171 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * The fixed route the target walks, one room per turn, starting over when it reaches the end.
+ *
+ * <p>A route is compiled once into an array of room indices, its steps, together with the first
+ * step at which each room is visited. A world that remembers the target's step moves it in O(1)
+ * time, and anyone can tell where the target will be any number of turns ahead without playing
+ * the turns. A room may be visited more than once per round and rooms that are not on the route
+ * are never visited; a target found off its route goes to the first step.
+ *
+ * <p>The route in {@link #inIndexOrder(int) index order} visits every room once, in the order of
+ * the mansion description, and is the route a mansion uses unless its file lists a patrol.
+ */
+public final class TargetRoute {
+  private final int[] steps;
+  private final int[] firstSteps;
+
+  private TargetRoute(int[] steps, int roomCount) {
+    this.steps = steps;
+    this.firstSteps = new int[roomCount];
+    Arrays.fill(firstSteps, -1);
+    for (int step = steps.length - 1; step >= 0; step--) {
+      firstSteps[steps[step]] = step;
+    }
+  }
+
+  /**
+   * Creates the route that visits every room once in index order.
+   *
+   * @param roomCount the number of rooms
+   * @return the route through all rooms
+   * @throws IllegalArgumentException if there are no rooms
+   */
+  public static TargetRoute inIndexOrder(int roomCount) {
+    int[] steps = new int[Math.max(roomCount, 0)];
+    for (int i = 0; i < steps.length; i++) {
+      steps[i] = i;
+    }
+    return patrol(steps, roomCount);
+  }
+
+  /**
+   * Creates a route that patrols a list of rooms in order. Consecutive rooms do not need to be
+   * neighbors; the target moves straight from one to the next.
+   *
+   * @param rooms     the indices of the rooms, in the order they are visited
+   * @param roomCount the number of rooms in the mansion
+   * @return the patrol route
+   * @throws IllegalArgumentException if the list is empty or a room does not exist
+   */
+  public static TargetRoute patrol(int[] rooms, int roomCount) {
+    if (rooms.length == 0) {
+      throw new IllegalArgumentException("A route needs at least one room");
+    }
+    for (int room : rooms) {
+      if (room < 0 || room >= roomCount) {
+        throw new IllegalArgumentException("Invalid room index on route: " + room);
+      }
+    }
+    return new TargetRoute(rooms.clone(), roomCount);
+  }
+
+  /**
+   * Creates a route that walks through every room reachable from a start room, only ever moving
+   * to a neighboring room. From each room the target goes to the nearest room it has not visited
+   * yet, along a shortest path, and at the end walks back to the start.
+   *
+   * @param distances the distance table of the mansion
+   * @param start     the index of the room the tour starts in
+   * @return the tour
+   * @throws IllegalArgumentException if the start room does not exist
+   */
+  public static TargetRoute tour(DistanceTable distances, int start) {
+    int roomCount = distances.getGraph().size();
+    if (start < 0 || start >= roomCount) {
+      throw new IllegalArgumentException("Invalid start room: " + start);
+    }
+    boolean[] visited = new boolean[roomCount];
+    int[] steps = new int[Math.max(roomCount, 4)];
+    int length = 0;
+    int current = start;
+    visited[start] = true;
+    steps[length++] = start;
+    while (true) {
+      int nearest = -1;
+      for (int room = 0; room < roomCount; room++) {
+        int distance = visited[room] ? -1 : distances.distance(current, room);
+        if (distance > 0 && (nearest < 0 || distance < distances.distance(current, nearest))) {
+          nearest = room;
+        }
+      }
+      int goal = nearest < 0 ? start : nearest;
+      while (current != goal) {
+        current = distances.nextStep(current, goal);
+        visited[current] = true;
+        if (length == steps.length) {
+          steps = Arrays.copyOf(steps, length * 2);
+        }
+        steps[length++] = current;
+      }
+      if (nearest < 0) {
+        break;
+      }
+    }
+    // The walk back ends in the start room, which is already the first step
+    int end = length > 1 ? length - 1 : length;
+    return new TargetRoute(Arrays.copyOf(steps, end), roomCount);
+  }
+
+  /**
+   * Gets the number of steps in one round of the route.
+   *
+   * @return the length of the route
+   */
+  public int getLength() {
+    return steps.length;
+  }
+
+  /**
+   * Gets the room visited at a step. Steps past the end go round the route again.
+   *
+   * @param step the step, zero or more
+   * @return the index of the room
+   */
+  public int getRoom(long step) {
+    return steps[(int) (step % steps.length)];
+  }
+
+  /**
+   * Gets the first step at which a room is visited.
+   *
+   * @param room the index of the room
+   * @return the first step in the room, or -1 if the room is not on the route
+   */
+  public int getStep(int room) {
+    return room >= 0 && room < firstSteps.length ? firstSteps[room] : -1;
+  }
+
+  /**
+   * Gets the step after another step.
+   *
+   * @param step the current step
+   * @return the next step, 0 after the last step
+   */
+  public int next(int step) {
+    return step + 1 == steps.length ? 0 : step + 1;
+  }
+
+  /**
+   * Gets where a target at a step will be after a number of moves.
+   *
+   * @param step  the current step of the target
+   * @param moves the number of moves, zero or more
+   * @return the index of the room the target will be in
+   */
+  public int roomAfter(int step, long moves) {
+    return getRoom(step % steps.length + moves % steps.length);
+  }
+
+  /**
+   * Gets the number of rooms of the mansion the route was compiled for.
+   *
+   * @return the number of rooms
+   */
+  public int getRoomCount() {
+    return firstSteps.length;
+  }
+}
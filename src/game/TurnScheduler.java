@@ -0,0 +1,251 @@
+package game;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Decides which actor acts next from the times at which the actors wake up.
+ *
+ * <p>Actors are identified by the handles returned from {@link #add}. Each actor wakes at a
+ * time and, after acting, wakes again a fixed interval later, so an actor with half the interval
+ * of another acts twice as often. Actors that wake at the same time act in the order they were
+ * added. The waiting actors are kept in a binary heap, so choosing the next actor costs
+ * O(log n) however many actors there are. An idle actor is taken out of the heap altogether and
+ * costs nothing until it is woken up again.
+ */
+public final class TurnScheduler {
+  private static final int INITIAL_CAPACITY = 8;
+
+  private long[] wakeTimes;
+  private long[] intervals;
+  private int[] positions;
+  private int[] heap;
+  private int actors;
+  private int waiting;
+  private long time;
+
+  /**
+   * Constructs a scheduler without actors, at time 0.
+   */
+  public TurnScheduler() {
+    this.wakeTimes = new long[INITIAL_CAPACITY];
+    this.intervals = new long[INITIAL_CAPACITY];
+    this.positions = new int[INITIAL_CAPACITY];
+    this.heap = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Adds an actor to the scheduler.
+   *
+   * @param firstWake the time at which the actor acts for the first time
+   * @param interval  the time between two actions of the actor
+   * @return the handle of the new actor
+   * @throws IllegalArgumentException if the interval is not positive or the first wake-up is
+   *                                  before the current time
+   */
+  public int add(long firstWake, long interval) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Interval must be positive: " + interval);
+    }
+    if (firstWake < time) {
+      throw new IllegalArgumentException("Cannot wake up in the past: " + firstWake);
+    }
+    if (actors == wakeTimes.length) {
+      int capacity = actors * 2;
+      wakeTimes = Arrays.copyOf(wakeTimes, capacity);
+      intervals = Arrays.copyOf(intervals, capacity);
+      positions = Arrays.copyOf(positions, capacity);
+      heap = Arrays.copyOf(heap, capacity);
+    }
+    int actor = actors++;
+    wakeTimes[actor] = firstWake;
+    intervals[actor] = interval;
+    insert(actor);
+    return actor;
+  }
+
+  /**
+   * Gets the number of actors that have been added.
+   *
+   * @return the number of actors, idle or not
+   */
+  public int getActorCount() {
+    return actors;
+  }
+
+  /**
+   * Checks whether no actor is waiting to act.
+   *
+   * @return true if every actor is idle
+   */
+  public boolean isEmpty() {
+    return waiting == 0;
+  }
+
+  /**
+   * Gets the time of the last action, or the time the scheduler started at.
+   *
+   * @return the current time
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Gets the time at which the next actor acts.
+   *
+   * @return the next wake-up time
+   * @throws NoSuchElementException if every actor is idle
+   */
+  public long peekTime() {
+    if (waiting == 0) {
+      throw new NoSuchElementException("No actor is waiting");
+    }
+    return wakeTimes[heap[0]];
+  }
+
+  /**
+   * Gets the actor that acts next without letting it act.
+   *
+   * @return the handle of the next actor
+   * @throws NoSuchElementException if every actor is idle
+   */
+  public int peek() {
+    if (waiting == 0) {
+      throw new NoSuchElementException("No actor is waiting");
+    }
+    return heap[0];
+  }
+
+  /**
+   * Advances to the next action: moves the time to the wake-up time of the next actor and
+   * schedules that actor's following action one interval later.
+   *
+   * @return the handle of the actor whose turn it is
+   * @throws NoSuchElementException if every actor is idle
+   */
+  public int next() {
+    int actor = peek();
+    time = wakeTimes[actor];
+    wakeTimes[actor] = time + intervals[actor];
+    siftDown(0);
+    return actor;
+  }
+
+  /**
+   * Changes the time between two actions of an actor, starting after its next action.
+   *
+   * @param actor    the handle of the actor
+   * @param interval the new time between two actions
+   * @throws IllegalArgumentException if the interval is not positive
+   */
+  public void setInterval(int actor, long interval) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Interval must be positive: " + interval);
+    }
+    checkActor(actor);
+    intervals[actor] = interval;
+  }
+
+  /**
+   * Gets the time between two actions of an actor.
+   *
+   * @param actor the handle of the actor
+   * @return the interval of the actor
+   */
+  public long getInterval(int actor) {
+    checkActor(actor);
+    return intervals[actor];
+  }
+
+  /**
+   * Puts an actor to sleep until it is woken up, or wakes it up. An actor that is woken up acts
+   * at the time it would have acted next, or at the current time if that has passed.
+   *
+   * @param actor the handle of the actor
+   * @param idle  true to stop scheduling the actor, false to schedule it again
+   */
+  public void setIdle(int actor, boolean idle) {
+    checkActor(actor);
+    if (idle == isIdle(actor)) {
+      return;
+    }
+    if (idle) {
+      int position = positions[actor];
+      int last = heap[--waiting];
+      positions[actor] = -1;
+      if (position < waiting) {
+        heap[position] = last;
+        positions[last] = position;
+        siftDown(position);
+        siftUp(positions[last]);
+      }
+    } else {
+      wakeTimes[actor] = Math.max(wakeTimes[actor], time);
+      insert(actor);
+    }
+  }
+
+  /**
+   * Checks whether an actor is idle.
+   *
+   * @param actor the handle of the actor
+   * @return true if the actor is not scheduled
+   */
+  public boolean isIdle(int actor) {
+    checkActor(actor);
+    return positions[actor] < 0;
+  }
+
+  private void checkActor(int actor) {
+    if (actor < 0 || actor >= actors) {
+      throw new IllegalArgumentException("Unknown actor: " + actor);
+    }
+  }
+
+  private void insert(int actor) {
+    heap[waiting] = actor;
+    positions[actor] = waiting;
+    siftUp(waiting++);
+  }
+
+  private boolean before(int a, int b) {
+    return wakeTimes[a] < wakeTimes[b] || (wakeTimes[a] == wakeTimes[b] && a < b);
+  }
+
+  private void siftUp(int position) {
+    int actor = heap[position];
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (!before(actor, heap[parent])) {
+        break;
+      }
+      heap[position] = heap[parent];
+      positions[heap[position]] = position;
+      position = parent;
+    }
+    heap[position] = actor;
+    positions[actor] = position;
+  }
+
+  private void siftDown(int position) {
+    int actor = heap[position];
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= waiting) {
+        break;
+      }
+      if (child + 1 < waiting && before(heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!before(heap[child], actor)) {
+        break;
+      }
+      heap[position] = heap[child];
+      positions[heap[position]] = position;
+      position = child;
+    }
+    heap[position] = actor;
+    positions[actor] = position;
+  }
+}
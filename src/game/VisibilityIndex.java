@@ -0,0 +1,123 @@
+package game;
+
+import java.util.BitSet;
+
+/**
+ * Precomputed line-of-sight sets for every room of the game world.
+ *
+ * <p>A player can see into their own room and into every neighboring room, except that the pet
+ * blocks sight into the room it is in from the outside. Each room stores the set of rooms it can
+ * see as a bit set, and the pet's rule is a single cleared bit in a mask of unblocked rooms, so a
+ * visibility check is two bit lookups. To bound memory on large maps a row only stores the bits
+ * between its lowest and highest room; rows spanning too many rooms fall back to a binary search
+ * of the adjacency graph.
+ */
+public final class VisibilityIndex {
+  private static final int MAX_ROW_SPAN = 1 << 14;
+
+  private final RoomGraph graph;
+  private final BitSet[] rows;
+  private final int[] rowBase;
+  private final BitSet unblocked;
+  private int petRoom;
+
+  /**
+   * Builds the visibility sets for the rooms of an adjacency graph.
+   *
+   * @param graph the adjacency graph of the rooms
+   */
+  public VisibilityIndex(RoomGraph graph) {
+    int n = graph.size();
+    this.graph = graph;
+    this.rows = new BitSet[n];
+    this.rowBase = new int[n];
+    for (int i = 0; i < n; i++) {
+      int low = i;
+      int high = i;
+      if (graph.degree(i) > 0) {
+        low = Math.min(low, graph.neighborAt(graph.neighborStart(i)));
+        high = Math.max(high, graph.neighborAt(graph.neighborEnd(i) - 1));
+      }
+      if (high - low >= MAX_ROW_SPAN) {
+        continue;
+      }
+      BitSet row = new BitSet(high - low + 1);
+      row.set(i - low);
+      for (int k = graph.neighborStart(i); k < graph.neighborEnd(i); k++) {
+        row.set(graph.neighborAt(k) - low);
+      }
+      rows[i] = row;
+      rowBase[i] = low;
+    }
+    this.unblocked = new BitSet(n);
+    unblocked.set(0, n);
+    this.petRoom = -1;
+  }
+
+  /**
+   * Gets the adjacency graph the visibility sets were built from.
+   *
+   * @return the adjacency graph
+   */
+  public RoomGraph getGraph() {
+    return graph;
+  }
+
+  /**
+   * Determines whether a player in one room can see a player in another room, taking the pet
+   * into account.
+   *
+   * @param observerRoom the index of the observer's room
+   * @param subjectRoom  the index of the observed player's room
+   * @return true if the observer can see into the subject's room, false otherwise
+   */
+  public boolean canSee(int observerRoom, int subjectRoom) {
+    if (observerRoom == subjectRoom) {
+      return true;
+    }
+    return unblocked.get(subjectRoom) && inSight(observerRoom, subjectRoom);
+  }
+
+  /**
+   * Determines whether a room is the observer's room or one of its neighbors, ignoring the pet.
+   *
+   * @param observerRoom the index of the observer's room
+   * @param subjectRoom  the index of the observed room
+   * @return true if the observed room is in sight of the observer's room, false otherwise
+   */
+  public boolean inSight(int observerRoom, int subjectRoom) {
+    BitSet row = rows[observerRoom];
+    if (row == null) {
+      return observerRoom == subjectRoom || graph.isNeighbor(observerRoom, subjectRoom);
+    }
+    int bit = subjectRoom - rowBase[observerRoom];
+    return bit >= 0 && row.get(bit);
+  }
+
+  /**
+   * Moves the pet's sight block to another room.
+   *
+   * @param room the index of the pet's room, or -1 if the pet is not in a room
+   */
+  public void setPetRoom(int room) {
+    if (room == petRoom) {
+      return;
+    }
+    if (petRoom >= 0) {
+      unblocked.set(petRoom);
+    }
+    if (room >= 0) {
+      unblocked.clear(room);
+    }
+    petRoom = room;
+  }
+
+  /**
+   * Gets the room whose sight is blocked by the pet.
+   *
+   * @return the index of the pet's room, or -1 if no room is blocked
+   */
+  public int getPetRoom() {
+    return petRoom;
+  }
+}
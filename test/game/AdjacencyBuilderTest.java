@@ -0,0 +1,74 @@
+package game;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the AdjacencyBuilder class.
+ */
+public class AdjacencyBuilderTest {
+
+  /**
+   * Tests that the sweep finds the same neighbors as the pairwise check for the mansion.
+   */
+  @Test
+  public void testMansionMatchesIsNeighbor() throws IOException {
+    Igameworld world = MansionParser.parseMansion("res/mansion.txt");
+    assertMatchesIsNeighbor(world.getRooms());
+  }
+
+  /**
+   * Tests random layouts, including overlapping and reversed rooms, against the pairwise check.
+   */
+  @Test
+  public void testRandomLayoutsMatchIsNeighbor() {
+    Random random = new Random(42);
+    for (int trial = 0; trial < 50; trial++) {
+      List<Iroom> rooms = new ArrayList<>();
+      int count = 1 + random.nextInt(60);
+      for (int i = 0; i < count; i++) {
+        int row = random.nextInt(20);
+        int col = random.nextInt(20);
+        int rowEnd = row + random.nextInt(5) - (trial % 5 == 0 ? 2 : 0);
+        int colEnd = col + random.nextInt(5) - (trial % 7 == 0 ? 2 : 0);
+        rooms.add(new Room("Room " + i, new Tuple<>(row, col), new Tuple<>(rowEnd, colEnd)));
+      }
+      assertMatchesIsNeighbor(rooms);
+    }
+  }
+
+  /**
+   * Tests a tiled grid of unit rooms where every interior room has four neighbors.
+   */
+  @Test
+  public void testTiledGrid() {
+    List<Iroom> rooms = new ArrayList<>();
+    for (int r = 0; r < 10; r++) {
+      for (int c = 0; c < 10; c++) {
+        rooms.add(new Room("Cell", new Tuple<>(r, c), new Tuple<>(r, c)));
+      }
+    }
+    RoomGraph graph = AdjacencyBuilder.build(rooms);
+    Assert.assertEquals(4, graph.degree(55));
+    Assert.assertEquals(2, graph.degree(0));
+    Assert.assertTrue(graph.isNeighbor(55, 45));
+    Assert.assertFalse(graph.isNeighbor(55, 44));
+  }
+
+  private static void assertMatchesIsNeighbor(List<Iroom> rooms) {
+    RoomGraph graph = AdjacencyBuilder.build(rooms);
+    for (int i = 0; i < rooms.size(); i++) {
+      List<Iroom> expected = new ArrayList<>();
+      for (int j = 0; j < rooms.size(); j++) {
+        if (i != j && rooms.get(i).isNeighbor((Room) rooms.get(j))) {
+          expected.add(rooms.get(j));
+        }
+      }
+      Assert.assertEquals(expected, new ArrayList<>(graph.neighbors(i)));
+    }
+  }
+}
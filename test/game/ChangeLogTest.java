@@ -0,0 +1,141 @@
+package game;
+
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the ChangeLog class and the changes GameWorld records in it.
+ */
+public class ChangeLogTest {
+
+  private GameWorld world;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = MansionParser.parseTopology("res/mansion.txt").createWorld();
+  }
+
+  /**
+   * Tests that the ring buffer keeps the most recent events and versions every room.
+   */
+  @Test
+  public void testRingBuffer() {
+    ChangeLog log = new ChangeLog(3);
+    for (int i = 0; i < 6; i++) {
+      Assert.assertEquals(i, log.record(ChangeLog.PLAYER_MOVED, i, i + 1));
+    }
+    Assert.assertEquals(6, log.getVersion());
+    Assert.assertEquals(2, log.getOldestSequence());
+    Assert.assertEquals(ChangeLog.PLAYER_MOVED, log.getKind(2));
+    Assert.assertEquals(5, log.getRoom(5));
+    Assert.assertEquals(6, log.getFromRoom(5));
+    Assert.assertEquals(6, log.getRoomVersion(5));
+    Assert.assertEquals(6, log.getRoomVersion(6));
+    Assert.assertEquals(1, log.getRoomVersion(0));
+    Assert.assertEquals(0, log.getRoomVersion(40));
+    try {
+      log.getKind(1);
+      Assert.fail("Overwritten event was readable");
+    } catch (IndexOutOfBoundsException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Tests that player moves and item pickups are recorded as they happen.
+   */
+  @Test
+  public void testPlayerMovesAndPickups() {
+    Iplayer player = new Player("Alice", world.getRoomByIndex(0).getCoordinates(), 5);
+    world.addPlayer(player);
+    ChangeLog log = world.getChangeLog();
+    long start = log.getVersion();
+    Assert.assertEquals(ChangeLog.PLAYER_ADDED, log.getKind(start - 1));
+
+    long untouched = world.getRoomVersion(7);
+    player.move(world.getRoomByIndex(3).getCoordinates());
+    Assert.assertEquals(start + 1, log.getVersion());
+    Assert.assertEquals(ChangeLog.PLAYER_MOVED, log.getKind(start));
+    Assert.assertEquals(3, log.getRoom(start));
+    Assert.assertEquals(0, log.getFromRoom(start));
+    Assert.assertEquals(start + 1, world.getRoomVersion(0));
+    Assert.assertEquals(start + 1, world.getRoomVersion(3));
+
+    player.addItem(world.getRoomByIndex(0).getItems().remove(0));
+    Assert.assertEquals(ChangeLog.ITEMS_CHANGED, log.getKind(start + 1));
+    Assert.assertEquals(0, log.getRoom(start + 1));
+    Assert.assertEquals(untouched, world.getRoomVersion(7));
+  }
+
+  /**
+   * Tests that changes made to the pet and target directly are recorded as they happen, in
+   * order, including changes that are undone before the log is read.
+   */
+  @Test
+  public void testPetAndTargetChanges() {
+    ChangeLog log = world.getChangeLog();
+    long start = log.getVersion();
+    world.getTarget().takeDamage(3);
+    Assert.assertEquals(start + 1, log.getVersion());
+    world.getPet().moveDfs(world);
+    int petRoom = world.getPetRoomIndex();
+    world.moveTarget();
+    world.getTarget().moveTarget(world.getRoomByIndex(0).getCoordinates());
+
+    Assert.assertEquals(start + 4, log.getVersion());
+    Assert.assertEquals(ChangeLog.TARGET_DAMAGED, log.getKind(start));
+    Assert.assertEquals(0, log.getRoom(start));
+    Assert.assertEquals(ChangeLog.PET_MOVED, log.getKind(start + 1));
+    Assert.assertEquals(petRoom, log.getRoom(start + 1));
+    Assert.assertEquals(0, log.getFromRoom(start + 1));
+    Assert.assertEquals(ChangeLog.TARGET_MOVED, log.getKind(start + 2));
+    Assert.assertEquals(1, log.getRoom(start + 2));
+    Assert.assertEquals(0, log.getFromRoom(start + 2));
+    Assert.assertEquals(ChangeLog.TARGET_MOVED, log.getKind(start + 3));
+    Assert.assertEquals(0, log.getRoom(start + 3));
+    Assert.assertEquals(1, log.getFromRoom(start + 3));
+    Assert.assertEquals(world.getVersion(), log.getVersion());
+  }
+
+  /**
+   * Tests that a replaced pet is no longer watched and its replacement is.
+   */
+  @Test
+  public void testReplacedPet() {
+    Ipet old = world.getPet();
+    Pet replacement = new Pet("Rex", world.getRoomByIndex(2).getCoordinates());
+    world.addPet(replacement);
+    ChangeLog log = world.getChangeLog();
+    long start = log.getVersion();
+    Assert.assertEquals(ChangeLog.PET_MOVED, log.getKind(start - 1));
+    Assert.assertEquals(2, log.getRoom(start - 1));
+
+    old.move(world.getRoomByIndex(5).getCoordinates());
+    Assert.assertEquals(start, log.getVersion());
+    replacement.move(world.getRoomByIndex(5).getCoordinates());
+    Assert.assertEquals(start + 1, log.getVersion());
+    Assert.assertEquals(5, log.getRoom(start));
+  }
+
+  /**
+   * Tests that added rooms are recorded and their items watched.
+   */
+  @Test
+  public void testAddedRoom() {
+    Room room = new Room("Annex", new Tuple<>(40, 40), new Tuple<>(41, 41));
+    world.addRoom(room);
+    int index = world.getRooms().size() - 1;
+    ChangeLog log = world.getChangeLog();
+    Assert.assertEquals(ChangeLog.ROOM_ADDED, log.getKind(log.getVersion() - 1));
+    Assert.assertEquals(index, log.getRoom(log.getVersion() - 1));
+
+    room.addItem(new Item("Lamp", 2, index));
+    Assert.assertEquals(ChangeLog.ITEMS_CHANGED, log.getKind(log.getVersion() - 1));
+    Assert.assertEquals(log.getVersion(), world.getRoomVersion(index));
+  }
+}
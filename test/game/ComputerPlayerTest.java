@@ -168,4 +168,14 @@ public class ComputerPlayerTest {
         "Computer Player Computer Player attacked Test Target with 10 damage.", result);
   }
 
+  /**
+   * Tests that a silent turn attacks without describing the attack.
+   */
+  @Test
+  public void testSilentTurnAttacksWithoutReport() {
+    world.setOutput(NullSink.INSTANCE);
+    Assert.assertNull(((ComputerPlayer) computerPlayer).playTurn(world, false));
+    Assert.assertEquals(99, target.getHealth());
+  }
+
 }
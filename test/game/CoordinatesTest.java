@@ -0,0 +1,57 @@
+package game;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the Coordinates class.
+ */
+public class CoordinatesTest {
+
+  /**
+   * Tests that packing round-trips rows and columns, including negative values.
+   */
+  @Test
+  public void testPackRoundTrip() {
+    int[] values = {0, 1, 35, -1, Integer.MAX_VALUE, Integer.MIN_VALUE + 1};
+    for (int row : values) {
+      for (int column : values) {
+        long packed = Coordinates.pack(row, column);
+        Assert.assertEquals(row, Coordinates.row(packed));
+        Assert.assertEquals(column, Coordinates.column(packed));
+      }
+    }
+  }
+
+  /**
+   * Tests that packed tuples compare equal exactly when the tuples are equal.
+   */
+  @Test
+  public void testPackTuple() {
+    Assert.assertEquals(Coordinates.pack(22, 19), Coordinates.pack(new Tuple<>(22, 19)));
+    Assert.assertNotEquals(Coordinates.pack(19, 22), Coordinates.pack(new Tuple<>(22, 19)));
+    Assert.assertEquals(Coordinates.NONE, Coordinates.pack(null));
+  }
+
+  /**
+   * Tests that entities keep their packed coordinates in step with their tuples.
+   */
+  @Test
+  public void testEntitiesTrackPackedCoordinates() {
+    Iplayer player = new Player("Player", new Tuple<>(1, 2), 5);
+    player.move(new Tuple<>(3, 4));
+    Assert.assertEquals(Coordinates.pack(3, 4), player.getPackedCoordinates());
+
+    Itarget target = new Target(10, "Target", null);
+    Assert.assertEquals(Coordinates.NONE, target.getPackedCoordinates());
+    target.moveTarget(new Tuple<>(5, 6));
+    Assert.assertEquals(Coordinates.pack(5, 6), target.getPackedCoordinates());
+
+    Ipet pet = new Pet("Pet", new Tuple<>(0, 0));
+    pet.move(new Tuple<>(7, 8));
+    Assert.assertEquals(Coordinates.pack(7, 8), pet.getPackedCoordinates());
+
+    Iroom room = new Room("Room", new Tuple<>(9, 10), new Tuple<>(11, 12));
+    Assert.assertEquals(Coordinates.pack(9, 10), room.getPackedCoordinates());
+  }
+}
@@ -0,0 +1,193 @@
+package game;
+
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the DecisionBudget class.
+ */
+public class DecisionBudgetTest {
+
+  private MansionTopology topology;
+  private GameWorld world;
+  private FakeClock clock;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    world = topology.createWorld();
+    world.setOutput(NullSink.INSTANCE);
+    clock = new FakeClock();
+  }
+
+  /**
+   * Tests that the turns of computer players are timed, in the order they first played, and
+   * those of human players are not.
+   */
+  @Test
+  public void testRecordsComputerTurns() {
+    DecisionBudget budget = new DecisionBudget(50, clock);
+    clock.tick = 1000L;
+    ComputerPlayer zed = new ComputerPlayer("Zed", topology.getRoomCoordinates(3), 5);
+    ComputerPlayer bot = new ComputerPlayer("Bot", topology.getRoomCoordinates(3), 5);
+    Iplayer human = new Player("Human", topology.getRoomCoordinates(3), 5);
+    world.addPlayer(zed);
+    world.addPlayer(bot);
+    world.addPlayer(human);
+    for (int turn = 0; turn < 20; turn++) {
+      budget.takeTurn(zed, world);
+      budget.takeTurn(bot, world);
+      budget.takeTurn(human, world);
+    }
+    Assert.assertEquals(20, budget.getLatencies(bot).getCount());
+    Assert.assertEquals(1000L, budget.getPercentile(bot, 99));
+    Assert.assertNull(budget.getLatencies(human));
+    Assert.assertEquals(0, budget.getPercentile(human, 99));
+    String[] lines = budget.summarize().split(System.lineSeparator());
+    Assert.assertEquals(2, lines.length);
+    Assert.assertEquals("Zed: 20 turns, p50 0.001 ms, p99 0.001 ms, max 0.001 ms", lines[0]);
+    Assert.assertTrue(lines[1].startsWith("Bot: 20 turns"));
+  }
+
+  /**
+   * Tests that a search too long for the limit is cut short at the deadline.
+   */
+  @Test
+  public void testDeadlineCutsSearch() {
+    DecisionBudget budget = new DecisionBudget(20, clock);
+    Searcher searcher = new Searcher(clock, 1000, 200000L);
+    budget.playTurn(searcher, world, false);
+    // The deadline is 18 ms after the start, 90 units of 0.2 ms
+    Assert.assertEquals(90, searcher.getLastEffort());
+    Assert.assertEquals(18000000L, budget.getPercentile(searcher, 100));
+    Assert.assertEquals(500, searcher.getEffort());
+  }
+
+  /**
+   * Tests that the effort settles where searches fit the limit and grows back when searches
+   * get faster, never above where it started.
+   */
+  @Test
+  public void testEffortFollowsSpeed() {
+    DecisionBudget budget = new DecisionBudget(20, clock);
+    Searcher searcher = new Searcher(clock, 1000, 200000L);
+    for (int turn = 0; turn < 40; turn++) {
+      budget.playTurn(searcher, world, false);
+    }
+    // A search of 60 units takes 12 ms, the target share of the limit
+    Assert.assertEquals(60, searcher.getEffort());
+    Assert.assertEquals(12000000L, searcher.lastElapsed);
+
+    searcher.unitNanos = 5000L;
+    for (int turn = 0; turn < 200; turn++) {
+      budget.playTurn(searcher, world, false);
+    }
+    Assert.assertEquals(1000, searcher.getEffort());
+  }
+
+  /**
+   * Tests that the effort does not grow while more than one in a hundred recent turns ran into
+   * the deadline, and grows again once they have left the window.
+   */
+  @Test
+  public void testTurnsAtDeadlineStopGrowth() {
+    DecisionBudget budget = new DecisionBudget(20, clock);
+    Searcher searcher = new Searcher(clock, 100, 5000L);
+    budget.playTurn(searcher, world, false);
+    searcher.setEffort(50);
+    for (int stall = 0; stall < 2; stall++) {
+      // Something else holds the machine until after the deadline
+      searcher.stallNanos = 19000000L;
+      budget.playTurn(searcher, world, false);
+    }
+    for (int turn = 0; turn < DecisionBudget.WINDOW - 2; turn++) {
+      budget.playTurn(searcher, world, false);
+      Assert.assertEquals(50, searcher.getEffort());
+    }
+    budget.playTurn(searcher, world, false);
+    Assert.assertTrue(searcher.getEffort() > 50);
+  }
+
+  /**
+   * Tests that a limit that is not positive is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLimit() {
+    new DecisionBudget(0);
+  }
+
+  /**
+   * A clock that only moves when told to, and by a fixed tick on every reading.
+   */
+  private static final class FakeClock implements Iclock {
+    private long now;
+    private long tick;
+
+    @Override
+    public long nanoTime() {
+      long time = now;
+      now += tick;
+      return time;
+    }
+  }
+
+  /**
+   * A player whose search takes a fixed time per unit of effort on a fake clock.
+   */
+  private static final class Searcher extends ComputerPlayer implements Ianytimeplayer {
+    private final FakeClock clock;
+    private long unitNanos;
+    private long stallNanos;
+    private long lastElapsed;
+    private int effort;
+    private int lastEffort;
+    private long deadline = Long.MAX_VALUE;
+
+    Searcher(FakeClock clock, int effort, long unitNanos) {
+      super("Searcher", new Tuple<>(0, 0), 5);
+      this.clock = clock;
+      this.effort = effort;
+      this.unitNanos = unitNanos;
+    }
+
+    @Override
+    public String playTurn(Igameworld world, boolean report) {
+      long start = clock.now;
+      clock.now += stallNanos;
+      stallNanos = 0;
+      lastEffort = 0;
+      while (lastEffort < effort && clock.now < deadline) {
+        lastEffort++;
+        clock.now += unitNanos;
+      }
+      lastElapsed = clock.now - start;
+      deadline = Long.MAX_VALUE;
+      return null;
+    }
+
+    @Override
+    public void setDeadline(long deadline, Iclock clock) {
+      this.deadline = deadline;
+    }
+
+    @Override
+    public int getEffort() {
+      return effort;
+    }
+
+    @Override
+    public int getLastEffort() {
+      return lastEffort;
+    }
+
+    @Override
+    public void setEffort(int effort) {
+      this.effort = effort;
+    }
+  }
+}
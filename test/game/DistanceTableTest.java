@@ -0,0 +1,118 @@
+package game;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the DistanceTable class.
+ */
+public class DistanceTableTest {
+
+  private Igameworld world;
+  private RoomGraph graph;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = MansionParser.parseMansion("res/mansion.txt");
+    graph = world.getRoomGraph();
+  }
+
+  /**
+   * Tests that every next step is a neighbor one move closer to the destination.
+   */
+  @Test
+  public void testNextStepsFollowShortestPaths() {
+    DistanceTable table = world.getDistances();
+    Assert.assertTrue(table.isEager());
+    for (int from = 0; from < graph.size(); from++) {
+      Assert.assertEquals(0, table.distance(from, from));
+      Assert.assertEquals(from, table.nextStep(from, from));
+      for (int to = 0; to < graph.size(); to++) {
+        int distance = table.distance(from, to);
+        if (from == to || distance < 0) {
+          continue;
+        }
+        int step = table.nextStep(from, to);
+        Assert.assertTrue(graph.isNeighbor(from, step));
+        Assert.assertEquals(distance - 1, table.distance(step, to));
+        Assert.assertEquals(graph.isNeighbor(from, to), distance == 1);
+      }
+    }
+  }
+
+  /**
+   * Tests that a lazy table with a tiny cache answers exactly like an eager one.
+   */
+  @Test
+  public void testLazyMatchesEager() {
+    DistanceTable eager = new DistanceTable(graph, true, 1);
+    DistanceTable lazy = new DistanceTable(graph, false, 2);
+    Assert.assertFalse(lazy.isEager());
+    for (int from = graph.size() - 1; from >= 0; from--) {
+      for (int to = 0; to < graph.size(); to++) {
+        Assert.assertEquals(eager.distance(from, to), lazy.distance(from, to));
+        Assert.assertEquals(eager.nextStep(from, to), lazy.nextStep(from, to));
+      }
+    }
+  }
+
+  /**
+   * Tests that the rows a lazy table keeps fit in its budget of ints however large the map.
+   */
+  @Test
+  public void testCacheBoundedByInts() {
+    Assert.assertEquals(8, DistanceTable.rowsWithin(1000000, DistanceTable.DEFAULT_CACHED_INTS));
+    Assert.assertEquals(1, DistanceTable.rowsWithin(100000000, DistanceTable.DEFAULT_CACHED_INTS));
+    Assert.assertEquals(21, DistanceTable.rowsWithin(21, DistanceTable.DEFAULT_CACHED_INTS));
+    Assert.assertEquals(5, DistanceTable.rowsWithin(3000, 30000));
+
+    List<Iroom> rooms = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      rooms.add(new Room("Room " + i, new Tuple<>(2 * i, 0), new Tuple<>(2 * i + 1, 1)));
+    }
+    DistanceTable table = new DistanceTable(AdjacencyBuilder.build(rooms), false,
+        DistanceTable.rowsWithin(rooms.size(), 30000));
+    Assert.assertEquals(5, table.getCachedRowLimit());
+    for (int from = 0; from < rooms.size(); from += 100) {
+      Assert.assertEquals(rooms.size() - 1 - from, table.distance(from, rooms.size() - 1));
+    }
+  }
+
+  /**
+   * Tests that rooms in separate parts of the map cannot reach each other.
+   */
+  @Test
+  public void testUnreachableRooms() {
+    List<Iroom> rooms = Arrays.asList(
+        new Room("A", new Tuple<>(0, 0), new Tuple<>(1, 1)),
+        new Room("B", new Tuple<>(2, 0), new Tuple<>(3, 1)),
+        new Room("C", new Tuple<>(10, 10), new Tuple<>(11, 11)));
+    DistanceTable table = new DistanceTable(AdjacencyBuilder.build(rooms));
+    Assert.assertEquals(1, table.distance(0, 1));
+    Assert.assertEquals(1, table.nextStep(0, 1));
+    Assert.assertEquals(-1, table.distance(0, 2));
+    Assert.assertEquals(-1, table.nextStep(2, 1));
+  }
+
+  /**
+   * Tests that the world rebuilds the table when rooms are added.
+   */
+  @Test
+  public void testWorldRebuildsAfterAddRoom() {
+    DistanceTable before = world.getDistances();
+    Assert.assertSame(before, world.getDistances());
+    world.addRoom(new Room("Annex", new Tuple<>(100, 100), new Tuple<>(101, 101)));
+    int annex = world.getRooms().size() - 1;
+    Assert.assertNotSame(before, world.getDistances());
+    Assert.assertEquals(-1, world.getDistance(0, annex));
+    Assert.assertEquals(annex, world.getNextStep(annex, annex));
+  }
+}
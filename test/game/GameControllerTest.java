@@ -407,4 +407,198 @@ public class GameControllerTest {
     // Verify the game end
     Assert.assertTrue(output.contains("Game over! Maximum number of turns reached."));
   }
+
+  /**
+   * Tests that a game with only computer players is fast-forwarded to its end.
+   */
+  @Test
+  public void testFastForwardComputerPlayers() {
+    String input = "yes\ncomputer\nComputerPlayer\n5\nno\n0\n";
+    inContent = new ByteArrayInputStream(input.getBytes());
+    System.setIn(inContent);
+
+    controller = new GameController(world, view, 10, "res/test_log.txt", 7L);
+    controller.startGame();
+    String output = outContent.toString();
+
+    Assert.assertTrue(output.contains("Only computer players are playing. Fast-forwarding..."));
+    Assert.assertFalse(output.contains("Computer player is taking its turn..."));
+    Assert.assertTrue(output.contains("Game over! Maximum number of turns reached.")
+        || output.contains("has been defeated!"));
+  }
+
+  /**
+   * Tests that a human player joining a computer-only game brings it back to normal play.
+   */
+  @Test
+  public void testHumanJoinsComputerGame() {
+    String input = "yes\ncomputer\nComputerPlayer\n5\nno\n0\nexit\n";
+    inContent = new ByteArrayInputStream(input.getBytes());
+    System.setIn(inContent);
+
+    controller = new GameController(world, view, 10, "res/test_log.txt", 7L);
+    controller.joinGame(new Player("Latecomer", world.getRoomByIndex(3).getCoordinates(), 5));
+    controller.startGame();
+    String output = outContent.toString();
+
+    Assert.assertTrue(output.contains("Player Latecomer joined the game."));
+    Assert.assertTrue(output.contains("It's Latecomer's turn."));
+    Assert.assertFalse(output.contains("Fast-forwarding"));
+    Assert.assertEquals(2, world.getPlayers().size());
+  }
+
+  /**
+   * Tests that a human player joining while a computer-only game is fast-forwarding stops the
+   * fast-forward at the start of the next turn.
+   */
+  @Test
+  public void testHumanJoinsDuringFastForward() {
+    String input = "yes\ncomputer\nComputerPlayer\n5\nno\n0\nexit\n";
+    inContent = new ByteArrayInputStream(input.getBytes());
+    System.setIn(inContent);
+
+    controller = new GameController(world, view, 10, "res/test_log.txt", 7L);
+    Iplayer latecomer = new Player("Latecomer", world.getRoomByIndex(3).getCoordinates(), 5);
+    Joiner joiner = new Joiner(world.getRoomByIndex(20).getCoordinates(), latecomer);
+    world.addPlayer(joiner);
+    controller.startGame();
+    String output = outContent.toString();
+
+    int fastForward = output.indexOf("Fast-forwarding");
+    int joined = output.indexOf("Player Latecomer joined the game.");
+    Assert.assertTrue(fastForward >= 0);
+    Assert.assertTrue(joined > fastForward);
+    Assert.assertEquals(fastForward, output.lastIndexOf("Fast-forwarding"));
+    Assert.assertTrue(output.indexOf("It's ComputerPlayer's turn.") > joined);
+    Assert.assertTrue(output.indexOf("It's Latecomer's turn.") > joined);
+    // Joined during turn 0 and was in the game by the next turn's own phase
+    Assert.assertEquals(1, joiner.turnsBeforeJoining);
+  }
+
+  /**
+   * Tests that a player that is neither human nor a computer player acts on its own and does not
+   * keep the game from fast-forwarding.
+   */
+  @Test
+  public void testOtherBotFastForwards() {
+    String input = "no\n0\n";
+    inContent = new ByteArrayInputStream(input.getBytes());
+    System.setIn(inContent);
+
+    controller = new GameController(world, view, 10, "res/test_log.txt", 7L);
+    Walker walker = new Walker(world.getRoomByIndex(5).getCoordinates());
+    controller.joinGame(walker);
+    controller.startGame();
+    String output = outContent.toString();
+
+    Assert.assertTrue(output.contains("Only computer players are playing. Fast-forwarding..."));
+    Assert.assertFalse(output.contains("Choose an action"));
+    // Its own turn and the phase of the players who act on their own, in each of 10 turns
+    Assert.assertEquals(20, walker.turns);
+  }
+
+  /**
+   * A player that is neither a human nor a computer player and acts on its own, counting its
+   * turns. Everything else is left to a plain player it keeps.
+   */
+  private static final class Walker implements Iplayer {
+    private final Player body;
+    private int turns;
+
+    Walker(Tuple<Integer, Integer> coordinates) {
+      this.body = new Player("Walker", coordinates, 5);
+    }
+
+    @Override
+    public String getName() {
+      return body.getName();
+    }
+
+    @Override
+    public Tuple<Integer, Integer> getCoordinates() {
+      return body.getCoordinates();
+    }
+
+    @Override
+    public long getPackedCoordinates() {
+      return body.getPackedCoordinates();
+    }
+
+    @Override
+    public void move(Tuple<Integer, Integer> newCoordinates) {
+      body.move(newCoordinates);
+    }
+
+    @Override
+    public void setMoveListener(Imovelistener listener) {
+      body.setMoveListener(listener);
+    }
+
+    @Override
+    public void addItem(Iitem item) {
+      body.addItem(item);
+    }
+
+    @Override
+    public ItemList getItems() {
+      return body.getItems();
+    }
+
+    @Override
+    public int getMaxItems() {
+      return body.getMaxItems();
+    }
+
+    @Override
+    public String lookAround(Igameworld world) {
+      return body.lookAround(world);
+    }
+
+    @Override
+    public Surroundings lookAt(Igameworld world) {
+      return body.lookAt(world);
+    }
+
+    @Override
+    public String attack(Itarget target, Igameworld world) {
+      return body.attack(target, world);
+    }
+
+    @Override
+    public boolean canSee(Iplayer other, Igameworld world) {
+      return body.canSee(other, world);
+    }
+
+    @Override
+    public void takeTurn(Igameworld world) {
+      turns++;
+    }
+  }
+
+  /**
+   * A computer player that asks a human player to join the game on its first turn and counts
+   * its turns until the human is in the game.
+   */
+  private final class Joiner extends ComputerPlayer {
+    private final Iplayer latecomer;
+    private int turnsBeforeJoining = -1;
+    private int turns;
+
+    Joiner(Tuple<Integer, Integer> coordinates, Iplayer latecomer) {
+      super("Joiner", coordinates, 5);
+      this.latecomer = latecomer;
+    }
+
+    @Override
+    public String playTurn(Igameworld world, boolean report) {
+      if (turns == 0) {
+        controller.joinGame(latecomer);
+      }
+      if (turnsBeforeJoining < 0 && world.getPlayers().contains(latecomer)) {
+        turnsBeforeJoining = turns;
+      }
+      turns++;
+      return null;
+    }
+  }
 }
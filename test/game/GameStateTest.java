@@ -0,0 +1,97 @@
+package game;
+
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the GameState class.
+ */
+public class GameStateTest {
+
+  private MansionTopology topology;
+  private GameState state;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    state = topology.initialState();
+  }
+
+  /**
+   * Tests the starting state of a game.
+   */
+  @Test
+  public void testInitialState() {
+    Assert.assertEquals(0, state.getTargetRoom());
+    Assert.assertEquals(0, state.getPetRoom());
+    Assert.assertEquals(topology.getTargetHealth(), state.getTargetHealth());
+    Assert.assertEquals(0, state.getPlayerCount());
+    for (int i = 0; i < topology.getItemCount(); i++) {
+      Assert.assertEquals(topology.getItem(i).getRoomIndex(), state.getItemLocation(i));
+    }
+  }
+
+  /**
+   * Tests picking up items and attacking with the strongest one.
+   */
+  @Test
+  public void testPickAndUseItems() {
+    int room = topology.getItem(0).getRoomIndex();
+    int player = state.addPlayer(room, 1);
+    int item = state.firstItemInRoom(room);
+    Assert.assertEquals(0, item);
+    state.pickItem(player, item);
+    Assert.assertEquals(-2 - player, state.getItemLocation(item));
+    Assert.assertEquals(1, state.getPlayerItemCount(player));
+    Assert.assertEquals(item, state.strongestItemOf(player));
+
+    int other = state.firstItemInRoom(room);
+    if (other >= 0) {
+      state.pickItem(player, other);
+      Assert.assertEquals(GameState.USED_UP, state.getItemLocation(other));
+      Assert.assertEquals(1, state.getPlayerItemCount(player));
+    }
+
+    state.useItem(item);
+    state.damageTarget(topology.getItem(item).getDamage());
+    Assert.assertEquals(GameState.USED_UP, state.getItemLocation(item));
+    Assert.assertEquals(0, state.getPlayerItemCount(player));
+    Assert.assertEquals(-1, state.strongestItemOf(player));
+    state.damageTarget(1000);
+    Assert.assertEquals(0, state.getTargetHealth());
+  }
+
+  /**
+   * Tests that copies are independent and that reset restores the starting state.
+   */
+  @Test
+  public void testCopyAndReset() {
+    for (int p = 0; p < 6; p++) {
+      state.addPlayer(p, 3);
+    }
+    state.setTargetRoom(4);
+    state.setPetRoom(7);
+    state.nextTurn();
+    GameState copy = state.copy();
+    state.setPlayerRoom(5, 9);
+    state.damageTarget(2);
+    Assert.assertEquals(6, copy.getPlayerCount());
+    Assert.assertEquals(5, copy.getPlayerRoom(5));
+    Assert.assertEquals(topology.getTargetHealth(), copy.getTargetHealth());
+    Assert.assertEquals(4, copy.getTargetRoom());
+    Assert.assertEquals(1, copy.getTurn());
+
+    state.reset();
+    Assert.assertEquals(0, state.getPlayerCount());
+    Assert.assertEquals(0, state.getTargetRoom());
+    Assert.assertEquals(topology.getTargetHealth(), state.getTargetHealth());
+    state.copyFrom(copy);
+    Assert.assertEquals(5, state.getPlayerRoom(5));
+    Assert.assertEquals(7, state.getPetRoom());
+  }
+}
@@ -0,0 +1,80 @@
+package game;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the GridIndex class.
+ */
+public class GridIndexTest {
+
+  private Igameworld world;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = MansionParser.parseMansion("res/mansion.txt");
+  }
+
+  /**
+   * Tests that every cell of every room maps back to that room.
+   */
+  @Test
+  public void testRoomAtCoversEveryCell() {
+    GridIndex grid = world.getGridIndex();
+    for (int i = 0; i < world.getRooms().size(); i++) {
+      Iroom room = world.getRoomByIndex(i);
+      for (int r = room.getCoordinates().getFirst();
+          r <= room.getEndingCoordinates().getFirst(); r++) {
+        for (int c = room.getCoordinates().getSecond();
+            c <= room.getEndingCoordinates().getSecond(); c++) {
+          Assert.assertEquals(i, grid.roomAt(r, c));
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests looking up the room that contains an interior cell.
+   */
+  @Test
+  public void testGetRoomContaining() {
+    Assert.assertEquals("Armory", world.getRoomContaining(23, 20).getName());
+    Assert.assertNull(world.getRoomContaining(0, 0));
+    Assert.assertNull(world.getRoomContaining(-1, 500));
+  }
+
+  /**
+   * Tests that only a room's top-left corner resolves through the coordinates lookup.
+   */
+  @Test
+  public void testRoomByCoordinatesUsesCorner() {
+    Assert.assertEquals("Armory", world.getRoomByCoordinates(new Tuple<>(22, 19)).getName());
+    Assert.assertNull(world.getRoomByCoordinates(new Tuple<>(23, 20)));
+    Assert.assertNull(world.getRoomByCoordinates(null));
+  }
+
+  /**
+   * Tests rooms that lie outside the declared grid and overlapping rooms.
+   */
+  @Test
+  public void testOverflowAndOverlap() {
+    List<Iroom> rooms = new ArrayList<>();
+    rooms.add(new Room("First", new Tuple<>(0, 0), new Tuple<>(2, 2)));
+    rooms.add(new Room("Second", new Tuple<>(1, 1), new Tuple<>(3, 3)));
+    rooms.add(new Room("Far", new Tuple<>(100, 100), new Tuple<>(101, 101)));
+    GridIndex grid = new GridIndex(4, 4, rooms);
+    Assert.assertEquals(0, grid.roomAt(2, 2));
+    Assert.assertEquals(1, grid.roomAt(3, 3));
+    Assert.assertEquals(2, grid.roomAt(101, 100));
+    Assert.assertEquals(2, grid.roomWithCorner(100, 100));
+    Assert.assertEquals(1, grid.roomWithCorner(1, 1));
+    Assert.assertEquals(-1, grid.roomWithCorner(2, 2));
+  }
+}
@@ -0,0 +1,141 @@
+package game;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the InterceptPlanner class and the InterceptPlayer that follows it.
+ */
+public class InterceptPlannerTest {
+
+  private MansionTopology topology;
+  private DistanceTable distances;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    distances = topology.getDistances();
+  }
+
+  /**
+   * Finds the meeting time by trying every number of moves.
+   */
+  private int bruteForce(TargetRoute route, int room, int step) {
+    for (int k = 0; k < 10 * route.getLength() + 50; k++) {
+      int distance = distances.distance(room, route.roomAfter(step, k));
+      if (distance >= 0 && distance <= k) {
+        return k;
+      }
+    }
+    return -1;
+  }
+
+  private void assertMatchesBruteForce(TargetRoute route) {
+    InterceptPlanner planner = new InterceptPlanner(route, distances);
+    for (int room = 0; room < topology.getRoomCount(); room++) {
+      for (int step = 0; step < route.getLength(); step++) {
+        int time = bruteForce(route, room, step);
+        Assert.assertEquals(time, planner.getMeetingTime(room, step));
+        int meeting = planner.getMeetingRoom(room, step);
+        Assert.assertEquals(route.roomAfter(step, time), meeting);
+        Assert.assertTrue(distances.distance(room, meeting) <= time);
+        Assert.assertEquals(time - distances.distance(room, meeting),
+            planner.getSlack(room, step));
+      }
+    }
+  }
+
+  /**
+   * Tests the meeting times against a search over every number of moves.
+   */
+  @Test
+  public void testMatchesBruteForce() {
+    assertMatchesBruteForce(topology.getTargetRoute());
+    assertMatchesBruteForce(TargetRoute.tour(distances, 3));
+    assertMatchesBruteForce(TargetRoute.patrol(new int[] {20, 2, 2, 9, 14}, 21));
+  }
+
+  /**
+   * Tests a route that passes rooms the player cannot reach, on a map with two parts.
+   */
+  @Test
+  public void testRouteThroughUnreachableRooms() {
+    List<Iroom> rooms = new ArrayList<>();
+    rooms.add(new Room("West", new Tuple<>(0, 0), new Tuple<>(1, 1)));
+    rooms.add(new Room("East", new Tuple<>(0, 2), new Tuple<>(1, 3)));
+    rooms.add(new Room("Island", new Tuple<>(5, 5), new Tuple<>(6, 6)));
+    topology = new MansionTopology(10, 10, "Split", "Target", 10, "Pet", rooms,
+        new ArrayList<Iitem>(), new int[] {0, 2, 2, 2});
+    distances = topology.getDistances();
+    InterceptPlanner planner = new InterceptPlanner(topology.getTargetRoute(), distances);
+    Assert.assertEquals(3, planner.getMeetingTime(0, 1));
+    Assert.assertEquals(0, planner.getMeetingRoom(0, 1));
+    Assert.assertEquals(3, planner.getMeetingTime(1, 1));
+    Assert.assertEquals(0, planner.getMeetingTime(2, 1));
+    assertMatchesBruteForce(topology.getTargetRoute());
+  }
+
+  /**
+   * Tests a player waiting in the room the target is about to enter.
+   */
+  @Test
+  public void testWaitInRoom() {
+    InterceptPlanner planner = new InterceptPlanner(topology.getTargetRoute(), distances);
+    Assert.assertEquals(0, planner.getMeetingTime(4, 4));
+    Assert.assertEquals(4, planner.getNextRoom(4, 4));
+    Assert.assertEquals(1, planner.getMeetingTime(4, 3));
+    Assert.assertEquals(4, planner.getNextRoom(4, 3));
+    Assert.assertEquals(planner.getMeetingTime(4, 0) + 1, planner.getMeetingTime(4, -1));
+  }
+
+  /**
+   * Tests that worlds keep their planner until the route changes.
+   */
+  @Test
+  public void testPlannerCachedPerRoute() {
+    GameWorld world = topology.createWorld();
+    InterceptPlanner planner = world.getInterceptPlanner();
+    Assert.assertSame(planner, world.getInterceptPlanner());
+    world.setTargetRoute(TargetRoute.tour(distances, 0));
+    Assert.assertNotSame(planner, world.getInterceptPlanner());
+    Assert.assertSame(world.getTargetRoute(), world.getInterceptPlanner().getRoute());
+
+    PersistentWorld persistent = new PersistentWorld(topology, 1L);
+    Assert.assertSame(persistent.getInterceptPlanner(), persistent.fork().getInterceptPlanner());
+  }
+
+  /**
+   * Tests that an intercepting player meets the target no later than the planner says.
+   */
+  @Test
+  public void testPlayerMeetsTarget() {
+    for (int start = 0; start < topology.getRoomCount(); start++) {
+      GameWorld world = topology.createWorld();
+      world.setOutput(NullSink.INSTANCE);
+      InterceptPlayer player = new InterceptPlayer("Hunter", topology.getRoomCoordinates(start),
+          5, new SplittableRandom(start));
+      world.addPlayer(player);
+      InterceptPlanner planner = world.getInterceptPlanner();
+      int time = planner.getMeetingTime(start, world.getTargetStep());
+      int met = -1;
+      for (int k = 0; k <= time && met < 0; k++) {
+        if (world.getTargetRoomIndex() == world.getRoomIndexByCoordinates(
+            player.getPackedCoordinates())) {
+          met = k;
+        } else {
+          player.playTurn(world, false);
+          world.moveTarget();
+        }
+      }
+      Assert.assertEquals(time, met);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the ItemList class.
+ */
+public class ItemListTest {
+
+  private ItemList items;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() {
+    items = new ItemList();
+  }
+
+  /**
+   * Tests that items keep their insertion order while the strongest one is found by damage.
+   */
+  @Test
+  public void testInsertionOrderAndStrongest() {
+    Iitem knife = new Item("Knife", 3, 0);
+    Iitem sword = new Item("Sword", 9, 0);
+    Iitem axe = new Item("Axe", 9, 0);
+    items.add(knife);
+    items.add(sword);
+    items.add(axe);
+    Assert.assertEquals(3, items.size());
+    Assert.assertSame(knife, items.get(0));
+    Assert.assertSame(axe, items.get(2));
+    Assert.assertSame(sword, items.peekStrongest());
+    Assert.assertSame(sword, items.removeStrongest());
+    Assert.assertSame(axe, items.removeStrongest());
+    Assert.assertSame(knife, items.removeStrongest());
+    Assert.assertNull(items.removeStrongest());
+    Assert.assertTrue(items.isEmpty());
+  }
+
+  /**
+   * Tests that removing by position and by identity keeps the remaining order.
+   */
+  @Test
+  public void testRemove() {
+    Iitem first = new Item("First", 1, 0);
+    Iitem second = new Item("Second", 5, 0);
+    Iitem third = new Item("Third", 2, 0);
+    items.add(first);
+    items.add(second);
+    items.add(third);
+    Assert.assertSame(first, items.remove(0));
+    Assert.assertTrue(items.remove(third));
+    Assert.assertFalse(items.remove(third));
+    Assert.assertEquals(1, items.size());
+    Assert.assertSame(second, items.get(0));
+    Assert.assertSame(second, items.peekStrongest());
+  }
+
+  /**
+   * Tests random operations against an array list kept in step by hand.
+   */
+  @Test
+  public void testMatchesArrayList() {
+    Random random = new Random(42);
+    List<Iitem> expected = new ArrayList<>();
+    for (int step = 0; step < 20000; step++) {
+      int operation = random.nextInt(10);
+      if (operation < 4 || expected.isEmpty()) {
+        Iitem item = new Item("Item" + step, random.nextInt(20), 0);
+        expected.add(item);
+        items.add(item);
+      } else if (operation < 6) {
+        int index = random.nextInt(expected.size());
+        Assert.assertSame(expected.remove(index), items.remove(index));
+      } else if (operation < 8) {
+        Iitem strongest = expected.get(0);
+        for (Iitem item : expected) {
+          if (item.getDamage() > strongest.getDamage()) {
+            strongest = item;
+          }
+        }
+        Assert.assertSame(strongest, items.removeStrongest());
+        expected.remove(strongest);
+      } else if (operation < 9) {
+        int index = random.nextInt(expected.size() + 1);
+        Iitem item = new Item("Inserted" + step, random.nextInt(20), 0);
+        expected.add(index, item);
+        items.add(index, item);
+      } else {
+        Iterator<Iitem> it = items.iterator();
+        int stride = 2 + random.nextInt(3);
+        for (int k = 0; it.hasNext(); k++) {
+          Iitem item = it.next();
+          if (k % stride == 0) {
+            it.remove();
+            expected.remove(item);
+          }
+        }
+      }
+      Assert.assertEquals(expected.size(), items.size());
+    }
+    Assert.assertEquals(expected, new ArrayList<>(items));
+  }
+
+  /**
+   * Tests that a player attacks with the strongest item and uses it up.
+   */
+  @Test
+  public void testAttackUsesStrongestItem() throws Exception {
+    Igameworld world = MansionParser.parseMansion("res/mansion.txt");
+    Iplayer player = new Player("Tester", world.getTarget().getCoordinates(), 5);
+    world.addPlayer(player);
+    world.getPet().move(world.getRoomByIndex(20).getCoordinates());
+    Iitem weak = new Item("Weak", 2, 0);
+    Iitem strong = new Item("Strong", 7, 0);
+    player.addItem(weak);
+    player.addItem(strong);
+    int health = world.getTarget().getHealth();
+    player.attack(world.getTarget(), world);
+    Assert.assertEquals(health - 7, world.getTarget().getHealth());
+    Assert.assertEquals(1, player.getItems().size());
+    Assert.assertSame(weak, player.getItems().peekStrongest());
+  }
+}
@@ -0,0 +1,93 @@
+package game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the LatencyHistogram class.
+ */
+public class LatencyHistogramTest {
+
+  private LatencyHistogram histogram;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() {
+    histogram = new LatencyHistogram();
+  }
+
+  /**
+   * Tests an empty histogram.
+   */
+  @Test
+  public void testEmpty() {
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.getPercentile(99));
+    Assert.assertEquals(0.0, histogram.getMean(), 0.0);
+  }
+
+  /**
+   * Tests that small durations are counted exactly.
+   */
+  @Test
+  public void testSmallValuesExact() {
+    for (int value = 1; value <= 10; value++) {
+      histogram.record(value);
+    }
+    Assert.assertEquals(10, histogram.getCount());
+    Assert.assertEquals(5, histogram.getPercentile(50));
+    Assert.assertEquals(10, histogram.getPercentile(100));
+    Assert.assertEquals(1, histogram.getPercentile(0));
+    Assert.assertEquals(5.5, histogram.getMean(), 1e-9);
+    Assert.assertEquals(10, histogram.getMax());
+  }
+
+  /**
+   * Tests that percentiles of spread out durations are within the precision of the buckets.
+   */
+  @Test
+  public void testPercentilesAgreeWithSorting() {
+    SplittableRandom random = new SplittableRandom(3L);
+    long[] values = new long[10000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) Math.exp(random.nextDouble() * 25);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+    for (double percent : new double[] {1, 10, 50, 90, 99, 99.9, 100}) {
+      long exact = values[(int) Math.ceil(values.length * percent / 100) - 1];
+      long estimate = histogram.getPercentile(percent);
+      Assert.assertTrue(percent + ": " + estimate + " vs " + exact, estimate >= exact);
+      Assert.assertTrue(percent + ": " + estimate + " vs " + exact,
+          estimate <= exact + exact / LatencyHistogram.SUB_BUCKETS);
+    }
+    Assert.assertEquals(values[values.length - 1], histogram.getPercentile(100));
+  }
+
+  /**
+   * Tests that a cleared histogram forgets its durations.
+   */
+  @Test
+  public void testClear() {
+    histogram.record(1000000);
+    histogram.record(-5);
+    Assert.assertEquals(2, histogram.getCount());
+    Assert.assertEquals(0, histogram.getPercentile(50));
+    histogram.clear();
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.getMax());
+  }
+
+  /**
+   * Tests that a percentile out of range is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPercentile() {
+    histogram.getPercentile(101);
+  }
+}
@@ -0,0 +1,94 @@
+package game;
+
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the MansionTopology class.
+ */
+public class MansionTopologyTest {
+
+  private MansionTopology topology;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+  }
+
+  /**
+   * Tests that a world created from the topology matches a freshly parsed world.
+   */
+  @Test
+  public void testCreateWorldMatchesParsedWorld() throws IOException {
+    Igameworld parsed = MansionParser.parseMansion("res/mansion.txt");
+    Igameworld created = topology.createWorld();
+    Assert.assertEquals(parsed.getRows(), created.getRows());
+    Assert.assertEquals(parsed.getColumns(), created.getColumns());
+    Assert.assertEquals(parsed.getRooms().size(), created.getRooms().size());
+    for (int i = 0; i < parsed.getRooms().size(); i++) {
+      Iroom expected = parsed.getRoomByIndex(i);
+      Iroom actual = created.getRoomByIndex(i);
+      Assert.assertEquals(expected.getName(), actual.getName());
+      Assert.assertEquals(expected.getCoordinates(), actual.getCoordinates());
+      Assert.assertEquals(expected.getItems().size(), actual.getItems().size());
+      for (int k = 0; k < expected.getItems().size(); k++) {
+        Assert.assertEquals(expected.getItems().get(k).getName(),
+            actual.getItems().get(k).getName());
+      }
+      Assert.assertEquals(parsed.getNeighbors(expected).size(),
+          created.getNeighbors(actual).size());
+    }
+    Assert.assertEquals(parsed.getTarget().getName(), created.getTarget().getName());
+    Assert.assertEquals(parsed.getTarget().getHealth(), created.getTarget().getHealth());
+    Assert.assertEquals(parsed.getTarget().getCoordinates(), created.getTarget().getCoordinates());
+    Assert.assertEquals(parsed.getPet().getName(), created.getPet().getName());
+    Assert.assertEquals(parsed.getPet().getCoordinates(), created.getPet().getCoordinates());
+  }
+
+  /**
+   * Tests that worlds share the topology's indexes but not their mutable rooms.
+   */
+  @Test
+  public void testWorldsAreIndependent() {
+    Igameworld first = topology.createWorld();
+    Igameworld second = topology.createWorld();
+    Assert.assertTrue(first.getRoomGraph().sharesStructure(second.getRoomGraph()));
+    Assert.assertSame(first.getGridIndex(), second.getGridIndex());
+    Assert.assertSame(topology.getDistances(), first.getDistances());
+
+    Iroom firstRoom = first.getRoomByIndex(0);
+    Assert.assertNotSame(firstRoom, second.getRoomByIndex(0));
+    Assert.assertEquals(0, first.getRoomIndex(firstRoom));
+    Assert.assertEquals(-1, second.getRoomIndex(firstRoom));
+
+    int items = second.getRoomByIndex(0).getItems().size();
+    firstRoom.getItems().clear();
+    first.getTarget().takeDamage(5);
+    Assert.assertEquals(items, second.getRoomByIndex(0).getItems().size());
+    Assert.assertEquals(topology.getTargetHealth(), second.getTarget().getHealth());
+  }
+
+  /**
+   * Tests that the items of each room are listed in file order.
+   */
+  @Test
+  public void testRoomItems() {
+    int total = 0;
+    for (int room = 0; room < topology.getRoomCount(); room++) {
+      int previous = -1;
+      for (int k = topology.roomItemStart(room); k < topology.roomItemEnd(room); k++) {
+        int item = topology.roomItemAt(k);
+        Assert.assertEquals(room, topology.getItem(item).getRoomIndex());
+        Assert.assertTrue(item > previous);
+        previous = item;
+        total++;
+      }
+    }
+    Assert.assertEquals(topology.getItemCount(), total);
+  }
+}
@@ -0,0 +1,171 @@
+package game;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the MctsPlayer class.
+ */
+public class MctsPlayerTest {
+
+  private MansionTopology topology;
+  private GameWorld world;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    world = topology.createWorld();
+    world.setOutput(NullSink.INSTANCE);
+  }
+
+  private MctsPlayer createPlayer(int room, long seed) {
+    MctsPlayer player = new MctsPlayer("Searcher", topology.getRoomCoordinates(room), 5,
+        topology, new SplittableRandom(seed));
+    player.setIterations(200);
+    return player;
+  }
+
+  /**
+   * Tests that the player finishes off a target it is alone with.
+   */
+  @Test
+  public void testKillsTargetWhenAlone() {
+    MctsPlayer player = createPlayer(0, 1L);
+    world.addPlayer(player);
+    world.movePet(topology.getRoomCoordinates(5));
+    world.getTarget().takeDamage(world.getTarget().getHealth() - 1);
+
+    String report = player.playTurn(world, true);
+    Assert.assertEquals(0, world.getTarget().getHealth());
+    Assert.assertTrue(report.contains("attacked"));
+    Assert.assertEquals(200, player.getLastIterations());
+  }
+
+  /**
+   * Tests that the same seed plays the same actions.
+   */
+  @Test
+  public void testSameSeedPlaysSameGame() {
+    GameWorld other = topology.createWorld();
+    other.setOutput(NullSink.INSTANCE);
+    MctsPlayer first = createPlayer(7, 42L);
+    MctsPlayer second = createPlayer(7, 42L);
+    world.addPlayer(first);
+    other.addPlayer(second);
+    world.addPlayer(new ComputerPlayer("Bot", topology.getRoomCoordinates(3), 5,
+        new SplittableRandom(3L)));
+    other.addPlayer(new ComputerPlayer("Bot", topology.getRoomCoordinates(3), 5,
+        new SplittableRandom(3L)));
+
+    for (int turn = 0; turn < 15; turn++) {
+      world.nextTurn();
+      world.moveTarget();
+      other.nextTurn();
+      other.moveTarget();
+      Assert.assertEquals(first.getCoordinates(), second.getCoordinates());
+      Assert.assertEquals(first.getItems().size(), second.getItems().size());
+    }
+    Assert.assertEquals(world.getTarget().getHealth(), other.getTarget().getHealth());
+  }
+
+  /**
+   * Tests that searches on several threads add their play-outs together.
+   */
+  @Test
+  public void testRootParallelSearch() {
+    MctsPlayer player = createPlayer(4, 9L);
+    player.setIterations(400);
+    player.setThreads(4);
+    ForkJoinPool pool = new ForkJoinPool(2);
+    player.setPool(pool);
+    world.addPlayer(player);
+
+    player.playTurn(world, false);
+    Assert.assertEquals(400, player.getLastIterations());
+    pool.shutdown();
+  }
+
+  /**
+   * Tests that a time limit alone bounds the search.
+   */
+  @Test
+  public void testTimeLimit() {
+    MctsPlayer player = createPlayer(4, 9L);
+    player.setTimeLimit(20);
+    player.setIterations(0);
+    world.addPlayer(player);
+
+    long start = System.nanoTime();
+    player.playTurn(world, false);
+    Assert.assertTrue(System.nanoTime() - start < 2000000000L);
+    Assert.assertTrue(player.getLastIterations() > 0);
+  }
+
+  /**
+   * Tests that a deadline cuts the next search short and only the next one.
+   */
+  @Test
+  public void testDeadline() {
+    MctsPlayer player = createPlayer(4, 9L);
+    world.addPlayer(player);
+    player.setDeadline(System.nanoTime(), Iclock.SYSTEM);
+    player.playTurn(world, false);
+    Assert.assertEquals(1, player.getLastEffort());
+    Assert.assertEquals(200, player.getEffort());
+
+    player.playTurn(world, false);
+    Assert.assertEquals(200, player.getLastEffort());
+  }
+
+  /**
+   * Tests that a deadline set by a budget on a clock other than the machine's is checked
+   * against that clock.
+   */
+  @Test
+  public void testDeadlineOnBudgetClock() {
+    MctsPlayer player = createPlayer(4, 9L);
+    player.setIterations(100000);
+    world.addPlayer(player);
+    Iclock clock = new Iclock() {
+      private long now;
+
+      @Override
+      public long nanoTime() {
+        now += 1000000L;
+        return now;
+      }
+    };
+    new DecisionBudget(20, clock).playTurn(player, world, false);
+    // The deadline is 18 ms after the start and every reading of the clock moves it 1 ms on;
+    // the search reads the clock once every 16 play-outs
+    Assert.assertEquals(17 * 16, player.getLastEffort());
+  }
+
+  /**
+   * Tests that the player plays like a computer player in a world of another mansion.
+   */
+  @Test
+  public void testOtherMansionFallsBack() throws IOException {
+    Igameworld parsed = MansionParser.parseMansion("res/mansion.txt");
+    parsed.setOutput(NullSink.INSTANCE);
+    MctsPlayer player = createPlayer(4, 9L);
+    parsed.addPlayer(player);
+    player.playTurn(parsed, false);
+    Assert.assertEquals(0, player.getLastIterations());
+  }
+
+  /**
+   * Tests that invalid budgets are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoBudget() {
+    createPlayer(0, 1L).setIterations(0);
+  }
+}
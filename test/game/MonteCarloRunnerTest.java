@@ -0,0 +1,101 @@
+package game;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the MonteCarloRunner and SimulationStats classes.
+ */
+public class MonteCarloRunnerTest {
+
+  private MansionTopology topology;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+  }
+
+  /**
+   * Tests that the merged statistics account for every game and player.
+   */
+  @Test
+  public void testStatisticsAddUp() {
+    MonteCarloRunner runner = new MonteCarloRunner(topology, 3, 80);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      SimulationStats stats = runner.run(2000, 11L, pool);
+      Assert.assertEquals(2000, stats.getGames());
+
+      long starts = 0;
+      long wins = 0;
+      for (int room = 0; room < topology.getRoomCount(); room++) {
+        starts += stats.getStarts(room);
+        wins += stats.getWins(room);
+        Assert.assertTrue(stats.getWinRate(room) >= 0 && stats.getWinRate(room) <= 1);
+      }
+      Assert.assertEquals(6000, starts);
+      Assert.assertEquals(stats.getKills(), wins);
+
+      long kills = 0;
+      for (int turns = 0; turns <= 80; turns++) {
+        kills += stats.getTurnsToKill(turns);
+      }
+      Assert.assertEquals(stats.getKills(), kills);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Tests that a game replayed from its run seed is played exactly as in the run.
+   */
+  @Test
+  public void testReplay() {
+    MonteCarloRunner runner = new MonteCarloRunner(topology, 2, 60);
+    for (long seed = 0; seed < 20; seed++) {
+      SimulationStats stats = runner.run(1, seed);
+      GameResult result = runner.replay(seed, 0);
+      Assert.assertEquals(result.toString(), runner.replay(seed, 0).toString());
+      Assert.assertEquals(result.isTargetKilled() ? 1 : 0, stats.getKills());
+      if (result.isTargetKilled()) {
+        Assert.assertEquals(1, stats.getTurnsToKill(result.getTurns()));
+      }
+      for (Iitem item : result.getUsedItems()) {
+        Assert.assertTrue(stats.getItemUses(topology.getItemIndex(item)) > 0);
+      }
+    }
+  }
+
+  /**
+   * Tests that merging adds the counts of both statistics.
+   */
+  @Test
+  public void testMerge() {
+    Iitem item = topology.getItem(0);
+    GameResult kill = new GameResult(true, 12, 1, "Computer 2", 0,
+        Collections.singletonList(item));
+    GameResult timeout = new GameResult(false, 50, -1, null, 20,
+        Collections.<Iitem>emptyList());
+    SimulationStats first = new SimulationStats(topology, 50);
+    first.record(new int[] {0, 4}, kill);
+    SimulationStats second = new SimulationStats(topology, 50);
+    second.record(new int[] {4, 4}, timeout);
+
+    first.merge(second);
+    Assert.assertEquals(2, first.getGames());
+    Assert.assertEquals(1, first.getKills());
+    Assert.assertEquals(3, first.getStarts(4));
+    Assert.assertEquals(1, first.getWins(4));
+    Assert.assertEquals(1.0 / 3, first.getWinRate(4), 1e-9);
+    Assert.assertEquals(1, first.getTurnsToKill(12));
+    Assert.assertEquals(12.0, first.getMeanTurnsToKill(), 1e-9);
+    Assert.assertEquals(1, first.getItemUses(0));
+  }
+}
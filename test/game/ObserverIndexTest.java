@@ -0,0 +1,84 @@
+package game;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the ObserverIndex class.
+ */
+public class ObserverIndexTest {
+
+  private MansionTopology topology;
+  private GameWorld world;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    world = topology.createWorld();
+  }
+
+  /**
+   * Tests the counters of a room and its neighbors.
+   */
+  @Test
+  public void testCounts() {
+    RoomGraph graph = topology.getRoomGraph();
+    ObserverIndex index = new ObserverIndex(graph);
+    int neighbor = graph.neighborAt(graph.neighborStart(3));
+    index.enter(3);
+    index.enter(3);
+    index.enter(neighbor);
+    Assert.assertEquals(2, index.occupants(3));
+    Assert.assertEquals(1, index.watchers(3));
+    Assert.assertEquals(2, index.watchers(neighbor));
+    Assert.assertEquals(2, index.countObservers(3, -1, 3));
+    Assert.assertEquals(1, index.countObservers(3, 3, 3));
+    Assert.assertEquals(2, index.countObservers(3, -1, neighbor));
+    index.leave(3);
+    Assert.assertEquals(1, index.occupants(3));
+    Assert.assertEquals(1, index.watchers(neighbor));
+    index.clear();
+    Assert.assertEquals(0, index.watchers(3));
+  }
+
+  /**
+   * Tests that the counts kept by a world agree with the players who can see each attacker as
+   * players come and go.
+   */
+  @Test
+  public void testMatchesWorldAsPlayersMove() {
+    SplittableRandom random = new SplittableRandom(11L);
+    for (int i = 0; i < 60; i++) {
+      world.addPlayer(new ComputerPlayer("Bot " + i,
+          topology.getRoomCoordinates(random.nextInt(topology.getRoomCount())), 5));
+    }
+    ObserverIndex index = world.getObservers();
+    Assert.assertSame(index, world.getObservers());
+    for (int round = 0; round < 200; round++) {
+      Iplayer mover = world.getPlayers().get(random.nextInt(world.getPlayers().size()));
+      mover.move(topology.getRoomCoordinates(random.nextInt(topology.getRoomCount())));
+      if (round % 50 == 0) {
+        world.getPet().moveDfs(world);
+        world.addPlayer(new ComputerPlayer("Late " + round, topology.getRoomCoordinates(0), 5));
+      }
+      for (Iplayer subject : world.getPlayers()) {
+        int room = world.getRoomIndexByCoordinates(subject.getPackedCoordinates());
+        int seen = 0;
+        for (Iplayer other : world.getPlayers()) {
+          if (other != subject && other.canSee(subject, world)) {
+            seen++;
+          }
+        }
+        Assert.assertEquals(seen, world.getObservers().countObservers(room,
+            world.getPetRoomIndex(), room));
+        Assert.assertEquals(seen > 0, world.findObserver(subject) != null);
+      }
+    }
+  }
+}
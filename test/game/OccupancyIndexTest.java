@@ -0,0 +1,104 @@
+package game;
+
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the OccupancyIndex class.
+ */
+public class OccupancyIndexTest {
+
+  private Igameworld world;
+  private Iplayer first;
+  private Iplayer second;
+  private Iplayer third;
+
+  /**
+   * Sets up the test environment with three players in the Armory.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = MansionParser.parseMansion("res/mansion.txt");
+    Tuple<Integer, Integer> armory = world.getRoomByIndex(0).getCoordinates();
+    first = new Player("First", armory, 5);
+    second = new ComputerPlayer("Second", armory, 5);
+    third = new Player("Third", armory, 5);
+    world.addPlayer(first);
+    world.addPlayer(second);
+    world.addPlayer(third);
+  }
+
+  /**
+   * Tests that occupants are listed in turn order.
+   */
+  @Test
+  public void testOccupantsInTurnOrder() {
+    OccupancyIndex occupancy = world.getOccupancy();
+    Assert.assertEquals(3, occupancy.count(0));
+    int id = occupancy.first(0);
+    Assert.assertSame(first, occupancy.player(id));
+    id = occupancy.next(id);
+    Assert.assertSame(second, occupancy.player(id));
+    id = occupancy.next(id);
+    Assert.assertSame(third, occupancy.player(id));
+    Assert.assertEquals(-1, occupancy.next(id));
+  }
+
+  /**
+   * Tests that moves made through the world and directly on players update the index.
+   */
+  @Test
+  public void testMovesUpdateIndex() {
+    world.movePlayer(second, world.getRoomByIndex(1).getCoordinates());
+    third.move(world.getRoomByIndex(1).getCoordinates());
+    OccupancyIndex occupancy = world.getOccupancy();
+    Assert.assertEquals(1, occupancy.count(0));
+    Assert.assertEquals(2, occupancy.count(1));
+    Assert.assertSame(second, occupancy.player(occupancy.first(1)));
+
+    second.move(world.getRoomByIndex(0).getCoordinates());
+    Assert.assertSame(first, occupancy.player(occupancy.first(0)));
+    Assert.assertSame(second, occupancy.player(occupancy.next(occupancy.first(0))));
+    Assert.assertSame(third, occupancy.player(occupancy.first(1)));
+  }
+
+  /**
+   * Tests that a player moved off every room is no longer listed.
+   */
+  @Test
+  public void testPlayerOutsideRooms() {
+    first.move(new Tuple<>(0, 0));
+    OccupancyIndex occupancy = world.getOccupancy();
+    Assert.assertEquals(2, occupancy.count(0));
+    Assert.assertEquals(-1, occupancy.roomOf(0));
+  }
+
+  /**
+   * Tests that the index follows the rooms when a room is added to the world.
+   */
+  @Test
+  public void testRebuiltAfterAddRoom() {
+    Iroom annex = new Room("Annex", new Tuple<>(36, 0), new Tuple<>(37, 5));
+    world.addRoom(annex);
+    first.move(annex.getCoordinates());
+    OccupancyIndex occupancy = world.getOccupancy();
+    Assert.assertSame(first, occupancy.player(occupancy.first(21)));
+    Assert.assertEquals(2, occupancy.count(0));
+  }
+
+  /**
+   * Tests finding the first player in turn order who can see another player.
+   */
+  @Test
+  public void testFindObserver() {
+    world.getPet().move(world.getRoomByIndex(20).getCoordinates());
+    Assert.assertSame(second, world.findObserver(first));
+    second.move(world.getRoomByIndex(1).getCoordinates());
+    third.move(world.getRoomByIndex(20).getCoordinates());
+    Assert.assertSame(second, world.findObserver(first));
+    world.getPet().move(world.getRoomByIndex(0).getCoordinates());
+    Assert.assertNull(world.findObserver(first));
+  }
+}
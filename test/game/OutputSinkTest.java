@@ -0,0 +1,111 @@
+package game;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the ConsoleSink, BufferedSink and NullSink classes.
+ */
+public class OutputSinkTest {
+
+  private Igameworld world;
+  private PrintStream originalOut;
+  private InputStream originalIn;
+  private ByteArrayOutputStream console;
+
+  /**
+   * Sets up the test environment and captures the console output.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = MansionParser.parseMansion("res/mansion.txt");
+    originalOut = System.out;
+    originalIn = System.in;
+    console = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(console));
+  }
+
+  /**
+   * Restores the console.
+   */
+  @After
+  public void tearDown() {
+    System.setOut(originalOut);
+    System.setIn(originalIn);
+  }
+
+  /**
+   * Tests that the console sink writes to the console as it is when writing.
+   */
+  @Test
+  public void testConsoleSinkFollowsSystemOut() {
+    Ioutputsink sink = new ConsoleSink();
+    ByteArrayOutputStream redirected = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(redirected));
+    sink.print("a");
+    sink.println("b");
+    Assert.assertTrue(sink.isEnabled());
+    Assert.assertEquals("ab" + System.lineSeparator(), redirected.toString());
+    Assert.assertEquals(0, console.size());
+  }
+
+  /**
+   * Tests that the buffered sink collects room information as the console shows it.
+   */
+  @Test
+  public void testBufferedSinkMatchesConsole() {
+    world.displayRoomInfo(3);
+    BufferedSink sink = new BufferedSink();
+    world.setOutput(sink);
+    world.displayRoomInfo(3);
+
+    String expected = console.toString().replace(System.lineSeparator(), "\n");
+    Assert.assertTrue(expected.startsWith("Room Name: "));
+    Assert.assertEquals(expected, sink.getText());
+
+    console.reset();
+    sink.flushTo(System.out);
+    Assert.assertEquals("", sink.getText());
+    Assert.assertEquals(expected, console.toString());
+  }
+
+  /**
+   * Tests that nothing is written through the no-op sink.
+   */
+  @Test
+  public void testNullSinkDiscards() {
+    Assert.assertFalse(NullSink.INSTANCE.isEnabled());
+    world.setOutput(NullSink.INSTANCE);
+    world.displayRoomInfo(0);
+    world.displayRoomInfo(-1);
+    ComputerPlayer player = new ComputerPlayer("Bot", world.getRoomByIndex(0).getCoordinates(),
+        5);
+    world.addPlayer(player);
+    for (int i = 0; i < 50; i++) {
+      player.takeTurn(world);
+    }
+    Assert.assertEquals(0, console.size());
+  }
+
+  /**
+   * Tests that a whole computer game is played without console output through the no-op sink.
+   */
+  @Test
+  public void testControllerWithNullSink() {
+    String input = "yes\ncomputer\nBot\n0\nno\n2\nno\n";
+    System.setIn(new ByteArrayInputStream(input.getBytes()));
+    GameController controller = new GameController(world, new GameView(), 20,
+        "res/test_log.txt", 3L);
+    controller.setOutput(NullSink.INSTANCE);
+    controller.startGame();
+    Assert.assertSame(NullSink.INSTANCE, world.getOutput());
+    Assert.assertEquals(0, console.size());
+  }
+}
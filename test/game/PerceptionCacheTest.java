@@ -0,0 +1,90 @@
+package game;
+
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the PerceptionCache class.
+ */
+public class PerceptionCacheTest {
+
+  private Igameworld world;
+  private PerceptionCache perception;
+  private Iplayer first;
+  private Iplayer second;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = MansionParser.parseMansion("res/mansion.txt");
+    perception = world.getPerception();
+    first = new Player("First", world.getRoomByIndex(1).getCoordinates(), 5);
+    second = new ComputerPlayer("Second", world.getRoomByIndex(1).getCoordinates(), 5);
+    world.addPlayer(first);
+    world.addPlayer(second);
+  }
+
+  /**
+   * Tests that listings are shared until the world changes.
+   */
+  @Test
+  public void testSharedUntilChanged() {
+    String block = perception.neighborBlock(1);
+    Assert.assertSame(block, perception.neighborBlock(1));
+    Assert.assertTrue(block.contains("  - First\n  - Second\n"));
+
+    long version = world.getVersion();
+    second.move(world.getRoomByIndex(2).getCoordinates());
+    Assert.assertNotEquals(version, world.getVersion());
+    String moved = perception.neighborBlock(1);
+    Assert.assertNotSame(block, moved);
+    Assert.assertFalse(moved.contains("Second"));
+  }
+
+  /**
+   * Tests that picking up an item refreshes the item listing of the room.
+   */
+  @Test
+  public void testItemPickupRefreshesListing() {
+    Iroom room = world.getRoomByIndex(0);
+    String before = perception.itemLines(0);
+    Iitem item = room.getItems().remove(0);
+    String after = perception.itemLines(0);
+    Assert.assertTrue(before.contains(item.getName()));
+    Assert.assertFalse(after.equals(before));
+    Assert.assertSame(after, perception.itemLines(0));
+  }
+
+  /**
+   * Tests the listing of the other players in a room.
+   */
+  @Test
+  public void testOtherOccupants() {
+    Assert.assertEquals(" - First\n - Second\n", perception.occupantLines(1));
+    Assert.assertEquals(" - Second\n", perception.otherOccupantLines(1, first));
+    Assert.assertEquals(" - First\n", perception.otherOccupantLines(1, second));
+    second.move(world.getRoomByIndex(2).getCoordinates());
+    Assert.assertEquals(" - No other players\n", perception.otherOccupantLines(1, first));
+    Assert.assertEquals(" - No other players\n", perception.otherOccupantLines(3, first));
+  }
+
+  /**
+   * Tests that many players looking around in one room each get their own correct view.
+   */
+  @Test
+  public void testCrowdedRoom() {
+    for (int i = 0; i < 300; i++) {
+      world.addPlayer(new ComputerPlayer("Bot " + i, world.getRoomByIndex(1).getCoordinates(),
+          5));
+    }
+    for (Iplayer player : world.getPlayers()) {
+      String view = player.lookAround(world);
+      Assert.assertFalse(view.contains(" - " + player.getName() + "\n"));
+      Assert.assertTrue(view.contains(" - Bot 299\n") || "Bot 299".equals(player.getName()));
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package game;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the PersistentIntVector class.
+ */
+public class PersistentIntVectorTest {
+
+  /**
+   * Tests that values read back as written for sizes around the node width.
+   */
+  @Test
+  public void testGet() {
+    for (int size : new int[] {1, 31, 32, 33, 1024, 1025, 40000}) {
+      int[] values = new int[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = i * 7;
+      }
+      PersistentIntVector vector = PersistentIntVector.of(values);
+      Assert.assertEquals(size, vector.size());
+      for (int i = 0; i < size; i++) {
+        Assert.assertEquals(i * 7, vector.get(i));
+      }
+    }
+  }
+
+  /**
+   * Tests that updates leave every earlier version unchanged.
+   */
+  @Test
+  public void testSetKeepsOldVersions() {
+    Random random = new Random(7);
+    int size = 3000;
+    int[][] expected = new int[50][];
+    PersistentIntVector[] versions = new PersistentIntVector[50];
+    int[] current = new int[size];
+    versions[0] = PersistentIntVector.of(current);
+    expected[0] = current.clone();
+    for (int v = 1; v < versions.length; v++) {
+      PersistentIntVector vector = versions[v - 1];
+      for (int k = 0; k < 20; k++) {
+        int index = random.nextInt(size);
+        current[index] = random.nextInt();
+        vector = vector.set(index, current[index]);
+      }
+      versions[v] = vector;
+      expected[v] = current.clone();
+    }
+    for (int v = 0; v < versions.length; v++) {
+      for (int i = 0; i < size; i++) {
+        Assert.assertEquals(expected[v][i], versions[v].get(i));
+      }
+    }
+    Assert.assertSame(versions[1], versions[1].set(0, versions[1].get(0)));
+  }
+
+  /**
+   * Tests that indices outside the vector are rejected.
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testOutOfRange() {
+    PersistentIntVector.of(new int[4]).get(4);
+  }
+}
@@ -0,0 +1,268 @@
+package game;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the PersistentWorld class.
+ */
+public class PersistentWorldTest {
+
+  private MansionTopology topology;
+  private PersistentWorld world;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    world = new PersistentWorld(topology, 42L);
+    world.addPlayer(new Player("Alice", topology.getRoomCoordinates(0), 3));
+    world.addPlayer(new ComputerPlayer("Bot", topology.getRoomCoordinates(1), 3));
+  }
+
+  /**
+   * Tests that changes to a fork do not show in the original world and the other way around.
+   */
+  @Test
+  public void testForkIsIndependent() {
+    PersistentWorld fork = world.fork();
+    Iplayer alice = fork.getPlayers().get(0);
+    Iitem picked = fork.pickItem(alice);
+    Assert.assertNotNull(picked);
+    alice.move(topology.getRoomCoordinates(5));
+    fork.getTarget().takeDamage(10);
+    fork.moveTarget();
+
+    Assert.assertEquals(1, alice.getItems().size());
+    Assert.assertEquals(0, world.getPlayers().get(0).getItems().size());
+    Assert.assertEquals(topology.getRoomCoordinates(0),
+        world.getPlayers().get(0).getCoordinates());
+    Assert.assertEquals(topology.getTargetHealth(), world.getTarget().getHealth());
+    Assert.assertEquals(0, world.getTargetRoomIndex());
+    Assert.assertEquals(1, fork.getTargetRoomIndex());
+    Assert.assertEquals(world.getRoomByIndex(0).getItems().size() - 1,
+        fork.getRoomByIndex(0).getItems().size());
+
+    world.getPet().move(topology.getRoomCoordinates(3));
+    Assert.assertEquals(0, fork.getPetRoomIndex());
+  }
+
+  /**
+   * Tests that forks of the same state play the same turns.
+   */
+  @Test
+  public void testForksReplayTurns() {
+    PersistentWorld first = world.fork();
+    PersistentWorld second = world.fork();
+    for (int turn = 0; turn < 200; turn++) {
+      first.nextTurn();
+      first.moveTarget();
+      second.nextTurn();
+      second.moveTarget();
+    }
+    Iplayer firstBot = first.getPlayers().get(1);
+    Iplayer secondBot = second.getPlayers().get(1);
+    Assert.assertEquals(firstBot.getPackedCoordinates(), secondBot.getPackedCoordinates());
+    Assert.assertEquals(firstBot.getItems(), secondBot.getItems());
+    Assert.assertEquals(first.getTarget().getHealth(), second.getTarget().getHealth());
+    Assert.assertEquals(first.getPetRoomIndex(), second.getPetRoomIndex());
+    Assert.assertEquals(topology.getRoomCoordinates(1),
+        world.getPlayers().get(1).getCoordinates());
+  }
+
+  /**
+   * Tests that players see the same surroundings as in a game world in the same situation.
+   */
+  @Test
+  public void testLookAroundMatchesGameWorld() {
+    Igameworld reference = topology.createWorld();
+    reference.addPlayer(new Player("Alice", topology.getRoomCoordinates(0), 3));
+    reference.addPlayer(new ComputerPlayer("Bot", topology.getRoomCoordinates(1), 3));
+    reference.getPet().move(topology.getRoomCoordinates(4));
+    world.getPet().move(topology.getRoomCoordinates(4));
+    for (int p = 0; p < 2; p++) {
+      Assert.assertEquals(reference.getPlayers().get(p).lookAround(reference),
+          world.getPlayers().get(p).lookAround(world));
+    }
+  }
+
+  /**
+   * Tests that an unseen attack uses up the strongest item and damages the target.
+   */
+  @Test
+  public void testAttack() {
+    world.getPet().move(topology.getRoomCoordinates(20));
+    Iplayer alice = world.getPlayers().get(0);
+    alice.addItem(new Item("Weak", 2, 0));
+    alice.addItem(new Item("Strong", 6, 0));
+    world.getPlayers().get(1).move(topology.getRoomCoordinates(20));
+    if (world.findObserver(alice) == null) {
+      String result = alice.attack(world.getTarget(), world);
+      Assert.assertEquals("Player Alice attacked " + topology.getTargetName()
+          + " with 6 damage.", result);
+      Assert.assertEquals(topology.getTargetHealth() - 6, world.getTarget().getHealth());
+      Assert.assertEquals(1, alice.getItems().size());
+    }
+  }
+
+  /**
+   * Tests that an item taken from a room of a fork leaves that room only, and only once.
+   */
+  @Test
+  public void testPickItemInForkedWorld() {
+    PersistentWorld fork = world.fork();
+    Iplayer alice = fork.getPlayers().get(0);
+    Iroom room = fork.getRoomByIndex(0);
+    int before = room.getItems().size();
+    Iitem first = room.getItems().get(0);
+
+    alice.addItem(room.getItems().remove(0));
+    Assert.assertEquals(before - 1, room.getItems().size());
+    Assert.assertFalse(room.getItems().contains(first));
+    Assert.assertEquals(1, alice.getItems().size());
+    Assert.assertSame(first, alice.getItems().get(0));
+    Assert.assertEquals(before, world.getRoomByIndex(0).getItems().size());
+    Assert.assertEquals(0, world.getPlayers().get(0).getItems().size());
+
+    alice.getItems().remove(0);
+    Assert.assertEquals(0, alice.getItems().size());
+    room.addItem(first);
+    Assert.assertEquals(before, room.getItems().size());
+    Assert.assertSame(first, room.getItems().get(before - 1));
+    Assert.assertSame(first, fork.pickItem(alice));
+    Assert.assertEquals(before - 1, room.getItems().size());
+  }
+
+  /**
+   * Tests that a room added to a world joins its map and keeps its items, and that forks made
+   * before do not get it.
+   */
+  @Test
+  public void testAddRoom() {
+    PersistentWorld fork = world.fork();
+    Tuple<Integer, Integer> end = topology.getRoomEndingCoordinates(0);
+    Room annex = new Room("Annex",
+        new Tuple<>(end.getFirst() + 1, topology.getRoomCoordinates(0).getSecond()),
+        new Tuple<>(end.getFirst() + 2, end.getSecond()));
+    Item key = new Item("Key", 1, topology.getRoomCount());
+    annex.addItem(key);
+    world.addRoom(annex);
+
+    int index = topology.getRoomCount();
+    Assert.assertEquals(index + 1, world.getRooms().size());
+    Iroom added = world.getRoomByIndex(index);
+    Assert.assertEquals("Annex", added.getName());
+    Assert.assertEquals(1, added.getItems().size());
+    Assert.assertSame(key, added.getItems().get(0));
+    Assert.assertTrue(world.getNeighbors(world.getRoomByIndex(0)).contains(added));
+    Assert.assertTrue(world.getRoomByIndex(0).isNeighbor(annex));
+    Assert.assertEquals(1, world.getDistance(0, index));
+    Assert.assertEquals(index, fork.getRooms().size());
+  }
+
+  /**
+   * Tests that the player added to a world stands for its view in the world's methods, and is
+   * not changed by them.
+   */
+  @Test
+  public void testAddedPlayerStandsForView() {
+    Iplayer carol = new Player("Carol", topology.getRoomCoordinates(0), 3);
+    world.addPlayer(carol);
+    Iplayer view = world.getPlayers().get(2);
+    int neighbor = world.getRoomGraph().neighborAt(world.getRoomGraph().neighborStart(0));
+
+    world.movePlayer(carol, topology.getRoomCoordinates(neighbor));
+    Assert.assertEquals(neighbor, world.getRoomIndexByCoordinates(view.getPackedCoordinates()));
+    Assert.assertEquals(topology.getRoomCoordinates(0), carol.getCoordinates());
+
+    Iitem picked = world.pickItem(carol);
+    Assert.assertNotNull(picked);
+    Assert.assertSame(picked, view.getItems().get(0));
+    Assert.assertTrue(carol.getItems().isEmpty());
+    Assert.assertNotSame(view, world.findObserver(carol));
+
+    PersistentWorld fork = world.fork();
+    fork.movePlayer(view, topology.getRoomCoordinates(0));
+    Assert.assertEquals(0, fork.getRoomIndexByCoordinates(
+        fork.getPlayers().get(2).getPackedCoordinates()));
+    Assert.assertEquals(neighbor, world.getRoomIndexByCoordinates(view.getPackedCoordinates()));
+  }
+
+  /**
+   * Tests that a computer player's view takes its turns the way the player added does, acting
+   * through the view.
+   */
+  @Test
+  public void testViewsKeepStrategies() {
+    Stepper stepper = new Stepper(topology.getRoomCoordinates(0));
+    world.addPlayer(stepper);
+    PersistentWorld fork = world.fork();
+    Iplayer view = fork.getPlayers().get(2);
+    fork.nextTurn();
+    Assert.assertSame(view, stepper.played);
+    Assert.assertEquals(world.getRoomGraph().neighborAt(world.getRoomGraph().neighborStart(0)),
+        fork.getRoomIndexByCoordinates(view.getPackedCoordinates()));
+    Assert.assertEquals(topology.getRoomCoordinates(0), stepper.getCoordinates());
+    Assert.assertEquals(0,
+        world.getRoomIndexByCoordinates(world.getPlayers().get(2).getPackedCoordinates()));
+  }
+
+  /**
+   * Tests that a player whose rules the world cannot follow is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testOtherPlayersAreRejected() {
+    world.addPlayer(new Player("Mallory", topology.getRoomCoordinates(0), 3) {
+      @Override
+      public void takeTurn(Igameworld world) {
+        move(topology.getRoomCoordinates(1));
+      }
+    });
+  }
+
+  /**
+   * Tests that rooms and players hand out the same item list until their items change.
+   */
+  @Test
+  public void testItemListsAreReused() {
+    Iroom room = world.getRoomByIndex(0);
+    Iplayer alice = world.getPlayers().get(0);
+    ItemList items = room.getItems();
+    Assert.assertSame(items, room.getItems());
+    ItemList carried = alice.getItems();
+    Assert.assertSame(carried, alice.getItems());
+    Assert.assertSame(world.getPlayers(), world.getPlayers());
+
+    alice.addItem(items.remove(0));
+    Assert.assertSame(carried, alice.getItems());
+    Assert.assertEquals(1, carried.size());
+    Assert.assertNotSame(items, room.getItems());
+    Assert.assertEquals(items, room.getItems());
+  }
+
+  /**
+   * A computer player that always steps into the first neighbor of its room.
+   */
+  private static final class Stepper extends ComputerPlayer {
+    private Iplayer played;
+
+    Stepper(Tuple<Integer, Integer> coordinates) {
+      super("Stepper", coordinates, 3);
+    }
+
+    @Override
+    public String playTurn(Iplayer self, Igameworld world, SplittableRandom random,
+        boolean report) {
+      played = self;
+      RoomGraph graph = world.getRoomGraph();
+      int room = world.getRoomIndexByCoordinates(self.getPackedCoordinates());
+      self.move(graph.roomAt(graph.neighborAt(graph.neighborStart(room))).getCoordinates());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package game;
+
+import java.io.IOException;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the RoomGraph class.
+ */
+public class RoomGraphTest {
+
+  private Igameworld world;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = MansionParser.parseMansion("res/mansion.txt");
+  }
+
+  /**
+   * Tests that the graph agrees with the pairwise neighbor check for every room.
+   */
+  @Test
+  public void testMatchesIsNeighbor() {
+    RoomGraph graph = world.getRoomGraph();
+    List<Iroom> rooms = world.getRooms();
+    Assert.assertEquals(rooms.size(), graph.size());
+    for (int i = 0; i < rooms.size(); i++) {
+      for (int j = 0; j < rooms.size(); j++) {
+        boolean expected = i != j && rooms.get(i).isNeighbor((Room) rooms.get(j));
+        Assert.assertEquals(expected, graph.isNeighbor(i, j));
+      }
+    }
+  }
+
+  /**
+   * Tests that neighbors are listed in ascending room index order.
+   */
+  @Test
+  public void testNeighborsInIndexOrder() {
+    RoomGraph graph = world.getRoomGraph();
+    for (int i = 0; i < graph.size(); i++) {
+      List<Iroom> neighbors = graph.neighbors(i);
+      Assert.assertEquals(graph.degree(i), neighbors.size());
+      for (int k = 1; k < neighbors.size(); k++) {
+        Assert.assertTrue(graph.indexOf(neighbors.get(k - 1)) < graph.indexOf(neighbors.get(k)));
+      }
+    }
+  }
+
+  /**
+   * Tests that the graph is rebuilt when a room is added to the world.
+   */
+  @Test
+  public void testRebuiltAfterAddRoom() {
+    Iroom room = new Room("Annex", new Tuple<>(36, 0), new Tuple<>(37, 5));
+    world.addRoom(room);
+    RoomGraph graph = world.getRoomGraph();
+    Assert.assertEquals(22, graph.size());
+    Assert.assertEquals(21, world.getRoomIndex(room));
+    Assert.assertEquals("Carriage House", world.getNeighbors(room).get(0).getName());
+  }
+
+  /**
+   * Tests that the neighbor list returned by the world is shared between calls.
+   */
+  @Test
+  public void testNeighborListShared() {
+    Iroom room = world.getRoomByIndex(0);
+    Assert.assertSame(world.getNeighbors(room), world.getNeighbors(room));
+  }
+}
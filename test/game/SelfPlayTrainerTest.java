@@ -0,0 +1,105 @@
+package game;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the SelfPlayTrainer class.
+ */
+public class SelfPlayTrainerTest {
+
+  private MansionTopology topology;
+  private SelfPlayTrainer trainer;
+
+  /**
+   * Sets up the test environment with a trainer for games of four players.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    trainer = new SelfPlayTrainer(topology, 4, 300);
+  }
+
+  /**
+   * Tests that a seed trains the same policy however many threads play the games.
+   */
+  @Test
+  public void testSameSeedSamePolicy() {
+    ForkJoinPool single = new ForkJoinPool(1);
+    ForkJoinPool many = new ForkJoinPool(4);
+    try {
+      TabularPolicy first = trainer.train(2, 300, 7L, single);
+      TabularPolicy second = trainer.train(2, 300, 7L, many);
+      Assert.assertArrayEquals(first.toArray(), second.toArray(), 0f);
+      Assert.assertNotEquals(0, countLearned(first));
+    } finally {
+      single.shutdown();
+      many.shutdown();
+    }
+  }
+
+  /**
+   * Tests that a trained player beats players who act at random more often than its share.
+   */
+  @Test
+  public void testTrainedPlayerBeatsRandomPlayers() {
+    TabularPolicy policy = trainer.train(6, 1000, 1L);
+    SplittableRandom random = new SplittableRandom(5L);
+    SimulationEngine engine = new SimulationEngine();
+    int games = 400;
+    int wins = 0;
+    for (int game = 0; game < games; game++) {
+      int[] startRooms = new int[4];
+      for (int i = 0; i < startRooms.length; i++) {
+        startRooms[i] = random.nextInt(topology.getRoomCount());
+      }
+      List<ComputerPlayer> roster = SimulationEngine.createRoster(topology, startRooms,
+          random.split());
+      int seat = game % 4;
+      roster.set(seat, new PolicyPlayer("Learned", topology.getRoomCoordinates(startRooms[seat]),
+          SimulationEngine.MAX_ITEMS, policy, random.split()));
+      GameResult result = engine.play(topology.createWorld(), roster,
+          random.nextInt(topology.getRoomCount()), 1000);
+      wins += result.getWinner() == seat ? 1 : 0;
+    }
+    Assert.assertTrue("Won " + wins + " of " + games, wins > games * 35 / 100);
+  }
+
+  /**
+   * Tests that invalid settings are rejected.
+   */
+  @Test
+  public void testInvalidSettings() {
+    try {
+      trainer.setLearningRate(0);
+      Assert.fail("A learning rate of 0 should be rejected");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+    try {
+      trainer.setDiscount(1.5);
+      Assert.fail("A discount above 1 should be rejected");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+    try {
+      trainer.train(-1, 10, 1L);
+      Assert.fail("A negative number of epochs should be rejected");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  private static int countLearned(TabularPolicy policy) {
+    int learned = 0;
+    for (float value : policy.toArray()) {
+      learned += value != 0f ? 1 : 0;
+    }
+    return learned;
+  }
+}
@@ -0,0 +1,102 @@
+package game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the SimulationEngine class.
+ */
+public class SimulationEngineTest {
+
+  private MansionTopology topology;
+  private SimulationEngine engine;
+  private PrintStream originalOut;
+  private ByteArrayOutputStream output;
+
+  /**
+   * Sets up the test environment and captures the console output.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    engine = new SimulationEngine();
+    originalOut = System.out;
+    output = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(output));
+  }
+
+  /**
+   * Restores the console output.
+   */
+  @After
+  public void tearDown() {
+    System.setOut(originalOut);
+  }
+
+  /**
+   * Tests that a player alone with a target that stays put kills it without printing.
+   */
+  @Test
+  public void testKillsStaticTarget() {
+    GameWorld world = topology.createWorld();
+    world.setTargetShouldMove(false);
+    List<ComputerPlayer> roster = SimulationEngine.createRoster(topology, new int[] {0},
+        new SplittableRandom(1));
+    GameResult result = engine.play(world, roster, 5, 1000);
+    Assert.assertTrue(result.isTargetKilled());
+    Assert.assertEquals(0, result.getWinner());
+    Assert.assertEquals("Computer 1", result.getWinnerName());
+    Assert.assertEquals(0, result.getTargetHealth());
+    Assert.assertTrue(result.getTurns() <= topology.getTargetHealth());
+    Assert.assertEquals(0, output.size());
+  }
+
+  /**
+   * Tests that every game ends within the turn limit with a consistent outcome.
+   */
+  @Test
+  public void testBatchOutcomes() {
+    List<GameResult> results = engine.playGames(topology, new int[] {0, 3, 7}, 2, 60, 200,
+        5L);
+    Assert.assertEquals(200, results.size());
+    for (GameResult result : results) {
+      Assert.assertTrue(result.getTurns() <= 60);
+      Assert.assertEquals(result.isTargetKilled(), result.getTargetHealth() == 0);
+      Assert.assertEquals(result.isTargetKilled(), result.getWinner() >= 0);
+      for (Iitem item : result.getUsedItems()) {
+        Assert.assertNotNull(item);
+      }
+    }
+    Assert.assertEquals(0, output.size());
+  }
+
+  /**
+   * Tests that games played from the same seed are played the same way.
+   */
+  @Test
+  public void testSameSeedReplaysGames() {
+    int[] startRooms = {1, 6};
+    List<GameResult> first = engine.playGames(topology, startRooms, 4, 80, 50, 99L);
+    List<GameResult> second = engine.playGames(topology, startRooms, 4, 80, 50, 99L);
+    for (int g = 0; g < first.size(); g++) {
+      Assert.assertEquals(first.get(g).toString(), second.get(g).toString());
+      Assert.assertEquals(first.get(g).getUsedItems(), second.get(g).getUsedItems());
+    }
+  }
+
+  /**
+   * Tests that a game without players is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyRoster() {
+    engine.play(topology.createWorld(), SimulationEngine.createRoster(topology, new int[0],
+        new SplittableRandom(1)), 0, 10);
+  }
+}
@@ -0,0 +1,92 @@
+package game;
+
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the StealthPlanner class and the stealthy InterceptPlayer.
+ */
+public class StealthPlannerTest {
+
+  private MansionTopology topology;
+  private GameWorld world;
+  private InterceptPlayer hunter;
+
+  /**
+   * Sets up the test environment with a hunter in the target's room.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    world = topology.createWorld();
+    world.setOutput(NullSink.INSTANCE);
+    world.movePet(topology.getRoomCoordinates(20));
+    hunter = new InterceptPlayer("Hunter", topology.getRoomCoordinates(0), 5);
+    world.addPlayer(hunter);
+  }
+
+  /**
+   * Tests that an attack alone with the target is a window right away.
+   */
+  @Test
+  public void testAloneWithTarget() {
+    StealthPlanner planner = new StealthPlanner(world);
+    Assert.assertTrue(planner.canAttackUnseen(hunter));
+    Assert.assertEquals(0, planner.score(hunter, 0));
+    Assert.assertEquals(0, planner.findWindow(hunter));
+  }
+
+  /**
+   * Tests that a watcher in the room makes the planner wait for a later room.
+   */
+  @Test
+  public void testWaitsForUnobservedRoom() {
+    Iplayer watcher = new Player("Watcher", topology.getRoomCoordinates(0), 5);
+    world.addPlayer(watcher);
+    StealthPlanner planner = new StealthPlanner(world);
+    Assert.assertFalse(planner.canAttackUnseen(hunter));
+    Assert.assertEquals(1, planner.countObservers(hunter, 0));
+
+    int window = planner.findWindow(hunter);
+    Assert.assertTrue(window > 0);
+    int room = world.getTargetRoomAfter(window);
+    Assert.assertEquals(0, planner.score(hunter, window));
+    Assert.assertTrue(world.getDistance(0, room) <= window);
+    for (int moves = 0; moves < window; moves++) {
+      Assert.assertNotEquals(0, planner.score(hunter, moves));
+    }
+  }
+
+  /**
+   * Tests that the pet hides an attack from the players next door.
+   */
+  @Test
+  public void testPetHidesAttack() {
+    RoomGraph graph = topology.getRoomGraph();
+    int neighbor = graph.neighborAt(graph.neighborStart(0));
+    world.addPlayer(new Player("Neighbor", topology.getRoomCoordinates(neighbor), 5));
+    StealthPlanner planner = new StealthPlanner(world);
+    Assert.assertFalse(planner.canAttackUnseen(hunter));
+    world.movePet(topology.getRoomCoordinates(0));
+    Assert.assertTrue(planner.canAttackUnseen(hunter));
+  }
+
+  /**
+   * Tests that the hunter does not waste its turn on an attack that would be seen.
+   */
+  @Test
+  public void testHunterHoldsBackWhenWatched() {
+    world.addPlayer(new Player("Watcher", topology.getRoomCoordinates(0), 5));
+    int health = world.getTarget().getHealth();
+    hunter.playTurn(world, false);
+    Assert.assertEquals(health, world.getTarget().getHealth());
+
+    world.getPlayers().get(1).move(topology.getRoomCoordinates(15));
+    hunter.move(world.getTarget().getCoordinates());
+    Assert.assertTrue(new StealthPlanner(world).canAttackUnseen(hunter));
+    hunter.playTurn(world, false);
+    Assert.assertTrue(world.getTarget().getHealth() < health);
+  }
+}
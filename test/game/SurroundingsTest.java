@@ -0,0 +1,112 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the Surroundings class.
+ */
+public class SurroundingsTest {
+
+  private Iroom hall;
+  private Iroom study;
+  private Igameworld world;
+  private Iplayer player;
+  private Iplayer other;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() {
+    hall = new Room("Hall", new Tuple<>(0, 0), new Tuple<>(1, 1));
+    study = new Room("Study", new Tuple<>(1, 2), new Tuple<>(2, 3));
+    hall.addItem(new Item("Rope", 2, 0));
+    hall.addItem(new Item("Sword", 5, 0));
+    List<Iroom> rooms = new ArrayList<>(Arrays.asList(hall, study));
+    world = new GameWorld(10, 10, "Test World", new Target(50, "Boss", study.getCoordinates()),
+        new Pet("Cat", hall.getCoordinates()), rooms);
+    player = new Player("Alice", hall.getCoordinates(), 5);
+    other = new ComputerPlayer("Bot", study.getCoordinates(), 5);
+    world.addPlayer(player);
+    world.addPlayer(other);
+  }
+
+  /**
+   * Tests the facts about the player's own room and its neighbors.
+   */
+  @Test
+  public void testFacts() {
+    Surroundings surroundings = player.lookAt(world);
+    Assert.assertSame(player, surroundings.getPlayer());
+    Assert.assertEquals(0, surroundings.getRoomIndex());
+    Assert.assertSame(hall, surroundings.getRoom());
+    Assert.assertEquals(5, surroundings.getItems().peekStrongest().getDamage());
+    Assert.assertEquals(0, surroundings.countOtherPlayers(0));
+    Assert.assertEquals(1, surroundings.countOtherPlayers(1));
+    Assert.assertEquals(Arrays.asList(other), surroundings.getOtherPlayers(1));
+    Assert.assertEquals(1, surroundings.getNeighborCount());
+    Assert.assertEquals(1, surroundings.getNeighbor(0));
+    Assert.assertTrue(surroundings.isPetHere());
+    Assert.assertFalse(surroundings.isTargetHere());
+    Assert.assertEquals(1, surroundings.getTargetRoomIndex());
+    Assert.assertTrue(surroundings.canSeeInto(1));
+    Assert.assertTrue(surroundings.isTargetVisible());
+  }
+
+  /**
+   * Tests that the pet blocks the view into its room.
+   */
+  @Test
+  public void testPetBlocksNeighbor() {
+    world.movePet(study.getCoordinates());
+    Surroundings surroundings = player.lookAt(world);
+    Assert.assertFalse(surroundings.isPetHere());
+    Assert.assertFalse(surroundings.canSeeInto(1));
+    Assert.assertFalse(surroundings.isTargetVisible());
+    Assert.assertTrue(surroundings.canSeeInto(0));
+  }
+
+  /**
+   * Tests that the description is the text shown by lookAround.
+   */
+  @Test
+  public void testDescription() {
+    String expected = "Player Alice is in: Hall.\n"
+        + "Items in the room:\n"
+        + " - Rope (Damage: 2)\n"
+        + " - Sword (Damage: 5)\n"
+        + "Players in the room:\n"
+        + " - No other players\n"
+        + "Pet: Cat is here.\n"
+        + "Visible rooms:\n"
+        + " - Study\n"
+        + "Items in Study:\n"
+        + "  - No items\n"
+        + "Players in Study:\n"
+        + "  - Bot\n"
+        + "Target: Boss is here.\n";
+    Assert.assertEquals(expected, player.lookAt(world).toString());
+    Assert.assertEquals(expected, player.lookAround(world));
+
+    world.movePet(study.getCoordinates());
+    Assert.assertEquals("Player Bot is in: Study.\n"
+        + "Items in the room:\n"
+        + " - No items\n"
+        + "Players in the room:\n"
+        + " - No other players\n"
+        + "Pet: Cat is here.\n"
+        + "Target: Boss is here.\n"
+        + "Visible rooms:\n"
+        + " - Hall\n"
+        + "Items in Hall:\n"
+        + "  - Rope (Damage: 2)\n"
+        + "  - Sword (Damage: 5)\n"
+        + "Players in Hall:\n"
+        + "  - Alice\n", other.lookAround(world));
+  }
+}
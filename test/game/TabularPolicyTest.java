@@ -0,0 +1,196 @@
+package game;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the TabularPolicy and PolicyPlayer classes.
+ */
+public class TabularPolicyTest {
+
+  private MansionTopology topology;
+  private GameWorld world;
+  private TabularPolicy policy;
+
+  /**
+   * Sets up the test environment with an empty policy for the mansion.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+    world = topology.createWorld();
+    world.setOutput(NullSink.INSTANCE);
+    world.movePet(topology.getRoomCoordinates(20));
+    policy = TabularPolicy.create(topology);
+  }
+
+  /**
+   * Tests that the states of all players fit the policy and tell their situations apart.
+   */
+  @Test
+  public void testEncode() {
+    Assert.assertTrue(policy.fits(world));
+    Assert.assertEquals(topology.getRoomCount() * TabularPolicy.DISTANCES
+        * TabularPolicy.DAMAGES * TabularPolicy.OBSERVERS, policy.getStateCount());
+    for (int room = 0; room < topology.getRoomCount(); room++) {
+      Iplayer player = new ComputerPlayer("Bot", topology.getRoomCoordinates(room), 5);
+      int state = policy.encode(world, player);
+      Assert.assertTrue(state >= 0 && state < policy.getStateCount());
+    }
+
+    Iplayer hunter = new ComputerPlayer("Hunter", topology.getRoomCoordinates(0), 5);
+    world.addPlayer(hunter);
+    int alone = policy.encode(world, hunter);
+    world.addPlayer(new ComputerPlayer("Watcher", topology.getRoomCoordinates(0), 5));
+    Assert.assertEquals(alone + 1, policy.encode(world, hunter));
+    hunter.addItem(topology.getItem(0));
+    Assert.assertNotEquals(alone + 1, policy.encode(world, hunter));
+  }
+
+  /**
+   * Tests the possible actions and that the best action is chosen among them only.
+   */
+  @Test
+  public void testBestPossibleAction() {
+    Iplayer hunter = new ComputerPlayer("Hunter", topology.getRoomCoordinates(0), 5);
+    world.addPlayer(hunter);
+    int mask = TabularPolicy.validActions(world, hunter);
+    Assert.assertTrue((mask & 1 << TabularPolicy.ATTACK) != 0);
+    Assert.assertEquals(0, mask & 1 << TabularPolicy.APPROACH);
+
+    int state = policy.encode(world, hunter);
+    policy.setValue(state, TabularPolicy.APPROACH, 5f);
+    policy.setValue(state, TabularPolicy.ATTACK, 2f);
+    Assert.assertEquals(TabularPolicy.ATTACK, policy.bestAction(state, mask));
+    Assert.assertEquals(2f, policy.bestValue(state, mask), 0f);
+    Assert.assertEquals(TabularPolicy.APPROACH, policy.bestAction(state, -1));
+    Assert.assertEquals(TabularPolicy.WAIT, policy.bestAction(state, 1 << TabularPolicy.WAIT));
+  }
+
+  /**
+   * Tests that a saved policy maps back with the same values and cannot be changed.
+   */
+  @Test
+  public void testSaveAndLoad() throws IOException {
+    for (int state = 0; state < policy.getStateCount(); state += 7) {
+      policy.setValue(state, state % TabularPolicy.ACTIONS, state * 0.25f);
+    }
+    File file = File.createTempFile("policy", ".bin");
+    file.deleteOnExit();
+    policy.save(file.getPath());
+    Assert.assertEquals(7 * 4 + 8 + policy.getStateCount() * TabularPolicy.ACTIONS * 4,
+        file.length());
+
+    TabularPolicy loaded = TabularPolicy.load(file.getPath());
+    Assert.assertEquals(policy.getRoomCount(), loaded.getRoomCount());
+    Assert.assertEquals(policy.getLayoutHash(), loaded.getLayoutHash());
+    Assert.assertTrue(loaded.fits(world));
+    for (int state = 0; state < policy.getStateCount(); state++) {
+      for (int action = 0; action < TabularPolicy.ACTIONS; action++) {
+        Assert.assertEquals(policy.getValue(state, action), loaded.getValue(state, action), 0f);
+      }
+    }
+    try {
+      loaded.setValue(0, 0, 1f);
+      Assert.fail("A loaded policy should be read-only");
+    } catch (ReadOnlyBufferException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Tests that a file that is not a policy is rejected.
+   */
+  @Test(expected = IOException.class)
+  public void testLoadRejectsOtherFiles() throws IOException {
+    File file = File.createTempFile("policy", ".bin");
+    file.deleteOnExit();
+    try (OutputStream out = new FileOutputStream(file)) {
+      out.write(new byte[64]);
+    }
+    TabularPolicy.load(file.getPath());
+  }
+
+  /**
+   * Tests that a policy player attacks or steps toward the target as its policy says.
+   */
+  @Test
+  public void testPolicyPlayerFollowsPolicy() {
+    int start = 5;
+    PolicyPlayer player = new PolicyPlayer("Learned", topology.getRoomCoordinates(start), 5,
+        policy, new SplittableRandom(3L));
+    world.addPlayer(player);
+    int targetRoom = world.getTargetRoomIndex();
+    int distance = world.getDistance(start, targetRoom);
+    Assert.assertTrue(distance > 0);
+
+    int state = policy.encode(world, player);
+    policy.setValue(state, TabularPolicy.APPROACH, 1f);
+    Assert.assertNull(player.playTurn(world, false));
+    int room = world.getRoomIndexByCoordinates(player.getPackedCoordinates());
+    Assert.assertEquals(world.getInterceptPlanner().getNextRoom(start, world.getTargetStep()),
+        room);
+
+    player.move(world.getTarget().getCoordinates());
+    policy.setValue(policy.encode(world, player), TabularPolicy.ATTACK, 1f);
+    int health = world.getTarget().getHealth();
+    player.playTurn(world, false);
+    Assert.assertEquals(health - 1, world.getTarget().getHealth());
+  }
+
+  /**
+   * Tests that a policy made for another mansion is not used.
+   */
+  @Test
+  public void testOtherMansionFallsBack() {
+    Tuple<Integer, Integer> end = topology.getRoomEndingCoordinates(0);
+    Room annex = new Room("Annex",
+        new Tuple<>(end.getFirst() + 1, topology.getRoomCoordinates(0).getSecond()),
+        new Tuple<>(end.getFirst() + 2, end.getSecond()));
+    TabularPolicy other = TabularPolicy.create(topology.withRoom(annex));
+    Assert.assertEquals(topology.getRoomCount() + 1, other.getRoomCount());
+    Assert.assertFalse(other.fits(world));
+    PolicyPlayer player = new PolicyPlayer("Learned", world.getTarget().getCoordinates(), 5,
+        other, new SplittableRandom(3L));
+    world.addPlayer(player);
+    int health = world.getTarget().getHealth();
+    player.playTurn(world, false);
+    Assert.assertEquals(health - 1, world.getTarget().getHealth());
+  }
+
+  /**
+   * Tests that a policy fits every world of its mansion but not a mansion with as many rooms
+   * laid out differently.
+   */
+  @Test
+  public void testLayoutMustMatch() {
+    Assert.assertTrue(policy.fits(topology.createWorld()));
+    Assert.assertEquals(policy.getLayoutHash(),
+        TabularPolicy.layoutHash(world.getRoomGraph()));
+
+    List<Iroom> rooms = new ArrayList<>();
+    for (int room = 0; room < topology.getRoomCount(); room++) {
+      rooms.add(new Room(topology.getRoomName(room), topology.getRoomCoordinates(room),
+          topology.getRoomEndingCoordinates(room)));
+    }
+    Collections.swap(rooms, 0, 1);
+    MansionTopology swapped = new MansionTopology(topology.getRows(), topology.getColumns(),
+        topology.getName(), topology.getTargetName(), topology.getTargetHealth(),
+        topology.getPetName(), rooms, new ArrayList<Iitem>());
+    TabularPolicy other = TabularPolicy.create(swapped);
+    Assert.assertEquals(policy.getRoomCount(), other.getRoomCount());
+    Assert.assertNotEquals(policy.getLayoutHash(), other.getLayoutHash());
+    Assert.assertFalse(other.fits(world));
+    Assert.assertFalse(policy.fits(swapped.createWorld()));
+  }
+}
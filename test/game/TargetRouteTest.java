@@ -0,0 +1,165 @@
+package game;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the TargetRoute class and the worlds that move the target along it.
+ */
+public class TargetRouteTest {
+
+  private MansionTopology topology;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    topology = MansionParser.parseTopology("res/mansion.txt");
+  }
+
+  /**
+   * Tests the route that visits every room in index order.
+   */
+  @Test
+  public void testIndexOrder() {
+    TargetRoute route = TargetRoute.inIndexOrder(5);
+    Assert.assertEquals(5, route.getLength());
+    Assert.assertEquals(3, route.getRoom(3));
+    Assert.assertEquals(1, route.getRoom(6));
+    Assert.assertEquals(4, route.getStep(4));
+    Assert.assertEquals(0, route.next(4));
+    Assert.assertEquals(2, route.roomAfter(4, 3));
+    Assert.assertEquals(4, route.roomAfter(4, 1000000000005L));
+  }
+
+  /**
+   * Tests a patrol that visits a room twice and skips others.
+   */
+  @Test
+  public void testPatrol() {
+    TargetRoute route = TargetRoute.patrol(new int[] {2, 7, 2, 5}, 8);
+    Assert.assertEquals(4, route.getLength());
+    Assert.assertEquals(0, route.getStep(2));
+    Assert.assertEquals(3, route.getStep(5));
+    Assert.assertEquals(-1, route.getStep(0));
+    Assert.assertEquals(-1, route.getStep(8));
+    Assert.assertEquals(5, route.roomAfter(1, 2));
+    try {
+      TargetRoute.patrol(new int[] {1, 8}, 8);
+      Assert.fail("Patrol through a missing room was accepted");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Tests that a tour visits every room and only ever moves to a neighboring room.
+   */
+  @Test
+  public void testTour() {
+    RoomGraph graph = topology.getRoomGraph();
+    TargetRoute route = TargetRoute.tour(topology.getDistances(), 0);
+    Assert.assertEquals(0, route.getRoom(0));
+    for (int room = 0; room < graph.size(); room++) {
+      Assert.assertTrue(route.getStep(room) >= 0);
+    }
+    for (int step = 0; step < route.getLength(); step++) {
+      Assert.assertTrue(graph.isNeighbor(route.getRoom(step), route.getRoom(step + 1)));
+    }
+  }
+
+  /**
+   * Tests that a world moves its target along the route and predicts where it will be.
+   */
+  @Test
+  public void testWorldFollowsRoute() {
+    GameWorld world = topology.createWorld();
+    Assert.assertEquals(1, world.getTargetRoomAfter(1));
+    Assert.assertEquals(0, world.getTargetRoomAfter(21));
+
+    world.setTargetRoute(TargetRoute.tour(topology.getDistances(), 0));
+    int[] predicted = new int[30];
+    for (int k = 0; k < predicted.length; k++) {
+      predicted[k] = world.getTargetRoomAfter(k);
+    }
+    for (int k = 0; k < predicted.length; k++) {
+      Assert.assertEquals(predicted[k], world.getTargetRoomIndex());
+      world.moveTarget();
+    }
+  }
+
+  /**
+   * Tests that a target moved off its route goes back to the start of the route.
+   */
+  @Test
+  public void testTargetOffRoute() {
+    PersistentWorld world = new PersistentWorld(topology, 1L);
+    world.setTargetRoute(TargetRoute.patrol(new int[] {4, 6}, topology.getRoomCount()));
+    world.getTarget().moveTarget(topology.getRoomCoordinates(9));
+    Assert.assertEquals(4, world.getTargetRoomAfter(1));
+    world.moveTarget();
+    Assert.assertEquals(4, world.getTargetRoomIndex());
+    world.moveTarget();
+    Assert.assertEquals(6, world.getTargetRoomIndex());
+    world.moveTarget();
+    Assert.assertEquals(4, world.getTargetRoomIndex());
+
+    GameState state = topology.initialState();
+    state.moveTarget();
+    Assert.assertEquals(1, state.getTargetRoom());
+    state.setTargetRoom(20);
+    state.moveTarget();
+    Assert.assertEquals(0, state.getTargetRoom());
+  }
+
+  /**
+   * Tests reading a patrol from the mansion description.
+   */
+  @Test
+  public void testPatrolFromFile() throws IOException {
+    File file = File.createTempFile("patrol", ".txt");
+    file.deleteOnExit();
+    String mansion = new String(Files.readAllBytes(Paths.get("res/mansion.txt")),
+        StandardCharsets.UTF_8);
+    Files.write(file.toPath(), (mansion.trim() + "\n3\n5\n8\n3\n")
+        .getBytes(StandardCharsets.UTF_8));
+
+    MansionTopology patrolled = MansionParser.parseTopology(file.getPath());
+    Assert.assertEquals(3, patrolled.getTargetRoute().getLength());
+    Assert.assertEquals(5, patrolled.getTargetStartRoom());
+    Assert.assertEquals(5, patrolled.initialState().getTargetRoom());
+    GameWorld world = patrolled.createWorld();
+    Assert.assertEquals(5, world.getTargetRoomIndex());
+    world.moveTarget();
+    Assert.assertEquals(8, world.getTargetRoomIndex());
+    Assert.assertEquals(5, new PersistentWorld(patrolled, 1L).getTargetRoomAfter(3));
+  }
+
+  /**
+   * Tests that a patrol length that is negative, zero or too large is rejected.
+   */
+  @Test
+  public void testInvalidPatrolLength() throws IOException {
+    String mansion = new String(Files.readAllBytes(Paths.get("res/mansion.txt")),
+        StandardCharsets.UTF_8);
+    for (long length : new long[] {-3, 0, MansionParser.MAX_PATROL_LENGTH + 1L}) {
+      File file = File.createTempFile("patrol", ".txt");
+      file.deleteOnExit();
+      Files.write(file.toPath(), (mansion.trim() + "\n" + length + "\n5\n")
+          .getBytes(StandardCharsets.UTF_8));
+      try {
+        MansionParser.parseTopology(file.getPath());
+        Assert.fail("Patrol length " + length + " was accepted");
+      } catch (IOException e) {
+        Assert.assertEquals("Invalid patrol length value", e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the TurnScheduler class.
+ */
+public class TurnSchedulerTest {
+
+  private TurnScheduler scheduler;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() {
+    scheduler = new TurnScheduler();
+  }
+
+  private List<Integer> take(int count) {
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      order.add(scheduler.next());
+    }
+    return order;
+  }
+
+  /**
+   * Tests that actors with the same interval act in the order they were added.
+   */
+  @Test
+  public void testRoundRobin() {
+    for (int i = 0; i < 3; i++) {
+      scheduler.add(0, 1);
+    }
+    Assert.assertEquals(Arrays.asList(0, 1, 2, 0, 1, 2, 0), take(7));
+    Assert.assertEquals(2, scheduler.getTime());
+  }
+
+  /**
+   * Tests that a faster actor acts more often.
+   */
+  @Test
+  public void testSpeeds() {
+    int slow = scheduler.add(0, 3);
+    int fast = scheduler.add(0, 1);
+    Assert.assertEquals(Arrays.asList(slow, fast, fast, fast, slow, fast), take(6));
+
+    scheduler.setInterval(slow, 1);
+    Assert.assertEquals(1, scheduler.getInterval(slow));
+    Assert.assertEquals(Arrays.asList(fast, fast, slow, fast), take(4));
+  }
+
+  /**
+   * Tests that idle actors are skipped and resume at the current time when woken.
+   */
+  @Test
+  public void testIdle() {
+    int first = scheduler.add(0, 1);
+    int second = scheduler.add(0, 1);
+    int third = scheduler.add(0, 1);
+    scheduler.setIdle(second, true);
+    Assert.assertTrue(scheduler.isIdle(second));
+    Assert.assertEquals(Arrays.asList(first, third, first, third), take(4));
+
+    scheduler.setIdle(second, false);
+    Assert.assertFalse(scheduler.isIdle(second));
+    Assert.assertEquals(1, scheduler.peekTime());
+    Assert.assertEquals(Arrays.asList(second, first, second, third), take(4));
+
+    scheduler.setIdle(first, true);
+    scheduler.setIdle(second, true);
+    scheduler.setIdle(third, true);
+    Assert.assertTrue(scheduler.isEmpty());
+  }
+
+  /**
+   * Tests that the schedule matches a plain simulation of many actors.
+   */
+  @Test
+  public void testMatchesNaiveSchedule() {
+    long[] wake = new long[50];
+    long[] interval = new long[50];
+    for (int i = 0; i < wake.length; i++) {
+      wake[i] = i % 7;
+      interval[i] = 1 + i % 5;
+      scheduler.add(wake[i], interval[i]);
+    }
+    for (int step = 0; step < 2000; step++) {
+      int expected = 0;
+      for (int i = 1; i < wake.length; i++) {
+        if (wake[i] < wake[expected]) {
+          expected = i;
+        }
+      }
+      Assert.assertEquals(expected, scheduler.next());
+      Assert.assertEquals(wake[expected], scheduler.getTime());
+      wake[expected] += interval[expected];
+    }
+  }
+
+  /**
+   * Tests that a scheduler without waiting actors has no next actor.
+   */
+  @Test(expected = NoSuchElementException.class)
+  public void testEmpty() {
+    scheduler.next();
+  }
+
+  /**
+   * Tests that an actor cannot have an interval of zero.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroInterval() {
+    scheduler.add(0, 0);
+  }
+}
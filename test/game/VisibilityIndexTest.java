@@ -0,0 +1,66 @@
+package game;
+
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the VisibilityIndex class.
+ */
+public class VisibilityIndexTest {
+
+  private Igameworld world;
+  private VisibilityIndex visibility;
+
+  /**
+   * Sets up the test environment.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = MansionParser.parseMansion("res/mansion.txt");
+    visibility = new VisibilityIndex(world.getRoomGraph());
+  }
+
+  /**
+   * Tests that every room sees itself and exactly its neighbors.
+   */
+  @Test
+  public void testInSightMatchesNeighbors() {
+    RoomGraph graph = world.getRoomGraph();
+    for (int i = 0; i < graph.size(); i++) {
+      for (int j = 0; j < graph.size(); j++) {
+        Assert.assertEquals(i == j || graph.isNeighbor(i, j), visibility.inSight(i, j));
+      }
+    }
+  }
+
+  /**
+   * Tests that the pet blocks sight into its room from neighbors but not from inside.
+   */
+  @Test
+  public void testPetBlocksSight() {
+    Assert.assertTrue(visibility.canSee(0, 1));
+    visibility.setPetRoom(1);
+    Assert.assertFalse(visibility.canSee(0, 1));
+    Assert.assertTrue(visibility.canSee(1, 1));
+    Assert.assertTrue(visibility.canSee(1, 0));
+    visibility.setPetRoom(4);
+    Assert.assertTrue(visibility.canSee(0, 1));
+    Assert.assertEquals(4, visibility.getPetRoom());
+  }
+
+  /**
+   * Tests that the world keeps the pet's block in step when the pet is moved directly.
+   */
+  @Test
+  public void testWorldFollowsPet() {
+    long armory = world.getRoomByIndex(0).getPackedCoordinates();
+    long billiardRoom = world.getRoomByIndex(1).getPackedCoordinates();
+    world.getPet().move(world.getRoomByIndex(1).getCoordinates());
+    Assert.assertFalse(world.isVisible(armory, billiardRoom));
+    world.getPet().move(world.getRoomByIndex(20).getCoordinates());
+    Assert.assertTrue(world.isVisible(armory, billiardRoom));
+    Assert.assertEquals(20, world.getVisibility().getPetRoom());
+  }
+}